@@ -0,0 +1,17 @@
+#!/bin/bash
+# Runs after world.sql and init-permissions.sql on a shard container.
+# Keeps only the continents listed in SHARD_CONTINENTS (comma-separated, e.g. "Asia,Oceania");
+# the other rows live on other shards. With SHARD_CONTINENTS unset every row is kept.
+# The MySQL entrypoint may source this file, so it must not call exit or set -e.
+
+if [ -n "$SHARD_CONTINENTS" ]; then
+  continents=$(echo "$SHARD_CONTINENTS" | sed "s/[[:space:]]*,[[:space:]]*/','/g")
+  echo "Keeping continents: $SHARD_CONTINENTS"
+  mysql --protocol=socket -uroot -p"$MYSQL_ROOT_PASSWORD" world <<SQL
+DELETE cl FROM countrylanguage cl JOIN country co ON co.Code = cl.CountryCode WHERE co.Continent NOT IN ('$continents');
+DELETE ci FROM city ci JOIN country co ON co.Code = ci.CountryCode WHERE co.Continent NOT IN ('$continents');
+DELETE FROM country WHERE Continent NOT IN ('$continents');
+SQL
+else
+  echo "SHARD_CONTINENTS not set, keeping every continent"
+fi
@@ -11,13 +11,17 @@ case "$1" in
   run)
     docker-compose -f ../docker-compose.yml up
     ;;
+  run-shards)
+    docker-compose -f ../docker-compose.yml -f ../docker-compose.shards.yml up
+    ;;
   stop)
-    docker-compose -f ../docker-compose.yml down
+    docker-compose -f ../docker-compose.yml -f ../docker-compose.shards.yml down
     ;;
   *)
     echo "Available commands:"
     echo "  build - Build JAR and Docker image"
     echo "  run   - Start application and database" 
+    echo "  run-shards - Start application with continent-sharded databases"
     echo "  stop  - Stop all containers"
     ;;
 esac
@@ -1,14 +1,29 @@
 package com.napier.sem;
 
-import java.sql.Connection;
+import com.napier.sem.args.ArgumentTokenizer;
+import com.napier.sem.data.DataVersionService;
+import com.napier.sem.data.SummaryTableService;
+import com.napier.sem.data.WorldData;
+import com.napier.sem.data.WorldSnapshot;
+import com.napier.sem.resilience.ResilientCommandExecutor;
+import com.napier.sem.utils.OutputCapture;
+import com.napier.sem.utils.TableFormatter;
+import com.napier.sem.workload.WorkloadRecorder;
+import com.napier.sem.workload.WorkloadReplayer;
+
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.stream.Stream;
 
 /**
  * Main application class for SEM Methods project
- * Includes database connectivity testing and command interface
+ * Includes database connectivity testing and command interface.
+ * Run with "replay &lt;file&gt; [speed] [concurrency]" to replay a workload captured with
+ * WORKLOAD_CAPTURE instead of starting the prompt.
  */
 public class App {
     
@@ -18,22 +33,83 @@ public class App {
         
         // Initialize command registry
         CommandRegistry.initializeCommands();
+
+        // Load the in-memory world data used for name resolution, then keep it in step with the database
+        loadWorldData();
+
+        // Build the summary tables read by the population commands and keep them refreshed
+        loadSummaryTables();
         
-        System.out.println("Starting command interface...");
-        runCommandInterface();
+        if (args.length > 0 && "replay".equalsIgnoreCase(args[0].trim())) {
+            runReplay(args);
+        } else {
+            System.out.println("Starting command interface...");
+            runCommandInterface();
+        }
 
         // Gracefully close database connections
+        DataVersionService.getDefault().stop();
+        SummaryTableService.getDefault().stop();
+        ResilientCommandExecutor.getDefault().shutdown();
         DatabaseConfig.closeDataSource();
         System.out.println("Application completed successfully!");
     }
     
     /**
-     * Run the command interface
+     * Load the in-memory copy of the world tables and start watching for data changes.
+     * If the database is unavailable now, the snapshot is loaded on the first successful
+     * data version check and commands query by name until then.
+     */
+    private static void loadWorldData() {
+        DataVersionService versionService = DataVersionService.getDefault();
+        try {
+            long version = versionService.checkNow();
+            WorldSnapshot snapshot = WorldData.refresh(DatabaseConfig::getConnection, version);
+            System.out.println("  World data loaded: " + snapshot.getCountries().size() + " countries, "
+                    + snapshot.getCities().size() + " cities");
+        } catch (SQLException e) {
+            System.out.println("  World data not loaded yet: " + e.getMessage());
+        }
+        WorldData.enableAutoRefresh(versionService, DatabaseConfig::getConnection);
+        // Prefetched results were read from the previous version
+        versionService.subscribe(ResilientCommandExecutor.getDefault().getPrefetcher());
+        versionService.start();
+    }
+
+    /**
+     * Create and fill the summary tables, then rebuild them on a schedule and whenever the
+     * data version changes. If the first build fails, commands read the base tables until
+     * a later refresh succeeds.
+     */
+    private static void loadSummaryTables() {
+        if (DatabaseConfig.getShardMap() != null) {
+            // Each shard would only total its own continents
+            System.out.println("  Summary tables not used: the data is sharded");
+            return;
+        }
+        DataVersionService versionService = DataVersionService.getDefault();
+        SummaryTableService summaries = SummaryTableService.getDefault();
+        try {
+            List<SummaryTableService.TableRefresh> tables = summaries.refreshNow(versionService.getVersion());
+            System.out.println("  Summary tables built: " + tables.size() + " tables in "
+                    + summaries.getLastRefreshDurationMillis() + " ms");
+        } catch (SQLException e) {
+            System.out.println("  Summary tables not built yet: " + e.getMessage());
+        }
+        versionService.subscribe(summaries);
+        summaries.start();
+    }
+
+    /**
+     * Run the command interface.
+     * Each command borrows a pooled connection through the resilient executor,
+     * so a slow or unavailable database cannot hang the prompt.
      */
     private static void runCommandInterface() {
-        try (Scanner scanner = new Scanner(System.in);
-             Connection connection = DatabaseConfig.getConnection()) {
-            System.out.println("Database connection established for command interface");
+        ResilientCommandExecutor executor = ResilientCommandExecutor.getDefault();
+        WorkloadRecorder recorder = WorkloadRecorder.fromEnvironment();
+
+        try (Scanner scanner = new Scanner(System.in)) {
             System.out.println("Type 'exit' to quit");
             System.out.println();
             
@@ -50,16 +126,31 @@ public class App {
                     break;
                 }
                 
-                String[] commandArgs = input.split("\\s+");
+                String[] commandArgs = ArgumentTokenizer.tokenize(input);
                 String commandName = commandArgs[0].toLowerCase();
                 
                 if (CommandRegistry.hasCommand(commandName)) {
                     ICommand command = CommandRegistry.getCommand(commandName);
+                    long startedMillis = System.currentTimeMillis();
+                    long started = System.nanoTime();
+                    boolean ok = true;
                     try {
-                        command.execute(connection, commandArgs);
+                        if (recorder == null) {
+                            executor.execute(command, commandArgs);
+                        } else {
+                            // Refusals, timeouts and stale answers are printed, not thrown
+                            String output = OutputCapture.capture(() -> executor.execute(command, commandArgs));
+                            System.out.print(output);
+                            ok = ResilientCommandExecutor.Outcome.of(output) == ResilientCommandExecutor.Outcome.OK;
+                        }
                     } catch (Exception e) {
+                        ok = false;
                         System.out.println("Error executing command: " + e.getMessage());
                     }
+                    if (recorder != null) {
+                        recorder.record(ResilientCommandExecutor.LOCAL_CLIENT, commandArgs, startedMillis,
+                                (System.nanoTime() - started) / 1_000_000, ok);
+                    }
                 } else {
                     if ("help".equals(commandName) || "?".equals(commandName)) {
                         printAvailableCommands();
@@ -71,11 +162,75 @@ public class App {
                 
                 System.out.println();
             }
-            
-        } catch (SQLException e) {
-            System.err.println("Database connection failed for command interface!");
-            System.err.println("Error: " + e.getMessage());
+        } finally {
+            closeRecorder(recorder);
+        }
+    }
+
+    private static void closeRecorder(WorkloadRecorder recorder) {
+        if (recorder == null) {
+            return;
+        }
+        try {
+            recorder.close();
+            System.out.println("Captured " + recorder.getRecorded() + " commands");
+        } catch (IOException e) {
+            System.out.println("Workload capture not closed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replay a captured workload through the resilient executor and print its latencies
+     * @param args "replay", the capture file, then optionally the speed (1 for the
+     *             original pace, 0 for as fast as possible) and the number of workers
+     */
+    private static void runReplay(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: replay <file> [speed] [concurrency]");
+            return;
+        }
+        WorkloadReplayer.Result result;
+        try {
+            double speed = args.length > 2 ? Double.parseDouble(args[2].trim()) : 1;
+            int concurrency = args.length > 3 ? Integer.parseInt(args[3].trim()) : 4;
+            List<WorkloadRecorder.Entry> entries = WorkloadRecorder.read(Path.of(args[1].trim()));
+            System.out.println("Replaying " + entries.size() + " commands...");
+            WorkloadReplayer replayer = new WorkloadReplayer(CommandRegistry::getCommand,
+                    ResilientCommandExecutor.getDefault()::execute);
+            result = replayer.replay(entries, speed, concurrency);
+        } catch (NumberFormatException e) {
+            System.out.println("Usage: replay <file> [speed] [concurrency]");
+            return;
+        } catch (IOException e) {
+            System.out.println("Workload not read: " + e.getMessage());
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
         }
+
+        String format = "%-30s %7s %6s %8s %9s %8s %8s %8s %8s %12s%n";
+        String rowFormat = "%-30s %,7d %,6d %,8d %9.1f %,8d %,8d %,8d %,8d %,12d%n";
+        System.out.printf("%n Workload Replay (speed %s, %d workers)%n",
+                result.speed() > 0 ? result.speed() + "x" : "max", result.concurrency());
+        System.out.println(TableFormatter.generateSeparator(format));
+        System.out.printf(format, "Command", "Count", "Failed", "Rejected", "Mean ms", "p50 ms", "p90 ms", "p99 ms",
+                "Max ms", "Captured p50");
+        System.out.println(TableFormatter.generateDashedSeparator(format));
+        for (WorkloadReplayer.Latency latency : result.commands()) {
+            printLatency(rowFormat, latency);
+        }
+        System.out.println(TableFormatter.generateDashedSeparator(format));
+        printLatency(rowFormat, result.overall());
+        System.out.println(TableFormatter.generateSeparator(format));
+        System.out.printf("  Replayed in %,d ms (captured over %,d ms); %d commands skipped as unknown%n",
+                result.wallMillis(), result.capturedMillis(), result.skipped());
+    }
+
+    private static void printLatency(String format, WorkloadReplayer.Latency latency) {
+        System.out.printf(format, latency.command(), latency.count(), latency.failed(), latency.rejected(),
+                latency.meanMillis(), latency.p50Millis(), latency.p90Millis(), latency.p99Millis(),
+                latency.maxMillis(), latency.capturedP50Millis());
     }
     
     /**
@@ -1,11 +1,17 @@
 package com.napier.sem;
 
+import com.napier.sem.args.ArgumentException;
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * Abstract base class for database commands.
- * Provides common implementation for command properties.
+ * Provides common implementation for command properties and binds arguments
+ * to the parameters a command declares.
  */
 public abstract class CommandBase implements ICommand {
     
@@ -18,15 +24,32 @@ public abstract class CommandBase implements ICommand {
      * Description of the command
      */
     protected String description;
+
+    /**
+     * Parameters the command takes, in the order they are typed
+     */
+    protected final List<Parameter> parameters;
+
+    /**
+     * Arguments bound while building a cache key, reused when the same invocation runs
+     * @param args Argument array, compared by identity
+     * @param bound Its binding
+     */
+    private record Binding(String[] args, BoundArguments bound) {
+    }
+
+    private volatile Binding lastBinding;
     
     /**
      * Constructor for CommandBase
      * @param executionCommand The command string to execute this command
      * @param description Description of what the command does
+     * @param parameters Parameters the command takes, if any
      */
-    public CommandBase(String executionCommand, String description) {
+    public CommandBase(String executionCommand, String description, Parameter... parameters) {
         this.executionCommand = executionCommand;
         this.description = description;
+        this.parameters = List.of(parameters);
     }
     
     /**
@@ -47,6 +70,55 @@ public abstract class CommandBase implements ICommand {
         return description;
     }
     
+    /**
+     * Get the usage line built from the declared parameters
+     * @return Usage, e.g. "top-cities-continent <continent> <N>"
+     */
+    public String getUsage() {
+        return Parameter.usage(executionCommand, parameters);
+    }
+
+    /**
+     * Bind arguments to the declared parameters, printing any problem for the user
+     * @param args Command arguments, including the command name at index 0
+     * @return Bound arguments, or null if they were missing or invalid
+     */
+    protected BoundArguments bind(String[] args) {
+        try {
+            Binding cached = lastBinding;
+            BoundArguments bound = cached != null && cached.args() == args ? cached.bound()
+                    : BoundArguments.bind(executionCommand, parameters, args);
+            for (String warning : bound.getWarnings()) {
+                System.out.println("  " + warning);
+            }
+            return bound;
+        } catch (ArgumentException e) {
+            System.out.println("  " + e.getMessage());
+            System.out.println("  Usage: " + getUsage());
+            return null;
+        }
+    }
+
+    /**
+     * Build a normalised cache key for an invocation without printing anything.
+     * The binding is kept, so executing the same argument array does not parse it again.
+     * @param args Command arguments, including the command name at index 0
+     * @return Key, or null if the command declares no parameters or not every argument
+     *         binds as typed, so the caller keys on the raw arguments
+     */
+    public String getCacheKey(String[] args) {
+        if (parameters.isEmpty()) {
+            return null;
+        }
+        try {
+            BoundArguments bound = BoundArguments.bind(executionCommand, parameters, args);
+            lastBinding = new Binding(args, bound);
+            return bound.isComplete() ? bound.cacheKey() : null;
+        } catch (ArgumentException e) {
+            return null;
+        }
+    }
+    
     /**
      * Execute the command with given arguments.
      * Must be implemented by concrete command classes.
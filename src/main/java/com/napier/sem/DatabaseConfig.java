@@ -1,23 +1,75 @@
 package com.napier.sem;
 
+import com.mysql.cj.jdbc.MysqlDataSource;
+import com.napier.sem.pool.PoolSizeController;
+import com.napier.sem.pool.StatementWarmingDataSource;
+import com.napier.sem.reports.ReportEngine;
+import com.napier.sem.scheduling.CostClass;
+import com.napier.sem.shard.ShardMap;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Database configuration and connection management using HikariCP
  */
 public class DatabaseConfig {
     
-    private static HikariDataSource dataSource;
+    /**
+     * Driver settings that keep statements parsed on the server and reuse their handles:
+     * server-side prepares, a per-connection cache of up to 256 statements of up to 4 KB
+     * of SQL, and session state tracked locally so pool resets skip needless round trips
+     */
+    public static final String STATEMENT_CACHE_PROPERTIES = "&useServerPrepStmts=true&cachePrepStmts=true"
+            + "&prepStmtCacheSize=" + StatementWarmingDataSource.CACHED_STATEMENTS
+            + "&prepStmtCacheSqlLimit=" + StatementWarmingDataSource.CACHED_SQL_LIMIT + "&useLocalSessionState=true";
+
+    /**
+     * Connections held outside the command lanes: the data version poller and the summary table refresh
+     */
+    private static final int BACKGROUND_CONNECTIONS = 2;
+
+    /**
+     * Connections the command lanes may hold at once, the default quotas until the executor sets its own
+     */
+    private static volatile int commandConnections =
+            Arrays.stream(CostClass.values()).mapToInt(CostClass::defaultQuota).sum();
+
+    private static volatile HikariDataSource dataSource;
+    private static volatile PoolSizeController poolController;
+    private static volatile ShardMap shardMap;
+    private static final List<HikariDataSource> shardSources = new ArrayList<>();
+
+    private static volatile boolean snapshotReads = !"false".equalsIgnoreCase(System.getenv("SNAPSHOT_READS"));
     
+    /**
+     * Set the connections the command lanes may hold at once, which bounds the pool created on first use
+     * @param connections Sum of the lanes' quotas
+     */
+    public static void setCommandConnections(int connections) {
+        commandConnections = connections;
+    }
+
+    /**
+     * Initialize the database connection pool, sized for the command lanes set with {@link #setCommandConnections}
+     */
+    public static synchronized void initializeDataSource() {
+        initializeDataSource(commandConnections);
+    }
+
     /**
      * Initialize the database connection pool
+     * @param commandConnections Connections the command lanes may hold at once
      */
-    public static void initializeDataSource() {
+    public static synchronized void initializeDataSource(int commandConnections) {
         HikariConfig config = new HikariConfig();
         
         // Database connection properties - can be overridden by environment variables
@@ -28,29 +80,112 @@ public class DatabaseConfig {
         String password = System.getenv("MYSQL_PASSWORD") != null ? System.getenv("MYSQL_PASSWORD") : "devpass";
         
         // JDBC URL
-        String jdbcUrl = String.format("jdbc:mysql://%s:%s/%s?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC", host, port, database);
+        String jdbcUrl = jdbcUrl(host, port, database);
+        config.setDataSource(driverDataSource(jdbcUrl, username, password));
         
-        config.setJdbcUrl(jdbcUrl);
-        config.setUsername(username);
-        config.setPassword(password);
-        config.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        
-        // HikariCP config setup
-        config.setMaximumPoolSize(10);
-        config.setMinimumIdle(2);
+        // Commands hold at most their lanes' quotas at once, so connections beyond those and
+        // the background ones would never be borrowed
+        int maxPoolSize = envInt("POOL_MAX_SIZE", commandConnections + BACKGROUND_CONNECTIONS, 1);
+        int minPoolSize = envInt("POOL_MIN_SIZE", 2, 1);
+        if (minPoolSize > maxPoolSize) {
+            System.err.println("  Pool lower bound " + minPoolSize + " is above POOL_MAX_SIZE, using " + maxPoolSize);
+            minPoolSize = maxPoolSize;
+        }
+        long adjustMillis = envInt("POOL_ADJUST_MS", 5000, 1);
+
+        // HikariCP config setup; the pool starts at 10 and is resized between the bounds below
+        config.setMaximumPoolSize(Math.min(10, maxPoolSize));
+        config.setMinimumIdle(Math.min(2, maxPoolSize));
         config.setConnectionTimeout(30000);
         config.setIdleTimeout(600000);
         config.setMaxLifetime(1800000);
         config.setLeakDetectionThreshold(60000);
+
+        // WITH CONSISTENT SNAPSHOT only takes effect under REPEATABLE READ, so pin it on every connection
+        config.setTransactionIsolation("TRANSACTION_REPEATABLE_READ");
         
         // Connection pool name for monitoring
         config.setPoolName("MySQL-Pool");
         
         dataSource = new HikariDataSource(config);
+
+        // Resize the pool to the workload unless POOL_AUTOSIZE is false
+        if (!"false".equalsIgnoreCase(System.getenv("POOL_AUTOSIZE"))) {
+            poolController = new PoolSizeController(dataSource.getHikariConfigMXBean(), dataSource.getHikariPoolMXBean(),
+                    minPoolSize, maxPoolSize, config.getMinimumIdle(), adjustMillis);
+            poolController.start();
+        }
         
         System.out.println("Database connection pool initialized");
         System.out.println("JDBC URL: " + jdbcUrl);
         System.out.println("Username: " + username);
+
+        // Continents moved to other MySQL instances, e.g. SHARD_MAP=Asia=db-asia:3306,Europe=db-europe:3306
+        String shards = System.getenv("SHARD_MAP");
+        if (shards != null && !shards.isBlank()) {
+            initializeShards(ShardMap.parse(shards), database, username, password);
+        }
+    }
+
+    private static String jdbcUrl(String host, String port, String database) {
+        String jdbcUrl = String.format("jdbc:mysql://%s:%s/%s?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC", host, port, database);
+        if (statementCacheEnabled()) {
+            jdbcUrl += STATEMENT_CACHE_PROPERTIES;
+        }
+        return jdbcUrl;
+    }
+
+    private static boolean statementCacheEnabled() {
+        return !"false".equalsIgnoreCase(System.getenv("PREP_STMT_CACHE"));
+    }
+
+    /**
+     * Physical connections come from the driver through a data source that warms each
+     * new connection with the statements the application prepares most, then with the
+     * report statements generated when the report commands were registered. Without the
+     * statement cache a closed statement is gone, so warming would only cost round trips
+     * and connections come from the driver directly.
+     */
+    private static DataSource driverDataSource(String jdbcUrl, String username, String password) {
+        MysqlDataSource driverSource = new MysqlDataSource();
+        driverSource.setUrl(jdbcUrl);
+        driverSource.setUser(username);
+        driverSource.setPassword(password);
+        if (!statementCacheEnabled()) {
+            return driverSource;
+        }
+        return new StatementWarmingDataSource(driverSource, StatementWarmingDataSource.WARM_UP_STATEMENTS,
+                ReportEngine::getStatements);
+    }
+
+    /**
+     * Create a fixed-size pool for every shard address and install the shard map.
+     * The main pool is the default shard, holding every continent not mapped elsewhere.
+     */
+    private static void initializeShards(Map<String, String> addresses, String database, String username, String password) {
+        Map<String, IConnectionProvider> providers = new LinkedHashMap<>();
+        providers.put(ShardMap.DEFAULT_SHARD, DatabaseConfig::getConnection);
+        for (String address : addresses.values()) {
+            if (providers.containsKey(address)) {
+                continue;
+            }
+            int colon = address.lastIndexOf(':');
+            String host = colon < 0 ? address : address.substring(0, colon);
+            String port = colon < 0 ? "3306" : address.substring(colon + 1);
+
+            HikariConfig config = new HikariConfig();
+            config.setDataSource(driverDataSource(jdbcUrl(host, port, database), username, password));
+            config.setMaximumPoolSize(envInt("SHARD_POOL_SIZE", 5, 1));
+            config.setMinimumIdle(1);
+            config.setConnectionTimeout(30000);
+            config.setTransactionIsolation("TRANSACTION_REPEATABLE_READ");
+            config.setPoolName("MySQL-Shard-" + address);
+            HikariDataSource shardSource = new HikariDataSource(config);
+            shardSources.add(shardSource);
+            providers.put(address, shardSource::getConnection);
+        }
+        shardMap = new ShardMap(addresses, providers);
+        System.out.println("Shards: " + String.join(", ", shardMap.shards()));
     }
     
     /**
@@ -59,16 +194,90 @@ public class DatabaseConfig {
      * @throws SQLException if connection fails
      */
     public static Connection getConnection() throws SQLException {
-        if (dataSource == null) {
-            initializeDataSource();
+        HikariDataSource source = dataSource();
+        long started = System.nanoTime();
+        Connection connection = source.getConnection();
+        PoolSizeController controller = poolController;
+        if (controller != null) {
+            controller.recordWait(System.nanoTime() - started);
+        }
+        return connection;
+    }
+
+    /**
+     * Get the map of continents to MySQL instances
+     * @return Shard map, or null if the data is not sharded
+     */
+    public static ShardMap getShardMap() {
+        return shardMap;
+    }
+
+    /**
+     * Replace the shard map, e.g. to point commands at test shards
+     * @param map New map, or null for an unsharded database
+     */
+    public static void setShardMap(ShardMap map) {
+        shardMap = map;
+    }
+
+    /**
+     * Get the controller resizing the pool
+     * @return Controller, or null if the pool has not been created or auto-sizing is off
+     */
+    public static PoolSizeController getPoolController() {
+        return poolController;
+    }
+
+    /**
+     * Read a whole-number setting, keeping the default if it is not a number or is below the minimum
+     */
+    private static int envInt(String name, int defaultValue, int minimum) {
+        String value = System.getenv(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed >= minimum) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through to the warning
         }
-        return dataSource.getConnection();
+        System.err.println("  Ignoring invalid " + name + ": " + value);
+        return defaultValue;
     }
     
+    /**
+     * Check whether commands that opt in run inside a read-only consistent snapshot.
+     * Enabled unless SNAPSHOT_READS is set to false.
+     * @return True if snapshot reads are enabled
+     */
+    public static boolean isSnapshotReadsEnabled() {
+        return snapshotReads;
+    }
+
+    /**
+     * Enable or disable snapshot reads, e.g. to compare against autocommit
+     * @param enabled Whether opted-in commands run inside a snapshot
+     */
+    public static void setSnapshotReadsEnabled(boolean enabled) {
+        snapshotReads = enabled;
+    }
+
     /**
      * Close the data source when application shuts down
      */
-    public static void closeDataSource() {
+    public static synchronized void closeDataSource() {
+        if (poolController != null) {
+            poolController.stop();
+            poolController = null;
+        }
+        for (HikariDataSource shardSource : shardSources) {
+            shardSource.close();
+        }
+        shardSources.clear();
+        shardMap = null;
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
             System.out.println("Database connection pool closed");
@@ -80,9 +289,23 @@ public class DatabaseConfig {
      * @return HikariDataSource instance
      */
     public static DataSource getDataSource() {
-        if (dataSource == null) {
-            initializeDataSource();
+        return dataSource();
+    }
+
+    /**
+     * Get the pool, creating it on first use. The first commands can arrive on several lane
+     * threads at once, and each unsynchronised check could otherwise build its own pool.
+     */
+    private static HikariDataSource dataSource() {
+        HikariDataSource source = dataSource;
+        if (source == null) {
+            synchronized (DatabaseConfig.class) {
+                if (dataSource == null) {
+                    initializeDataSource();
+                }
+                source = dataSource;
+            }
         }
-        return dataSource;
+        return source;
     }
 }
\ No newline at end of file
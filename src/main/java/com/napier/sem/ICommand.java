@@ -1,5 +1,7 @@
 package com.napier.sem;
 
+import com.napier.sem.scheduling.CostClass;
+
 import java.sql.Connection;
 import java.sql.SQLException;
 
@@ -38,4 +40,62 @@ public interface ICommand {
      * @throws SQLException if database operation fails.
      */
     void execute(Connection connection, String[] args) throws SQLException;
+
+    /**
+     * Whether every query of one execution should read the same consistent snapshot.
+     * Commands that combine the results of several queries override this to return true.
+     * @return True to run inside a {@link ReadOnlySnapshot}
+     */
+    default boolean usesConsistentSnapshot() {
+        return false;
+    }
+
+    /**
+     * Get how expensive the command is, which decides the scheduler lane it runs in.
+     * Classed by name unless overridden.
+     * @return Cost class
+     */
+    default CostClass getCostClass() {
+        return CostClass.classify(getExcecutionCommand());
+    }
+
+    /**
+     * Get how long a caller waits for the command, for commands expected to outlast the
+     * executor's call timeout
+     * @return Timeout in milliseconds, or 0 for the executor's default
+     */
+    default long getTimeoutMillis() {
+        return 0;
+    }
+
+    /**
+     * Whether the command may be run ahead of being asked for, because it only reads the
+     * world data. Commands with side effects or that report on the running application
+     * override this to return false.
+     * @return True if the command may be prefetched
+     */
+    default boolean isPrefetchable() {
+        return true;
+    }
+
+    /**
+     * Whether the command reads the database. Commands that only report on or configure
+     * the running application override this to return false; they run at once on the
+     * caller's thread, without a connection, so they still answer while the circuit is open.
+     * @return True if the command needs a database connection
+     */
+    default boolean requiresDatabase() {
+        return true;
+    }
+
+    /**
+     * Whether the command answers for the whole world when the data is sharded by continent,
+     * by querying the shards it needs or reading the snapshot loaded from all of them.
+     * Commands that would read only the default database are refused while SHARD_MAP is
+     * set, rather than answering with part of the world.
+     * @return True if the command is correct on sharded data
+     */
+    default boolean isShardAware() {
+        return false;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.napier.sem;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Interface for anything that hands out database connections.
+ * The default implementation borrows from the HikariCP pool in {@link DatabaseConfig}.
+ */
+@FunctionalInterface
+public interface IConnectionProvider {
+
+    /**
+     * Get a connection. The caller is responsible for closing it.
+     * @return Database connection
+     * @throws SQLException if no connection can be obtained
+     */
+    Connection getConnection() throws SQLException;
+}
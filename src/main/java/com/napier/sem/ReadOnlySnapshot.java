@@ -0,0 +1,116 @@
+package com.napier.sem;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-only transaction that gives every query run inside it the same consistent view
+ * of the data. A command that runs several queries in autocommit mode can compute one
+ * figure from one data state and the next from another; inside a scope they all read
+ * the snapshot taken when it began, and InnoDB skips the per-statement transaction setup
+ * and undo bookkeeping it does for autocommit reads. Commands opt in with
+ * {@link ICommand#usesConsistentSnapshot()}; the cost of opening and closing each
+ * scope is counted so it can be compared with running in autocommit mode.
+ */
+public class ReadOnlySnapshot implements AutoCloseable {
+
+    /**
+     * Statement opening the scope
+     */
+    public static final String BEGIN_SQL = "START TRANSACTION READ ONLY WITH CONSISTENT SNAPSHOT";
+
+    private static final AtomicLong scopes = new AtomicLong();
+    private static final AtomicLong failures = new AtomicLong();
+    private static final AtomicLong overheadNanos = new AtomicLong();
+
+    private final Connection connection;
+    private boolean closed;
+
+    private ReadOnlySnapshot(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Open a read-only consistent snapshot on a connection
+     * @param connection Connection to run the scope's queries on
+     * @return Scope to close when the queries are done
+     * @throws SQLException if the transaction cannot be started
+     */
+    public static ReadOnlySnapshot begin(Connection connection) throws SQLException {
+        long started = System.nanoTime();
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(BEGIN_SQL);
+        } catch (SQLException e) {
+            failures.incrementAndGet();
+            throw e;
+        }
+        overheadNanos.addAndGet(System.nanoTime() - started);
+        scopes.incrementAndGet();
+        return new ReadOnlySnapshot(connection);
+    }
+
+    /**
+     * Run a command inside a snapshot if it opts in and DatabaseConfig enables snapshot reads,
+     * otherwise in autocommit mode
+     * @param command Command to run
+     * @param connection Database connection
+     * @param args Command arguments, including the command name at index 0
+     * @throws SQLException if the command or the scope fails
+     */
+    public static void execute(ICommand command, Connection connection, String[] args) throws SQLException {
+        if (connection != null && command.usesConsistentSnapshot() && DatabaseConfig.isSnapshotReadsEnabled()) {
+            try (ReadOnlySnapshot ignored = begin(connection)) {
+                command.execute(connection, args);
+            }
+        } else {
+            command.execute(connection, args);
+        }
+    }
+
+    /**
+     * End the transaction. Nothing was written, so committing only releases the read view.
+     * @throws SQLException if the transaction cannot be ended
+     */
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        long started = System.nanoTime();
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("COMMIT");
+        } catch (SQLException e) {
+            failures.incrementAndGet();
+            throw e;
+        }
+        overheadNanos.addAndGet(System.nanoTime() - started);
+    }
+
+    /**
+     * Get the number of scopes opened
+     * @return Scope count
+     */
+    public static long getScopes() {
+        return scopes.get();
+    }
+
+    /**
+     * Get the number of scopes that failed to open or close
+     * @return Failure count
+     */
+    public static long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Get the mean time spent opening and closing a scope, the cost a command pays over autocommit
+     * @return Mean overhead in microseconds, 0 before the first scope
+     */
+    public static double getAverageOverheadMicros() {
+        long count = scopes.get();
+        return count == 0 ? 0 : overheadNanos.get() / 1000.0 / count;
+    }
+}
@@ -0,0 +1,15 @@
+package com.napier.sem.args;
+
+/**
+ * Thrown when command arguments are missing or cannot be bound to their parameters
+ */
+public class ArgumentException extends IllegalArgumentException {
+
+    /**
+     * Constructor for ArgumentException
+     * @param message Message shown to the user
+     */
+    public ArgumentException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,60 @@
+package com.napier.sem.args;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a command line into arguments.
+ * Arguments are separated by whitespace; double or single quotes at the start of an
+ * argument group words ("United Kingdom", 'Eastern Asia'), and inside them a backslash
+ * escapes a quote or another backslash ("say \"hi\""). Everywhere else a backslash is
+ * kept as-is, so paths such as @C:\data\cities.txt need no doubling. A quote inside a
+ * word is kept as-is too, so names such as Côte d'Ivoire can be typed without quoting.
+ */
+public class ArgumentTokenizer {
+
+    /**
+     * Split a command line into arguments
+     * @param line Line as typed
+     * @return Arguments, the command name first; empty if the line is blank
+     */
+    public static String[] tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inToken = false;
+        char quote = 0;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (quote != 0 && c == '\\' && i + 1 < line.length()
+                    && (line.charAt(i + 1) == quote || line.charAt(i + 1) == '\\')) {
+                current.append(line.charAt(++i));
+            } else if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                } else {
+                    current.append(c);
+                }
+            } else if (Character.isWhitespace(c)) {
+                if (inToken) {
+                    tokens.add(current.toString());
+                    current.setLength(0);
+                    inToken = false;
+                }
+            } else if ((c == '"' || c == '\'') && !inToken) {
+                quote = c;
+                inToken = true;
+            } else {
+                current.append(c);
+                inToken = true;
+            }
+        }
+
+        // An unterminated quote runs to the end of the line
+        if (inToken) {
+            tokens.add(current.toString());
+        }
+        return tokens.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,180 @@
+package com.napier.sem.args;
+
+import com.napier.sem.data.NameResolver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Command arguments bound to their declared {@link Parameter}s.
+ * Binding parses and validates every argument once: text values are trimmed, joined
+ * and interned, counts are parsed with their defaults applied. The bound values also
+ * give a normalised cache key, so "top-cities" and "top-cities 5" or "Asia" and "asia"
+ * are recognised as the same request.
+ */
+public class BoundArguments {
+
+    private static final Pattern INTEGER = Pattern.compile("[+-]?\\d+");
+
+    private final String command;
+    private final List<Parameter> parameters;
+    private final Map<String, Object> values = new HashMap<>();
+    private final List<String> warnings = new ArrayList<>();
+    private int unbound;
+
+    private BoundArguments(String command, List<Parameter> parameters) {
+        this.command = command;
+        this.parameters = parameters;
+    }
+
+    /**
+     * Bind arguments to parameters.
+     * Counts after a text parameter are taken from the end of the line; an optional count
+     * is only taken when the last word is a number, otherwise it is part of the text.
+     * @param command Execution command
+     * @param parameters Declared parameters, at most one of them text
+     * @param args Arguments, including the command name at index 0
+     * @return Bound arguments; invalid optional counts fall back to their default with a warning
+     * @throws ArgumentException if a required argument is missing or invalid
+     */
+    public static BoundArguments bind(String command, List<Parameter> parameters, String[] args) {
+        BoundArguments bound = new BoundArguments(command, parameters);
+        int start = Math.min(1, args.length);
+        int end = args.length;
+
+        List<String> required = new ArrayList<>();
+        for (Parameter parameter : parameters) {
+            if (parameter.isRequired()) {
+                required.add(parameter.label());
+            }
+        }
+        if (end - start < required.size()) {
+            throw new ArgumentException("Please provide a " + String.join(" and ", required) + ".");
+        }
+
+        int textIndex = -1;
+        for (int i = 0; i < parameters.size(); i++) {
+            if (parameters.get(i).type() == Parameter.Type.TEXT) {
+                textIndex = i;
+            }
+        }
+
+        // Counts after the text parameter bind from the end of the line
+        for (int i = parameters.size() - 1; i > textIndex; i--) {
+            Parameter parameter = parameters.get(i);
+            int reserved = textIndex >= 0 ? 1 : 0;
+            boolean present = end - start > reserved
+                    && (parameter.isRequired() || textIndex < 0 || INTEGER.matcher(args[end - 1].trim()).matches());
+            if (present) {
+                bound.bindCount(parameter, args[--end]);
+            } else {
+                bound.values.put(parameter.name(), parameter.defaultValue());
+            }
+        }
+
+        // Counts before the text parameter bind from the start
+        for (int i = 0; i < textIndex; i++) {
+            Parameter parameter = parameters.get(i);
+            if (start < end) {
+                bound.bindCount(parameter, args[start++]);
+            } else {
+                bound.values.put(parameter.name(), parameter.defaultValue());
+            }
+        }
+
+        if (textIndex >= 0) {
+            Parameter parameter = parameters.get(textIndex);
+            StringBuilder text = new StringBuilder();
+            for (int i = start; i < end; i++) {
+                String word = args[i].trim();
+                if (!word.isEmpty()) {
+                    text.append(text.length() > 0 ? " " : "").append(word);
+                }
+            }
+            if (text.length() == 0) {
+                String label = parameter.label();
+                throw new ArgumentException("Invalid input. " + Character.toUpperCase(label.charAt(0))
+                        + label.substring(1) + " cannot be empty.");
+            }
+            bound.values.put(parameter.name(), text.toString().intern());
+        } else {
+            bound.unbound = end - start;
+        }
+        return bound;
+    }
+
+    private void bindCount(Parameter parameter, String arg) {
+        String problem = null;
+        int value = 0;
+        try {
+            value = Integer.parseInt(arg.trim());
+            if (value <= 0) {
+                problem = parameter.label() + " must be greater than zero.";
+            }
+        } catch (NumberFormatException e) {
+            problem = parameter.label() + " must be a valid integer.";
+        }
+
+        if (problem == null) {
+            values.put(parameter.name(), value);
+        } else if (parameter.isRequired()) {
+            throw new ArgumentException("Invalid input. " + problem);
+        } else {
+            warnings.add("Invalid input. " + problem + " Using default value of " + parameter.defaultValue() + ".");
+            values.put(parameter.name(), parameter.defaultValue());
+        }
+    }
+
+    /**
+     * Get a bound text value
+     * @param name Parameter name
+     * @return Trimmed, interned text
+     */
+    public String text(String name) {
+        return (String) values.get(name);
+    }
+
+    /**
+     * Get a bound count
+     * @param name Parameter name
+     * @return Count, or its default if omitted
+     */
+    public int count(String name) {
+        return (Integer) values.get(name);
+    }
+
+    /**
+     * Get the warnings raised while binding, such as an invalid optional count
+     * @return Warnings, empty if none
+     */
+    public List<String> getWarnings() {
+        return Collections.unmodifiableList(warnings);
+    }
+
+    /**
+     * Check whether every argument was bound to a parameter as typed. Arguments beyond the
+     * declared parameters are ignored by binding, and an invalid optional count is replaced
+     * by its default, so neither is reflected in the cache key.
+     * @return True if the cache key identifies the request exactly
+     */
+    public boolean isComplete() {
+        return unbound == 0 && warnings.isEmpty();
+    }
+
+    /**
+     * Build a normalised key identifying this request
+     * @return Command followed by each bound value, text normalised for matching
+     */
+    public String cacheKey() {
+        StringBuilder key = new StringBuilder(command.toLowerCase());
+        for (Parameter parameter : parameters) {
+            Object value = values.get(parameter.name());
+            key.append(' ').append(value instanceof String text ? NameResolver.normalize(text) : value);
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,77 @@
+package com.napier.sem.args;
+
+import java.util.List;
+
+/**
+ * A declared command parameter.
+ * A text parameter is greedy: it takes every word not claimed by the count parameters
+ * that follow it, so multi-word names work with or without quotes. Counts must be
+ * positive integers and may have a default, in which case they are optional.
+ * @param name Parameter name, shown in usage and error messages
+ * @param type Parameter type
+ * @param defaultValue Default for an optional count, or null if the parameter is required
+ */
+public record Parameter(String name, Type type, Integer defaultValue) {
+
+    /**
+     * Parameter types
+     */
+    public enum Type {
+        TEXT,
+        COUNT
+    }
+
+    /**
+     * Declare a required multi-word text parameter, such as a continent or country name
+     * @param name Parameter name
+     * @return Parameter
+     */
+    public static Parameter text(String name) {
+        return new Parameter(name, Type.TEXT, null);
+    }
+
+    /**
+     * Declare a required positive count
+     * @param name Parameter name
+     * @return Parameter
+     */
+    public static Parameter count(String name) {
+        return new Parameter(name, Type.COUNT, null);
+    }
+
+    /**
+     * Declare an optional positive count
+     * @param name Parameter name
+     * @param defaultValue Value used when the count is omitted or invalid
+     * @return Parameter
+     */
+    public static Parameter count(String name, int defaultValue) {
+        return new Parameter(name, Type.COUNT, defaultValue);
+    }
+
+    public boolean isRequired() {
+        return defaultValue == null;
+    }
+
+    /**
+     * Get the name used in messages, e.g. "continent name" or "N"
+     * @return Label
+     */
+    public String label() {
+        return type == Type.TEXT ? name + " name" : name;
+    }
+
+    /**
+     * Build the usage line for a command
+     * @param command Execution command
+     * @param parameters Declared parameters
+     * @return Usage, e.g. "top-cities-continent <continent> <N>"
+     */
+    public static String usage(String command, List<Parameter> parameters) {
+        StringBuilder usage = new StringBuilder(command);
+        for (Parameter parameter : parameters) {
+            usage.append(parameter.isRequired() ? " <" + parameter.name() + ">" : " [" + parameter.name() + "]");
+        }
+        return usage.toString();
+    }
+}
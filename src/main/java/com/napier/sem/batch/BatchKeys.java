@@ -0,0 +1,62 @@
+package com.napier.sem.batch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the keys for a batch lookup.
+ * Keys are either given inline, separated by commas so multi-word names need no quotes
+ * ("London, New York, Rio de Janeiro"), or read one per line from a file named with a
+ * leading @ ("@names.txt"). Blank lines and lines starting with # are skipped.
+ */
+public class BatchKeys {
+
+    private BatchKeys() {
+    }
+
+    /**
+     * Parse the keys from command arguments
+     * @param args Command arguments, including the command name at index 0
+     * @return Keys in input order, duplicates kept
+     * @throws IOException if a key file cannot be read
+     */
+    public static List<String> parse(String[] args) throws IOException {
+        if (args.length == 2 && args[1].trim().startsWith("@")) {
+            return read(Path.of(args[1].trim().substring(1)));
+        }
+
+        String joined = String.join(" ", Arrays.copyOfRange(args, Math.min(1, args.length), args.length));
+        List<String> keys = new ArrayList<>();
+        for (String key : joined.split(",")) {
+            add(keys, key);
+        }
+        return keys;
+    }
+
+    /**
+     * Read keys from a file, one per line
+     * @param file Key file
+     * @return Keys in file order
+     * @throws IOException if the file cannot be read
+     */
+    public static List<String> read(Path file) throws IOException {
+        List<String> keys = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            if (!line.trim().startsWith("#")) {
+                add(keys, line);
+            }
+        }
+        return keys;
+    }
+
+    private static void add(List<String> keys, String key) {
+        String trimmed = key.trim().replaceAll("\\s+", " ");
+        if (!trimmed.isEmpty()) {
+            keys.add(trimmed);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.napier.sem.batch;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.data.NameResolver;
+import com.napier.sem.shard.ScatterGather;
+import com.napier.sem.utils.TableFormatter;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base class for commands that look up many keys in one call.
+ * Keys are de-duplicated by normalised name and resolved either against the
+ * in-memory name resolver or in chunked IN-list queries of {@link #CHUNK_SIZE}
+ * keys, so thousands of names cost a handful of round trips instead of one each.
+ * Results are printed in input order with an explicit NOT FOUND marker, followed
+ * by the throughput of the whole batch.
+ */
+public abstract class BatchLookupCommandBase extends CommandBase {
+
+    /**
+     * Largest number of keys sent in one IN list
+     */
+    public static final int CHUNK_SIZE = 500;
+
+    private static final String NOT_FOUND = "NOT FOUND";
+
+    private final String usage;
+
+    /**
+     * Constructor for BatchLookupCommandBase
+     * @param executionCommand The command string to execute this command
+     * @param description Description of what the command does
+     * @param usage Usage line printed when no keys are given
+     */
+    protected BatchLookupCommandBase(String executionCommand, String description, String usage) {
+        super(executionCommand, description);
+        this.usage = usage;
+    }
+
+    /**
+     * Batches are keyed on the raw arguments
+     * @param args Command arguments
+     * @return Null, so the executor keys on the lower-cased arguments
+     */
+    @Override
+    public String getCacheKey(String[] args) {
+        return null;
+    }
+
+    /**
+     * Get the header format; the first column is the key as typed
+     * @return printf format for the header
+     */
+    protected abstract String headerFormat();
+
+    /**
+     * Get the column labels, including the key column
+     * @return Labels in header order
+     */
+    protected abstract Object[] headers();
+
+    /**
+     * Print a found row
+     * @param key Key as typed
+     * @param values Values stored for the key
+     */
+    protected abstract void printRow(String key, Object[] values);
+
+    /**
+     * Look keys up in the in-memory world data
+     * @param resolver Resolver for the current snapshot
+     * @param keys Distinct normalised keys
+     * @return Values by normalised key; missing keys were not found
+     */
+    protected abstract Map<String, Object[]> lookupInMemory(NameResolver resolver, List<String> keys);
+
+    /**
+     * Get the statement for one chunk. The placeholders may be used for more than one
+     * IN list; every list is bound to the chunk's keys in the same order.
+     * @param placeholders Comma-separated placeholders for the IN list
+     * @return SQL
+     */
+    protected abstract String chunkSql(String placeholders);
+
+    /**
+     * Read one row of a chunk result into the values map
+     * @param rs Result set positioned on a row
+     * @param values Values by normalised key
+     * @throws SQLException if a column cannot be read
+     */
+    protected abstract void readRow(ResultSet rs, Map<String, Object[]> values) throws SQLException;
+
+    /**
+     * Combine the values two shards found for the same key. The default keeps the
+     * first, which suits keys that live on a single shard.
+     * @param first Values from the earlier shard
+     * @param second Values from the later shard
+     * @return Values to keep
+     */
+    protected Object[] combine(Object[] first, Object[] second) {
+        return first;
+    }
+
+    /**
+     * Parses the keys, looks them all up and prints one combined result.
+     *
+     * @param connection Database connection
+     * @param args Command arguments
+     * @throws SQLException if a chunk query fails
+     */
+    @Override
+    public void execute(Connection connection, String[] args) throws SQLException {
+        List<String> keys;
+        try {
+            keys = BatchKeys.parse(args);
+        } catch (IOException e) {
+            System.out.println("  Could not read key file: " + e.getMessage());
+            return;
+        }
+        if (keys.isEmpty()) {
+            System.out.println("  Please provide at least one key.");
+            System.out.println("  Usage: " + usage);
+            return;
+        }
+
+        long started = System.nanoTime();
+        Map<String, String> distinct = new LinkedHashMap<>();
+        for (String key : keys) {
+            distinct.putIfAbsent(NameResolver.normalize(key), key);
+        }
+        List<String> normalized = new ArrayList<>(distinct.keySet());
+
+        Map<String, Object[]> values;
+        String source;
+        NameResolver resolver = NameResolver.current();
+        if (resolver != null) {
+            values = lookupInMemory(resolver, normalized);
+            source = "in-memory index";
+        } else {
+            List<String> raw = new ArrayList<>(distinct.values());
+            Map<String, Object[]> merged = new HashMap<>();
+            for (Map<String, Object[]> shard : ScatterGather.acrossShards(connection, db -> lookupInChunks(db, raw))) {
+                shard.forEach((key, row) -> merged.merge(key, row, this::combine));
+            }
+            values = merged;
+            int chunks = (normalized.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            source = chunks + (chunks == 1 ? " query" : " queries");
+        }
+        long elapsedNanos = System.nanoTime() - started;
+
+        String format = headerFormat();
+        System.out.println("\n Batch " + executionCommand.replace("-batch", "") + " lookup");
+        System.out.println(TableFormatter.generateSeparator(format));
+        System.out.printf(format, headers());
+        System.out.println(TableFormatter.generateDashedSeparator(format));
+        int found = 0;
+        for (String key : keys) {
+            Object[] row = values.get(NameResolver.normalize(key));
+            if (row == null) {
+                System.out.printf("%-30s %s%n", key, NOT_FOUND);
+            } else {
+                printRow(key, row);
+                found++;
+            }
+        }
+        System.out.println(TableFormatter.generateSeparator(format));
+
+        double seconds = Math.max(elapsedNanos, 1) / 1_000_000_000.0;
+        System.out.printf("  %d keys (%d distinct): %d found, %d not found in %d ms via %s (%,.0f keys/s)%n%n",
+                keys.size(), normalized.size(), found, keys.size() - found, elapsedNanos / 1_000_000, source,
+                keys.size() / seconds);
+    }
+
+    /**
+     * Sharded data is supported: the snapshot holds every shard, and the chunked
+     * queries run on each shard with the rows combined per key
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
+
+    private Map<String, Object[]> lookupInChunks(Connection connection, List<String> keys) throws SQLException {
+        Map<String, Object[]> values = new HashMap<>();
+        for (int from = 0; from < keys.size(); from += CHUNK_SIZE) {
+            List<String> chunk = keys.subList(from, Math.min(from + CHUNK_SIZE, keys.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            String sql = chunkSql(placeholders);
+            long parameters = sql.chars().filter(c -> c == '?').count();
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                for (int i = 0; i < parameters; i++) {
+                    stmt.setString(i + 1, chunk.get(i % chunk.size()));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        readRow(rs, values);
+                    }
+                }
+            } catch (SQLException e) {
+                System.out.println("  Database query failed: " + e.getMessage());
+                throw e;
+            }
+        }
+        return values;
+    }
+}
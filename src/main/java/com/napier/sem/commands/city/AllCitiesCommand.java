@@ -1,74 +1,18 @@
 package com.napier.sem.commands.city;
 
-import com.napier.sem.CommandBase;
-import com.napier.sem.utils.TableFormatter;
-
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
+import com.napier.sem.reports.ReportCommandBase;
+import com.napier.sem.reports.ReportSpec;
 
 /**
  * Command to retrieve all cities in the world sorted by population.
  * User Story: As a Data Analyst, I want to view all cities in the world 
  * sorted by largest population to smallest so that I can understand global urban population distribution.
  */
-public class AllCitiesCommand extends CommandBase {
+public class AllCitiesCommand extends ReportCommandBase {
 
     public AllCitiesCommand() {
-        super("all-cities", "Display all cities in the world sorted by population (usage: all-cities)");
-    }
-
-    /**
-     * Retrieves and displays all cities in the world sorted by population (largest to smallest).
-     * 
-     * @param connection Database connection
-     * @param args Command arguments (no additional arguments required)
-     * @throws SQLException if database operation fails
-     */
-    @Override
-    public void execute(Connection connection, String[] args) throws SQLException {
-        // ---- SQL Query to retrieve all cities ----
-        String sql = "SELECT " +
-                "city.Name AS CityName, " +
-                "country.Name AS Country, " +
-                "city.District, " +
-                "city.Population " +
-                "FROM city " +
-                "JOIN country ON city.CountryCode = country.Code " +
-                "ORDER BY city.Population DESC";
-
-        // ---- Execute Query with Error Handling ----
-        try (PreparedStatement stmt = connection.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-            
-            boolean dataFound = false;
-            
-            String headerFormat = "%-35s %-30s %-20s %15s%n";
-            
-            System.out.println("\nAll Cities in the World (Sorted by Population)");
-            System.out.println(TableFormatter.generateSeparator(headerFormat));
-            System.out.printf(headerFormat, "City", "Country", "District", "Population");
-            System.out.println(TableFormatter.generateDashedSeparator(headerFormat));
-
-            while (rs.next()) {
-                dataFound = true;
-                String cityName = rs.getString("CityName");
-                String country = rs.getString("Country");
-                String district = rs.getString("District");
-                long population = rs.getLong("Population");
-
-                System.out.printf("%-35s %-30s %-20s %,15d%n", cityName, country, district, population);
-            }
-
-            if (!dataFound) {
-                System.out.println("  No cities found in the database.");
-            }
-            
-            System.out.println(TableFormatter.generateSeparator(headerFormat) + "\n");
-        } catch (SQLException e) {
-            System.out.println("  Database query failed: " + e.getMessage());
-            throw e;
-        }
+        super("all-cities",
+                "Display all cities in the world sorted by population (usage: all-cities)",
+                new ReportSpec(ReportSpec.Entity.CITY, ReportSpec.Scope.WORLD, ReportSpec.Metric.POPULATION, false));
     }
 }
@@ -0,0 +1,82 @@
+package com.napier.sem.commands.city;
+
+import com.napier.sem.batch.BatchLookupCommandBase;
+import com.napier.sem.data.NameResolver;
+import com.napier.sem.data.WorldSnapshot;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Command to look up the population of many cities in one call.
+ * Where several cities share a name, the most populous one is reported, as city-pop does.
+ * Usage: city-pop-batch <city>, <city>, ... | @file
+ */
+public class CityPopulationBatchCommand extends BatchLookupCommandBase {
+
+    public CityPopulationBatchCommand() {
+        super("city-pop-batch",
+                "Display the population of many cities at once (usage: city-pop-batch <city>, <city>, ... | @file)",
+                "city-pop-batch <city>, <city>, ... | @file");
+    }
+
+    @Override
+    protected String headerFormat() {
+        return "%-30s %-35s %-30s %15s%n";
+    }
+
+    @Override
+    protected Object[] headers() {
+        return new Object[]{"Input", "City", "Country", "Population"};
+    }
+
+    @Override
+    protected void printRow(String key, Object[] values) {
+        System.out.printf("%-30s %-35s %-30s %,15d%n", key, values[0], values[1], values[2]);
+    }
+
+    @Override
+    protected Map<String, Object[]> lookupInMemory(NameResolver resolver, List<String> keys) {
+        WorldSnapshot snapshot = resolver.getSnapshot();
+        Map<String, Object[]> values = new HashMap<>();
+        for (String key : keys) {
+            Optional<Integer> id = resolver.resolveCityId(key);
+            if (id.isPresent()) {
+                WorldSnapshot.City city = snapshot.getCity(id.get());
+                WorldSnapshot.Country country = snapshot.getCountry(city.countryCode());
+                values.put(key, new Object[]{city.name(), country == null ? city.countryCode() : country.name(),
+                        city.population()});
+            }
+        }
+        return values;
+    }
+
+    @Override
+    protected String chunkSql(String placeholders) {
+        return "SELECT ci.Name AS CityName, co.Name AS CountryName, ci.Population "
+                + "FROM city ci JOIN country co ON ci.CountryCode = co.Code "
+                + "WHERE ci.Name IN (" + placeholders + ")";
+    }
+
+    @Override
+    protected void readRow(ResultSet rs, Map<String, Object[]> values) throws SQLException {
+        String name = rs.getString("CityName");
+        long population = rs.getLong("Population");
+        Object[] current = values.get(NameResolver.normalize(name));
+        if (current == null || (long) current[2] < population) {
+            values.put(NameResolver.normalize(name), new Object[]{name, rs.getString("CountryName"), population});
+        }
+    }
+
+    /**
+     * Keep the most populous of the same-named cities, as within one database
+     */
+    @Override
+    protected Object[] combine(Object[] first, Object[] second) {
+        return (long) first[2] >= (long) second[2] ? first : second;
+    }
+}
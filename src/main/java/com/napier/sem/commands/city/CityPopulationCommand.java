@@ -1,11 +1,19 @@
 package com.napier.sem.commands.city;
 
 import com.napier.sem.CommandBase;
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+import com.napier.sem.data.NameResolver;
+import com.napier.sem.data.NameSearchIndex;
+import com.napier.sem.data.SummaryTableService;
+import com.napier.sem.scheduling.CostClass;
+import com.napier.sem.shard.ScatterGather;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Optional;
 
 /**
  * TEAM-Jǔjù Feature Command
@@ -20,7 +28,16 @@ import java.sql.SQLException;
 public class CityPopulationCommand extends CommandBase {
 
     public CityPopulationCommand() {
-        super("city-pop", "Display the population of a specific city (usage: city-pop <city_name>)");
+        super("city-pop", "Display the population of a specific city (usage: city-pop <city_name>)", Parameter.text("city"));
+    }
+
+    /**
+     * One city by key, despite the -pop suffix shared with the aggregate reports
+     * @return POINT_LOOKUP
+     */
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.POINT_LOOKUP;
     }
 
     /**
@@ -30,16 +47,31 @@ public class CityPopulationCommand extends CommandBase {
     public void execute(Connection connection, String[] args) throws SQLException {
 
         // ---- Input Validation ----
-        if (args.length < 2) {
-            System.out.println("  Please provide a city name. Usage: citypop <city_name>");
+        BoundArguments bound = bind(args);
+        if (bound == null) {
             return;
         }
-
-        String cityName = args[1].trim();
-
-        if (cityName.isEmpty()) {
-            System.out.println(" Invalid input. City name cannot be empty.");
-            return;
+        String cityName = bound.text("city");
+
+        // ---- Name Resolution ----
+        // Resolve the name to a city ID so the query uses the primary key instead of scanning city.Name
+        String filter = "ci.Name = ?";
+        NameResolver resolver = NameResolver.current();
+        Integer cityId = null;
+        if (resolver != null) {
+            Optional<Integer> id = resolver.resolveCityId(cityName);
+            if (id.isEmpty()) {
+                // Fall back to the closest spelling, or suggest some
+                NameSearchIndex index = NameSearchIndex.current();
+                id = index.autoResolve(cityName, NameResolver.Kind.CITY).map(match -> Integer.valueOf(match.key()));
+                if (id.isEmpty()) {
+                    System.out.println("No city found with the name: " + cityName);
+                    index.printSuggestions(cityName, NameResolver.Kind.CITY);
+                    return;
+                }
+            }
+            filter = "ci.ID = ?";
+            cityId = id.get();
         }
 
         // ---- SQL Query ----
@@ -47,56 +79,88 @@ public class CityPopulationCommand extends CommandBase {
         // - City population
         // - Urban population (% share of its country’s city population)
         // - Non-urban population of that country
+        // The urban total is read from the country summary when it is up to date,
+        // instead of re-summing the country's cities on every call
+        String urbanPopulation = SummaryTableService.current() != null
+                ? "(SELECT s.UrbanPopulation FROM " + SummaryTableService.COUNTRY_TABLE + " s WHERE s.Code = co.Code)"
+                : "(SELECT SUM(c2.Population) FROM city c2 WHERE c2.CountryCode = co.Code)";
         String sql = """
                 SELECT
                     ci.Name AS CityName,
                     ci.Population AS CityPopulation,
                     co.Name AS CountryName,
                     co.Population AS CountryPopulation,
-                    (SELECT SUM(c2.Population)
-                     FROM city c2
-                     WHERE c2.CountryCode = co.Code) AS TotalUrbanPopulation
+                    %s AS TotalUrbanPopulation
                 FROM city ci
                 JOIN country co ON ci.CountryCode = co.Code
-                WHERE ci.Name = ?
+                WHERE %s
                 LIMIT 1;
-                """;
+                """.formatted(urbanPopulation, filter);
 
         // ----  Execute Query ----
+        // A city and its country live on the same shard, so the lookup runs on each shard
+        // in turn until one holds the city
+        final Integer id = cityId;
+        CityRow row;
+        try {
+            row = ScatterGather.onShardOf(connection, null, shard -> fetch(shard, sql, id, cityName));
+        } catch (SQLException e) {
+            System.out.println(" Database query failed: " + e.getMessage());
+            throw e;
+        }
+
+        if (row == null) {
+            System.out.println("No city found with the name: " + cityName);
+            return;
+        }
+
+        long nonUrban = row.countryPop() - row.totalUrban();
+
+        // ---- Display Results ----
+        System.out.println("\n Population Report for City: " + row.name());
+        System.out.println("Country: " + row.country());
+        System.out.println("==============================================");
+        System.out.printf("City Population:        %,d%n", row.cityPop());
+        System.out.printf("Country Total Pop:      %,d%n", row.countryPop());
+        System.out.printf("Urban Pop (Country):    %,d%n", row.totalUrban());
+        System.out.printf("Non-Urban Pop:          %,d%n", nonUrban);
+    }
+
+    /**
+     * Fetch the city's row, or null if this database does not hold it
+     */
+    private static CityRow fetch(Connection connection, String sql, Integer cityId, String cityName) throws SQLException {
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, cityName);
+            if (cityId != null) {
+                stmt.setInt(1, cityId);
+            } else {
+                stmt.setString(1, cityName);
+            }
 
             try (ResultSet rs = stmt.executeQuery()) {
-
                 if (!rs.next()) {
-                    System.out.println("No city found with the name: " + cityName);
-                    return;
+                    return null;
                 }
 
-                String name = rs.getString("CityName");
-                String country = rs.getString("CountryName");
-                long cityPop = rs.getLong("CityPopulation");
-                long countryPop = rs.getLong("CountryPopulation");
                 long totalUrban = rs.getLong("TotalUrbanPopulation");
-
                 if (rs.wasNull()) {
                     totalUrban = 0;
                 }
-
-                long nonUrban = countryPop - totalUrban;
-
-                // ---- Display Results ----
-                System.out.println("\n Population Report for City: " + name);
-                System.out.println("Country: " + country);
-                System.out.println("==============================================");
-                System.out.printf("City Population:        %,d%n", cityPop);
-                System.out.printf("Country Total Pop:      %,d%n", countryPop);
-                System.out.printf("Urban Pop (Country):    %,d%n", totalUrban);
-                System.out.printf("Non-Urban Pop:          %,d%n", nonUrban);
+                return new CityRow(rs.getString("CityName"), rs.getString("CountryName"),
+                        rs.getLong("CityPopulation"), rs.getLong("CountryPopulation"), totalUrban);
             }
-        } catch (SQLException e) {
-            System.out.println(" Database query failed: " + e.getMessage());
-            throw e;
         }
     }
+
+    /**
+     * Sharded data is supported: the lookup is tried on every shard
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
+
+    private record CityRow(String name, String country, long cityPop, long countryPop, long totalUrban) {
+    }
 }
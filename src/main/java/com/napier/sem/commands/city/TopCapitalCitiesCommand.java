@@ -1,11 +1,7 @@
 package com.napier.sem.commands.city;
 
-import com.napier.sem.CommandBase;
-
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
+import com.napier.sem.reports.ReportCommandBase;
+import com.napier.sem.reports.ReportSpec;
 
 /**
  * TEAM-Jǔjù Feature Command
@@ -15,72 +11,11 @@ import java.sql.SQLException;
  *
  * Usage: topcapitals <number>
  */
-public class TopCapitalCitiesCommand extends CommandBase {
+public class TopCapitalCitiesCommand extends ReportCommandBase {
 
     public TopCapitalCitiesCommand() {
-        super("top-capitals", "Display the top N populated capital cities in the world (usage: top-capitals <number>)");
-    }
-
-    /**
-     * Retrieves and displays the top N most populated capital cities in the world.
-     */
-    @Override
-    public void execute(Connection connection, String[] args) throws SQLException {
-        // ---- Input Validation ----
-        int limit = 10; // Default value
-
-        if (args.length > 1) {
-            try {
-                limit = Integer.parseInt(args[1]);
-                if (limit <= 0) {
-                    System.out.println("Limit must be a positive number. Defaulting to 10.");
-                    limit = 10;
-                }
-            } catch (NumberFormatException e) {
-                System.out.println("Invalid number format for limit. Defaulting to 10.");
-                limit = 10;
-            }
-        }
-
-        // ---- SQL Query ----
-        String sql = """
-                SELECT city.Name AS Capital, country.Name AS Country, city.Population
-                FROM city
-                JOIN country ON city.ID = country.Capital
-                WHERE city.Population IS NOT NULL
-                ORDER BY city.Population DESC
-                LIMIT ?;
-                """;
-
-        // ---- Execute Query ----
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, limit);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                System.out.println("\nTop " + limit + " Most Populated Capital Cities in the World");
-                System.out.println("===============================================================");
-                System.out.printf("%-5s %-30s %-30s %-15s%n", "No.", "Capital City", "Country", "Population");
-                System.out.println("--------------------------------------------------------------------------");
-
-                int rank = 1;
-                boolean found = false;
-
-                while (rs.next()) {
-                    found = true;
-                    String capital = rs.getString("Capital");
-                    String country = rs.getString("Country");
-                    long population = rs.getLong("Population");
-
-                    System.out.printf("%-5d %-30s %-30s %,d%n", rank++, capital, country, population);
-                }
-
-                if (!found) {
-                    System.out.println("No capital cities found in the database.");
-                }
-            }
-        } catch (SQLException e) {
-            System.out.println("Database query failed: " + e.getMessage());
-            throw e;
-        }
+        super("top-capitals",
+                "Display the top N populated capital cities in the world (usage: top-capitals <number>)",
+                new ReportSpec(ReportSpec.Entity.CAPITAL, ReportSpec.Scope.WORLD, ReportSpec.Metric.POPULATION, true), 10);
     }
 }
@@ -1,12 +1,19 @@
 package com.napier.sem.commands.continent;
 
 import com.napier.sem.CommandBase;
+import com.napier.sem.data.SummaryTableService;
+import com.napier.sem.shard.ScatterGather;
 import com.napier.sem.utils.TableFormatter;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Command to retrieve population details by continent.
@@ -33,59 +40,96 @@ public class PopulationByContinentCommand extends CommandBase {
     @Override
     public void execute(Connection connection, String[] args) throws SQLException {
         // ---- SQL Query to Calculate Population Statistics by Continent ----
-        String sql = "SELECT " +
+        // Read the continent summary when it is up to date. Otherwise the cities are summed
+        // per country first, so each country's population is counted once rather than once per city
+        String sql = SummaryTableService.current() != null
+                ? "SELECT Continent, Population AS TotalPopulation, UrbanPopulation " +
+                "FROM " + SummaryTableService.CONTINENT_TABLE + " " +
+                "ORDER BY TotalPopulation DESC"
+                : "SELECT " +
                 "co.Continent, " +
                 "SUM(co.Population) AS TotalPopulation, " +
-                "SUM(ci.Population) AS UrbanPopulation " +
+                "SUM(ci.UrbanPopulation) AS UrbanPopulation " +
                 "FROM country co " +
-                "LEFT JOIN city ci ON ci.CountryCode = co.Code " +
+                "LEFT JOIN (SELECT CountryCode, SUM(Population) AS UrbanPopulation FROM city GROUP BY CountryCode) ci " +
+                "ON ci.CountryCode = co.Code " +
                 "GROUP BY co.Continent " +
                 "ORDER BY TotalPopulation DESC";
 
         // ---- Execute Query with Error Handling ----
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            try (ResultSet rs = stmt.executeQuery()) {
-                boolean dataFound = false;
-                
-                String headerFormat = "%-20s %15s %15s %15s %12s %12s%n";
-                
-                System.out.println("\n Population Details by Continent");
-                System.out.println(TableFormatter.generateSeparator(headerFormat));
-                System.out.printf(headerFormat, 
-                    "Continent", "Total Pop.", "Urban Pop.", "Rural Pop.", "Urban %", "Rural %");
-                System.out.println(TableFormatter.generateDashedSeparator(headerFormat));
-
-                while (rs.next()) {
-                    dataFound = true;
-                    String continent = rs.getString("Continent");
-                    long totalPopulation = rs.getLong("TotalPopulation");
-                    long urbanPopulation = rs.getLong("UrbanPopulation");
-                    
-                    // Handle null urban population (countries with no cities in database)
-                    if (rs.wasNull()) {
-                        urbanPopulation = 0;
-                    }
-                    
-                    long ruralPopulation = totalPopulation - urbanPopulation;
-                    
-                    // Calculate percentages
-                    double urbanPercent = totalPopulation > 0 ? (urbanPopulation * 100.0 / totalPopulation) : 0.0;
-                    double ruralPercent = totalPopulation > 0 ? (ruralPopulation * 100.0 / totalPopulation) : 0.0;
-
-                    System.out.printf("%-20s %,15d %,15d %,15d %11.2f%% %11.2f%%%n", 
-                        continent, totalPopulation, urbanPopulation, ruralPopulation, 
-                        urbanPercent, ruralPercent);
+        // Each shard reports its own continents; add them up and order them again
+        Map<String, long[]> totals = new LinkedHashMap<>();
+        try {
+            for (Map<String, long[]> shard : ScatterGather.acrossShards(connection, db -> fetch(db, sql))) {
+                for (Map.Entry<String, long[]> entry : shard.entrySet()) {
+                    totals.merge(entry.getKey(), entry.getValue(), (a, b) -> new long[]{a[0] + b[0], a[1] + b[1]});
                 }
-
-                if (!dataFound) {
-                    System.out.println("  No population data found.");
-                }
-                
-                System.out.println(TableFormatter.generateSeparator(headerFormat) + "\n");
             }
         } catch (SQLException e) {
             System.out.println("  Database query failed: " + e.getMessage());
             throw e;
         }
+
+        List<Map.Entry<String, long[]>> rows = new ArrayList<>(totals.entrySet());
+        rows.sort(Comparator.comparingLong((Map.Entry<String, long[]> row) -> row.getValue()[0]).reversed());
+
+        String headerFormat = "%-20s %15s %15s %15s %12s %12s%n";
+
+        System.out.println("\n Population Details by Continent");
+        System.out.println(TableFormatter.generateSeparator(headerFormat));
+        System.out.printf(headerFormat,
+            "Continent", "Total Pop.", "Urban Pop.", "Rural Pop.", "Urban %", "Rural %");
+        System.out.println(TableFormatter.generateDashedSeparator(headerFormat));
+
+        for (Map.Entry<String, long[]> row : rows) {
+            long totalPopulation = row.getValue()[0];
+            long urbanPopulation = row.getValue()[1];
+            long ruralPopulation = totalPopulation - urbanPopulation;
+
+            // Calculate percentages
+            double urbanPercent = totalPopulation > 0 ? (urbanPopulation * 100.0 / totalPopulation) : 0.0;
+            double ruralPercent = totalPopulation > 0 ? (ruralPopulation * 100.0 / totalPopulation) : 0.0;
+
+            System.out.printf("%-20s %,15d %,15d %,15d %11.2f%% %11.2f%%%n",
+                row.getKey(), totalPopulation, urbanPopulation, ruralPopulation,
+                urbanPercent, ruralPercent);
+        }
+
+        if (rows.isEmpty()) {
+            System.out.println("  No population data found.");
+        }
+
+        System.out.println(TableFormatter.generateSeparator(headerFormat) + "\n");
+    }
+
+    /**
+     * Fetch the total and urban population of each continent in this database
+     */
+    private static Map<String, long[]> fetch(Connection connection, String sql) throws SQLException {
+        Map<String, long[]> totals = new LinkedHashMap<>();
+        try (PreparedStatement stmt = connection.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                String continent = rs.getString("Continent");
+                long totalPopulation = rs.getLong("TotalPopulation");
+                long urbanPopulation = rs.getLong("UrbanPopulation");
+
+                // Handle null urban population (countries with no cities in database)
+                if (rs.wasNull()) {
+                    urbanPopulation = 0;
+                }
+                totals.put(continent, new long[]{totalPopulation, urbanPopulation});
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Sharded data is supported: each shard's continents are combined
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
     }
 }
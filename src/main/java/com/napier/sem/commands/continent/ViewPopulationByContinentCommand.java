@@ -1,6 +1,9 @@
 package com.napier.sem.commands.continent;
 
 import com.napier.sem.CommandBase;
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+import com.napier.sem.shard.ScatterGather;
 import com.napier.sem.utils.TableFormatter;
 
 import java.sql.Connection;
@@ -19,7 +22,8 @@ public class ViewPopulationByContinentCommand extends CommandBase {
     public ViewPopulationByContinentCommand() {
         super(
                 "continent-pop",
-                "Display total, urban, and rural population of a continent (usage: continent-pop <continent>)"
+                "Display total, urban, and rural population of a continent (usage: continent-pop <continent>)",
+                Parameter.text("continent")
         );
     }
 
@@ -35,12 +39,11 @@ public class ViewPopulationByContinentCommand extends CommandBase {
         // -------------------------
         // INPUT VALIDATION
         // -------------------------
-        if (args.length < 2 || args[1].trim().isEmpty()) {
-            System.out.println("  Usage: continent-pop <continent>");
+        BoundArguments bound = bind(args);
+        if (bound == null) {
             return;
         }
-
-        String continent = args[1].trim();
+        String continent = bound.text("continent");
 
         // -------------------------
         // SQL QUERY
@@ -54,30 +57,52 @@ public class ViewPopulationByContinentCommand extends CommandBase {
             WHERE country.Continent = ?
         """;
 
+        // A continent's countries and cities all live on one shard
+        long[] totals;
+        try {
+            totals = ScatterGather.onShardOf(connection, continent, shard -> fetch(shard, sql, continent));
+        } catch (SQLException e) {
+            System.out.println("  Database query failed: " + e.getMessage());
+            throw e;
+        }
+
+        if (totals != null) {
+            String format = "%49s%n";
+
+            System.out.println("\nPopulation statistics for continent: " + continent);
+            System.out.println(TableFormatter.generateSeparator(format));
+            System.out.printf("Total population : %,d%n", totals[0]);
+            System.out.printf("Urban population : %,d%n", totals[1]);
+            System.out.printf("Rural population : %,d%n", totals[2]);
+            System.out.println(TableFormatter.generateSeparator(format) + "\n");
+        } else {
+            System.out.println("  No results found for continent: " + continent);
+        }
+    }
+
+    /**
+     * Fetch the total, urban and rural population, or null if there is no result row
+     */
+    private static long[] fetch(Connection connection, String sql, String continent) throws SQLException {
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setString(1, continent);
 
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    long total = rs.getLong("TotalPopulation");
-                    long urban = rs.getLong("UrbanPopulation");
-                    long rural = rs.getLong("RuralPopulation");
-
-                    String format = "%49s%n";
-                    
-                    System.out.println("\nPopulation statistics for continent: " + continent);
-                    System.out.println(TableFormatter.generateSeparator(format));
-                    System.out.printf("Total population : %,d%n", total);
-                    System.out.printf("Urban population : %,d%n", urban);
-                    System.out.printf("Rural population : %,d%n", rural);
-                    System.out.println(TableFormatter.generateSeparator(format) + "\n");
-                } else {
-                    System.out.println("  No results found for continent: " + continent);
+                if (!rs.next()) {
+                    return null;
                 }
+                return new long[]{rs.getLong("TotalPopulation"), rs.getLong("UrbanPopulation"),
+                        rs.getLong("RuralPopulation")};
             }
-        } catch (SQLException e) {
-            System.out.println("  Database query failed: " + e.getMessage());
-            throw e;
         }
     }
+
+    /**
+     * Sharded data is supported: the query runs on the continent's shard
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
 }
@@ -0,0 +1,112 @@
+package com.napier.sem.commands.country;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.args.ArgumentException;
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+import com.napier.sem.reports.CountryMetricIndex;
+import com.napier.sem.reports.ReportSpec;
+import com.napier.sem.utils.TableFormatter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Command to display the distribution of a country metric in the world, a continent or a region
+ * as percentiles, from the lowest value to the highest.
+ * Usage: country-percentiles <metric> <world|continent|region> [name]
+ */
+public class CountryPercentilesCommand extends CommandBase {
+
+    private static final String USAGE = "country-percentiles <metric> <world|continent|region> [name]";
+    private static final String FORMAT = "%-20s %25s%n";
+    private static final int[] PERCENTILES = {0, 10, 25, 50, 75, 90, 100};
+
+    public CountryPercentilesCommand() {
+        super("country-percentiles", "Display percentiles of any country metric (usage: " + USAGE + ")");
+    }
+
+    /**
+     * The parameters depend on the scope named, so keep the raw arguments as the key
+     * @param args Command arguments
+     * @return Null, so the executor keys on the lower-cased arguments
+     */
+    @Override
+    public String getCacheKey(String[] args) {
+        return null;
+    }
+
+    /**
+     * Parses the metric and scope, binds the name, then prints the percentiles.
+     *
+     * @param connection Database connection
+     * @param args Command arguments
+     * @throws SQLException if the country table has to be read and the query fails
+     */
+    @Override
+    public void execute(Connection connection, String[] args) throws SQLException {
+        if (args.length < 3) {
+            System.out.println("  Usage: " + USAGE);
+            System.out.println("  Metrics: " + RankCountriesCommand.METRICS);
+            return;
+        }
+
+        ReportSpec.Metric metric = ReportSpec.Metric.fromKeyword(args[1].trim());
+        ReportSpec.Scope scope = RankCountriesCommand.scope(args[2]);
+        if (metric == null || scope == null) {
+            System.out.println("  Invalid input. Unknown metric or scope '" + args[1] + " " + args[2] + "'.");
+            System.out.println("  Usage: " + USAGE);
+            System.out.println("  Metrics: " + RankCountriesCommand.METRICS);
+            return;
+        }
+
+        String name = null;
+        String where = "the World";
+        CountryMetricIndex index;
+        if (scope != ReportSpec.Scope.WORLD) {
+            BoundArguments bound;
+            try {
+                bound = BoundArguments.bind(getExcecutionCommand(), List.of(Parameter.text(scope.label())),
+                        Arrays.copyOfRange(args, 2, args.length));
+            } catch (ArgumentException e) {
+                System.out.println("  " + e.getMessage());
+                System.out.println("  Usage: " + USAGE);
+                return;
+            }
+            index = RankCountriesCommand.loadIndex(connection);
+            Optional<String> found = index.findScope(scope, bound.text(scope.label()));
+            if (found.isEmpty()) {
+                System.out.println("  No " + scope.label() + " found: " + bound.text(scope.label()));
+                return;
+            }
+            name = found.get();
+            where = name;
+        } else {
+            index = RankCountriesCommand.loadIndex(connection);
+        }
+
+        System.out.println("\n " + metric.title() + " Percentiles in " + where);
+        System.out.println(TableFormatter.generateSeparator(FORMAT));
+        System.out.printf(FORMAT, "Percentile", metric.title());
+        System.out.println(TableFormatter.generateDashedSeparator(FORMAT));
+        for (int percentile : PERCENTILES) {
+            Optional<Double> value = index.percentile(metric, scope, name, percentile);
+            String label = percentile == 0 ? "Lowest" : percentile == 100 ? "Highest" : "P" + percentile;
+            System.out.printf(FORMAT, label, value.map(metric::format).orElse("-"));
+        }
+        System.out.println(TableFormatter.generateSeparator(FORMAT));
+        System.out.printf("  %d countries with a %s%n%n", index.size(metric, scope, name), metric.title());
+    }
+
+    /**
+     * Sharded data is supported: the country index is built from every shard
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
+}
@@ -0,0 +1,88 @@
+package com.napier.sem.commands.country;
+
+import com.napier.sem.batch.BatchLookupCommandBase;
+import com.napier.sem.data.NameResolver;
+import com.napier.sem.data.WorldSnapshot;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Command to look up the total, urban and non-urban population of many countries in one call.
+ * Usage: country-pop-batch <country>, <country>, ... | @file
+ */
+public class CountryPopulationBatchCommand extends BatchLookupCommandBase {
+
+    public CountryPopulationBatchCommand() {
+        super("country-pop-batch",
+                "Display the population of many countries at once (usage: country-pop-batch <country>, <country>, ... | @file)",
+                "country-pop-batch <country>, <country>, ... | @file");
+    }
+
+    @Override
+    protected String headerFormat() {
+        return "%-30s %-45s %18s %18s %18s%n";
+    }
+
+    @Override
+    protected Object[] headers() {
+        return new Object[]{"Input", "Country", "Total", "Urban", "Non-Urban"};
+    }
+
+    @Override
+    protected void printRow(String key, Object[] values) {
+        long total = (long) values[1];
+        long urban = (long) values[2];
+        System.out.printf("%-30s %-45s %,18d %,18d %,18d%n", key, values[0], total, urban, total - urban);
+    }
+
+    @Override
+    protected Map<String, Object[]> lookupInMemory(NameResolver resolver, List<String> keys) {
+        WorldSnapshot snapshot = resolver.getSnapshot();
+        Map<String, String> codes = new HashMap<>();
+        for (String key : keys) {
+            Optional<String> code = resolver.resolveCountryCode(key);
+            code.ifPresent(value -> codes.put(key, value));
+        }
+
+        // One pass over the cities for the urban totals of every requested country
+        Map<String, Long> urban = new HashMap<>();
+        for (String code : codes.values()) {
+            urban.put(code, 0L);
+        }
+        for (WorldSnapshot.City city : snapshot.getCities()) {
+            urban.computeIfPresent(city.countryCode(), (code, sum) -> sum + city.population());
+        }
+
+        Map<String, Object[]> values = new HashMap<>();
+        codes.forEach((key, code) -> {
+            WorldSnapshot.Country country = snapshot.getCountry(code);
+            values.put(key, new Object[]{country.name(), country.population(), urban.get(code)});
+        });
+        return values;
+    }
+
+    @Override
+    protected String chunkSql(String placeholders) {
+        return "SELECT c.Code, c.Name AS Country, c.Population AS TotalPopulation, "
+                + "SUM(ci.Population) AS UrbanPopulation "
+                + "FROM country c LEFT JOIN city ci ON c.Code = ci.CountryCode "
+                + "WHERE c.Name IN (" + placeholders + ") OR c.Code IN (" + placeholders + ") "
+                + "GROUP BY c.Code";
+    }
+
+    @Override
+    protected void readRow(ResultSet rs, Map<String, Object[]> values) throws SQLException {
+        String name = rs.getString("Country");
+        long total = rs.getLong("TotalPopulation");
+        long urban = rs.getLong("UrbanPopulation");
+        Object[] row = new Object[]{name, total, urban};
+        // Keys may be names or codes, as with the in-memory resolver; a name wins over a code
+        values.put(NameResolver.normalize(name), row);
+        values.putIfAbsent(NameResolver.normalize(rs.getString("Code")), row);
+    }
+}
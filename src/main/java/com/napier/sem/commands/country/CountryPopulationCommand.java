@@ -2,6 +2,18 @@ package com.napier.sem.commands.country;
 
 import com.napier.sem.CommandBase;
 
+import com.napier.sem.args.BoundArguments;
+
+import com.napier.sem.args.Parameter;
+
+import com.napier.sem.data.NameResolver;
+
+import com.napier.sem.data.NameSearchIndex;
+
+import com.napier.sem.scheduling.CostClass;
+
+import com.napier.sem.shard.ScatterGather;
+
 import java.sql.Connection;
 
 import java.sql.PreparedStatement;
@@ -10,6 +22,8 @@ import java.sql.ResultSet;
 
 import java.sql.SQLException;
 
+import java.util.Optional;
+
 /**
 
 
@@ -31,7 +45,17 @@ import java.sql.SQLException;
 public class CountryPopulationCommand extends CommandBase {
 
     public CountryPopulationCommand() {
-        super("country-pop", "Display the population of a specific country (usage: country-pop <country_name>)");
+        super("country-pop", "Display the population of a specific country (usage: country-pop <country_name>)",
+                Parameter.text("country"));
+    }
+
+    /**
+     * One country by key, despite the -pop suffix shared with the aggregate reports
+     * @return POINT_LOOKUP
+     */
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.POINT_LOOKUP;
     }
 
     /**
@@ -43,21 +67,55 @@ public class CountryPopulationCommand extends CommandBase {
 
         // ----  Input Validation ----
 
-        if (args.length < 2) {
+        BoundArguments bound = bind(args);
 
-            System.out.println("  Please provide a country name. Usage: countrypop <country_name>");
+        if (bound == null) {
 
             return;
 
         }
 
-        String countryName = args[1].trim();
+        String countryName = bound.text("country");
 
-        if (countryName.isEmpty()) {
+        // ----  Name Resolution ----
 
-            System.out.println(" Invalid input. Country name cannot be empty.");
+        // Resolve the name to its country code so the query filters on the primary key.
 
-            return;
+        // Unknown names are answered from memory without a database round trip.
+
+        String filter = "c.Name = ?";
+
+        String key = countryName;
+
+        NameResolver resolver = NameResolver.current();
+
+        if (resolver != null) {
+
+            Optional<String> code = resolver.resolveCountryCode(countryName);
+
+            if (code.isEmpty()) {
+
+                // Fall back to the closest spelling, or suggest some
+
+                NameSearchIndex index = NameSearchIndex.current();
+
+                code = index.autoResolve(countryName, NameResolver.Kind.COUNTRY).map(NameSearchIndex.Match::key);
+
+                if (code.isEmpty()) {
+
+                    System.out.println(" No country found with the name: " + countryName);
+
+                    index.printSuggestions(countryName, NameResolver.Kind.COUNTRY);
+
+                    return;
+
+                }
+
+            }
+
+            filter = "c.Code = ?";
+
+            key = code.get();
 
         }
 
@@ -78,22 +136,68 @@ public class CountryPopulationCommand extends CommandBase {
                 "(c.Population - SUM(ci.Population)) AS NonUrbanPopulation " +
                 "FROM country c " +
                 "LEFT JOIN city ci ON c.Code = ci.CountryCode " +
-                "WHERE c.Name = ? " +
+                "WHERE " + filter + " " +
                 "GROUP BY c.Code";
 
         // ----  Execute Query with Error Handling ----
 
+        // A country and its cities live on the same shard, so the lookup runs on each shard
+
+        // in turn until one holds the country
+
+        final String lookup = key;
+
+        CountryRow row;
+
+        try {
+
+            row = ScatterGather.onShardOf(connection, null, shard -> fetch(shard, sql, lookup));
+
+        } catch (SQLException e) {
+
+            System.out.println(" Database query failed: " + e.getMessage());
+
+            throw e;
+
+        }
+
+        if (row == null) {
+
+            System.out.println(" No country found with the name: " + countryName);
+
+            return;
+
+        }
+
+        System.out.println("\n Population Report for " + row.name());
+
+        System.out.println("==============================================");
+
+        System.out.printf("Total Population:       %,d%n", row.totalPop());
+
+        System.out.printf("Urban Population:       %,d%n", row.urbanPop());
+
+        System.out.printf("Non-Urban Population:   %,d%n", row.nonUrbanPop());
+
+    }
+
+    /**
+
+     * Fetch the country's row, or null if this database does not hold it
+
+     */
+
+    private static CountryRow fetch(Connection connection, String sql, String key) throws SQLException {
+
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
 
-            stmt.setString(1, countryName);
+            stmt.setString(1, key);
 
             try (ResultSet rs = stmt.executeQuery()) {
 
                 if (!rs.next()) {
 
-                    System.out.println(" No country found with the name: " + countryName);
-
-                    return;
+                    return null;
 
                 }
 
@@ -115,25 +219,31 @@ public class CountryPopulationCommand extends CommandBase {
 
                 }
 
-                System.out.println("\n Population Report for " + name);
+                return new CountryRow(name, totalPop, urbanPop, nonUrbanPop);
 
-                System.out.println("==============================================");
+            }
 
-                System.out.printf("Total Population:       %,d%n", totalPop);
+        }
 
-                System.out.printf("Urban Population:       %,d%n", urbanPop);
+    }
 
-                System.out.printf("Non-Urban Population:   %,d%n", nonUrbanPop);
+    /**
 
-            }
+     * Sharded data is supported: the lookup is tried on every shard
 
-        } catch (SQLException e) {
+     * @return True
 
-            System.out.println(" Database query failed: " + e.getMessage());
+     */
 
-            throw e;
+    @Override
 
-        }
+    public boolean isShardAware() {
+
+        return true;
+
+    }
+
+    private record CountryRow(String name, long totalPop, long urbanPop, long nonUrbanPop) {
 
     }
 
@@ -1,11 +1,17 @@
 package com.napier.sem.commands.country;
 
 import com.napier.sem.CommandBase;
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+import com.napier.sem.data.NameResolver;
+import com.napier.sem.data.NameSearchIndex;
+import com.napier.sem.shard.ScatterGather;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Optional;
 
 /**
  * View Population Details of a Specific Country
@@ -13,7 +19,7 @@ import java.sql.SQLException;
 public class PopulationDetailsByCountryCommand extends CommandBase {
 
     public PopulationDetailsByCountryCommand() {
-        super("population-details-country", "Display population details for a specific country (usage: population-details-country <country_name>)");
+        super("population-details-country", "Display population details for a specific country (usage: population-details-country <country_name>)", Parameter.text("country"));
     }
 
     /**
@@ -21,17 +27,30 @@ public class PopulationDetailsByCountryCommand extends CommandBase {
      */
     @Override
     public void execute(Connection connection, String[] args) throws SQLException {
-        // ----  Input Validation ----
-        if (args.length < 2) {
-            System.out.println("  Please provide a country name. Usage: population-details-country <country_name>");
+        // ---- Input Validation ----
+        BoundArguments bound = bind(args);
+        if (bound == null) {
             return;
         }
+        String countryName = bound.text("country");
 
-        String countryName = args[1].trim();
-
-        if (countryName.isEmpty()) {
-            System.out.println(" Invalid input. Country name cannot be empty.");
-            return;
+        // Resolve the name to its country code so the query filters on the primary key
+        String filter = "c.Name = ?";
+        String key = countryName;
+        NameResolver resolver = NameResolver.current();
+        if (resolver != null) {
+            Optional<String> code = resolver.resolveCountryCode(countryName);
+            if (code.isEmpty()) {
+                NameSearchIndex index = NameSearchIndex.current();
+                code = index.autoResolve(countryName, NameResolver.Kind.COUNTRY).map(NameSearchIndex.Match::key);
+                if (code.isEmpty()) {
+                    System.out.println(" No country found with the name: " + countryName);
+                    index.printSuggestions(countryName, NameResolver.Kind.COUNTRY);
+                    return;
+                }
+            }
+            filter = "c.Code = ?";
+            key = code.get();
         }
 
         String sql = "SELECT " +
@@ -41,17 +60,43 @@ public class PopulationDetailsByCountryCommand extends CommandBase {
                 "(c.Population - SUM(ci.Population)) AS NonUrbanPopulation " +
                 "FROM country c " +
                 "LEFT JOIN city ci ON c.Code = ci.CountryCode " +
-                "WHERE c.Name = ? " +
+                "WHERE " + filter + " " +
                 "GROUP BY c.Code";
 
         // ----  Execute Query with Error Handling ----
+        // A country and its cities live on the same shard, so the lookup runs on each shard
+        // in turn until one holds the country
+        final String lookup = key;
+        CountryRow row;
+        try {
+            row = ScatterGather.onShardOf(connection, null, shard -> fetch(shard, sql, lookup));
+        } catch (SQLException e) {
+            System.out.println(" Database query failed: " + e.getMessage());
+            throw e;
+        }
+
+        if (row == null) {
+            System.out.println(" No country found with the name: " + countryName);
+            return;
+        }
+
+        System.out.println("\n Population Details for " + row.name());
+        System.out.println("===========================================");
+        System.out.printf("Total Population:        %,d%n", row.totalPop());
+        System.out.printf("Urban (City) Population: %,d%n", row.urbanPop());
+        System.out.printf("Non-Urban Population:    %,d%n", row.nonUrbanPop());
+    }
+
+    /**
+     * Fetch the country's row, or null if this database does not hold it
+     */
+    private static CountryRow fetch(Connection connection, String sql, String key) throws SQLException {
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, countryName);
+            stmt.setString(1, key);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (!rs.next()) {
-                    System.out.println(" No country found with the name: " + countryName);
-                    return;
+                    return null;
                 }
 
                 String name = rs.getString("Country");
@@ -64,16 +109,20 @@ public class PopulationDetailsByCountryCommand extends CommandBase {
                     urbanPop = 0;
                     nonUrbanPop = totalPop;
                 }
-
-                System.out.println("\n Population Details for " + name);
-                System.out.println("===========================================");
-                System.out.printf("Total Population:        %,d%n", totalPop);
-                System.out.printf("Urban (City) Population: %,d%n", urbanPop);
-                System.out.printf("Non-Urban Population:    %,d%n", nonUrbanPop);
+                return new CountryRow(name, totalPop, urbanPop, nonUrbanPop);
             }
-        } catch (SQLException e) {
-            System.out.println(" Database query failed: " + e.getMessage());
-            throw e;
         }
     }
+
+    /**
+     * Sharded data is supported: the lookup is tried on every shard
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
+
+    private record CountryRow(String name, long totalPop, long urbanPop, long nonUrbanPop) {
+    }
 }
@@ -0,0 +1,162 @@
+package com.napier.sem.commands.country;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.args.ArgumentException;
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+import com.napier.sem.reports.CountryMetricIndex;
+import com.napier.sem.reports.ReportSpec;
+import com.napier.sem.utils.TableFormatter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Command to rank countries by any country metric in the world, a continent or a region.
+ * User Story: As a Data Analyst, I want the countries with the highest or lowest GNP per capita,
+ * density or life expectancy in an area so that I can compare more than population.
+ * Rankings are read from the pre-sorted {@link CountryMetricIndex}.
+ * Usage: rank-countries <metric> <top|bottom> <world|continent|region> [name] [N]
+ */
+public class RankCountriesCommand extends CommandBase {
+
+    static final String METRICS = "population, surface-area, gnp, gnp-old, life-expectancy, indep-year, "
+            + "density, gnp-per-capita, gnp-growth";
+    private static final String USAGE = "rank-countries <metric> <top|bottom> <world|continent|region> [name] [N]";
+    private static final String HEADER_FORMAT = "%-6s %-5s %-45s %-20s %-30s %20s%n";
+
+    public RankCountriesCommand() {
+        super("rank-countries", "Display the top or bottom N countries by any country metric (usage: " + USAGE + ")");
+    }
+
+    /**
+     * The parameters depend on the scope named, so keep the raw arguments as the key
+     * @param args Command arguments
+     * @return Null, so the executor keys on the lower-cased arguments
+     */
+    @Override
+    public String getCacheKey(String[] args) {
+        return null;
+    }
+
+    /**
+     * Parses the metric, direction and scope, binds the name and N, then prints the ranking.
+     *
+     * @param connection Database connection
+     * @param args Command arguments
+     * @throws SQLException if the country table has to be read and the query fails
+     */
+    @Override
+    public void execute(Connection connection, String[] args) throws SQLException {
+        if (args.length < 4) {
+            System.out.println("  Usage: " + USAGE);
+            System.out.println("  Metrics: " + METRICS);
+            return;
+        }
+
+        ReportSpec.Metric metric = ReportSpec.Metric.fromKeyword(args[1].trim());
+        String direction = args[2].trim().toLowerCase(Locale.ROOT);
+        ReportSpec.Scope scope = scope(args[3]);
+        if (metric == null || scope == null || !(direction.equals("top") || direction.equals("bottom"))) {
+            System.out.println("  Invalid input. Unknown ranking '" + args[1] + " " + args[2] + " " + args[3] + "'.");
+            System.out.println("  Usage: " + USAGE);
+            System.out.println("  Metrics: " + METRICS);
+            return;
+        }
+
+        List<Parameter> parameters = new ArrayList<>();
+        if (scope != ReportSpec.Scope.WORLD) {
+            parameters.add(Parameter.text(scope.label()));
+        }
+        parameters.add(Parameter.count("N", 10));
+
+        // Bind everything after the scope word
+        BoundArguments bound;
+        try {
+            bound = BoundArguments.bind(getExcecutionCommand(), parameters, Arrays.copyOfRange(args, 3, args.length));
+        } catch (ArgumentException e) {
+            System.out.println("  " + e.getMessage());
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+        for (String warning : bound.getWarnings()) {
+            System.out.println("  " + warning);
+        }
+
+        CountryMetricIndex index = loadIndex(connection);
+        String name = null;
+        String where = "the World";
+        if (scope != ReportSpec.Scope.WORLD) {
+            Optional<String> found = index.findScope(scope, bound.text(scope.label()));
+            if (found.isEmpty()) {
+                System.out.println("  No " + scope.label() + " found: " + bound.text(scope.label()));
+                return;
+            }
+            name = found.get();
+            where = name;
+        }
+
+        int n = bound.count("N");
+        List<CountryMetricIndex.Ranked> ranked = direction.equals("top")
+                ? index.top(metric, scope, name, n)
+                : index.bottom(metric, scope, name, n);
+
+        System.out.println("\n " + (direction.equals("top") ? "Top " : "Bottom ") + n + " Countries in " + where
+                + " by " + metric.title());
+        System.out.println(TableFormatter.generateSeparator(HEADER_FORMAT));
+        System.out.printf(HEADER_FORMAT, "Rank", "Code", "Country", "Continent", "Region", metric.title());
+        System.out.println(TableFormatter.generateDashedSeparator(HEADER_FORMAT));
+        for (CountryMetricIndex.Ranked row : ranked) {
+            System.out.printf(HEADER_FORMAT, row.rank(), row.country().code(), row.country().name(),
+                    row.country().continent(), row.country().region(), metric.format(row.value()));
+        }
+        if (ranked.isEmpty()) {
+            System.out.println("  No countries have a " + metric.title().toLowerCase(Locale.ROOT) + " in " + where);
+        }
+        System.out.println(TableFormatter.generateSeparator(HEADER_FORMAT));
+        System.out.printf("  %d of %d ranked countries%n%n", ranked.size(), index.size(metric, scope, name));
+    }
+
+    /**
+     * Parse a world, continent or region scope word
+     * @param word Scope word as typed
+     * @return Scope, or null if the word is not one of the three
+     */
+    static ReportSpec.Scope scope(String word) {
+        try {
+            ReportSpec.Scope scope = ReportSpec.Scope.valueOf(word.trim().toUpperCase(Locale.ROOT));
+            return ReportSpec.supports(ReportSpec.Entity.COUNTRY, scope) ? scope : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the metric index, reporting a failed load
+     * @param connection Database connection
+     * @return Index
+     * @throws SQLException if the country table has to be read and the query fails
+     */
+    static CountryMetricIndex loadIndex(Connection connection) throws SQLException {
+        try {
+            return CountryMetricIndex.current(connection);
+        } catch (SQLException e) {
+            System.out.println("  Database query failed: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Sharded data is supported: the country index is built from every shard
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
+}
@@ -0,0 +1,148 @@
+package com.napier.sem.commands.country;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.args.ArgumentException;
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+import com.napier.sem.data.CountrySimilarityIndex;
+import com.napier.sem.data.NameResolver;
+import com.napier.sem.data.WorldSnapshot;
+import com.napier.sem.utils.TableFormatter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Command to find the countries most like a given country.
+ * User Story: As a Data Analyst, I want to ask which countries are most like Germany
+ * in population, surface area, GNP and life expectancy so that I can pick comparable peers.
+ * Usage: similar-countries <country> [N] [in continent|region <name>]
+ */
+public class SimilarCountriesCommand extends CommandBase {
+
+    private static final String USAGE = "similar-countries <country> [N] [in continent|region <name>]";
+    private static final String HEADER_FORMAT = "%-5s %-35s %-15s %15s %15s %15s %8s %9s%n";
+    private static final String ROW_FORMAT = "%-5s %-35s %-15s %,15d %,15.0f %,15.0f %8.1f %9.3f%n";
+
+    public SimilarCountriesCommand() {
+        super("similar-countries",
+                "Display the N countries most like a country by population, area, GNP and life expectancy (usage: "
+                        + USAGE + ")",
+                Parameter.text("country"), Parameter.count("N", 5));
+    }
+
+    /**
+     * The optional restriction is not a declared parameter, so keep the raw arguments as the key
+     * @param args Command arguments
+     * @return Null, so the executor keys on the lower-cased arguments
+     */
+    @Override
+    public String getCacheKey(String[] args) {
+        return null;
+    }
+
+    /**
+     * Splits off the optional restriction, binds the country and N, then prints the nearest countries.
+     *
+     * @param connection Database connection
+     * @param args Command arguments
+     * @throws SQLException if the country table has to be read and the query fails
+     */
+    @Override
+    public void execute(Connection connection, String[] args) throws SQLException {
+        // ---- Restriction ----
+        // "... in continent Europe" or "... in region Western Europe" limits the candidates
+        String restrictKind = null;
+        String restrictName = null;
+        for (int i = args.length - 2; i >= 1; i--) {
+            String next = args[i + 1].trim().toLowerCase(Locale.ROOT);
+            if (args[i].trim().equalsIgnoreCase("in") && (next.equals("continent") || next.equals("region"))) {
+                restrictKind = next;
+                restrictName = String.join(" ", Arrays.copyOfRange(args, i + 2, args.length)).trim();
+                args = Arrays.copyOfRange(args, 0, i);
+                break;
+            }
+        }
+        if (restrictKind != null && restrictName.isEmpty()) {
+            System.out.println("  Please provide a " + restrictKind + " name.");
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+
+        BoundArguments bound;
+        try {
+            bound = BoundArguments.bind(getExcecutionCommand(), parameters, args);
+        } catch (ArgumentException e) {
+            System.out.println("  " + e.getMessage());
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+        for (String warning : bound.getWarnings()) {
+            System.out.println("  " + warning);
+        }
+
+        CountrySimilarityIndex index;
+        try {
+            index = CountrySimilarityIndex.current(connection);
+        } catch (SQLException e) {
+            System.out.println("  Database query failed: " + e.getMessage());
+            throw e;
+        }
+
+        String countryName = bound.text("country");
+        Optional<String> code = index.findCountry(countryName);
+        if (code.isEmpty()) {
+            System.out.println("  No country found with the name: " + countryName);
+            return;
+        }
+        if (!index.contains(code.get())) {
+            System.out.println("  " + countryName + " has no GNP or life expectancy recorded, so it cannot be compared.");
+            return;
+        }
+
+        Predicate<WorldSnapshot.Country> filter = country -> true;
+        String within = "";
+        if (restrictKind != null) {
+            String wanted = NameResolver.normalize(restrictName);
+            boolean byContinent = restrictKind.equals("continent");
+            filter = country -> NameResolver.normalize(byContinent ? country.continent() : country.region()).equals(wanted);
+            within = " in " + restrictName;
+        }
+
+        int n = bound.count("N");
+        long started = System.nanoTime();
+        List<CountrySimilarityIndex.Neighbour> neighbours = index.nearest(code.get(), n, filter);
+        long elapsedMicros = (System.nanoTime() - started) / 1_000;
+
+        System.out.println("\n " + n + " Countries Most Like " + countryName + within);
+        System.out.println(TableFormatter.generateSeparator(HEADER_FORMAT));
+        System.out.printf(HEADER_FORMAT, "Code", "Country", "Continent", "Population", "Surface Area", "GNP",
+                "Life Exp", "Distance");
+        System.out.println(TableFormatter.generateDashedSeparator(HEADER_FORMAT));
+        for (CountrySimilarityIndex.Neighbour neighbour : neighbours) {
+            WorldSnapshot.Country country = neighbour.country();
+            System.out.printf(ROW_FORMAT, country.code(), country.name(), country.continent(), country.population(),
+                    country.surfaceArea(), country.gnp(), country.lifeExpectancy(), neighbour.distance());
+        }
+        if (neighbours.isEmpty()) {
+            System.out.println("  No comparable countries found" + within);
+        }
+        System.out.println(TableFormatter.generateSeparator(HEADER_FORMAT));
+        System.out.printf("  %d neighbours among %d comparable countries in %d microseconds%n%n", neighbours.size(),
+                index.size(), elapsedMicros);
+    }
+
+    /**
+     * Sharded data is supported: the similarity index is built from every shard
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
+}
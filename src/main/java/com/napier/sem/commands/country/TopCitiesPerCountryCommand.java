@@ -0,0 +1,20 @@
+package com.napier.sem.commands.country;
+
+import com.napier.sem.reports.GroupedReportCommandBase;
+import com.napier.sem.reports.ReportSpec;
+
+/**
+ * Command to display the top N cities of every country in one query.
+ * User Story: As a Data Analyst, I want the largest cities of every country in one report
+ * so that I do not have to run top-cities-country once per country.
+ * Usage: top-cities-per-country [N]
+ */
+public class TopCitiesPerCountryCommand extends GroupedReportCommandBase {
+
+    public TopCitiesPerCountryCommand() {
+        super("top-cities-per-country",
+                "Display the top N cities in every country by population (usage: top-cities-per-country [N])",
+                new ReportSpec(ReportSpec.Entity.CITY, ReportSpec.Scope.COUNTRY, ReportSpec.Metric.POPULATION, true),
+                5);
+    }
+}
@@ -0,0 +1,84 @@
+package com.napier.sem.commands.district;
+
+import com.napier.sem.batch.BatchLookupCommandBase;
+import com.napier.sem.data.NameResolver;
+import com.napier.sem.data.WorldSnapshot;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Command to look up the population of many districts in one call.
+ * Usage: district-pop-batch <district>, <district>, ... | @file
+ */
+public class ViewPopulationByDistrictBatchCommand extends BatchLookupCommandBase {
+
+    public ViewPopulationByDistrictBatchCommand() {
+        super("district-pop-batch",
+                "View population of many districts at once (usage: district-pop-batch <district>, <district>, ... | @file)",
+                "district-pop-batch <district>, <district>, ... | @file");
+    }
+
+    @Override
+    protected String headerFormat() {
+        return "%-30s %-30s %18s%n";
+    }
+
+    @Override
+    protected Object[] headers() {
+        return new Object[]{"Input", "District", "Population"};
+    }
+
+    @Override
+    protected void printRow(String key, Object[] values) {
+        System.out.printf("%-30s %-30s %,18d%n", key, values[0], values[1]);
+    }
+
+    @Override
+    protected Map<String, Object[]> lookupInMemory(NameResolver resolver, List<String> keys) {
+        Map<String, String> districts = new HashMap<>();
+        for (String key : keys) {
+            Optional<String> district = resolver.resolveDistrict(key);
+            district.ifPresent(value -> districts.put(key, value));
+        }
+
+        // One pass over the cities for every requested district
+        Map<String, Long> totals = new HashMap<>();
+        for (String district : districts.values()) {
+            totals.put(district, 0L);
+        }
+        for (WorldSnapshot.City city : resolver.getSnapshot().getCities()) {
+            totals.computeIfPresent(city.district(), (district, sum) -> sum + city.population());
+        }
+
+        Map<String, Object[]> values = new HashMap<>();
+        districts.forEach((key, district) -> values.put(key, new Object[]{district, totals.get(district)}));
+        return values;
+    }
+
+    @Override
+    protected String chunkSql(String placeholders) {
+        return "SELECT District, SUM(Population) AS TotalPopulation "
+                + "FROM city "
+                + "WHERE District IN (" + placeholders + ") "
+                + "GROUP BY District";
+    }
+
+    @Override
+    protected void readRow(ResultSet rs, Map<String, Object[]> values) throws SQLException {
+        String district = rs.getString("District");
+        values.put(NameResolver.normalize(district), new Object[]{district, rs.getLong("TotalPopulation")});
+    }
+
+    /**
+     * A district name can occur on several shards; add up their totals
+     */
+    @Override
+    protected Object[] combine(Object[] first, Object[] second) {
+        return new Object[]{first[0], (long) first[1] + (long) second[1]};
+    }
+}
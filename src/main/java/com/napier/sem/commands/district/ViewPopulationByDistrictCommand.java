@@ -1,11 +1,17 @@
 package com.napier.sem.commands.district;
 
 import com.napier.sem.CommandBase;
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+import com.napier.sem.data.NameResolver;
+import com.napier.sem.data.NameSearchIndex;
+import com.napier.sem.shard.ScatterGather;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Optional;
 
 /**
  * Command to display total population of a specific district
@@ -13,7 +19,7 @@ import java.sql.SQLException;
 public class ViewPopulationByDistrictCommand extends CommandBase {
 
     public ViewPopulationByDistrictCommand() {
-        super("district-pop", "View population of a specific district (usage: district-pop <district_name>)");
+        super("district-pop", "View population of a specific district (usage: district-pop <district_name>)", Parameter.text("district"));
     }
 
     /**
@@ -22,38 +28,70 @@ public class ViewPopulationByDistrictCommand extends CommandBase {
     @Override
     public void execute(Connection connection, String[] args) throws SQLException {
         // Validate input
-        if (args.length < 2 || args[1].trim().isEmpty()) {
-            System.out.println("ERROR: Please provide a valid district name. Usage: districtpop <district_name>");
+        BoundArguments bound = bind(args);
+        if (bound == null) {
             return;
         }
+        String districtName = bound.text("district");
 
-        String districtName = args[1].trim();
+        // Match the stored spelling, falling back to the closest district name
+        NameResolver resolver = NameResolver.current();
+        if (resolver != null) {
+            Optional<String> district = resolver.resolveDistrict(districtName);
+            if (district.isEmpty()) {
+                NameSearchIndex index = NameSearchIndex.current();
+                district = index.autoResolve(districtName, NameResolver.Kind.DISTRICT).map(NameSearchIndex.Match::key);
+                if (district.isEmpty()) {
+                    System.out.println("WARNING: No data found for district: " + districtName);
+                    index.printSuggestions(districtName, NameResolver.Kind.DISTRICT);
+                    return;
+                }
+            }
+            districtName = district.get();
+        }
 
         // SQL query to get population for a district
         String query = "SELECT SUM(Population) AS TotalPopulation "
                 + "FROM city "
                 + "WHERE District = ?";
 
+        // Sum the district's cities on every shard
+        final String district = districtName;
+        long totalPop = 0;
+        try {
+            for (long shardPop : ScatterGather.acrossShards(connection, shard -> sum(shard, query, district))) {
+                totalPop += shardPop;
+            }
+        } catch (SQLException e) {
+            System.out.println("ERROR: Error executing query: " + e.getMessage());
+            throw e;
+        }
+
+        if (totalPop == 0) {
+            System.out.println("WARNING: No data found for district: " + districtName);
+        } else {
+            System.out.printf("Total population of district '%s' is %,d people.%n",
+                    districtName, totalPop);
+        }
+    }
+
+    private static long sum(Connection connection, String query, String districtName) throws SQLException {
         try (PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, districtName);
 
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    long totalPop = rs.getLong("TotalPopulation");
-
-                    if (rs.wasNull() || totalPop == 0) {
-                        System.out.println("WARNING: No data found for district: " + districtName);
-                    } else {
-                        System.out.printf("Total population of district '%s' is %,d people.%n",
-                                districtName, totalPop);
-                    }
-                } else {
-                    System.out.println("WARNING: No data found for district: " + districtName);
-                }
+                // SUM over no rows is NULL, which getLong reads as 0
+                return rs.next() ? rs.getLong("TotalPopulation") : 0;
             }
-        } catch (SQLException e) {
-            System.out.println("ERROR: Error executing query: " + e.getMessage());
-            throw e;
         }
     }
+
+    /**
+     * Sharded data is supported: the district's cities are summed on every shard
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
 }
@@ -0,0 +1,226 @@
+package com.napier.sem.commands.global;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.args.ArgumentException;
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+import com.napier.sem.data.CityRankIndex;
+import com.napier.sem.data.NameResolver;
+import com.napier.sem.data.NameSearchIndex;
+import com.napier.sem.data.WorldSnapshot;
+import com.napier.sem.reports.CountryMetricIndex;
+import com.napier.sem.reports.ReportSpec;
+import com.napier.sem.utils.TableFormatter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Command to show where a city or country ranks by population in every scope that contains it.
+ * User Story: As a Data Analyst, I want to know that a city is 3rd in its district, 12th in its
+ * country and 140th in the world without counting through several list reports.
+ * With world data loaded, ranks come from precomputed arrays; otherwise one query counts
+ * the larger entities in each scope.
+ * Usage: rank <city|country> <name>
+ */
+public class RankCommand extends CommandBase {
+
+    private static final String USAGE = "rank <city|country> <name>";
+    private static final String FORMAT = "%-10s %-35s %8s %8s %11s%n";
+    private static final String ROW_FORMAT = "%-10s %-35s %,8d %,8d %10.2f%%%n";
+
+    private static final String[] CITY_CONDITIONS = {
+            "x.CountryCode = c.CountryCode AND x.District = c.District",
+            "x.CountryCode = c.CountryCode",
+            "y.Region = co.Region",
+            "y.Continent = co.Continent",
+            "1 = 1"};
+    private static final String[] COUNTRY_SCOPES = {"Region", "Continent", "World"};
+    private static final String[] COUNTRY_CONDITIONS = {"x.Region = co.Region", "x.Continent = co.Continent", "1 = 1"};
+
+    public RankCommand() {
+        super("rank", "Display the population rank of a city or country in every enclosing scope (usage: " + USAGE + ")");
+    }
+
+    /**
+     * The parameter depends on the entity named, so keep the raw arguments as the key
+     * @param args Command arguments
+     * @return Null, so the executor keys on the lower-cased arguments
+     */
+    @Override
+    public String getCacheKey(String[] args) {
+        return null;
+    }
+
+    /**
+     * Ranks come from the snapshot, which holds every shard. Without one the rank
+     * queries would only count the default database's rows.
+     * @return True once a snapshot is loaded
+     */
+    @Override
+    public boolean isShardAware() {
+        return NameResolver.current() != null;
+    }
+
+    /**
+     * Resolves the city or country and prints its rank in each scope.
+     *
+     * @param connection Database connection
+     * @param args Command arguments
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public void execute(Connection connection, String[] args) throws SQLException {
+        if (args.length < 2) {
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+        String entity = args[1].trim().toLowerCase(Locale.ROOT);
+        if (!entity.equals("city") && !entity.equals("country")) {
+            System.out.println("  Invalid input. Can only rank a city or a country.");
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+
+        BoundArguments bound;
+        try {
+            bound = BoundArguments.bind(getExcecutionCommand(), List.of(Parameter.text(entity)),
+                    Arrays.copyOfRange(args, 1, args.length));
+        } catch (ArgumentException e) {
+            System.out.println("  " + e.getMessage());
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+        String name = bound.text(entity);
+
+        NameResolver resolver = NameResolver.current();
+        long started = System.nanoTime();
+        String title;
+        List<CityRankIndex.Position> positions;
+        if (resolver != null) {
+            NameResolver.Kind kind = entity.equals("city") ? NameResolver.Kind.CITY : NameResolver.Kind.COUNTRY;
+            Optional<String> key = entity.equals("city")
+                    ? resolver.resolveCityId(name).map(String::valueOf)
+                    : resolver.resolveCountryCode(name);
+            if (key.isEmpty()) {
+                NameSearchIndex index = NameSearchIndex.current();
+                key = index.autoResolve(name, kind).map(NameSearchIndex.Match::key);
+                if (key.isEmpty()) {
+                    System.out.println("  No " + entity + " found with the name: " + name);
+                    index.printSuggestions(name, kind);
+                    return;
+                }
+            }
+            WorldSnapshot snapshot = resolver.getSnapshot();
+            if (entity.equals("city")) {
+                WorldSnapshot.City city = snapshot.getCity(Integer.parseInt(key.get()));
+                title = city.name() + " (" + city.population() + ")";
+                positions = CityRankIndex.current().positions(city.id());
+            } else {
+                WorldSnapshot.Country country = snapshot.getCountry(key.get());
+                title = country.name() + " (" + country.population() + ")";
+                positions = countryPositions(country);
+            }
+        } else {
+            String[] found = new String[1];
+            positions = entity.equals("city")
+                    ? queryPositions(connection, citySql(), name, CityRankIndex.SCOPES, "CityName", found)
+                    : queryPositions(connection, countrySql(), name, COUNTRY_SCOPES, "CountryName", found);
+            if (positions.isEmpty()) {
+                System.out.println("  No " + entity + " found with the name: " + name);
+                return;
+            }
+            title = found[0];
+        }
+        long elapsedMicros = (System.nanoTime() - started) / 1_000;
+
+        System.out.println("\n Population Rank of " + title);
+        System.out.println(TableFormatter.generateSeparator(FORMAT));
+        System.out.printf(FORMAT, "Scope", "Name", "Rank", "Of", "Percentile");
+        System.out.println(TableFormatter.generateDashedSeparator(FORMAT));
+        for (CityRankIndex.Position position : positions) {
+            System.out.printf(ROW_FORMAT, position.scope(), position.name(), position.rank(), position.size(),
+                    position.percentile());
+        }
+        System.out.println(TableFormatter.generateSeparator(FORMAT));
+        System.out.printf("  %d scopes in %d microseconds%n%n", positions.size(), elapsedMicros);
+    }
+
+    private static List<CityRankIndex.Position> countryPositions(WorldSnapshot.Country country) {
+        CountryMetricIndex index = CountryMetricIndex.current();
+        ReportSpec.Scope[] scopes = {ReportSpec.Scope.REGION, ReportSpec.Scope.CONTINENT, ReportSpec.Scope.WORLD};
+        String[] names = {country.region(), country.continent(), null};
+        List<CityRankIndex.Position> positions = new ArrayList<>();
+        for (int s = 0; s < scopes.length; s++) {
+            int rank = index.rankOf(ReportSpec.Metric.POPULATION, scopes[s], names[s], country.code())
+                    .map(CountryMetricIndex.Ranked::rank).orElse(0);
+            positions.add(new CityRankIndex.Position(COUNTRY_SCOPES[s], names[s] == null ? "World" : names[s], rank,
+                    index.size(ReportSpec.Metric.POPULATION, scopes[s], names[s])));
+        }
+        return positions;
+    }
+
+    /**
+     * Build the statement ranking a city: for each scope, one plus the number of larger
+     * cities and the number of cities, counted by the server in a single round trip
+     */
+    static String citySql() {
+        StringBuilder sql = new StringBuilder("SELECT c.Name AS CityName, c.Population, c.District, "
+                + "co.Name AS Country, co.Region, co.Continent, 'World' AS World");
+        for (int s = 0; s < CityRankIndex.SCOPES.length; s++) {
+            String from = s < 2 ? "FROM city x WHERE " : "FROM city x JOIN country y ON x.CountryCode = y.Code WHERE ";
+            sql.append(", (SELECT COUNT(*) ").append(from).append(CITY_CONDITIONS[s])
+                    .append(" AND x.Population > c.Population) + 1 AS ").append(CityRankIndex.SCOPES[s]).append("Rank");
+            sql.append(", (SELECT COUNT(*) ").append(from).append(CITY_CONDITIONS[s])
+                    .append(") AS ").append(CityRankIndex.SCOPES[s]).append("Size");
+        }
+        sql.append(" FROM city c JOIN country co ON c.CountryCode = co.Code WHERE c.Name = ? "
+                + "ORDER BY c.Population DESC LIMIT 1");
+        return sql.toString();
+    }
+
+    /**
+     * Build the statement ranking a country in its region, continent and the world
+     */
+    static String countrySql() {
+        StringBuilder sql = new StringBuilder("SELECT co.Name AS CountryName, co.Population, co.Region, "
+                + "co.Continent, 'World' AS World");
+        for (int s = 0; s < COUNTRY_SCOPES.length; s++) {
+            sql.append(", (SELECT COUNT(*) FROM country x WHERE ").append(COUNTRY_CONDITIONS[s])
+                    .append(" AND x.Population > co.Population) + 1 AS ").append(COUNTRY_SCOPES[s]).append("Rank");
+            sql.append(", (SELECT COUNT(*) FROM country x WHERE ").append(COUNTRY_CONDITIONS[s])
+                    .append(") AS ").append(COUNTRY_SCOPES[s]).append("Size");
+        }
+        sql.append(" FROM country co WHERE co.Name = ?");
+        return sql.toString();
+    }
+
+    private static List<CityRankIndex.Position> queryPositions(Connection connection, String sql, String name, String[] scopes,
+                                                 String nameColumn, String[] title) throws SQLException {
+        List<CityRankIndex.Position> positions = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    title[0] = rs.getString(nameColumn) + " (" + rs.getLong("Population") + ")";
+                    for (String scope : scopes) {
+                        // The scope's name is in the column named after it
+                        positions.add(new CityRankIndex.Position(scope, rs.getString(scope), rs.getInt(scope + "Rank"),
+                                rs.getInt(scope + "Size")));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println("  Database query failed: " + e.getMessage());
+            throw e;
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,174 @@
+package com.napier.sem.commands.global;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.CommandRegistry;
+import com.napier.sem.DatabaseConfig;
+import com.napier.sem.IConnectionProvider;
+import com.napier.sem.data.DataVersionService;
+import com.napier.sem.data.WorldData;
+import com.napier.sem.data.WorldSnapshot;
+import com.napier.sem.reports.ReportBundle;
+import com.napier.sem.resilience.ResilientCommandExecutor;
+import com.napier.sem.scheduling.CommandScheduler;
+import com.napier.sem.scheduling.CostClass;
+import com.napier.sem.shard.ScatterGather;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command to write every use-case report, for every continent, region and country it
+ * applies to, into a directory with an index of run times.
+ * Usage: report-bundle &lt;directory&gt; [N] [full]
+ * Reports are listing work and run in the listing lane: the bundle holds one listing slot
+ * and runs reports on it with its own connection, and queues helpers in the same lane for
+ * the rest, up to the lane's quota, two per core or BUNDLE_PARALLELISM, whichever is least.
+ * The bundle therefore never holds more connections than the listing lane is allowed,
+ * and the other lanes keep theirs; while it runs, other listings wait behind its helpers.
+ */
+public class ReportBundleCommand extends CommandBase {
+
+    private static final String USAGE = "report-bundle <directory> [N] [full]";
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final IConnectionProvider connectionProvider;
+    private final CommandScheduler scheduler;
+
+    public ReportBundleCommand() {
+        this(DatabaseConfig::getConnection, null);
+    }
+
+    /**
+     * Constructor for tests
+     * @param connectionProvider Source of a connection per report
+     * @param scheduler Scheduler whose listing quota caps the parallelism, or null for the shared executor's
+     */
+    ReportBundleCommand(IConnectionProvider connectionProvider, CommandScheduler scheduler) {
+        super("report-bundle", "Write every use-case report for every scope to a directory, with an index (usage: " + USAGE + ")");
+        this.connectionProvider = connectionProvider;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * The directory is free text, so key on the raw arguments
+     * @param args Command arguments
+     * @return Null, so the executor keys on the lower-cased arguments
+     */
+    @Override
+    public String getCacheKey(String[] args) {
+        return null;
+    }
+
+    @Override
+    public CostClass getCostClass() {
+        return CostClass.FULL_LISTING;
+    }
+
+    @Override
+    public boolean isPrefetchable() {
+        return false;
+    }
+
+    /**
+     * A bundle is hundreds of reports, so the caller waits up to 30 minutes
+     * @return Timeout in milliseconds
+     */
+    @Override
+    public long getTimeoutMillis() {
+        return TimeUnit.MINUTES.toMillis(30);
+    }
+
+    /**
+     * Loads the world snapshot if needed, then writes the bundle and prints a summary.
+     */
+    @Override
+    public void execute(Connection connection, String[] args) throws SQLException {
+        if (args.length < 2 || args[1].isBlank()) {
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+        int limit = DEFAULT_LIMIT;
+        boolean full = false;
+        for (int i = 2; i < args.length; i++) {
+            String arg = args[i].trim();
+            if ("full".equalsIgnoreCase(arg)) {
+                full = true;
+            } else if (arg.matches("\\d+") && Integer.parseInt(arg) > 0) {
+                limit = Integer.parseInt(arg);
+            } else {
+                System.out.println("  Invalid input. Expected N or 'full' but got '" + arg + "'.");
+                System.out.println("  Usage: " + USAGE);
+                return;
+            }
+        }
+
+        // Parameter sets come from the snapshot, and every report then shares it
+        WorldSnapshot snapshot = WorldData.current();
+        if (snapshot == null) {
+            long version = DataVersionService.getDefault().getVersion();
+            snapshot = WorldSnapshot.merge(version,
+                    ScatterGather.acrossShards(connection, db -> WorldSnapshot.load(db, version)));
+            WorldData.install(snapshot);
+        }
+
+        ReportBundle.Result result;
+        Path directory = Path.of(args[1].trim());
+        try {
+            CommandScheduler lanes = lanes();
+            result = new ReportBundle(connectionProvider, snapshot, CommandRegistry::getCommand)
+                    .write(directory, limit, full, parallelism(), connection,
+                            helper -> lanes.submit(CostClass.FULL_LISTING, helper));
+        } catch (IOException e) {
+            System.out.println("  Could not write the bundle: " + e.getMessage());
+            return;
+        }
+
+        String format = "%-24s %20s%n";
+        System.out.println("\n Report Bundle: " + directory.toAbsolutePath());
+        System.out.printf(format, "Reports", result.runs().size());
+        System.out.printf(format, "Failed", result.failures());
+        System.out.printf(format, "Skipped use cases", result.skipped().size());
+        System.out.printf(format, "Parallelism", result.parallelism());
+        System.out.printf(format, "Wall time (ms)", result.wallMillis());
+        System.out.printf(format, "Sum of report ms", result.totalRunMillis());
+        System.out.println("  Index: " + directory.resolve("index.md"));
+    }
+
+    private CommandScheduler lanes() {
+        return scheduler != null ? scheduler : ResilientCommandExecutor.getDefault().getScheduler();
+    }
+
+    /**
+     * Get the reports to run at once, capped at the listing lane's quota
+     * @return Parallelism, at least 1
+     */
+    int parallelism() {
+        int quota = lanes().getStats(CostClass.FULL_LISTING).quota();
+        return Math.max(1, Math.min(quota, chosenParallelism()));
+    }
+
+    private static int chosenParallelism() {
+        String configured = System.getenv("BUNDLE_PARALLELISM");
+        if (configured != null) {
+            try {
+                return Math.max(1, Integer.parseInt(configured.trim()));
+            } catch (NumberFormatException e) {
+                System.err.println("  Ignoring invalid BUNDLE_PARALLELISM: " + configured);
+            }
+        }
+        return Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    /**
+     * Sharded data is supported: reports that are not shard aware are marked failed in the index
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
+}
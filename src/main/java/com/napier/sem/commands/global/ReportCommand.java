@@ -0,0 +1,109 @@
+package com.napier.sem.commands.global;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.args.ArgumentException;
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+import com.napier.sem.reports.ReportEngine;
+import com.napier.sem.reports.ReportSpec;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Command to run any list or top-N report by naming its shape.
+ * The fixed commands such as top-cities-continent are aliases for shapes of this command.
+ * Usage: report <cities|capitals|countries> <world|continent|region|country|district> [name] [N]
+ */
+public class ReportCommand extends CommandBase {
+
+    private static final String USAGE =
+            "report <cities|capitals|countries> <world|continent|region|country|district> [name] [N]";
+
+    public ReportCommand() {
+        super("report", "Run a list or top-N report for any entity and scope (usage: " + USAGE + ")");
+    }
+
+    /**
+     * The parameters depend on the report named, so keep the raw arguments as the key
+     * @param args Command arguments
+     * @return Null, so the executor keys on the lower-cased arguments
+     */
+    @Override
+    public String getCacheKey(String[] args) {
+        return null;
+    }
+
+    /**
+     * Parses the entity and scope, binds the name and N, then runs the report.
+     *
+     * @param connection Database connection
+     * @param args Command arguments
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public void execute(Connection connection, String[] args) throws SQLException {
+        if (args.length < 3) {
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+
+        ReportSpec.Entity entity = ReportSpec.Entity.fromKeyword(args[1].trim());
+        ReportSpec.Scope scope = null;
+        try {
+            scope = ReportSpec.Scope.valueOf(args[2].trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            // Reported below
+        }
+        if (entity == null || scope == null) {
+            System.out.println("  Invalid input. Unknown report '" + args[1] + " " + args[2] + "'.");
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+        if (!ReportSpec.supports(entity, scope)) {
+            System.out.println("  Invalid input. " + entity.keyword() + " cannot be listed by " + scope.label() + ".");
+            return;
+        }
+
+        // A trailing number makes it a top-N report
+        String last = args[args.length - 1].trim();
+        boolean topN = args.length > 3 && last.matches("[+-]?\\d+");
+        ReportSpec spec = new ReportSpec(entity, scope, ReportSpec.Metric.POPULATION, topN);
+
+        List<Parameter> parameters = new ArrayList<>();
+        if (scope != ReportSpec.Scope.WORLD) {
+            parameters.add(Parameter.text(scope.label()));
+        }
+        if (topN) {
+            parameters.add(Parameter.count("N"));
+        }
+
+        // Bind everything after the entity and scope words
+        String[] rest = Arrays.copyOfRange(args, 2, args.length);
+        BoundArguments bound;
+        try {
+            bound = BoundArguments.bind(getExcecutionCommand(), parameters, rest);
+        } catch (ArgumentException e) {
+            System.out.println("  " + e.getMessage());
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+
+        String scopeName = scope == ReportSpec.Scope.WORLD ? null : bound.text(scope.label());
+        int limit = topN ? bound.count("N") : 0;
+        ReportEngine.run(connection, spec, scopeName, limit);
+    }
+
+    /**
+     * Sharded data is supported: the report engine sends the query to the shards holding the scope
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
+}
@@ -0,0 +1,102 @@
+package com.napier.sem.commands.global;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.args.ArgumentException;
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+import com.napier.sem.reports.ReportEngine;
+import com.napier.sem.reports.ReportSpec;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Command to page through any list report.
+ * With world data loaded, pages are slices of the cached ranked list for the scope.
+ * Usage: report-page <cities|capitals|countries> <world|continent|region|country|district> [name] <page> <size>
+ */
+public class ReportPageCommand extends CommandBase {
+
+    private static final String USAGE =
+            "report-page <cities|capitals|countries> <world|continent|region|country|district> [name] <page> <size>";
+
+    public ReportPageCommand() {
+        super("report-page", "Display one page of a list report for any entity and scope (usage: " + USAGE + ")");
+    }
+
+    /**
+     * The parameters depend on the report named, so keep the raw arguments as the key
+     * @param args Command arguments
+     * @return Null, so the executor keys on the lower-cased arguments
+     */
+    @Override
+    public String getCacheKey(String[] args) {
+        return null;
+    }
+
+    /**
+     * Parses the entity and scope, binds the name, page and size, then prints the page.
+     *
+     * @param connection Database connection
+     * @param args Command arguments
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public void execute(Connection connection, String[] args) throws SQLException {
+        if (args.length < 3) {
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+
+        ReportSpec.Entity entity = ReportSpec.Entity.fromKeyword(args[1].trim());
+        ReportSpec.Scope scope = null;
+        try {
+            scope = ReportSpec.Scope.valueOf(args[2].trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            // Reported below
+        }
+        if (entity == null || scope == null) {
+            System.out.println("  Invalid input. Unknown report '" + args[1] + " " + args[2] + "'.");
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+        if (!ReportSpec.supports(entity, scope)) {
+            System.out.println("  Invalid input. " + entity.keyword() + " cannot be listed by " + scope.label() + ".");
+            return;
+        }
+
+        List<Parameter> parameters = new ArrayList<>();
+        if (scope != ReportSpec.Scope.WORLD) {
+            parameters.add(Parameter.text(scope.label()));
+        }
+        parameters.add(Parameter.count("page"));
+        parameters.add(Parameter.count("size"));
+
+        // Bind everything after the entity and scope words
+        BoundArguments bound;
+        try {
+            bound = BoundArguments.bind(getExcecutionCommand(), parameters, Arrays.copyOfRange(args, 2, args.length));
+        } catch (ArgumentException e) {
+            System.out.println("  " + e.getMessage());
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+
+        ReportSpec spec = new ReportSpec(entity, scope, ReportSpec.Metric.POPULATION, false);
+        String scopeName = scope == ReportSpec.Scope.WORLD ? null : bound.text(scope.label());
+        ReportEngine.runPage(connection, spec, scopeName, bound.count("page"), bound.count("size"));
+    }
+
+    /**
+     * Sharded data is supported: the report engine sends the query to the shards holding the scope
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
+}
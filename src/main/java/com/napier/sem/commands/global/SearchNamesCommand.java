@@ -0,0 +1,104 @@
+package com.napier.sem.commands.global;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.data.NameResolver;
+import com.napier.sem.data.NameSearchIndex;
+import com.napier.sem.utils.TableFormatter;
+
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Command to search city, district, country, region and continent names.
+ * Shows prefix completions followed by fuzzy matches for misspelt names.
+ */
+public class SearchNamesCommand extends CommandBase {
+
+    private static final int LIMIT = 10;
+
+    public SearchNamesCommand() {
+        super("search-names", "Complete or fuzzy-match place names (usage: search-names [city|country|district|region|continent] <text>)");
+    }
+
+    /**
+     * Prints prefix completions and ranked fuzzy matches from the in-memory name index.
+     */
+    @Override
+    public void execute(Connection connection, String[] args) {
+        if (args.length < 2) {
+            System.out.println("  Usage: search-names [city|country|district|region|continent] <text>");
+            return;
+        }
+
+        NameResolver.Kind kind = null;
+        int textStart = 1;
+        try {
+            kind = NameResolver.Kind.valueOf(args[1].trim().toUpperCase(Locale.ROOT));
+            textStart = 2;
+        } catch (IllegalArgumentException e) {
+            // First word is part of the text, search every kind
+        }
+
+        String text = String.join(" ", Arrays.copyOfRange(args, textStart, args.length)).trim();
+        if (text.isEmpty()) {
+            System.out.println("  Invalid input. Search text cannot be empty.");
+            return;
+        }
+
+        NameSearchIndex index = NameSearchIndex.current();
+        if (index == null) {
+            System.out.println("  Name index unavailable: world data has not been loaded.");
+            return;
+        }
+
+        long started = System.nanoTime();
+        List<NameSearchIndex.Match> completions = index.complete(text, kind, LIMIT);
+        long completeMicros = (System.nanoTime() - started) / 1000;
+
+        started = System.nanoTime();
+        List<NameSearchIndex.Match> matches = index.search(text, kind, LIMIT);
+        long searchMicros = (System.nanoTime() - started) / 1000;
+
+        String format = "%-10s %-35s %-30s %8s%n";
+
+        System.out.println("\n Name search for '" + text + "'");
+        System.out.println(TableFormatter.generateSeparator(format));
+        System.out.printf(format, "Kind", "Name", "In", "Score");
+        System.out.println(TableFormatter.generateDashedSeparator(format));
+        printMatches(format, "Completions (" + completeMicros + " µs)", completions);
+        printMatches(format, "Closest matches (" + searchMicros + " µs)", matches);
+        System.out.println(TableFormatter.generateSeparator(format));
+    }
+
+    private void printMatches(String format, String title, List<NameSearchIndex.Match> matches) {
+        System.out.println(title + ":");
+        if (matches.isEmpty()) {
+            System.out.println("  none");
+            return;
+        }
+        for (NameSearchIndex.Match match : matches) {
+            System.out.printf(format, match.kind().name().toLowerCase(Locale.ROOT), match.name(),
+                    match.context(), String.format("%.2f", match.score()));
+        }
+    }
+
+    /**
+     * Sharded data is supported: names are searched in the snapshot, which holds every shard
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
+
+    /**
+     * Names are searched in memory only, so the search keeps answering while the database is down
+     * @return False
+     */
+    @Override
+    public boolean requiresDatabase() {
+        return false;
+    }
+}
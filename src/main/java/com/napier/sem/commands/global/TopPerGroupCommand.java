@@ -0,0 +1,97 @@
+package com.napier.sem.commands.global;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.args.ArgumentException;
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+import com.napier.sem.reports.ReportEngine;
+import com.napier.sem.reports.ReportSpec;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Command to rank any entity within every group of a scope in one query,
+ * e.g. the top 5 cities of every country or the top 3 capitals of every region.
+ * Usage: top-per-group <cities|capitals|countries> <continent|region|country|district> [N]
+ */
+public class TopPerGroupCommand extends CommandBase {
+
+    private static final String USAGE =
+            "top-per-group <cities|capitals|countries> <continent|region|country|district> [N]";
+    private static final List<Parameter> PARAMETERS = List.of(Parameter.count("N", 5));
+
+    public TopPerGroupCommand() {
+        super("top-per-group", "Display the top N of an entity in every continent, region, country or district (usage: " + USAGE + ")");
+    }
+
+    /**
+     * The parameters depend on the report named, so keep the raw arguments as the key
+     * @param args Command arguments
+     * @return Null, so the executor keys on the lower-cased arguments
+     */
+    @Override
+    public String getCacheKey(String[] args) {
+        return null;
+    }
+
+    /**
+     * Parses the entity and grouping scope, binds N, then runs the grouped report.
+     *
+     * @param connection Database connection
+     * @param args Command arguments
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public void execute(Connection connection, String[] args) throws SQLException {
+        if (args.length < 3) {
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+
+        ReportSpec.Entity entity = ReportSpec.Entity.fromKeyword(args[1].trim());
+        ReportSpec.Scope scope = null;
+        try {
+            scope = ReportSpec.Scope.valueOf(args[2].trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            // Reported below
+        }
+        if (entity == null || scope == null || scope == ReportSpec.Scope.WORLD) {
+            System.out.println("  Invalid input. Unknown grouping '" + args[1] + " " + args[2] + "'.");
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+        if (!ReportSpec.supports(entity, scope)) {
+            System.out.println("  Invalid input. " + entity.keyword() + " cannot be grouped by " + scope.label() + ".");
+            return;
+        }
+
+        // Bind everything after the entity and scope words
+        BoundArguments bound;
+        try {
+            bound = BoundArguments.bind(getExcecutionCommand(), PARAMETERS, Arrays.copyOfRange(args, 2, args.length));
+        } catch (ArgumentException e) {
+            System.out.println("  " + e.getMessage());
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+        for (String warning : bound.getWarnings()) {
+            System.out.println("  " + warning);
+        }
+
+        ReportSpec spec = new ReportSpec(entity, scope, ReportSpec.Metric.POPULATION, true);
+        ReportEngine.runGrouped(connection, spec, bound.count("N"));
+    }
+
+    /**
+     * Sharded data is supported: the report engine sends the query to every shard and merges the groups
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
+}
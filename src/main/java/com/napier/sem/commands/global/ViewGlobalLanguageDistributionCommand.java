@@ -1,20 +1,24 @@
 package com.napier.sem.commands.global;
 
 import com.napier.sem.CommandBase;
+import com.napier.sem.data.LanguageMatrix;
 import com.napier.sem.utils.TableFormatter;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * Command to view global language distributions:
  * Shows population speaking Chinese, English, Hindi, Spanish, and Arabic,
  * sorted descending by population and percentage of world population.
+ * This is a fixed language set over the {@link LanguageMatrix}; see the
+ * commands.language package for arbitrary sets and top-K rankings.
  */
 public class ViewGlobalLanguageDistributionCommand extends CommandBase {
 
+    private static final List<String> LANGUAGES = List.of("Chinese", "English", "Hindi", "Spanish", "Arabic");
+
     public ViewGlobalLanguageDistributionCommand() {
         super("language-dist", "Display number and percentage of people speaking Chinese, English, Hindi, Spanish, or Arabic globally.");
     }
@@ -35,56 +39,43 @@ public class ViewGlobalLanguageDistributionCommand extends CommandBase {
             return;
         }
 
-        //Query to fetch total world population
-        String totalQuery = "SELECT SUM(Population) AS WorldPopulation FROM country";
-        long worldPopulation = 0;
-
-        try (PreparedStatement stmt = connection.prepareStatement(totalQuery);
-             ResultSet rs = stmt.executeQuery()) {
-            if (rs.next()) {
-                worldPopulation = rs.getLong("WorldPopulation");
-            }
+        //Speaker counts come from the precomputed language matrix
+        LanguageMatrix matrix;
+        try {
+            matrix = LanguageMatrix.current(connection);
+        } catch (SQLException e) {
+            System.out.println("Error executing language query: " + e.getMessage());
+            return;
         }
 
-        if (worldPopulation == 0) {
+        if (matrix.getWorldPopulation() == 0) {
             System.out.println("Could not retrieve world population data.");
             return;
         }
 
-        //Query to fetch population per target language
-        String languageQuery = "SELECT cl.Language, SUM(c.Population * (cl.Percentage / 100)) AS Speakers "
-                + "FROM countrylanguage cl "
-                + "JOIN country c ON cl.CountryCode = c.Code "
-                + "WHERE cl.Language IN ('Chinese', 'English', 'Hindi', 'Spanish', 'Arabic') "
-                + "GROUP BY cl.Language "
-                + "ORDER BY Speakers DESC";
-
-        try (PreparedStatement stmt = connection.prepareStatement(languageQuery);
-             ResultSet rs = stmt.executeQuery()) {
-
-            System.out.printf(headerFormat, "Language", "Speakers", "% of World Population");
-            System.out.println(TableFormatter.generateDashedSeparator(headerFormat));
-
-            boolean hasData = false;
-
-            while (rs.next()) {
-                hasData = true;
-                String language = rs.getString("Language");
-                long speakers = rs.getLong("Speakers");
-                double percentage = (speakers / (double) worldPopulation) * 100.0;
+        System.out.printf(headerFormat, "Language", "Speakers", "% of World Population");
+        System.out.println(TableFormatter.generateDashedSeparator(headerFormat));
 
-                System.out.printf("%-12s %,20d %,20.2f%%%n",
-                        language, speakers, percentage);
-            }
+        List<LanguageMatrix.Share> shares = matrix.speakers(LANGUAGES, null, null, false);
+        for (LanguageMatrix.Share share : shares) {
+            System.out.printf("%-12s %,20d %,20.2f%%%n",
+                    share.language(), share.speakers(), share.percentage());
+        }
 
-            if (!hasData) {
-                System.out.println("No language data found for the specified languages.");
-            }
-        } catch (SQLException e) {
-            System.out.println("Error executing language query: " + e.getMessage());
+        if (shares.isEmpty()) {
+            System.out.println("No language data found for the specified languages.");
         }
 
         System.out.println(TableFormatter.generateSeparator(headerFormat));
         System.out.println("Report complete.\n");
     }
+
+    /**
+     * Sharded data is supported: the language matrix is built from every shard
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
 }
@@ -0,0 +1,125 @@
+package com.napier.sem.commands.language;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+import com.napier.sem.data.LanguageMatrix;
+import com.napier.sem.utils.TableFormatter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Base class for the language distribution commands.
+ * Every command accepts a leading "official" to count only countries where a language
+ * is official, and answers from the {@link LanguageMatrix} instead of querying per call.
+ */
+public abstract class LanguageCommandBase extends CommandBase {
+
+    private static final String HEADER_FORMAT = "%-30s %20s %22s%n";
+    private static final String ROW_FORMAT = "%-30s %,20d %21.2f%%%n";
+
+    /**
+     * Constructor for LanguageCommandBase
+     * @param executionCommand The command string to execute this command
+     * @param description Description of what the command does
+     * @param parameters Parameters after the optional "official"
+     */
+    protected LanguageCommandBase(String executionCommand, String description, Parameter... parameters) {
+        super(executionCommand, description, parameters);
+    }
+
+    /**
+     * Key on the raw arguments, since "official" is not a declared parameter
+     * @param args Command arguments
+     * @return Null, so the executor keys on the lower-cased arguments
+     */
+    @Override
+    public String getCacheKey(String[] args) {
+        return null;
+    }
+
+    /**
+     * Strips "official", binds the remaining arguments and runs the command against the matrix.
+     *
+     * @param connection Database connection
+     * @param args Command arguments
+     * @throws SQLException if the matrix has to be read and the query fails
+     */
+    @Override
+    public void execute(Connection connection, String[] args) throws SQLException {
+        boolean officialOnly = args.length > 1 && args[1].trim().equalsIgnoreCase("official");
+        if (officialOnly) {
+            String[] rest = new String[args.length - 1];
+            rest[0] = args[0];
+            System.arraycopy(args, 2, rest, 1, args.length - 2);
+            args = rest;
+        }
+
+        BoundArguments bound = null;
+        if (!parameters.isEmpty()) {
+            bound = bind(args);
+            if (bound == null) {
+                return;
+            }
+        }
+
+        LanguageMatrix matrix;
+        try {
+            matrix = LanguageMatrix.current(connection);
+        } catch (SQLException e) {
+            System.out.println("  Database query failed: " + e.getMessage());
+            throw e;
+        }
+        run(matrix, bound, Arrays.copyOfRange(args, 1, args.length), officialOnly);
+    }
+
+    /**
+     * Answer the command from the matrix
+     * @param matrix Language matrix
+     * @param bound Bound parameters, or null if the command declares none
+     * @param words Arguments after the command name and "official"
+     * @param officialOnly Whether to count only countries where a language is official
+     */
+    protected abstract void run(LanguageMatrix matrix, BoundArguments bound, String[] words, boolean officialOnly);
+
+    /**
+     * Print shares as a table
+     * @param title Report title
+     * @param scope What the percentage is of, e.g. "World"
+     * @param shares Rows to print
+     */
+    protected static void printShares(String title, String scope, List<LanguageMatrix.Share> shares) {
+        System.out.println("\n " + title);
+        System.out.println(TableFormatter.generateSeparator(HEADER_FORMAT));
+        System.out.printf(HEADER_FORMAT, "Language", "Speakers", "% of " + scope);
+        System.out.println(TableFormatter.generateDashedSeparator(HEADER_FORMAT));
+        for (LanguageMatrix.Share share : shares) {
+            System.out.printf(ROW_FORMAT, share.language(), share.speakers(), share.percentage());
+        }
+        if (shares.isEmpty()) {
+            System.out.println("  No language data found.");
+        }
+        System.out.println(TableFormatter.generateSeparator(HEADER_FORMAT) + "\n");
+    }
+
+    /**
+     * Get the title prefix for the official filter
+     * @param officialOnly Whether only official languages are counted
+     * @return "Official " or ""
+     */
+    protected static String official(boolean officialOnly) {
+        return officialOnly ? "Official " : "";
+    }
+
+    /**
+     * Sharded data is supported: the language matrix is built from every shard
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package com.napier.sem.commands.language;
+
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.data.LanguageMatrix;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command to count the speakers of any set of languages worldwide.
+ * User Story: As a Data Analyst, I want the number and share of people speaking the
+ * languages I choose so that I am not limited to a fixed list.
+ * Usage: language-speakers [official] <language> [language ...]
+ * Quote multi-word names, e.g. language-speakers Spanish "Creole English"
+ */
+public class LanguageSpeakersCommand extends LanguageCommandBase {
+
+    private static final String USAGE = "language-speakers [official] <language> [language ...]";
+
+    public LanguageSpeakersCommand() {
+        super("language-speakers",
+                "Display number and percentage of people speaking the given languages (usage: " + USAGE + ")");
+    }
+
+    @Override
+    protected void run(LanguageMatrix matrix, BoundArguments bound, String[] words, boolean officialOnly) {
+        List<String> languages = new ArrayList<>();
+        for (String word : words) {
+            String name = word.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (matrix.findLanguage(name).isPresent()) {
+                languages.add(name);
+            } else {
+                System.out.println("  Unknown language: " + name);
+            }
+        }
+        if (languages.isEmpty()) {
+            System.out.println("  Please provide at least one language.");
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+
+        printShares(official(officialOnly) + "Language Speakers", "World",
+                matrix.speakers(languages, null, null, officialOnly));
+    }
+}
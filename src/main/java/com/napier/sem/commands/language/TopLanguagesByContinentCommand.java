@@ -0,0 +1,34 @@
+package com.napier.sem.commands.language;
+
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+import com.napier.sem.data.LanguageMatrix;
+
+import java.util.Optional;
+
+/**
+ * Command to display the most spoken languages in a continent.
+ * Usage: top-languages-continent [official] <continent> [N]
+ */
+public class TopLanguagesByContinentCommand extends LanguageCommandBase {
+
+    public TopLanguagesByContinentCommand() {
+        super("top-languages-continent",
+                "Display the N most spoken languages in a continent (usage: top-languages-continent [official] <continent> [N])",
+                Parameter.text("continent"), Parameter.count("N", 10));
+    }
+
+    @Override
+    protected void run(LanguageMatrix matrix, BoundArguments bound, String[] words, boolean officialOnly) {
+        String name = bound.text("continent");
+        Optional<String> scope = matrix.findContinent(name);
+        if (scope.isEmpty()) {
+            System.out.println("  No continent found: " + name);
+            return;
+        }
+
+        int n = bound.count("N");
+        printShares("Top " + n + " " + official(officialOnly) + "Languages in " + scope.get(), scope.get(),
+                matrix.top(n, scope.get(), null, officialOnly));
+    }
+}
@@ -0,0 +1,34 @@
+package com.napier.sem.commands.language;
+
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+import com.napier.sem.data.LanguageMatrix;
+
+import java.util.Optional;
+
+/**
+ * Command to display the most spoken languages in a region.
+ * Usage: top-languages-region [official] <region> [N]
+ */
+public class TopLanguagesByRegionCommand extends LanguageCommandBase {
+
+    public TopLanguagesByRegionCommand() {
+        super("top-languages-region",
+                "Display the N most spoken languages in a region (usage: top-languages-region [official] <region> [N])",
+                Parameter.text("region"), Parameter.count("N", 10));
+    }
+
+    @Override
+    protected void run(LanguageMatrix matrix, BoundArguments bound, String[] words, boolean officialOnly) {
+        String name = bound.text("region");
+        Optional<String> scope = matrix.findRegion(name);
+        if (scope.isEmpty()) {
+            System.out.println("  No region found: " + name);
+            return;
+        }
+
+        int n = bound.count("N");
+        printShares("Top " + n + " " + official(officialOnly) + "Languages in " + scope.get(), scope.get(),
+                matrix.top(n, null, scope.get(), officialOnly));
+    }
+}
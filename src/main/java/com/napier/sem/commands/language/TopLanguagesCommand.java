@@ -0,0 +1,25 @@
+package com.napier.sem.commands.language;
+
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+import com.napier.sem.data.LanguageMatrix;
+
+/**
+ * Command to display the most spoken languages in the world.
+ * Usage: top-languages [official] [N]
+ */
+public class TopLanguagesCommand extends LanguageCommandBase {
+
+    public TopLanguagesCommand() {
+        super("top-languages",
+                "Display the N most spoken languages in the world (usage: top-languages [official] [N])",
+                Parameter.count("N", 10));
+    }
+
+    @Override
+    protected void run(LanguageMatrix matrix, BoundArguments bound, String[] words, boolean officialOnly) {
+        int n = bound.count("N");
+        printShares("Top " + n + " " + official(officialOnly) + "Languages in the World", "World",
+                matrix.top(n, null, null, officialOnly));
+    }
+}
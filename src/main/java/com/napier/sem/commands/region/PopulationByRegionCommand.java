@@ -1,6 +1,10 @@
 package com.napier.sem.commands.region;
 
 import com.napier.sem.CommandBase;
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+import com.napier.sem.data.SummaryTableService;
+import com.napier.sem.shard.ScatterGather;
 import com.napier.sem.utils.TableFormatter;
 
 import java.sql.Connection;
@@ -23,7 +27,8 @@ public class PopulationByRegionCommand extends CommandBase {
     public PopulationByRegionCommand() {
         super(
                 "population-region",
-                "Displays total, urban, and non-urban population for a specific region (usage: population-region <region_name>)"
+                "Displays total, urban, and non-urban population for a specific region (usage: population-region <region_name>)",
+                Parameter.text("region")
         );
     }
 
@@ -35,27 +40,36 @@ public class PopulationByRegionCommand extends CommandBase {
     public void execute(Connection connection, String[] args) throws SQLException {
 
         // ---- Input Validation ----
-        if (args.length < 2) {
-            System.out.println("  Please provide a region name. Usage: population-region <region_name>");
-            return;
-        }
-
-        String regionName = args[1].trim();
-
-        if (regionName.isEmpty()) {
-            System.out.println(" Invalid input. Region name cannot be empty.");
+        BoundArguments bound = bind(args);
+        if (bound == null) {
             return;
         }
+        String regionName = bound.text("region");
 
         // ---- SQL Query ----
-        String sql = """
+        // Read the region summary when it is up to date; it is a single primary key row.
+        // Otherwise the cities are summed per country first, as the summary is built, so
+        // each country's population is counted once rather than once per city
+        String sql = SummaryTableService.current() != null
+                ? """
+                SELECT
+                    Region,
+                    Population AS TotalPopulation,
+                    UrbanPopulation
+                FROM %s
+                WHERE Region = ?;
+                """.formatted(SummaryTableService.REGION_TABLE)
+                : """
                 SELECT
                     co.Region AS Region,
                     SUM(co.Population) AS TotalPopulation,
-                    SUM(ci.Population) AS UrbanPopulation,
-                    (SUM(co.Population) - SUM(ci.Population)) AS NonUrbanPopulation
+                    SUM(ci.UrbanPopulation) AS UrbanPopulation
                 FROM country co
-                LEFT JOIN city ci ON ci.CountryCode = co.Code
+                LEFT JOIN (
+                    SELECT CountryCode, SUM(Population) AS UrbanPopulation
+                    FROM city
+                    GROUP BY CountryCode
+                ) ci ON ci.CountryCode = co.Code
                 WHERE co.Region = ?
                 GROUP BY co.Region;
                 """;
@@ -66,39 +80,64 @@ public class PopulationByRegionCommand extends CommandBase {
         }
 
         // ---- Execute Query ----
+        // Add up the region's countries from every shard
+        long total = 0;
+        long urban = 0;
+        boolean found = false;
+        try {
+            for (long[] shard : ScatterGather.acrossShards(connection, db -> fetch(db, sql, regionName))) {
+                if (shard != null) {
+                    found = true;
+                    total += shard[0];
+                    urban += shard[1];
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println(" Database query failed: " + e.getMessage());
+            throw e;
+        }
+
+        if (!found) {
+            System.out.println("No population data found for region: " + regionName);
+            return;
+        }
+
+        long nonUrban = total - urban;
+
+        // ---- Display Results ----
+        String format = "%46s%n";
+
+        System.out.println("\n Population Report for Region: " + regionName);
+        System.out.println(TableFormatter.generateSeparator(format));
+        System.out.printf("Total Population:        %,d%n", total);
+        System.out.printf("Urban Population:        %,d%n", urban);
+        System.out.printf("Non-Urban Population:    %,d%n", nonUrban);
+        System.out.println(TableFormatter.generateSeparator(format));
+    }
+
+    /**
+     * Fetch the region's total and urban population, or null if this database has none of it
+     */
+    private static long[] fetch(Connection connection, String sql, String regionName) throws SQLException {
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setString(1, regionName);
 
             try (ResultSet rs = stmt.executeQuery()) {
-
                 if (!rs.next()) {
-                    System.out.println("No population data found for region: " + regionName);
-                    return;
+                    return null;
                 }
-
-                long total = rs.getLong("TotalPopulation");
-                long urban = rs.getLong("UrbanPopulation");
-
-                if (rs.wasNull()) {
-                    urban = 0;
-                }
-
-                long nonUrban = total - urban;
-
-                // ---- Display Results ----
-                String format = "%46s%n";
-                
-                System.out.println("\n Population Report for Region: " + regionName);
-                System.out.println(TableFormatter.generateSeparator(format));
-                System.out.printf("Total Population:        %,d%n", total);
-                System.out.printf("Urban Population:        %,d%n", urban);
-                System.out.printf("Non-Urban Population:    %,d%n", nonUrban);
-                System.out.println(TableFormatter.generateSeparator(format));
+                // A NULL urban population reads as 0
+                return new long[]{rs.getLong("TotalPopulation"), rs.getLong("UrbanPopulation")};
             }
-
-        } catch (SQLException e) {
-            System.out.println(" Database query failed: " + e.getMessage());
-            throw e;
         }
     }
+
+    /**
+     * Sharded data is supported: the region is summed across every shard
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
 }
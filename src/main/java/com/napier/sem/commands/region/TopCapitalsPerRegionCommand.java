@@ -0,0 +1,20 @@
+package com.napier.sem.commands.region;
+
+import com.napier.sem.reports.GroupedReportCommandBase;
+import com.napier.sem.reports.ReportSpec;
+
+/**
+ * Command to display the top N capital cities of every region in one query.
+ * User Story: As a Data Analyst, I want the largest capital cities of every region in one
+ * report so that I can compare regions without running a command for each.
+ * Usage: top-capitals-per-region [N]
+ */
+public class TopCapitalsPerRegionCommand extends GroupedReportCommandBase {
+
+    public TopCapitalsPerRegionCommand() {
+        super("top-capitals-per-region",
+                "Display the top N capital cities in every region by population (usage: top-capitals-per-region [N])",
+                new ReportSpec(ReportSpec.Entity.CAPITAL, ReportSpec.Scope.REGION, ReportSpec.Metric.POPULATION, true),
+                3);
+    }
+}
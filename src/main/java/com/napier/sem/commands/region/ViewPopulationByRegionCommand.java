@@ -1,11 +1,19 @@
 package com.napier.sem.commands.region;
 
 import com.napier.sem.CommandBase;
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+import com.napier.sem.shard.ScatterGather;
 import com.napier.sem.utils.TableFormatter;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Command to view population details by region
@@ -14,7 +22,7 @@ import java.sql.SQLException;
 public class ViewPopulationByRegionCommand extends CommandBase {
 
     public ViewPopulationByRegionCommand() {
-        super("region-pop", "View population details for a region (usage: region-pop <region_name>)");
+        super("region-pop", "View population details for a region (usage: region-pop <region_name>)", Parameter.text("region"));
     }
 
     /**
@@ -23,12 +31,11 @@ public class ViewPopulationByRegionCommand extends CommandBase {
     @Override
     public void execute(Connection connection, String[] args) throws SQLException {
         // Validate input
-        if (args.length < 2 || args[1].trim().isEmpty()) {
-            System.out.println("Please provide a valid region name. Example: regionpop 'Eastern Asia'");
+        BoundArguments bound = bind(args);
+        if (bound == null) {
             return;
         }
-
-        String region = args[1].trim();
+        String region = bound.text("region");
 
         // SQL query to fetch population details for a region
         String query = "SELECT " +
@@ -45,36 +52,68 @@ public class ViewPopulationByRegionCommand extends CommandBase {
                 "GROUP BY r.Region " +
                 "ORDER BY TotalPopulation DESC";
 
+        // Add up each region's totals from every shard, then order them again
+        Map<String, long[]> totals = new LinkedHashMap<>();
+        try {
+            for (Map<String, long[]> shard : ScatterGather.acrossShards(connection, db -> fetch(db, query, region))) {
+                for (Map.Entry<String, long[]> entry : shard.entrySet()) {
+                    totals.merge(entry.getKey(), entry.getValue(), (a, b) -> new long[]{a[0] + b[0], a[1] + b[1]});
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println("Error executing population by region query: " + e.getMessage());
+            throw e;
+        }
+
+        if (totals.isEmpty()) {
+            System.out.println("No data found for region: " + region);
+            return;
+        }
+
+        List<Map.Entry<String, long[]>> rows = new ArrayList<>(totals.entrySet());
+        rows.sort(Comparator.comparingLong((Map.Entry<String, long[]> row) -> row.getValue()[0]).reversed());
+
+        String headerFormat = "%-30s %-15s %-15s %-15s%n";
+
+        System.out.println("Population Details by Region:");
+        System.out.println(TableFormatter.generateSeparator(headerFormat));
+        System.out.printf(headerFormat,
+                "Region", "Total", "Urban", "Non-Urban");
+        System.out.println(TableFormatter.generateDashedSeparator(headerFormat));
+
+        for (Map.Entry<String, long[]> row : rows) {
+            long total = row.getValue()[0];
+            long urban = row.getValue()[1];
+
+            System.out.printf("%-30s %,15d %,15d %,15d%n",
+                    row.getKey(), total, urban, total - urban);
+        }
+    }
+
+    /**
+     * Fetch the total and urban population of each matching region, largest first
+     */
+    private static Map<String, long[]> fetch(Connection connection, String query, String region) throws SQLException {
+        Map<String, long[]> totals = new LinkedHashMap<>();
         try (PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, "%" + region + "%");
 
             try (ResultSet rs = stmt.executeQuery()) {
-                if (!rs.isBeforeFirst()) {
-                    System.out.println("No data found for region: " + region);
-                    return;
-                }
-
-                String headerFormat = "%-30s %-15s %-15s %-15s%n";
-                
-                System.out.println("Population Details by Region:");
-                System.out.println(TableFormatter.generateSeparator(headerFormat));
-                System.out.printf(headerFormat,
-                        "Region", "Total", "Urban", "Non-Urban");
-                System.out.println(TableFormatter.generateDashedSeparator(headerFormat));
-
                 while (rs.next()) {
-                    String regionName = rs.getString("Region");
-                    long total = rs.getLong("TotalPopulation");
-                    long urban = rs.getLong("UrbanPopulation");
-                    long nonUrban = rs.getLong("NonUrbanPopulation");
-
-                    System.out.printf("%-30s %,15d %,15d %,15d%n",
-                            regionName, total, urban, nonUrban);
+                    totals.put(rs.getString("Region"),
+                            new long[]{rs.getLong("TotalPopulation"), rs.getLong("UrbanPopulation")});
                 }
             }
-        } catch (SQLException e) {
-            System.out.println("Error executing population by region query: " + e.getMessage());
-            throw e;
         }
+        return totals;
+    }
+
+    /**
+     * Sharded data is supported: regions are summed across every shard
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
     }
 }
@@ -0,0 +1,71 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.resilience.CircuitBreaker;
+import com.napier.sem.resilience.ResilientCommandExecutor;
+import com.napier.sem.utils.TableFormatter;
+
+import java.sql.Connection;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Command to display the state of the database circuit breaker and its fallback counters.
+ */
+public class CircuitStatusCommand extends CommandBase {
+
+    private final ResilientCommandExecutor executor;
+
+    public CircuitStatusCommand() {
+        this(null);
+    }
+
+    /**
+     * Constructor for tests
+     * @param executor Executor to report on, or null for the shared executor
+     */
+    CircuitStatusCommand(ResilientCommandExecutor executor) {
+        super("circuit-status", "Display circuit breaker state, failures and stale fallbacks (usage: circuit-status)");
+        this.executor = executor;
+    }
+
+    /**
+     * Prints the breaker state, transition history and stale-result counters.
+     */
+    @Override
+    public void execute(Connection connection, String[] args) {
+        ResilientCommandExecutor target = executor != null ? executor : ResilientCommandExecutor.getDefault();
+        CircuitBreaker breaker = target.getBreaker();
+
+        String format = "%-28s %20s%n";
+        String lastTransition = new SimpleDateFormat("HH:mm:ss").format(new Date(breaker.getLastTransitionMillis()));
+
+        System.out.println("\n Circuit Breaker Status");
+        System.out.println(TableFormatter.generateSeparator(format));
+        System.out.printf(format, "State", breaker.getState());
+        System.out.printf(format, "Last transition", lastTransition);
+        System.out.printf(format, "Transitions", breaker.getTransitions());
+        System.out.printf(format, "Consecutive failures", breaker.getConsecutiveFailures() + "/" + breaker.getFailureThreshold());
+        System.out.printf(format, "Successful calls", breaker.getTotalSuccesses());
+        System.out.printf(format, "Failed calls", breaker.getTotalFailures());
+        System.out.printf(format, "Timed out calls", target.getTimeouts());
+        System.out.printf(format, "Short-circuited calls", breaker.getRejectedCalls());
+        System.out.println(TableFormatter.generateDashedSeparator(format));
+        System.out.printf(format, "Stale results served", target.getStaleServed());
+        System.out.printf(format, "Fallback misses", target.getFallbackMisses());
+        System.out.printf(format, "Background refreshes", target.getBackgroundRefreshes());
+        System.out.printf(format, "Pending refreshes", target.getPendingRefreshCount());
+        System.out.printf(format, "Cached results", target.getCachedResultCount());
+        System.out.println(TableFormatter.generateSeparator(format));
+    }
+
+    @Override
+    public boolean isPrefetchable() {
+        return false;
+    }
+
+    @Override
+    public boolean requiresDatabase() {
+        return false;
+    }
+}
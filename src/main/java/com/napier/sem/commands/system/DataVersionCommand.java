@@ -0,0 +1,100 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.data.DataVersionService;
+import com.napier.sem.data.NameResolver;
+import com.napier.sem.data.WorldData;
+import com.napier.sem.data.WorldSnapshot;
+import com.napier.sem.reports.RankedListCache;
+import com.napier.sem.utils.TableFormatter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Command to display the current data version, table checksums and the state of the
+ * in-memory world snapshot built from them.
+ * Passing "check" forces an immediate checksum poll.
+ */
+public class DataVersionCommand extends CommandBase {
+
+    private final DataVersionService service;
+
+    public DataVersionCommand() {
+        this(null);
+    }
+
+    /**
+     * Constructor for tests
+     * @param service Service to report on, or null for the shared service
+     */
+    DataVersionCommand(DataVersionService service) {
+        super("data-version", "Display the data version used for cache invalidation (usage: data-version [check])");
+        this.service = service;
+    }
+
+    /**
+     * Prints the data version, polling statistics and per-table checksums.
+     */
+    @Override
+    public void execute(Connection connection, String[] args) throws SQLException {
+        DataVersionService target = service != null ? service : DataVersionService.getDefault();
+
+        if (args.length > 1 && "check".equalsIgnoreCase(args[1].trim())) {
+            target.checkNow();
+        }
+
+        String format = "%-24s %20s%n";
+        String lastCheck = target.getLastCheckMillis() == 0
+                ? "never"
+                : new SimpleDateFormat("HH:mm:ss").format(new Date(target.getLastCheckMillis()));
+
+        System.out.println("\n Data Version");
+        System.out.println(TableFormatter.generateSeparator(format));
+        System.out.printf(format, "Version", target.getVersion());
+        System.out.printf(format, "Polling", target.isRunning() ? "every " + target.getPollIntervalMillis() + " ms" : "stopped");
+        System.out.printf(format, "Last check", lastCheck);
+        System.out.printf(format, "Last check cost (ms)", target.getLastCheckDurationMillis());
+        System.out.printf(format, "Checks / failed", target.getChecks() + " / " + target.getFailedChecks());
+        System.out.printf(format, "Listener failures", target.getFailedNotifications());
+        System.out.println(TableFormatter.generateDashedSeparator(format));
+        for (Map.Entry<String, Long> entry : new TreeMap<>(target.getChecksums()).entrySet()) {
+            System.out.printf(format, entry.getKey(), entry.getValue());
+        }
+        System.out.println(TableFormatter.generateDashedSeparator(format));
+
+        WorldSnapshot snapshot = WorldData.current();
+        if (snapshot == null) {
+            System.out.printf(format, "World snapshot", "not loaded");
+        } else {
+            NameResolver resolver = NameResolver.current();
+            System.out.printf(format, "Snapshot version", snapshot.getDataVersion());
+            System.out.printf(format, "Countries / cities", snapshot.getCountries().size() + " / " + snapshot.getCities().size());
+            System.out.printf(format, "Name hits / misses", resolver.getHits() + " / " + resolver.getMisses());
+            System.out.printf(format, "Negative cache hits", resolver.getNegativeHits());
+            RankedListCache ranked = RankedListCache.current();
+            System.out.printf(format, "Ranked scopes / rows", ranked.getScopeCount() + " / " + ranked.getRowCount());
+            System.out.printf(format, "Ranked hits / misses", ranked.getHits() + " / " + ranked.getMisses());
+            System.out.printf(format, "Ranked evictions", ranked.getEvictions());
+        }
+        System.out.println(TableFormatter.generateSeparator(format));
+    }
+
+    @Override
+    public boolean isPrefetchable() {
+        return false;
+    }
+
+    /**
+     * Sharded data is supported: reports the data version, which is checked on every shard
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
+}
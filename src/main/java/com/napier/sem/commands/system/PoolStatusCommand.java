@@ -0,0 +1,86 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.DatabaseConfig;
+import com.napier.sem.pool.PoolSizeController;
+import com.napier.sem.utils.TableFormatter;
+
+import java.sql.Connection;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Command to display the connection pool size chosen by the auto-sizing controller,
+ * the measurements behind it and the most recent resizes.
+ */
+public class PoolStatusCommand extends CommandBase {
+
+    private final PoolSizeController controller;
+
+    public PoolStatusCommand() {
+        this(null);
+    }
+
+    /**
+     * Constructor for tests
+     * @param controller Controller to report on, or null for the application's pool
+     */
+    PoolStatusCommand(PoolSizeController controller) {
+        super("pool-status", "Display connection pool size, load and auto-sizing decisions (usage: pool-status)");
+        this.controller = controller;
+    }
+
+    /**
+     * Prints the pool bounds, current use, last sample and resize history.
+     */
+    @Override
+    public void execute(Connection connection, String[] args) {
+        PoolSizeController target = controller != null ? controller : DatabaseConfig.getPoolController();
+        if (target == null) {
+            System.out.println("  Pool auto-sizing is not running.");
+            return;
+        }
+
+        String format = "%-24s %32s%n";
+        System.out.println("\n Connection Pool");
+        System.out.println(TableFormatter.generateSeparator(format));
+        System.out.printf(format, "Maximum size", target.getMaximumPoolSize()
+                + " (bounds " + target.getLowerBound() + "-" + target.getUpperBound() + ")");
+        System.out.printf(format, "Minimum idle", target.getMinimumIdle());
+        System.out.printf(format, "Active / idle / total", target.getPool().getActiveConnections() + " / "
+                + target.getPool().getIdleConnections() + " / " + target.getPool().getTotalConnections());
+        System.out.printf(format, "Threads waiting", target.getPool().getThreadsAwaitingConnection());
+        System.out.printf(format, "Adjusting", target.isRunning() ? "every " + target.getIntervalMillis() + " ms" : "stopped");
+        System.out.println(TableFormatter.generateDashedSeparator(format));
+
+        PoolSizeController.Sample sample = target.getLastSample();
+        if (sample == null) {
+            System.out.printf(format, "Last sample", "none yet");
+        } else {
+            System.out.printf(format, "Waiting at sample", sample.waiting());
+            System.out.printf(format, "Mean wait (ms)", String.format("%.2f", sample.meanWaitMillis()));
+            System.out.printf(format, "Peak active", sample.peakActive());
+            System.out.printf(format, "Latency vs baseline", String.format("%.2fx", sample.latencyRatio()));
+        }
+        System.out.printf(format, "Last decision", target.getLastDecision());
+        System.out.printf(format, "Resizes", target.getAdjustments());
+        System.out.println(TableFormatter.generateDashedSeparator(format));
+
+        SimpleDateFormat time = new SimpleDateFormat("HH:mm:ss");
+        for (PoolSizeController.Adjustment adjustment : target.getHistory()) {
+            System.out.printf("  %s  %2d -> %-2d  %s%n", time.format(new Date(adjustment.atMillis())),
+                    adjustment.from(), adjustment.to(), adjustment.reason());
+        }
+        System.out.println(TableFormatter.generateSeparator(format));
+    }
+
+    @Override
+    public boolean isPrefetchable() {
+        return false;
+    }
+
+    @Override
+    public boolean requiresDatabase() {
+        return false;
+    }
+}
@@ -0,0 +1,107 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.prefetch.CommandPrefetcher;
+import com.napier.sem.resilience.ResilientCommandExecutor;
+import com.napier.sem.utils.TableFormatter;
+
+import java.sql.Connection;
+
+/**
+ * Command to display how well predictive prefetching is working, and to tune it:
+ * "prefetch on|off" turns it on or off, "prefetch confidence &lt;p&gt;" sets the least
+ * confidence a prediction needs, "prefetch clear" drops the cached results and
+ * "prefetch reset" forgets every session's history and zeroes the counters.
+ */
+public class PrefetchCommand extends CommandBase {
+
+    private static final String USAGE = "Usage: prefetch [on | off | confidence <0-1> | clear | reset]";
+
+    private final CommandPrefetcher prefetcher;
+
+    public PrefetchCommand() {
+        this(null);
+    }
+
+    /**
+     * Constructor for tests
+     * @param prefetcher Prefetcher to report on, or null for the shared executor's prefetcher
+     */
+    PrefetchCommand(CommandPrefetcher prefetcher) {
+        super("prefetch", "Display or tune predictive prefetching (usage: prefetch [on | off | confidence <p> | clear | reset])");
+        this.prefetcher = prefetcher;
+    }
+
+    /**
+     * Applies a change if one is given, then prints the settings and counters.
+     */
+    @Override
+    public void execute(Connection connection, String[] args) {
+        CommandPrefetcher target = prefetcher != null ? prefetcher : ResilientCommandExecutor.getDefault().getPrefetcher();
+
+        if (args.length > 1 && !apply(target, args)) {
+            return;
+        }
+
+        CommandPrefetcher.Stats stats = target.getStats();
+        String format = "%-24s %16s%n";
+        System.out.println("\n Prefetching");
+        System.out.println(TableFormatter.generateSeparator(format));
+        System.out.printf(format, "Enabled", target.isEnabled() ? "yes" : "no");
+        System.out.printf(format, "Min confidence", String.format("%.2f", target.getMinConfidence()));
+        System.out.printf(format, "Cached", stats.cached() + "/" + target.getMaxEntries());
+        System.out.printf(format, "Time to live ms", String.format("%,d", target.getTtlMillis()));
+        System.out.printf(format, "Sessions", String.format("%,d", stats.sessions()));
+        System.out.println(TableFormatter.generateDashedSeparator(format));
+        System.out.printf(format, "Predictions", String.format("%,d", stats.predictions()));
+        System.out.printf(format, "Correct", String.format("%,d", stats.correct()));
+        System.out.printf(format, "Accuracy", String.format("%.1f%%", stats.accuracy() * 100));
+        System.out.printf(format, "Prefetched", String.format("%,d", stats.issued()));
+        System.out.printf(format, "Skipped", String.format("%,d", stats.skipped()));
+        System.out.printf(format, "Hits", String.format("%,d", stats.hits()));
+        System.out.printf(format, "Hit rate", String.format("%.1f%%", stats.hitRate() * 100));
+        System.out.printf(format, "Wasted", String.format("%,d", stats.wasted()));
+        System.out.printf(format, "Time saved ms", String.format("%,d", stats.savedMillis()));
+        System.out.printf(format, "Time wasted ms", String.format("%,d", stats.wastedMillis()));
+        System.out.println(TableFormatter.generateSeparator(format));
+    }
+
+    private boolean apply(CommandPrefetcher target, String[] args) {
+        String action = args[1].trim().toLowerCase();
+        if (args.length == 2 && ("on".equals(action) || "off".equals(action))) {
+            target.setEnabled("on".equals(action));
+        } else if (args.length == 2 && "clear".equals(action)) {
+            target.clear();
+        } else if (args.length == 2 && "reset".equals(action)) {
+            target.reset();
+        } else if (args.length == 3 && "confidence".equals(action)) {
+            double confidence;
+            try {
+                confidence = Double.parseDouble(args[2].trim());
+            } catch (NumberFormatException e) {
+                System.out.println(USAGE);
+                return false;
+            }
+            if (confidence < 0 || confidence > 1) {
+                System.out.println("Confidence must be between 0 and 1");
+                return false;
+            }
+            target.setMinConfidence(confidence);
+        } else {
+            System.out.println(USAGE);
+            return false;
+        }
+        System.out.println("  Updated prefetching.");
+        return true;
+    }
+
+    @Override
+    public boolean isPrefetchable() {
+        return false;
+    }
+
+    @Override
+    public boolean requiresDatabase() {
+        return false;
+    }
+}
@@ -0,0 +1,130 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.resilience.ResilientCommandExecutor;
+import com.napier.sem.scheduling.CostClass;
+import com.napier.sem.scheduling.RateLimiter;
+import com.napier.sem.utils.TableFormatter;
+
+import java.sql.Connection;
+
+/**
+ * Command to display and change the rate limits and connection quotas of each cost class
+ * while the application runs. "rate-limit set &lt;class&gt; &lt;per second&gt; &lt;burst&gt;" changes a
+ * rate limit for every client, "rate-limit quota &lt;class&gt; &lt;n&gt;" changes how many commands
+ * of a class may run at once; a rate of "off" turns limiting off for the class.
+ */
+public class RateLimitCommand extends CommandBase {
+
+    private static final String USAGE = "Usage: rate-limit [set <class> <per second|off> <burst> | quota <class> <n>]";
+
+    private final ResilientCommandExecutor executor;
+
+    public RateLimitCommand() {
+        this(null);
+    }
+
+    /**
+     * Constructor for tests
+     * @param executor Executor to configure, or null for the shared one
+     */
+    RateLimitCommand(ResilientCommandExecutor executor) {
+        super("rate-limit", "Display or change rate limits and quotas per cost class (usage: rate-limit [set <class> <rate> <burst> | quota <class> <n>])");
+        this.executor = executor;
+    }
+
+    /**
+     * Applies a change if one is given, then prints the limits and per-client counters.
+     */
+    @Override
+    public void execute(Connection connection, String[] args) {
+        ResilientCommandExecutor target = executor != null ? executor : ResilientCommandExecutor.getDefault();
+        RateLimiter limiter = target.getRateLimiter();
+
+        if (args.length > 1 && !apply(target, args)) {
+            return;
+        }
+
+        String format = "%-10s %10s %8s %8s%n";
+        System.out.println("\n Rate Limits");
+        System.out.println(TableFormatter.generateSeparator(format));
+        System.out.printf(format, "Class", "Per second", "Burst", "Quota");
+        System.out.println(TableFormatter.generateDashedSeparator(format));
+        for (CostClass costClass : CostClass.values()) {
+            RateLimiter.Limit limit = limiter.getLimit(costClass);
+            System.out.printf(format, costClass.keyword(),
+                    limit.isUnlimited() ? "off" : String.format("%.1f", limit.perSecond()), limit.burst(),
+                    target.getScheduler().getStats(costClass).quota());
+        }
+        System.out.println(TableFormatter.generateSeparator(format));
+
+        String clientFormat = "%-16s %-10s %10s %10s %8s%n";
+        System.out.printf(clientFormat, "Client", "Class", "Allowed", "Limited", "Tokens");
+        System.out.println(TableFormatter.generateDashedSeparator(clientFormat));
+        for (RateLimiter.ClientStats stats : limiter.getClientStats()) {
+            System.out.printf("%-16s %-10s %,10d %,10d %8.1f%n", stats.client(), stats.costClass().keyword(),
+                    stats.allowed(), stats.limited(), stats.tokens());
+        }
+        System.out.println(TableFormatter.generateSeparator(clientFormat));
+    }
+
+    private boolean apply(ResilientCommandExecutor target, String[] args) {
+        String action = args[1].trim().toLowerCase();
+        boolean set = "set".equals(action) && args.length == 5;
+        boolean quota = "quota".equals(action) && args.length == 4;
+        if (!set && !quota) {
+            System.out.println(USAGE);
+            return false;
+        }
+
+        CostClass costClass = null;
+        for (CostClass candidate : CostClass.values()) {
+            if (candidate.keyword().equalsIgnoreCase(args[2].trim())) {
+                costClass = candidate;
+            }
+        }
+        if (costClass == null) {
+            System.out.println("Unknown cost class: " + args[2] + " (point, top-n, aggregate or listing)");
+            return false;
+        }
+
+        try {
+            if (set) {
+                String rate = args[3].trim();
+                RateLimiter.Limit limit = new RateLimiter.Limit(
+                        "off".equalsIgnoreCase(rate) ? 0 : Double.parseDouble(rate), Integer.parseInt(args[4].trim()));
+                if (!"off".equalsIgnoreCase(rate) && !(Double.isFinite(limit.perSecond()) && limit.perSecond() > 0)) {
+                    System.out.println("Rate must be a positive number of commands per second, or 'off'");
+                    return false;
+                }
+                if (limit.burst() < 1) {
+                    System.out.println("Burst must be at least 1");
+                    return false;
+                }
+                target.getRateLimiter().setLimit(costClass, limit);
+            } else {
+                int size = Integer.parseInt(args[3].trim());
+                if (size < 1) {
+                    System.out.println("Quota must be at least 1");
+                    return false;
+                }
+                target.getScheduler().setQuota(costClass, size);
+            }
+        } catch (NumberFormatException e) {
+            System.out.println(USAGE);
+            return false;
+        }
+        System.out.println("  Updated " + costClass.keyword() + ".");
+        return true;
+    }
+
+    @Override
+    public boolean isPrefetchable() {
+        return false;
+    }
+
+    @Override
+    public boolean requiresDatabase() {
+        return false;
+    }
+}
@@ -0,0 +1,63 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.resilience.ResilientCommandExecutor;
+import com.napier.sem.scheduling.CommandScheduler;
+import com.napier.sem.scheduling.CostClass;
+import com.napier.sem.utils.TableFormatter;
+
+import java.sql.Connection;
+
+/**
+ * Command to display each scheduler lane: its connection quota, how many commands are
+ * running and waiting, and how long they waited to start.
+ */
+public class SchedulerStatusCommand extends CommandBase {
+
+    private final CommandScheduler scheduler;
+
+    public SchedulerStatusCommand() {
+        this(null);
+    }
+
+    /**
+     * Constructor for tests
+     * @param scheduler Scheduler to report on, or null for the shared executor's scheduler
+     */
+    SchedulerStatusCommand(CommandScheduler scheduler) {
+        super("scheduler-status", "Display queue depth and wait time per command cost class (usage: scheduler-status)");
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Prints one row per cost class.
+     */
+    @Override
+    public void execute(Connection connection, String[] args) {
+        CommandScheduler target = scheduler != null ? scheduler : ResilientCommandExecutor.getDefault().getScheduler();
+
+        String format = "%-10s %6s %8s %10s %10s %9s %12s %12s%n";
+        String rowFormat = "%-10s %6d %8d %10s %,10d %,9d %12.2f %12.2f%n";
+        System.out.println("\n Command Scheduler");
+        System.out.println(TableFormatter.generateSeparator(format));
+        System.out.printf(format, "Class", "Quota", "Running", "Queued", "Completed", "Rejected", "Mean wait ms", "Max wait ms");
+        System.out.println(TableFormatter.generateDashedSeparator(format));
+        for (CostClass costClass : CostClass.values()) {
+            CommandScheduler.LaneStats stats = target.getStats(costClass);
+            System.out.printf(rowFormat, costClass.keyword(), stats.quota(), stats.running(),
+                    stats.queued() + "/" + stats.queueCapacity(), stats.completed(), stats.rejected(),
+                    stats.meanWaitMillis(), stats.maxWaitMillis());
+        }
+        System.out.println(TableFormatter.generateSeparator(format));
+    }
+
+    @Override
+    public boolean isPrefetchable() {
+        return false;
+    }
+
+    @Override
+    public boolean requiresDatabase() {
+        return false;
+    }
+}
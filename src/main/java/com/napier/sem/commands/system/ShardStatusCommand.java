@@ -0,0 +1,63 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.DatabaseConfig;
+import com.napier.sem.shard.ScatterGather;
+import com.napier.sem.shard.ShardMap;
+import com.napier.sem.utils.TableFormatter;
+
+import java.sql.Connection;
+import java.util.Map;
+
+/**
+ * Command to display which shard holds each continent and how the queries sent to
+ * each shard have performed.
+ */
+public class ShardStatusCommand extends CommandBase {
+
+    public ShardStatusCommand() {
+        super("shard-status", "Display the continent shard map and query time per shard (usage: shard-status)");
+    }
+
+    /**
+     * Prints the shard map and per-shard counters.
+     */
+    @Override
+    public void execute(Connection connection, String[] args) {
+        ShardMap shards = DatabaseConfig.getShardMap();
+        if (shards == null) {
+            System.out.println("  The data is not sharded; set SHARD_MAP to spread continents over several databases.");
+            return;
+        }
+
+        String format = "%-24s %-32s%n";
+        System.out.println("\n Continent Shards");
+        System.out.println(TableFormatter.generateSeparator(format));
+        System.out.printf(format, "Continent", "Shard");
+        System.out.println(TableFormatter.generateDashedSeparator(format));
+        for (Map.Entry<String, String> entry : shards.getContinentShards().entrySet()) {
+            System.out.printf(format, entry.getKey(), entry.getValue());
+        }
+        System.out.printf(format, "(any other)", ShardMap.DEFAULT_SHARD);
+        System.out.println(TableFormatter.generateSeparator(format));
+
+        String statsFormat = "%-24s %10s %10s %10s%n";
+        System.out.printf(statsFormat, "Shard", "Queries", "Failures", "Mean ms");
+        System.out.println(TableFormatter.generateDashedSeparator(statsFormat));
+        for (ScatterGather.ShardStats stats : ScatterGather.getStats()) {
+            System.out.printf("%-24s %,10d %,10d %10.2f%n", stats.shard(), stats.queries(), stats.failures(),
+                    stats.meanMillis());
+        }
+        System.out.println(TableFormatter.generateSeparator(statsFormat));
+    }
+
+    @Override
+    public boolean isPrefetchable() {
+        return false;
+    }
+
+    @Override
+    public boolean requiresDatabase() {
+        return false;
+    }
+}
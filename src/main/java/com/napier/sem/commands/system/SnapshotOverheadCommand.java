@@ -0,0 +1,149 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.CommandRegistry;
+import com.napier.sem.ICommand;
+import com.napier.sem.ReadOnlySnapshot;
+import com.napier.sem.utils.OutputCapture;
+import com.napier.sem.utils.TableFormatter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Command to measure what running a command inside a read-only consistent snapshot costs
+ * compared with autocommit. The command is run the given number of times in each mode,
+ * alternating so that caching and load affect both equally, with its output discarded.
+ * Usage: snapshot-overhead [runs] <command> [args...]
+ */
+public class SnapshotOverheadCommand extends CommandBase {
+
+    private static final String USAGE = "snapshot-overhead [runs] <command> [args...]";
+    private static final int DEFAULT_RUNS = 20;
+
+    /**
+     * Work timed in one mode
+     */
+    @FunctionalInterface
+    private interface Run {
+        void run() throws SQLException;
+    }
+
+    public SnapshotOverheadCommand() {
+        super("snapshot-overhead", "Compare a command's time in a read-only snapshot against autocommit (usage: " + USAGE + ")");
+    }
+
+    /**
+     * The target command and its arguments are free-form, so keep the raw arguments as the key
+     * @param args Command arguments
+     * @return Null, so the executor keys on the lower-cased arguments
+     */
+    @Override
+    public String getCacheKey(String[] args) {
+        return null;
+    }
+
+    /**
+     * Times the target command in both modes and prints the difference.
+     *
+     * @param connection Database connection
+     * @param args Command arguments
+     * @throws SQLException if the target command fails
+     */
+    @Override
+    public void execute(Connection connection, String[] args) throws SQLException {
+        int runs = DEFAULT_RUNS;
+        int start = 1;
+        if (args.length > 1 && args[1].trim().matches("\\d+")) {
+            runs = Math.max(1, Integer.parseInt(args[1].trim()));
+            start = 2;
+        }
+        if (args.length <= start) {
+            System.out.println("  Please provide a command to measure.");
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+        String name = args[start].trim().toLowerCase(Locale.ROOT);
+        ICommand target = CommandRegistry.getCommand(name);
+        if (target == null || target instanceof SnapshotOverheadCommand) {
+            System.out.println("  Cannot measure command: " + name);
+            return;
+        }
+        if (connection == null) {
+            System.out.println("  Database connection unavailable.");
+            return;
+        }
+        String[] targetArgs = Arrays.copyOfRange(args, start, args.length);
+
+        Run autocommit = () -> target.execute(connection, targetArgs);
+        Run snapshot = () -> {
+            try (ReadOnlySnapshot ignored = ReadOnlySnapshot.begin(connection)) {
+                target.execute(connection, targetArgs);
+            }
+        };
+
+        // One untimed run of each mode so connection and statement caches are warm for both
+        time(autocommit);
+        time(snapshot);
+
+        long[] autocommitNanos = new long[runs];
+        long[] snapshotNanos = new long[runs];
+        for (int r = 0; r < runs; r++) {
+            if (r % 2 == 0) {
+                autocommitNanos[r] = time(autocommit);
+                snapshotNanos[r] = time(snapshot);
+            } else {
+                snapshotNanos[r] = time(snapshot);
+                autocommitNanos[r] = time(autocommit);
+            }
+        }
+        Arrays.sort(autocommitNanos);
+        Arrays.sort(snapshotNanos);
+
+        String format = "%-12s %12s %12s %12s%n";
+        String rowFormat = "%-12s %12.3f %12.3f %12.3f%n";
+        System.out.println("\n Snapshot Overhead for " + String.join(" ", targetArgs) + " (" + runs + " runs each)");
+        System.out.println(TableFormatter.generateSeparator(format));
+        System.out.printf(format, "Mode", "Mean ms", "Median ms", "Min ms");
+        System.out.println(TableFormatter.generateDashedSeparator(format));
+        System.out.printf(rowFormat, "autocommit", mean(autocommitNanos), median(autocommitNanos), autocommitNanos[0] / 1e6);
+        System.out.printf(rowFormat, "snapshot", mean(snapshotNanos), median(snapshotNanos), snapshotNanos[0] / 1e6);
+        System.out.println(TableFormatter.generateSeparator(format));
+
+        double difference = median(snapshotNanos) - median(autocommitNanos);
+        double base = median(autocommitNanos);
+        System.out.printf("  Snapshot overhead: %+.3f ms per command (%+.1f%% of the median)%n",
+                difference, base == 0 ? 0 : difference * 100 / base);
+        System.out.printf("  Scope open and close: %.1f microseconds on average over %d scopes%n%n",
+                ReadOnlySnapshot.getAverageOverheadMicros(), ReadOnlySnapshot.getScopes());
+    }
+
+    private static long time(Run run) throws SQLException {
+        long started = System.nanoTime();
+        try {
+            OutputCapture.capture(run::run);
+        } catch (SQLException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SQLException(e);
+        }
+        return System.nanoTime() - started;
+    }
+
+    private static double mean(long[] nanos) {
+        return Arrays.stream(nanos).average().orElse(0) / 1e6;
+    }
+
+    private static double median(long[] sorted) {
+        int middle = sorted.length / 2;
+        double nanos = sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0;
+        return nanos / 1e6;
+    }
+
+    @Override
+    public boolean isPrefetchable() {
+        return false;
+    }
+}
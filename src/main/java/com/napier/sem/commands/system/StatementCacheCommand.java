@@ -0,0 +1,70 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.pool.StatementStats;
+import com.napier.sem.utils.TableFormatter;
+
+import java.sql.Connection;
+
+/**
+ * Command to display the statement cache: how many statements are learned and warmed on
+ * new connections, and per command how long a cold prepare (parsed by the server) takes
+ * compared with a cached one, which is the parse time the cache saves.
+ * Passing "reset" clears the timings and learned statements.
+ */
+public class StatementCacheCommand extends CommandBase {
+
+    public StatementCacheCommand() {
+        super("statement-cache", "Display prepared statement reuse and parse time saved per command (usage: statement-cache [reset])");
+    }
+
+    /**
+     * Prints warm-up statistics and cold versus cached prepare times.
+     */
+    @Override
+    public void execute(Connection connection, String[] args) {
+        if (args.length > 1 && "reset".equalsIgnoreCase(args[1].trim())) {
+            StatementStats.reset();
+            System.out.println("  Statement statistics reset.");
+            return;
+        }
+
+        String summaryFormat = "%-28s %20s%n";
+        System.out.println("\n Statement Cache");
+        System.out.println(TableFormatter.generateSeparator(summaryFormat));
+        System.out.printf(summaryFormat, "Learned statements", StatementStats.getLearnedCount());
+        System.out.printf(summaryFormat, "Warmed connections", StatementStats.getWarmedConnections());
+        System.out.printf(summaryFormat, "Warmed statements", StatementStats.getWarmedStatements());
+        System.out.printf(summaryFormat, "Mean warm-up (ms)", String.format("%.2f", StatementStats.getMeanWarmUpMillis()));
+        System.out.println(TableFormatter.generateSeparator(summaryFormat));
+
+        String format = "%-28s %8s %12s %8s %12s %12s%n";
+        String rowFormat = "%-28s %,8d %12.1f %,8d %12.1f %12.1f%n";
+        System.out.printf(format, "Command", "Cold", "Cold us", "Cached", "Cached us", "Saved us");
+        System.out.println(TableFormatter.generateDashedSeparator(format));
+        for (StatementStats.CommandTiming timing : StatementStats.getCommandTimings()) {
+            printTiming(rowFormat, timing);
+        }
+        System.out.println(TableFormatter.generateDashedSeparator(format));
+        printTiming(rowFormat, StatementStats.getTotal());
+        System.out.println(TableFormatter.generateSeparator(format));
+        System.out.println("  Times are mean microseconds per prepare; saved = cold - cached.");
+    }
+
+    private static void printTiming(String rowFormat, StatementStats.CommandTiming timing) {
+        double saved = timing.coldPrepares() == 0 || timing.cachedPrepares() == 0
+                ? 0 : timing.meanColdMicros() - timing.meanCachedMicros();
+        System.out.printf(rowFormat, timing.command(), timing.coldPrepares(), timing.meanColdMicros(),
+                timing.cachedPrepares(), timing.meanCachedMicros(), saved);
+    }
+
+    @Override
+    public boolean isPrefetchable() {
+        return false;
+    }
+
+    @Override
+    public boolean requiresDatabase() {
+        return false;
+    }
+}
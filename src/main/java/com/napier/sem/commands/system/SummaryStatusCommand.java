@@ -0,0 +1,88 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.data.SummaryTableService;
+import com.napier.sem.utils.TableFormatter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Command to display the state of the summary tables: the data version they were built
+ * at, whether they are stale, their age and what the last rebuild cost per table.
+ * Passing "refresh" rebuilds them immediately.
+ */
+public class SummaryStatusCommand extends CommandBase {
+
+    private final SummaryTableService service;
+
+    public SummaryStatusCommand() {
+        this(null);
+    }
+
+    /**
+     * Constructor for tests
+     * @param service Service to report on, or null for the shared service
+     */
+    SummaryStatusCommand(SummaryTableService service) {
+        super("summary-status", "Display summary table freshness and refresh cost (usage: summary-status [refresh])");
+        this.service = service;
+    }
+
+    /**
+     * Prints the summary versions, refresh statistics and per-table rebuild cost.
+     */
+    @Override
+    public void execute(Connection connection, String[] args) throws SQLException {
+        SummaryTableService target = service != null ? service : SummaryTableService.getDefault();
+
+        if (args.length > 1 && "refresh".equalsIgnoreCase(args[1].trim())) {
+            try {
+                target.refreshNow(target.getLatestVersion());
+            } catch (SQLException e) {
+                System.out.println("  Summary refresh failed: " + e.getMessage());
+            }
+        }
+
+        String format = "%-24s %20s%n";
+        String lastRefresh = target.getLastRefreshMillis() == 0
+                ? "never"
+                : new SimpleDateFormat("HH:mm:ss").format(new Date(target.getLastRefreshMillis()));
+        long age = target.getAgeMillis();
+
+        System.out.println("\n Summary Tables");
+        System.out.println(TableFormatter.generateSeparator(format));
+        System.out.printf(format, "State", target.isFresh() ? "fresh" : "stale");
+        System.out.printf(format, "Built at version", target.getRefreshedVersion() < 0 ? "never" : target.getRefreshedVersion());
+        System.out.printf(format, "Latest version", target.getLatestVersion());
+        System.out.printf(format, "Scheduled", target.isRunning() ? "every " + target.getRefreshIntervalMillis() + " ms" : "stopped");
+        System.out.printf(format, "Last refresh", lastRefresh);
+        System.out.printf(format, "Age (s)", age < 0 ? "-" : age / 1000);
+        System.out.printf(format, "Last refresh cost (ms)", target.getLastRefreshDurationMillis());
+        System.out.printf(format, "Refreshes / failed", target.getRefreshes() + " / " + target.getFailedRefreshes());
+        if (target.getLastError() != null) {
+            System.out.printf(format, "Last error", target.getLastError());
+        }
+        System.out.println(TableFormatter.generateDashedSeparator(format));
+        for (SummaryTableService.TableRefresh table : target.getLastTableRefreshes()) {
+            System.out.printf(format, table.table(), table.rows() + " rows, " + table.millis() + " ms");
+        }
+        System.out.println(TableFormatter.generateSeparator(format));
+    }
+
+    @Override
+    public boolean isPrefetchable() {
+        return false;
+    }
+
+    /**
+     * Sharded data is supported: reports the summary service's own state
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
+}
@@ -0,0 +1,231 @@
+package com.napier.sem.commands.world;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.data.WorldData;
+import com.napier.sem.data.WorldSnapshot;
+import com.napier.sem.utils.TableFormatter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Command to report total, urban and non-urban population at every geographic level.
+ * User Story: As a Data Analyst, I want the population of the world, every continent,
+ * every region and every country in one report so that I can build the weekly summary
+ * without running a separate command for each area.
+ * The whole tree comes from a single GROUP BY ... WITH ROLLUP query (or one pass over
+ * the in-memory world data) and is printed row by row as it is read.
+ * Usage: population-hierarchy [continent|region|country]
+ */
+public class PopulationHierarchyCommand extends CommandBase {
+
+    /**
+     * Levels of the hierarchy, from the top
+     */
+    enum Level {
+        WORLD,
+        CONTINENT,
+        REGION,
+        COUNTRY
+    }
+
+    private static final String[] GROUP_COLUMNS = {"co.Continent", "co.Region", "co.Code"};
+    private static final String ROW_FORMAT = "%-45s %,18d %,18d %6.2f%% %,18d %6.2f%%%n";
+    private static final String HEADER_FORMAT = "%-45s %18s %18s %7s %18s %7s%n";
+
+    public PopulationHierarchyCommand() {
+        super("population-hierarchy",
+                "Display total, urban and non-urban population for the world, every continent, region and country in one query (usage: population-hierarchy [continent|region|country])");
+    }
+
+    /**
+     * Build the rollup query down to a level
+     * @param depth Lowest level to report
+     * @return SQL returning one row per group, parents before their children
+     */
+    static String rollupSql(Level depth) {
+        int columns = depth.ordinal();
+        List<String> selected = new ArrayList<>();
+        List<String> grouped = new ArrayList<>();
+        List<String> rolledUp = new ArrayList<>();
+        List<String> order = new ArrayList<>();
+        for (int i = 0; i < columns; i++) {
+            String column = GROUP_COLUMNS[i];
+            selected.add(column + " AS " + column.substring(3));
+            grouped.add(column);
+            rolledUp.add("GROUPING(" + column + ")");
+            order.add("GROUPING(" + column + ") DESC");
+            // Continent is an ENUM; cast it so continents sort by name. Countries sort by size.
+            order.add(i == 0 ? "CAST(co.Continent AS CHAR)" : i == 2 ? "TotalPopulation DESC" : column);
+        }
+        if (depth == Level.COUNTRY) {
+            selected.add("ANY_VALUE(co.Name) AS Country");
+        }
+
+        return "SELECT " + String.join(", ", selected) + ", "
+                + "SUM(co.Population) AS TotalPopulation, "
+                + "SUM(COALESCE(ci.UrbanPopulation, 0)) AS UrbanPopulation, "
+                + String.join(" + ", rolledUp) + " AS RolledUp "
+                + "FROM country co "
+                + "LEFT JOIN (SELECT CountryCode, SUM(Population) AS UrbanPopulation FROM city GROUP BY CountryCode) ci "
+                + "ON ci.CountryCode = co.Code "
+                + "GROUP BY " + String.join(", ", grouped) + " WITH ROLLUP "
+                + "ORDER BY " + String.join(", ", order);
+    }
+
+    /**
+     * The tree comes from the snapshot, which holds every shard. Without one the
+     * rollup query would only total the default database's rows.
+     * @return True once a snapshot is loaded
+     */
+    @Override
+    public boolean isShardAware() {
+        return WorldData.current() != null;
+    }
+
+    /**
+     * Retrieves the population tree in one pass and prints it as it is read.
+     *
+     * @param connection Database connection
+     * @param args Command arguments where args[1] is the optional lowest level
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public void execute(Connection connection, String[] args) throws SQLException {
+        // ---- Input Validation ----
+        Level depth = Level.COUNTRY;
+        if (args.length > 1) {
+            try {
+                depth = Level.valueOf(args[1].trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                depth = Level.WORLD;
+            }
+            if (depth == Level.WORLD) {
+                System.out.println("  Invalid input. Level must be continent, region or country.");
+                System.out.println("  Usage: population-hierarchy [continent|region|country]");
+                return;
+            }
+        }
+
+        long started = System.nanoTime();
+        System.out.println("\n Population Hierarchy (World to " + capitalize(depth.name()) + ")");
+        System.out.println(TableFormatter.generateSeparator(HEADER_FORMAT));
+        System.out.printf(HEADER_FORMAT, "Area", "Total", "Urban", "%", "Non-Urban", "%");
+        System.out.println(TableFormatter.generateDashedSeparator(HEADER_FORMAT));
+
+        int groups;
+        String source;
+        WorldSnapshot snapshot = WorldData.current();
+        if (snapshot != null) {
+            groups = printFromSnapshot(snapshot, depth);
+            source = "1 pass over in-memory data";
+        } else {
+            groups = printFromDatabase(connection, depth);
+            source = "1 query";
+        }
+
+        if (groups == 0) {
+            System.out.println("  No population data found.");
+        }
+        System.out.println(TableFormatter.generateSeparator(HEADER_FORMAT));
+        System.out.printf("  %d groups from %s in %d ms%n%n", groups, source, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private int printFromDatabase(Connection connection, Level depth) throws SQLException {
+        int groups = 0;
+        try (PreparedStatement stmt = connection.prepareStatement(rollupSql(depth));
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                Level level = Level.values()[depth.ordinal() - rs.getInt("RolledUp")];
+                String name = switch (level) {
+                    case WORLD -> "World";
+                    case CONTINENT -> rs.getString("Continent");
+                    case REGION -> rs.getString("Region");
+                    case COUNTRY -> rs.getString("Country");
+                };
+                printRow(level, name, rs.getLong("TotalPopulation"), rs.getLong("UrbanPopulation"));
+                groups++;
+            }
+        } catch (SQLException e) {
+            System.out.println("  Database query failed: " + e.getMessage());
+            throw e;
+        }
+        return groups;
+    }
+
+    private int printFromSnapshot(WorldSnapshot snapshot, Level depth) {
+        Map<String, Long> urbanByCountry = new HashMap<>();
+        for (WorldSnapshot.City city : snapshot.getCities()) {
+            urbanByCountry.merge(city.countryCode(), city.population(), Long::sum);
+        }
+
+        // continent -> region -> countries, with running totals, built in one pass
+        Map<String, Map<String, List<WorldSnapshot.Country>>> tree = new TreeMap<>();
+        Map<String, long[]> totals = new HashMap<>();
+        long[] world = new long[2];
+        for (WorldSnapshot.Country country : snapshot.getCountries()) {
+            long urban = urbanByCountry.getOrDefault(country.code(), 0L);
+            tree.computeIfAbsent(country.continent(), key -> new TreeMap<>())
+                    .computeIfAbsent(country.region(), key -> new ArrayList<>())
+                    .add(country);
+            for (String key : new String[]{"C:" + country.continent(), "R:" + country.continent() + "/" + country.region()}) {
+                long[] sums = totals.computeIfAbsent(key, k -> new long[2]);
+                sums[0] += country.population();
+                sums[1] += urban;
+            }
+            world[0] += country.population();
+            world[1] += urban;
+        }
+
+        if (tree.isEmpty()) {
+            return 0;
+        }
+        int groups = 1;
+        printRow(Level.WORLD, "World", world[0], world[1]);
+        for (Map.Entry<String, Map<String, List<WorldSnapshot.Country>>> continent : tree.entrySet()) {
+            long[] sums = totals.get("C:" + continent.getKey());
+            printRow(Level.CONTINENT, continent.getKey(), sums[0], sums[1]);
+            groups++;
+            if (depth == Level.CONTINENT) {
+                continue;
+            }
+            for (Map.Entry<String, List<WorldSnapshot.Country>> region : continent.getValue().entrySet()) {
+                sums = totals.get("R:" + continent.getKey() + "/" + region.getKey());
+                printRow(Level.REGION, region.getKey(), sums[0], sums[1]);
+                groups++;
+                if (depth == Level.REGION) {
+                    continue;
+                }
+                List<WorldSnapshot.Country> countries = new ArrayList<>(region.getValue());
+                countries.sort(Comparator.comparingLong(WorldSnapshot.Country::population).reversed());
+                for (WorldSnapshot.Country country : countries) {
+                    printRow(Level.COUNTRY, country.name(), country.population(),
+                            urbanByCountry.getOrDefault(country.code(), 0L));
+                    groups++;
+                }
+            }
+        }
+        return groups;
+    }
+
+    private void printRow(Level level, String name, long total, long urban) {
+        long nonUrban = total - urban;
+        double urbanShare = total == 0 ? 0 : urban * 100.0 / total;
+        double nonUrbanShare = total == 0 ? 0 : nonUrban * 100.0 / total;
+        System.out.printf(ROW_FORMAT, "  ".repeat(level.ordinal()) + name, total, urban, urbanShare,
+                nonUrban, nonUrbanShare);
+    }
+
+    private static String capitalize(String word) {
+        return word.charAt(0) + word.substring(1).toLowerCase(Locale.ROOT);
+    }
+}
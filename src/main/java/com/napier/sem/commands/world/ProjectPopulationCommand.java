@@ -0,0 +1,227 @@
+package com.napier.sem.commands.world;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.DatabaseConfig;
+import com.napier.sem.data.NameResolver;
+import com.napier.sem.data.WorldData;
+import com.napier.sem.data.WorldSnapshot;
+import com.napier.sem.projection.GrowthModel;
+import com.napier.sem.projection.PopulationProjector;
+import com.napier.sem.shard.ScatterGather;
+import com.napier.sem.utils.TableFormatter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Command to project country and city populations forward.
+ * User Story: As a Data Analyst, I want to project populations N years ahead under my own
+ * growth assumptions, with uncertainty, so that I no longer build projections in spreadsheets.
+ * Runs are simulated in parallel over countries and reported as 95% intervals for the
+ * world, every continent and every region.
+ * Usage: project-population <years> [runs] [rate=%] [sd=%] [seed=N] [threads=N]
+ *        ["region:<name>=%"] ["country:<code or name>=%"]
+ */
+public class ProjectPopulationCommand extends CommandBase {
+
+    private static final String USAGE = "project-population <years> [runs] [rate=%] [sd=%] [seed=N] [threads=N] "
+            + "[\"region:<name>=%\"] [\"country:<code or name>=%\"]";
+    private static final String HEADER_FORMAT = "%-40s %16s %16s %16s %16s %16s%n";
+    private static final String ROW_FORMAT = "%-40s %,16d %,16.0f %,16.0f %,16.0f %,16.0f%n";
+
+    private static final double DEFAULT_RATE = 1.2;
+    private static final int DEFAULT_RUNS = 1000;
+    private static final int MAX_RUNS = 100_000;
+
+    public ProjectPopulationCommand() {
+        super("project-population", "Project populations N years forward with Monte Carlo growth rates (usage: "
+                + USAGE + ")");
+    }
+
+    /**
+     * Options are not declared parameters, so keep the raw arguments as the key
+     * @param args Command arguments
+     * @return Null, so the executor keys on the lower-cased arguments
+     */
+    @Override
+    public String getCacheKey(String[] args) {
+        return null;
+    }
+
+    /**
+     * Without a snapshot the countries and their city totals are read in two queries,
+     * which must see the same data state. When the data is sharded they are read on
+     * other connections, so a snapshot on this one would not cover them.
+     * @return True if the base data will be queried on this connection
+     */
+    @Override
+    public boolean usesConsistentSnapshot() {
+        return WorldData.current() == null && DatabaseConfig.getShardMap() == null;
+    }
+
+    /**
+     * Sharded data is supported: the snapshot holds every shard, and without one each
+     * shard's countries and cities are read
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
+
+    /**
+     * Parses the years, runs and rates, runs the projection and prints the hierarchy.
+     *
+     * @param connection Database connection
+     * @param args Command arguments
+     * @throws SQLException if the base populations have to be read and the query fails
+     */
+    @Override
+    public void execute(Connection connection, String[] args) throws SQLException {
+        if (args.length < 2) {
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+
+        // ---- Input Validation ----
+        int years;
+        int runs = DEFAULT_RUNS;
+        double rate = DEFAULT_RATE;
+        double volatility = 0.5;
+        long seed = 1;
+        int threads = ForkJoinPool.getCommonPoolParallelism();
+        Map<String, Double> countryRates = new HashMap<>();
+        Map<String, Double> regionRates = new HashMap<>();
+        try {
+            years = Integer.parseInt(args[1].trim());
+            for (int i = 2; i < args.length; i++) {
+                String option = args[i].trim();
+                int equals = option.lastIndexOf('=');
+                if (equals < 0) {
+                    runs = Integer.parseInt(option);
+                    continue;
+                }
+                String name = option.substring(0, equals).trim();
+                String value = option.substring(equals + 1).trim();
+                String lower = name.toLowerCase(Locale.ROOT);
+                if (lower.startsWith("region:")) {
+                    regionRates.put(name.substring(7).trim(), Double.parseDouble(value));
+                } else if (lower.startsWith("country:")) {
+                    countryRates.put(name.substring(8).trim(), Double.parseDouble(value));
+                } else {
+                    switch (lower) {
+                        case "rate" -> rate = Double.parseDouble(value);
+                        case "sd" -> volatility = Double.parseDouble(value);
+                        case "seed" -> seed = Long.parseLong(value);
+                        case "threads" -> threads = Integer.parseInt(value);
+                        default -> throw new IllegalArgumentException("Unknown option '" + name + "'");
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            String message = e instanceof NumberFormatException ? "Years, runs and rates must be numbers" : e.getMessage();
+            System.out.println("  Invalid input. " + message + ".");
+            System.out.println("  Usage: " + USAGE);
+            return;
+        }
+        if (years <= 0 || runs <= 0 || runs > MAX_RUNS || threads <= 0 || volatility < 0) {
+            System.out.println("  Invalid input. Years, runs (up to " + MAX_RUNS + ") and threads must be greater than zero,"
+                    + " and sd cannot be negative.");
+            return;
+        }
+
+        // ---- Base Data ----
+        List<WorldSnapshot.Country> countries;
+        Map<String, Long> urbanByCountry = new HashMap<>();
+        WorldSnapshot snapshot = WorldData.current();
+        try {
+            if (snapshot != null) {
+                countries = snapshot.getCountries();
+                for (WorldSnapshot.City city : snapshot.getCities()) {
+                    urbanByCountry.merge(city.countryCode(), city.population(), Long::sum);
+                }
+            } else {
+                // Read every shard when the data is sharded
+                countries = WorldSnapshot.loadAllCountries(connection);
+                for (Map<String, Long> shard : ScatterGather.acrossShards(connection, ProjectPopulationCommand::loadUrban)) {
+                    shard.forEach((code, urban) -> urbanByCountry.merge(code, urban, Long::sum));
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println("  Database query failed: " + e.getMessage());
+            throw e;
+        }
+        if (countries.isEmpty()) {
+            System.out.println("  No population data found.");
+            return;
+        }
+
+        GrowthModel model = new GrowthModel(rate, volatility);
+        regionRates.forEach(model::withRegionRate);
+        for (Map.Entry<String, Double> entry : countryRates.entrySet()) {
+            String code = findCountry(countries, entry.getKey());
+            if (code == null) {
+                System.out.println("  No country found with the name: " + entry.getKey());
+                return;
+            }
+            model.withCountryRate(code, entry.getValue());
+        }
+
+        // ---- Simulation ----
+        PopulationProjector projector = new PopulationProjector(countries, urbanByCountry);
+        long started = System.nanoTime();
+        List<PopulationProjector.Area> areas;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            areas = projector.project(model, years, runs, seed, pool);
+        } finally {
+            pool.shutdown();
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        int effectiveRuns = volatility == 0 ? 1 : runs;
+
+        // ---- Display Results ----
+        System.out.printf("%n Population Projection: %d years at %.2f%% +/- %.2f%% a year, %d runs%n",
+                years, rate, volatility, effectiveRuns);
+        System.out.println(TableFormatter.generateSeparator(HEADER_FORMAT));
+        System.out.printf(HEADER_FORMAT, "Area", "Today", "Projected", "95% Low", "95% High", "Urban Projected");
+        System.out.println(TableFormatter.generateDashedSeparator(HEADER_FORMAT));
+        for (PopulationProjector.Area area : areas) {
+            System.out.printf(ROW_FORMAT, "  ".repeat(area.level()) + area.name(), area.basePopulation(),
+                    area.population().median(), area.population().low(), area.population().high(),
+                    area.urban().median());
+        }
+        System.out.println(TableFormatter.generateSeparator(HEADER_FORMAT));
+        System.out.printf("  %d runs x %d countries x %d years on %d threads in %d ms%n%n",
+                effectiveRuns, countries.size(), years, threads, elapsedMillis);
+    }
+
+    private static Map<String, Long> loadUrban(Connection connection) throws SQLException {
+        Map<String, Long> urbanByCountry = new HashMap<>();
+        String sql = "SELECT CountryCode, SUM(Population) AS UrbanPopulation FROM city GROUP BY CountryCode";
+        try (PreparedStatement stmt = connection.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                urbanByCountry.put(rs.getString("CountryCode"), rs.getLong("UrbanPopulation"));
+            }
+        }
+        return urbanByCountry;
+    }
+
+    private static String findCountry(List<WorldSnapshot.Country> countries, String name) {
+        String wanted = NameResolver.normalize(name);
+        for (WorldSnapshot.Country country : countries) {
+            if (NameResolver.normalize(country.code()).equals(wanted) || NameResolver.normalize(country.name()).equals(wanted)) {
+                return country.code();
+            }
+        }
+        return null;
+    }
+}
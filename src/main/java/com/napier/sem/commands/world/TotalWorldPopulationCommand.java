@@ -1,6 +1,9 @@
 package com.napier.sem.commands.world;
 
 import com.napier.sem.CommandBase;
+import com.napier.sem.DatabaseConfig;
+import com.napier.sem.shard.ScatterGather;
+import com.napier.sem.shard.ShardMap;
 import com.napier.sem.utils.TableFormatter;
 
 import java.sql.Connection;
@@ -21,6 +24,7 @@ public class TotalWorldPopulationCommand extends CommandBase {
 
     /**
      * Retrieves and displays the total world population by summing all country populations.
+     * When the data is sharded each shard sums its own countries and the totals are added.
      * 
      * @param connection Database connection
      * @param args Command arguments (none required)
@@ -32,24 +36,49 @@ public class TotalWorldPopulationCommand extends CommandBase {
         String sql = "SELECT SUM(Population) AS TotalPopulation FROM country";
 
         // ---- Execute Query with Error Handling ----
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    long totalPopulation = rs.getLong("TotalPopulation");
-                    
-                    String format = "%40s%n";
-                    
-                    System.out.println("\n Total World Population");
-                    System.out.println(TableFormatter.generateSeparator(format));
-                    System.out.printf("  %,d%n", totalPopulation);
-                    System.out.println(TableFormatter.generateSeparator(format) + "\n");
-                } else {
-                    System.out.println("  No population data found.");
+        Long totalPopulation;
+        try {
+            ShardMap shards = DatabaseConfig.getShardMap();
+            if (shards == null) {
+                totalPopulation = queryTotal(connection, sql);
+            } else {
+                totalPopulation = null;
+                for (Long shardTotal : ScatterGather.gather(shards, shard -> queryTotal(shard, sql))) {
+                    if (shardTotal != null) {
+                        totalPopulation = (totalPopulation == null ? 0 : totalPopulation) + shardTotal;
+                    }
                 }
             }
         } catch (SQLException e) {
             System.out.println("  Database query failed: " + e.getMessage());
             throw e;
         }
+
+        if (totalPopulation != null) {
+            String format = "%40s%n";
+
+            System.out.println("\n Total World Population");
+            System.out.println(TableFormatter.generateSeparator(format));
+            System.out.printf("  %,d%n", totalPopulation);
+            System.out.println(TableFormatter.generateSeparator(format) + "\n");
+        } else {
+            System.out.println("  No population data found.");
+        }
+    }
+
+    private static Long queryTotal(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong("TotalPopulation") : null;
+        }
+    }
+
+    /**
+     * Sharded data is supported: the total is summed over every shard
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
     }
 }
@@ -0,0 +1,114 @@
+package com.napier.sem.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Population rank of every city within its district, country, region, continent and the world.
+ * All cities are sorted once and walked in order with a counter per scope, so ranks are
+ * precomputed arrays and a lookup is a read, not a count. Cities with equal population share
+ * a rank (1, 2, 2, 4). Districts are taken within their country, since district names repeat
+ * across countries. An index belongs to one {@link WorldSnapshot} and is rebuilt with it.
+ */
+public class CityRankIndex {
+
+    /**
+     * Scopes a city is ranked in, from the smallest
+     */
+    public static final String[] SCOPES = {"District", "Country", "Region", "Continent", "World"};
+
+    /**
+     * A city or country's place within one scope
+     * @param scope Scope label, e.g. "Country"
+     * @param name Name of the scope, e.g. "Japan"
+     * @param rank Position by population, 1 for the largest
+     * @param size Number of cities or countries in the scope
+     */
+    public record Position(String scope, String name, int rank, int size) {
+
+        /**
+         * Get the percentage of the scope this entry is at least as large as
+         * @return Percentile from just above 0 (smallest) to 100 (largest)
+         */
+        public double percentile() {
+            return size == 0 ? 0 : 100.0 * (size - rank + 1) / size;
+        }
+    }
+
+    private final Map<Integer, Integer> positionById = new HashMap<>();
+    private final String[][] scopeNames;
+    private final int[][] ranks;
+    private final Map<String, Integer> sizes = new HashMap<>();
+    private final String[][] scopeKeys;
+
+    /**
+     * Constructor for CityRankIndex
+     * @param snapshot Snapshot to rank the cities of
+     */
+    public CityRankIndex(WorldSnapshot snapshot) {
+        List<WorldSnapshot.City> cities = new ArrayList<>(snapshot.getCities());
+        cities.sort(Comparator.comparingLong(WorldSnapshot.City::population).reversed());
+
+        int count = cities.size();
+        scopeNames = new String[count][];
+        scopeKeys = new String[count][];
+        ranks = new int[count][SCOPES.length];
+
+        // Per scope: cities seen so far, and the population and rank of the last one, for ties
+        Map<String, int[]> seen = new HashMap<>();
+        Map<String, Long> lastPopulation = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            WorldSnapshot.City city = cities.get(i);
+            WorldSnapshot.Country country = snapshot.getCountry(city.countryCode());
+            String countryName = country == null ? city.countryCode() : country.name();
+            String region = country == null ? "" : country.region();
+            String continent = country == null ? "" : country.continent();
+            positionById.put(city.id(), i);
+            scopeNames[i] = new String[]{city.district(), countryName, region, continent, "World"};
+            scopeKeys[i] = new String[]{"D:" + city.countryCode() + "/" + city.district(), "C:" + city.countryCode(),
+                    "R:" + region, "K:" + continent, "W"};
+
+            for (int s = 0; s < SCOPES.length; s++) {
+                String key = scopeKeys[i][s];
+                int[] state = seen.computeIfAbsent(key, k -> new int[2]);
+                state[0]++;
+                Long previous = lastPopulation.put(key, city.population());
+                if (previous == null || previous != city.population()) {
+                    state[1] = state[0];
+                }
+                ranks[i][s] = state[1];
+            }
+        }
+        seen.forEach((key, state) -> sizes.put(key, state[0]));
+    }
+
+    /**
+     * Get the index for the current world snapshot
+     * @return Index, or null if no snapshot has been loaded
+     */
+    public static CityRankIndex current() {
+        WorldSnapshot snapshot = WorldData.current();
+        return snapshot == null ? null : snapshot.derived(CityRankIndex.class, CityRankIndex::new);
+    }
+
+    /**
+     * Get a city's rank in every enclosing scope
+     * @param cityId City ID
+     * @return One position per scope from the district to the world, or an empty list if the city is unknown
+     */
+    public List<Position> positions(int cityId) {
+        Integer i = positionById.get(cityId);
+        if (i == null) {
+            return List.of();
+        }
+        Position[] positions = new Position[SCOPES.length];
+        for (int s = 0; s < SCOPES.length; s++) {
+            positions[s] = new Position(SCOPES[s], scopeNames[i][s], ranks[i][s], sizes.get(scopeKeys[i][s]));
+        }
+        return Arrays.asList(positions);
+    }
+}
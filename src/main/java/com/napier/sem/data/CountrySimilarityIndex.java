@@ -0,0 +1,229 @@
+package com.napier.sem.data;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Nearest-neighbour search for countries that are alike in population, surface area,
+ * GNP and life expectancy. Population, surface area and GNP span several orders of
+ * magnitude, so they are log-scaled before every attribute is standardised to zero mean
+ * and unit variance; distance is Euclidean over the four standardised values. Points are
+ * held in a KD-tree built once, so a k-NN query visits a few dozen nodes rather than
+ * every country. Countries without a GNP or life expectancy cannot be compared and are
+ * left out. An index belongs to one {@link WorldSnapshot} and is rebuilt with it.
+ */
+public class CountrySimilarityIndex {
+
+    /**
+     * A country near the one searched for
+     * @param country Country row
+     * @param distance Distance in standardised units; smaller is more alike
+     */
+    public record Neighbour(WorldSnapshot.Country country, double distance) {
+    }
+
+    private static final int DIMENSIONS = 4;
+
+    private final WorldSnapshot.Country[] countries;
+    private final double[][] points;
+    private final Map<String, Integer> byCode = new HashMap<>();
+    private final Map<String, String> codesByName = new HashMap<>();
+
+    // KD-tree nodes as parallel arrays; node i holds point[i] and splits on depth % DIMENSIONS
+    private final int[] nodePoint;
+    private final int[] left;
+    private final int[] right;
+    private final int[] axis;
+    private int nodeCount;
+    private final int root;
+
+    /**
+     * Constructor for CountrySimilarityIndex
+     * @param rows Country rows to index
+     */
+    public CountrySimilarityIndex(List<WorldSnapshot.Country> rows) {
+        List<WorldSnapshot.Country> comparable = new ArrayList<>();
+        for (WorldSnapshot.Country country : rows) {
+            codesByName.put(NameResolver.normalize(country.name()), country.code());
+            codesByName.putIfAbsent(NameResolver.normalize(country.code()), country.code());
+            if (country.gnp() != null && country.lifeExpectancy() != null) {
+                comparable.add(country);
+            }
+        }
+
+        countries = comparable.toArray(new WorldSnapshot.Country[0]);
+        points = new double[countries.length][DIMENSIONS];
+        for (int i = 0; i < countries.length; i++) {
+            WorldSnapshot.Country country = countries[i];
+            points[i][0] = Math.log1p(country.population());
+            points[i][1] = Math.log1p(country.surfaceArea());
+            points[i][2] = Math.log1p(country.gnp());
+            points[i][3] = country.lifeExpectancy();
+            byCode.put(country.code(), i);
+        }
+        standardise(points);
+
+        nodePoint = new int[countries.length];
+        left = new int[countries.length];
+        right = new int[countries.length];
+        axis = new int[countries.length];
+        Integer[] order = new Integer[countries.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        root = build(order, 0, order.length, 0);
+    }
+
+    /**
+     * Get the index for the current world snapshot
+     * @return Index, or null if no snapshot has been loaded
+     */
+    public static CountrySimilarityIndex current() {
+        WorldSnapshot snapshot = WorldData.current();
+        return snapshot == null ? null
+                : snapshot.derived(CountrySimilarityIndex.class, loaded -> new CountrySimilarityIndex(loaded.getCountries()));
+    }
+
+    /**
+     * Get the index for the current snapshot, or build one from every shard's country table if there is none
+     * @param connection Database connection used when no snapshot has been loaded
+     * @return Index
+     * @throws SQLException if the country table cannot be read
+     */
+    public static CountrySimilarityIndex current(Connection connection) throws SQLException {
+        CountrySimilarityIndex index = current();
+        return index != null ? index : new CountrySimilarityIndex(WorldSnapshot.loadAllCountries(connection));
+    }
+
+    private static void standardise(double[][] points) {
+        if (points.length == 0) {
+            return;
+        }
+        for (int d = 0; d < DIMENSIONS; d++) {
+            double mean = 0;
+            for (double[] point : points) {
+                mean += point[d];
+            }
+            mean /= points.length;
+            double variance = 0;
+            for (double[] point : points) {
+                variance += (point[d] - mean) * (point[d] - mean);
+            }
+            double deviation = Math.sqrt(variance / points.length);
+            for (double[] point : points) {
+                point[d] = deviation == 0 ? 0 : (point[d] - mean) / deviation;
+            }
+        }
+    }
+
+    private int build(Integer[] order, int from, int to, int depth) {
+        if (from >= to) {
+            return -1;
+        }
+        int dimension = depth % DIMENSIONS;
+        Arrays.sort(order, from, to, Comparator.comparingDouble(i -> points[i][dimension]));
+        int median = (from + to) >>> 1;
+        int node = nodeCount++;
+        nodePoint[node] = order[median];
+        axis[node] = dimension;
+        left[node] = build(order, from, median, depth + 1);
+        right[node] = build(order, median + 1, to, depth + 1);
+        return node;
+    }
+
+    /**
+     * Find a country code by name or code, ignoring case and accents
+     * @param name Country name or code as typed
+     * @return Country code, or empty if no such country
+     */
+    public Optional<String> findCountry(String name) {
+        return Optional.ofNullable(codesByName.get(NameResolver.normalize(name)));
+    }
+
+    /**
+     * Check whether a country has every attribute and can be compared
+     * @param code Country code
+     * @return True if the country is indexed
+     */
+    public boolean contains(String code) {
+        return byCode.containsKey(code);
+    }
+
+    /**
+     * Get the number of comparable countries
+     * @return Indexed country count
+     */
+    public int size() {
+        return countries.length;
+    }
+
+    /**
+     * Find the countries most like a country
+     * @param code Country to compare against
+     * @param k Number of neighbours
+     * @param filter Which countries may be returned
+     * @return Up to k neighbours, most alike first; empty if the country is not indexed
+     */
+    public List<Neighbour> nearest(String code, int k, Predicate<WorldSnapshot.Country> filter) {
+        Integer target = byCode.get(code);
+        if (target == null || k <= 0) {
+            return List.of();
+        }
+
+        // Max-heap on squared distance holding the best k found so far
+        PriorityQueue<double[]> best = new PriorityQueue<>((a, b) -> Double.compare(b[1], a[1]));
+        search(root, points[target], target, k, filter, best);
+
+        List<Neighbour> neighbours = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            double[] entry = best.poll();
+            neighbours.add(new Neighbour(countries[(int) entry[0]], Math.sqrt(entry[1])));
+        }
+        neighbours.sort(Comparator.comparingDouble(Neighbour::distance));
+        return neighbours;
+    }
+
+    private void search(int node, double[] query, int exclude, int k, Predicate<WorldSnapshot.Country> filter,
+                        PriorityQueue<double[]> best) {
+        if (node < 0) {
+            return;
+        }
+        int point = nodePoint[node];
+        if (point != exclude && filter.test(countries[point])) {
+            double distance = squaredDistance(query, points[point]);
+            if (best.size() < k) {
+                best.add(new double[]{point, distance});
+            } else if (distance < best.peek()[1]) {
+                best.poll();
+                best.add(new double[]{point, distance});
+            }
+        }
+
+        double split = query[axis[node]] - points[point][axis[node]];
+        int near = split < 0 ? left[node] : right[node];
+        int far = split < 0 ? right[node] : left[node];
+        search(near, query, exclude, k, filter, best);
+        // The far side can only hold a closer point if the splitting plane is within range
+        if (best.size() < k || split * split < best.peek()[1]) {
+            search(far, query, exclude, k, filter, best);
+        }
+    }
+
+    private static double squaredDistance(double[] a, double[] b) {
+        double sum = 0;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            double difference = a[d] - b[d];
+            sum += difference * difference;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,272 @@
+package com.napier.sem.data;
+
+import com.napier.sem.DatabaseConfig;
+import com.napier.sem.IConnectionProvider;
+import com.napier.sem.shard.ScatterGather;
+import com.napier.sem.shard.ShardMap;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks a monotonically increasing version of the world data.
+ * The service polls CHECKSUM TABLE for city, country and countrylanguage; whenever
+ * any checksum differs from the previous poll the version is bumped and every
+ * subscribed listener is told which tables changed. The world tables hold a few
+ * thousand rows, so a live checksum is cheap and, unlike information_schema
+ * UPDATE_TIME, it is neither cached by the server nor lost on restart.
+ */
+public class DataVersionService {
+
+    /**
+     * Tables whose contents make up the data version
+     */
+    public static final List<String> TRACKED_TABLES = List.of("city", "country", "countrylanguage");
+
+    private static final String CHECKSUM_SQL = "CHECKSUM TABLE " + String.join(", ", TRACKED_TABLES);
+
+    private static final long DEFAULT_POLL_INTERVAL_MILLIS = 30000;
+
+    private static DataVersionService defaultService;
+
+    private final IConnectionProvider connectionProvider;
+    private final long pollIntervalMillis;
+    private final List<IDataVersionListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong version = new AtomicLong();
+
+    private Map<String, Long> checksums = Collections.emptyMap();
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> pollTask;
+    private long lastCheckMillis;
+    private long lastCheckDurationMillis;
+    private long checks;
+    private long failedChecks;
+    private long failedNotifications;
+
+    /**
+     * Constructor for DataVersionService
+     * @param connectionProvider Source of connections for polling
+     * @param pollIntervalMillis Interval between checksum polls
+     */
+    public DataVersionService(IConnectionProvider connectionProvider, long pollIntervalMillis) {
+        this.connectionProvider = connectionProvider;
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    /**
+     * Get the service shared by the application, polling every DATA_VERSION_POLL_MS (default 30 s)
+     * @return Shared service instance
+     */
+    public static synchronized DataVersionService getDefault() {
+        if (defaultService == null) {
+            defaultService = new DataVersionService(DatabaseConfig::getConnection, pollIntervalFromEnvironment());
+        }
+        return defaultService;
+    }
+
+    private static long pollIntervalFromEnvironment() {
+        String configured = System.getenv("DATA_VERSION_POLL_MS");
+        if (configured != null) {
+            try {
+                long interval = Long.parseLong(configured.trim());
+                if (interval > 0) {
+                    return interval;
+                }
+            } catch (NumberFormatException e) {
+                // Fall through to the default
+            }
+            System.err.println("  Ignoring invalid DATA_VERSION_POLL_MS: " + configured);
+        }
+        return DEFAULT_POLL_INTERVAL_MILLIS;
+    }
+
+    /**
+     * Subscribe to data version changes
+     * @param listener Listener to notify
+     */
+    public void subscribe(IDataVersionListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unsubscribe from data version changes
+     * @param listener Listener to remove
+     */
+    public void unsubscribe(IDataVersionListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Start polling in the background
+     */
+    public synchronized void start() {
+        if (pollTask != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "data-version-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pollTask = scheduler.scheduleWithFixedDelay(this::poll, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop polling
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            pollTask = null;
+        }
+    }
+
+    private void poll() {
+        try {
+            checkNow();
+        } catch (SQLException | RuntimeException e) {
+            // An exception escaping the task would cancel every later poll
+            synchronized (this) {
+                failedChecks++;
+            }
+        }
+    }
+
+    /**
+     * Read the table checksums now and bump the version if anything changed.
+     * The first successful check establishes version 1 and reports every table as changed,
+     * so listeners that could not load while the database was down catch up. A listener
+     * that throws is logged and counted, and the others are still told.
+     * @return The current data version after the check
+     * @throws SQLException if the checksums cannot be read
+     */
+    public long checkNow() throws SQLException {
+        long started = System.nanoTime();
+        Map<String, Long> current = readChecksums();
+
+        Set<String> changed = new LinkedHashSet<>();
+        long newVersion;
+        synchronized (this) {
+            for (Map.Entry<String, Long> entry : current.entrySet()) {
+                if (!entry.getValue().equals(checksums.get(entry.getKey()))) {
+                    changed.add(entry.getKey());
+                }
+            }
+            checksums = current;
+            checks++;
+            lastCheckMillis = System.currentTimeMillis();
+            lastCheckDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+            if (changed.isEmpty()) {
+                return version.get();
+            }
+            newVersion = version.incrementAndGet();
+        }
+
+        Set<String> changedTables = Collections.unmodifiableSet(changed);
+        for (IDataVersionListener listener : listeners) {
+            try {
+                listener.onDataVersionChanged(newVersion, changedTables);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    failedNotifications++;
+                }
+                System.err.println("  Data version listener failed: " + e);
+            }
+        }
+        return newVersion;
+    }
+
+    /**
+     * Read the checksums, from every shard when the data is sharded. A shard's checksums
+     * are folded into the table's in shard order, so a change on any shard changes the total.
+     */
+    private Map<String, Long> readChecksums() throws SQLException {
+        ShardMap shards = DatabaseConfig.getShardMap();
+        if (shards == null) {
+            try (Connection connection = connectionProvider.getConnection()) {
+                return readChecksumsFrom(connection);
+            }
+        }
+
+        Map<String, Long> combined = new HashMap<>();
+        for (Map<String, Long> shard : ScatterGather.gather(shards, DataVersionService::readChecksumsFrom)) {
+            for (Map.Entry<String, Long> entry : shard.entrySet()) {
+                combined.merge(entry.getKey(), entry.getValue(), (total, checksum) -> total * 31 + checksum);
+            }
+        }
+        return combined;
+    }
+
+    private static Map<String, Long> readChecksumsFrom(Connection connection) throws SQLException {
+        Map<String, Long> result = new HashMap<>();
+        try (PreparedStatement stmt = connection.prepareStatement(CHECKSUM_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                // Table is reported as schema.table
+                String table = rs.getString("Table");
+                String name = table.substring(table.lastIndexOf('.') + 1).toLowerCase();
+                result.put(name, rs.getLong("Checksum"));
+            }
+        }
+        if (result.isEmpty()) {
+            throw new SQLException("CHECKSUM TABLE returned no rows");
+        }
+        return result;
+    }
+
+    /**
+     * Get the current data version. Zero means the data has not been checked yet.
+     * @return Data version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    public synchronized Map<String, Long> getChecksums() {
+        return new HashMap<>(checksums);
+    }
+
+    public long getPollIntervalMillis() {
+        return pollIntervalMillis;
+    }
+
+    public synchronized long getLastCheckMillis() {
+        return lastCheckMillis;
+    }
+
+    public synchronized long getLastCheckDurationMillis() {
+        return lastCheckDurationMillis;
+    }
+
+    public synchronized long getChecks() {
+        return checks;
+    }
+
+    public synchronized long getFailedChecks() {
+        return failedChecks;
+    }
+
+    public synchronized long getFailedNotifications() {
+        return failedNotifications;
+    }
+
+    public synchronized boolean isRunning() {
+        return pollTask != null;
+    }
+}
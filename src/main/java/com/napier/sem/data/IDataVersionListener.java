@@ -0,0 +1,17 @@
+package com.napier.sem.data;
+
+import java.util.Set;
+
+/**
+ * Interface for caches and in-memory indexes that need to know when the world data changes
+ */
+@FunctionalInterface
+public interface IDataVersionListener {
+
+    /**
+     * Called after the data version has been bumped.
+     * @param version New data version
+     * @param changedTables Tables whose contents changed since the previous version
+     */
+    void onDataVersionChanged(long version, Set<String> changedTables);
+}
@@ -0,0 +1,345 @@
+package com.napier.sem.data;
+
+import com.napier.sem.DatabaseConfig;
+import com.napier.sem.shard.ScatterGather;
+import com.napier.sem.shard.ShardMap;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Sparse language x country matrix of speakers (country population x Percentage).
+ * Each language holds only the countries where it is spoken, together with per-language
+ * world totals for all speakers and for countries where it is official, so speaker
+ * counts for any set of languages and top-K rankings for the world, a continent or a
+ * region are in-memory aggregations rather than queries. A matrix belongs to one
+ * {@link WorldSnapshot} and is rebuilt with it.
+ */
+public class LanguageMatrix {
+
+    /**
+     * Speakers of one language within a scope
+     * @param language Language name as stored
+     * @param speakers Number of speakers
+     * @param percentage Share of the scope population, 0 to 100
+     */
+    public record Share(String language, long speakers, double percentage) {
+    }
+
+    /**
+     * Countries a language is spoken in, as parallel arrays
+     */
+    private record Row(int[] countries, double[] speakers, boolean[] official) {
+    }
+
+    private final String[] languages;
+    private final Map<String, Integer> languageIndex = new HashMap<>();
+    private final Row[] rows;
+    private final double[] totals;
+    private final double[] officialTotals;
+
+    private final String[] continents;
+    private final String[] regions;
+    private final long[] populations;
+    private final long worldPopulation;
+
+    /**
+     * Constructor for LanguageMatrix
+     * @param snapshot Snapshot to build the matrix from
+     */
+    public LanguageMatrix(WorldSnapshot snapshot) {
+        this(snapshot.getCountries(), snapshot.getLanguages());
+    }
+
+    private LanguageMatrix(List<WorldSnapshot.Country> countryRows, List<WorldSnapshot.CountryLanguage> languageRows) {
+        int countryCount = countryRows.size();
+        continents = new String[countryCount];
+        regions = new String[countryCount];
+        populations = new long[countryCount];
+        Map<String, Integer> countryIndex = new HashMap<>();
+        long world = 0;
+        for (int i = 0; i < countryCount; i++) {
+            WorldSnapshot.Country country = countryRows.get(i);
+            countryIndex.put(country.code(), i);
+            continents[i] = country.continent();
+            regions[i] = country.region();
+            populations[i] = country.population();
+            world += country.population();
+        }
+        worldPopulation = world;
+
+        // Group the country language rows by language, skipping rows for unknown countries
+        Map<String, List<WorldSnapshot.CountryLanguage>> byLanguage = new HashMap<>();
+        for (WorldSnapshot.CountryLanguage row : languageRows) {
+            if (countryIndex.containsKey(row.countryCode())) {
+                byLanguage.computeIfAbsent(row.language(), key -> new ArrayList<>()).add(row);
+            }
+        }
+
+        languages = byLanguage.keySet().toArray(new String[0]);
+        Arrays.sort(languages);
+        rows = new Row[languages.length];
+        totals = new double[languages.length];
+        officialTotals = new double[languages.length];
+        for (int l = 0; l < languages.length; l++) {
+            languageIndex.put(NameResolver.normalize(languages[l]), l);
+            List<WorldSnapshot.CountryLanguage> spoken = byLanguage.get(languages[l]);
+            int[] countries = new int[spoken.size()];
+            double[] speakers = new double[spoken.size()];
+            boolean[] official = new boolean[spoken.size()];
+            for (int i = 0; i < spoken.size(); i++) {
+                WorldSnapshot.CountryLanguage row = spoken.get(i);
+                countries[i] = countryIndex.get(row.countryCode());
+                speakers[i] = populations[countries[i]] * (row.percentage() / 100);
+                official[i] = row.official();
+                totals[l] += speakers[i];
+                if (official[i]) {
+                    officialTotals[l] += speakers[i];
+                }
+            }
+            rows[l] = new Row(countries, speakers, official);
+        }
+    }
+
+    /**
+     * Get the matrix for the current world snapshot
+     * @return Matrix, or null if no snapshot has been loaded
+     */
+    public static LanguageMatrix current() {
+        WorldSnapshot snapshot = WorldData.current();
+        return snapshot == null ? null : snapshot.derived(LanguageMatrix.class, LanguageMatrix::new);
+    }
+
+    /**
+     * Rows read for a matrix, from the database or one shard of it
+     */
+    private record Rows(List<WorldSnapshot.Country> countries, List<WorldSnapshot.CountryLanguage> languages) {
+    }
+
+    /**
+     * Get the matrix for the current snapshot, or read one with a single query if there is none.
+     * When the data is sharded the query runs on every shard at once.
+     * @param connection Database connection used when no snapshot has been loaded
+     * @return Matrix
+     * @throws SQLException if the query fails
+     */
+    public static LanguageMatrix current(Connection connection) throws SQLException {
+        LanguageMatrix matrix = current();
+        if (matrix != null) {
+            return matrix;
+        }
+        ShardMap shards = DatabaseConfig.getShardMap();
+        if (shards == null) {
+            return load(connection);
+        }
+        // Every country is on exactly one shard, so the rows are simply combined
+        List<WorldSnapshot.Country> countryRows = new ArrayList<>();
+        List<WorldSnapshot.CountryLanguage> languageRows = new ArrayList<>();
+        for (Rows rows : ScatterGather.gather(shards, LanguageMatrix::readRows)) {
+            countryRows.addAll(rows.countries());
+            languageRows.addAll(rows.languages());
+        }
+        return new LanguageMatrix(countryRows, languageRows);
+    }
+
+    /**
+     * Read every country with its languages in one query and build a matrix
+     * @param connection Database connection
+     * @return Matrix
+     * @throws SQLException if the query fails
+     */
+    public static LanguageMatrix load(Connection connection) throws SQLException {
+        Rows rows = readRows(connection);
+        return new LanguageMatrix(rows.countries(), rows.languages());
+    }
+
+    private static Rows readRows(Connection connection) throws SQLException {
+        // The LEFT JOIN keeps countries without languages so the population totals are complete
+        String sql = "SELECT c.Code, c.Continent, c.Region, c.Population, cl.Language, cl.IsOfficial, cl.Percentage "
+                + "FROM country c LEFT JOIN countrylanguage cl ON cl.CountryCode = c.Code";
+        Map<String, WorldSnapshot.Country> countries = new HashMap<>();
+        List<WorldSnapshot.Country> countryRows = new ArrayList<>();
+        List<WorldSnapshot.CountryLanguage> languageRows = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                String code = rs.getString("Code");
+                if (!countries.containsKey(code)) {
+                    WorldSnapshot.Country country = new WorldSnapshot.Country(code, code, rs.getString("Continent"),
+                            rs.getString("Region"), 0, null, rs.getLong("Population"), null, null, null, null);
+                    countries.put(code, country);
+                    countryRows.add(country);
+                }
+                String language = rs.getString("Language");
+                if (language != null) {
+                    languageRows.add(new WorldSnapshot.CountryLanguage(code, language,
+                            "T".equals(rs.getString("IsOfficial")), rs.getDouble("Percentage")));
+                }
+            }
+        }
+        return new Rows(countryRows, languageRows);
+    }
+
+    /**
+     * Find a language by name, ignoring case and accents
+     * @param name Language name as typed
+     * @return Language name as stored, or empty if no country speaks it
+     */
+    public Optional<String> findLanguage(String name) {
+        Integer index = languageIndex.get(NameResolver.normalize(name));
+        return index == null ? Optional.empty() : Optional.of(languages[index]);
+    }
+
+    /**
+     * Find a continent by name, ignoring case and accents
+     * @param name Continent name as typed
+     * @return Continent name as stored, or empty if no country is in it
+     */
+    public Optional<String> findContinent(String name) {
+        return find(continents, name);
+    }
+
+    /**
+     * Find a region by name, ignoring case and accents
+     * @param name Region name as typed
+     * @return Region name as stored, or empty if no country is in it
+     */
+    public Optional<String> findRegion(String name) {
+        return find(regions, name);
+    }
+
+    private static Optional<String> find(String[] names, String name) {
+        String normalized = NameResolver.normalize(name);
+        for (String candidate : names) {
+            if (NameResolver.normalize(candidate).equals(normalized)) {
+                return Optional.of(candidate);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Get the number of distinct languages
+     * @return Language count
+     */
+    public int getLanguageCount() {
+        return languages.length;
+    }
+
+    /**
+     * Get the total population of the world
+     * @return World population
+     */
+    public long getWorldPopulation() {
+        return worldPopulation;
+    }
+
+    /**
+     * Get the total population of a continent or region
+     * @param continent Continent name, or null for any
+     * @param region Region name, or null for any
+     * @return Population of the countries in the scope
+     */
+    public long getPopulation(String continent, String region) {
+        if (continent == null && region == null) {
+            return worldPopulation;
+        }
+        long population = 0;
+        for (int i = 0; i < populations.length; i++) {
+            if (inScope(i, continent, region)) {
+                population += populations[i];
+            }
+        }
+        return population;
+    }
+
+    /**
+     * Count the speakers of each of a set of languages, most spoken first
+     * @param names Language names as stored
+     * @param continent Continent to limit to, or null for any
+     * @param region Region to limit to, or null for any
+     * @param officialOnly Whether to count only countries where the language is official
+     * @return One share per known language
+     */
+    public List<Share> speakers(List<String> names, String continent, String region, boolean officialOnly) {
+        long population = getPopulation(continent, region);
+        List<Share> shares = new ArrayList<>();
+        for (String name : names) {
+            Integer index = languageIndex.get(NameResolver.normalize(name));
+            if (index != null) {
+                shares.add(share(index, sum(index, continent, region, officialOnly), population));
+            }
+        }
+        shares.sort(Comparator.comparingLong(Share::speakers).reversed());
+        return shares;
+    }
+
+    /**
+     * Rank languages by speakers within a scope
+     * @param k Number of languages to return
+     * @param continent Continent to limit to, or null for any
+     * @param region Region to limit to, or null for any
+     * @param officialOnly Whether to count only countries where the language is official
+     * @return Up to k shares, most spoken first
+     */
+    public List<Share> top(int k, String continent, String region, boolean officialOnly) {
+        long population = getPopulation(continent, region);
+        // Keep the k largest in a min-heap instead of sorting every language
+        PriorityQueue<double[]> heap = new PriorityQueue<>(Comparator.comparingDouble(entry -> entry[1]));
+        for (int l = 0; l < languages.length; l++) {
+            double speakers = sum(l, continent, region, officialOnly);
+            if (speakers <= 0) {
+                continue;
+            }
+            if (heap.size() < k) {
+                heap.add(new double[]{l, speakers});
+            } else if (speakers > heap.peek()[1]) {
+                heap.poll();
+                heap.add(new double[]{l, speakers});
+            }
+        }
+
+        List<Share> shares = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            double[] entry = heap.poll();
+            shares.add(share((int) entry[0], entry[1], population));
+        }
+        shares.sort(Comparator.comparingLong(Share::speakers).reversed());
+        return shares;
+    }
+
+    private double sum(int language, String continent, String region, boolean officialOnly) {
+        if (continent == null && region == null) {
+            return officialOnly ? officialTotals[language] : totals[language];
+        }
+        Row row = rows[language];
+        double speakers = 0;
+        for (int i = 0; i < row.countries().length; i++) {
+            if ((!officialOnly || row.official()[i]) && inScope(row.countries()[i], continent, region)) {
+                speakers += row.speakers()[i];
+            }
+        }
+        return speakers;
+    }
+
+    private boolean inScope(int country, String continent, String region) {
+        return (continent == null || continent.equals(continents[country]))
+                && (region == null || region.equals(regions[country]));
+    }
+
+    private Share share(int language, double speakers, long population) {
+        long rounded = Math.round(speakers);
+        double percentage = population == 0 ? 0 : rounded * 100.0 / population;
+        return new Share(languages[language], rounded, percentage);
+    }
+}
@@ -0,0 +1,240 @@
+package com.napier.sem.data;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves user-typed names to primary keys before any query runs.
+ * Names are matched case- and accent-insensitively ("sao paulo" finds São Paulo), so
+ * commands can filter on city.ID or city.CountryCode (both indexed) instead of
+ * joining on the unindexed Name columns. A name that does not exist is remembered
+ * in a bounded negative cache and answered without touching the database.
+ * A resolver belongs to one {@link WorldSnapshot} and is rebuilt with it.
+ */
+public class NameResolver {
+
+    /**
+     * Kinds of names the resolver knows about
+     */
+    public enum Kind {
+        COUNTRY,
+        CITY,
+        DISTRICT,
+        REGION,
+        CONTINENT
+    }
+
+    private static final int NEGATIVE_CACHE_SIZE = 1024;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final WorldSnapshot snapshot;
+    private final Map<String, String> countryCodes = new HashMap<>();
+    private final Map<String, List<Integer>> cityIds = new HashMap<>();
+    private final Map<String, String> districts = new HashMap<>();
+    private final Map<String, String> regions = new HashMap<>();
+    private final Map<String, String> continents = new HashMap<>();
+    private final Map<Kind, Set<String>> negativeCache = new EnumMap<>(Kind.class);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+
+    /**
+     * Constructor for NameResolver
+     * @param snapshot Snapshot to build the name maps from
+     */
+    public NameResolver(WorldSnapshot snapshot) {
+        this.snapshot = snapshot;
+
+        for (WorldSnapshot.Country country : snapshot.getCountries()) {
+            countryCodes.put(normalize(country.name()), country.code());
+            countryCodes.putIfAbsent(normalize(country.code()), country.code());
+            regions.putIfAbsent(normalize(country.region()), country.region());
+            continents.putIfAbsent(normalize(country.continent()), country.continent());
+        }
+
+        for (WorldSnapshot.City city : snapshot.getCities()) {
+            cityIds.computeIfAbsent(normalize(city.name()), key -> new ArrayList<>()).add(city.id());
+            districts.putIfAbsent(normalize(city.district()), city.district());
+        }
+        // Several cities share a name; the most populous one is the default match
+        Comparator<Integer> byPopulation = Comparator.comparingLong(id -> -snapshot.getCity(id).population());
+        for (List<Integer> ids : cityIds.values()) {
+            ids.sort(byPopulation);
+        }
+
+        for (Kind kind : Kind.values()) {
+            negativeCache.put(kind, Collections.newSetFromMap(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > NEGATIVE_CACHE_SIZE;
+                }
+            }));
+        }
+    }
+
+    /**
+     * Get the resolver for the current world snapshot
+     * @return Resolver, or null if no snapshot has been loaded
+     */
+    public static NameResolver current() {
+        WorldSnapshot snapshot = WorldData.current();
+        return snapshot == null ? null : snapshot.derived(NameResolver.class, NameResolver::new);
+    }
+
+    /**
+     * Normalise a name for matching: strip accents, lower-case and collapse whitespace
+     * @param name Name as typed or stored
+     * @return Normalised name
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Resolve a country name (or code) to its country code
+     * @param name Country name as typed
+     * @return Country code, or empty if no such country
+     */
+    public Optional<String> resolveCountryCode(String name) {
+        return lookup(Kind.COUNTRY, countryCodes, name);
+    }
+
+    /**
+     * Find every country whose name contains the text, for partial-match commands
+     * @param text Part of a country name
+     * @return Matching country codes, empty if none
+     */
+    public List<String> findCountryCodesContaining(String text) {
+        Optional<String> exact = resolveCountryCode(text);
+        if (exact.isPresent()) {
+            return List.of(exact.get());
+        }
+        String key = normalize(text);
+        List<String> codes = new ArrayList<>();
+        for (Map.Entry<String, String> entry : countryCodes.entrySet()) {
+            if (entry.getKey().contains(key) && !codes.contains(entry.getValue())) {
+                codes.add(entry.getValue());
+            }
+        }
+        Collections.sort(codes);
+        return codes;
+    }
+
+    /**
+     * Resolve a city name to the ID of the most populous city with that name
+     * @param name City name as typed
+     * @return City ID, or empty if no such city
+     */
+    public Optional<Integer> resolveCityId(String name) {
+        return lookup(Kind.CITY, cityIds, name).map(ids -> ids.get(0));
+    }
+
+    /**
+     * Resolve a city name to the IDs of every city with that name, most populous first
+     * @param name City name as typed
+     * @return City IDs, empty if no such city
+     */
+    public List<Integer> resolveCityIds(String name) {
+        return lookup(Kind.CITY, cityIds, name).orElse(List.of());
+    }
+
+    /**
+     * Resolve a district name to its stored spelling
+     * @param name District name as typed
+     * @return District as stored, or empty if no such district
+     */
+    public Optional<String> resolveDistrict(String name) {
+        return lookup(Kind.DISTRICT, districts, name);
+    }
+
+    /**
+     * Resolve a region name to its stored spelling
+     * @param name Region name as typed
+     * @return Region as stored, or empty if no such region
+     */
+    public Optional<String> resolveRegion(String name) {
+        return lookup(Kind.REGION, regions, name);
+    }
+
+    /**
+     * Resolve a continent name to its stored spelling
+     * @param name Continent name as typed
+     * @return Continent as stored, or empty if no such continent
+     */
+    public Optional<String> resolveContinent(String name) {
+        return lookup(Kind.CONTINENT, continents, name);
+    }
+
+    private <T> Optional<T> lookup(Kind kind, Map<String, T> names, String name) {
+        String key = normalize(name);
+        Set<String> negatives = negativeCache.get(kind);
+
+        synchronized (negatives) {
+            if (negatives.contains(key)) {
+                negativeHits.incrementAndGet();
+                return Optional.empty();
+            }
+        }
+
+        T value = names.get(key);
+        if (value == null) {
+            misses.incrementAndGet();
+            synchronized (negatives) {
+                negatives.add(key);
+            }
+            return Optional.empty();
+        }
+
+        hits.incrementAndGet();
+        return Optional.of(value);
+    }
+
+    public WorldSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getNegativeHits() {
+        return negativeHits.get();
+    }
+
+    /**
+     * Get the number of names currently held in the negative cache
+     * @return Negative cache size across all kinds
+     */
+    public int getNegativeCacheSize() {
+        int size = 0;
+        for (Set<String> negatives : negativeCache.values()) {
+            synchronized (negatives) {
+                size += negatives.size();
+            }
+        }
+        return size;
+    }
+}
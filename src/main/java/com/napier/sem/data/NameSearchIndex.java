@@ -0,0 +1,269 @@
+package com.napier.sem.data;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Fuzzy and prefix search over city, district, country, region and continent names.
+ * Fuzzy matching uses a trigram inverted index ranked by Dice similarity, so a
+ * mistyped name such as "Londn" or "Rio de Janiero" still finds its city. Prefix
+ * completion binary-searches a per-kind array of normalised names sorted
+ * alphabetically, which behaves like a trie without the per-node overhead. Both
+ * run entirely in memory over a {@link WorldSnapshot} and are rebuilt with it.
+ */
+public class NameSearchIndex {
+
+    /**
+     * A search result
+     * @param kind What the name refers to
+     * @param name Name as stored
+     * @param key Primary key: country code, city ID, or the stored name for districts, regions and continents
+     * @param context Enclosing country or continent, for display
+     * @param population Population used to rank equally good matches
+     * @param score Similarity between 0 and 1
+     */
+    public record Match(NameResolver.Kind kind, String name, String key, String context, long population, double score) {
+    }
+
+    private record Entry(NameResolver.Kind kind, String name, String normalized, String key, String context,
+                         long population, int gramCount) {
+    }
+
+    private static final double AUTO_RESOLVE_SCORE = 0.6;
+    private static final double AUTO_RESOLVE_MARGIN = 0.1;
+    private static final int SUGGESTIONS = 5;
+
+    private final Entry[] entries;
+    private final Map<String, int[]> postings = new HashMap<>();
+    private final Map<NameResolver.Kind, int[]> sortedByKind = new EnumMap<>(NameResolver.Kind.class);
+
+    /**
+     * Constructor for NameSearchIndex
+     * @param snapshot Snapshot to index
+     */
+    public NameSearchIndex(WorldSnapshot snapshot) {
+        List<Entry> list = new ArrayList<>();
+        Map<String, Long> districtPopulation = new HashMap<>();
+        Map<String, String> districtContext = new HashMap<>();
+        Map<String, Long> regionPopulation = new HashMap<>();
+        Map<String, String> regionContext = new HashMap<>();
+        Map<String, Long> continentPopulation = new HashMap<>();
+
+        for (WorldSnapshot.Country country : snapshot.getCountries()) {
+            list.add(entry(NameResolver.Kind.COUNTRY, country.name(), country.code(), country.continent(), country.population()));
+            regionPopulation.merge(country.region(), country.population(), Long::sum);
+            regionContext.putIfAbsent(country.region(), country.continent());
+            continentPopulation.merge(country.continent(), country.population(), Long::sum);
+        }
+        for (WorldSnapshot.City city : snapshot.getCities()) {
+            WorldSnapshot.Country country = snapshot.getCountry(city.countryCode());
+            String countryName = country == null ? city.countryCode() : country.name();
+            list.add(entry(NameResolver.Kind.CITY, city.name(), String.valueOf(city.id()), countryName, city.population()));
+            districtPopulation.merge(city.district(), city.population(), Long::sum);
+            districtContext.putIfAbsent(city.district(), countryName);
+        }
+        districtPopulation.forEach((name, population) ->
+                list.add(entry(NameResolver.Kind.DISTRICT, name, name, districtContext.get(name), population)));
+        regionPopulation.forEach((name, population) ->
+                list.add(entry(NameResolver.Kind.REGION, name, name, regionContext.get(name), population)));
+        continentPopulation.forEach((name, population) ->
+                list.add(entry(NameResolver.Kind.CONTINENT, name, name, "", population)));
+
+        entries = list.toArray(new Entry[0]);
+
+        Map<String, List<Integer>> gramLists = new HashMap<>();
+        for (int i = 0; i < entries.length; i++) {
+            for (String gram : trigrams(entries[i].normalized())) {
+                gramLists.computeIfAbsent(gram, key -> new ArrayList<>()).add(i);
+            }
+        }
+        gramLists.forEach((gram, ids) -> postings.put(gram, ids.stream().mapToInt(Integer::intValue).toArray()));
+
+        for (NameResolver.Kind kind : NameResolver.Kind.values()) {
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].kind() == kind) {
+                    ids.add(i);
+                }
+            }
+            ids.sort(Comparator.comparing(i -> entries[i].normalized()));
+            sortedByKind.put(kind, ids.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    private static Entry entry(NameResolver.Kind kind, String name, String key, String context, long population) {
+        String normalized = NameResolver.normalize(name);
+        return new Entry(kind, name, normalized, key, context, population, trigrams(normalized).size());
+    }
+
+    /**
+     * Get the search index for the current world snapshot
+     * @return Index, or null if no snapshot has been loaded
+     */
+    public static NameSearchIndex current() {
+        WorldSnapshot snapshot = WorldData.current();
+        return snapshot == null ? null : snapshot.derived(NameSearchIndex.class, NameSearchIndex::new);
+    }
+
+    /**
+     * Split a normalised name into its distinct padded trigrams
+     */
+    static Set<String> trigrams(String normalized) {
+        String padded = "  " + normalized + " ";
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Find the names most similar to the text
+     * @param text Name as typed, possibly misspelt
+     * @param kind Kind of name to search, or null for all kinds
+     * @param limit Maximum number of matches
+     * @return Matches ranked by similarity, then population
+     */
+    public List<Match> search(String text, NameResolver.Kind kind, int limit) {
+        String normalized = NameResolver.normalize(text);
+        Set<String> queryGrams = trigrams(normalized);
+        int[] common = new int[entries.length];
+        List<Integer> candidates = new ArrayList<>();
+
+        for (String gram : queryGrams) {
+            int[] ids = postings.get(gram);
+            if (ids == null) {
+                continue;
+            }
+            for (int id : ids) {
+                if (common[id]++ == 0 && (kind == null || entries[id].kind() == kind)) {
+                    candidates.add(id);
+                }
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(candidates.size());
+        for (int id : candidates) {
+            Entry entry = entries[id];
+            double score = entry.normalized().equals(normalized)
+                    ? 1.0
+                    : 2.0 * common[id] / (queryGrams.size() + entry.gramCount());
+            matches.add(toMatch(entry, score));
+        }
+        matches.sort(Comparator.comparingDouble(Match::score).reversed()
+                .thenComparing(Comparator.comparingLong(Match::population).reversed()));
+        return matches.subList(0, Math.min(limit, matches.size()));
+    }
+
+    /**
+     * Complete a name prefix
+     * @param prefix Start of a name
+     * @param kind Kind of name to complete, or null for all kinds
+     * @param limit Maximum number of completions
+     * @return Names starting with the prefix, most populous first
+     */
+    public List<Match> complete(String prefix, NameResolver.Kind kind, int limit) {
+        String normalized = NameResolver.normalize(prefix);
+        List<Match> matches = new ArrayList<>();
+
+        for (NameResolver.Kind searchKind : kind == null ? NameResolver.Kind.values() : new NameResolver.Kind[]{kind}) {
+            int[] sorted = sortedByKind.get(searchKind);
+            for (int i = lowerBound(sorted, normalized); i < sorted.length; i++) {
+                Entry entry = entries[sorted[i]];
+                if (!entry.normalized().startsWith(normalized)) {
+                    break;
+                }
+                matches.add(toMatch(entry, (double) normalized.length() / Math.max(1, entry.normalized().length())));
+            }
+        }
+        matches.sort(Comparator.comparingLong(Match::population).reversed());
+        return matches.subList(0, Math.min(limit, matches.size()));
+    }
+
+    private int lowerBound(int[] sorted, String key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries[sorted[mid]].normalized().compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Pick the match for a name the resolver did not know, if one is clearly the closest.
+     * The match must be similar enough and clearly ahead of the runner-up; it is announced
+     * so the user can see which name was used.
+     * @param text Name as typed
+     * @param kind Kind of name
+     * @return The confident match, or empty if nothing was close or the best candidates were tied
+     */
+    public Optional<Match> autoResolve(String text, NameResolver.Kind kind) {
+        List<Match> matches = search(text, kind, SUGGESTIONS);
+        if (matches.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Match best = matches.get(0);
+        Match runnerUp = null;
+        for (Match match : matches) {
+            if (!match.name().equals(best.name())) {
+                runnerUp = match;
+                break;
+            }
+        }
+
+        if (best.score() < AUTO_RESOLVE_SCORE
+                || (runnerUp != null && best.score() - runnerUp.score() < AUTO_RESOLVE_MARGIN)) {
+            return Optional.empty();
+        }
+        System.out.println("  Showing results for '" + best.name() + "' (closest match to '" + text + "')");
+        return Optional.of(best);
+    }
+
+    /**
+     * Print the closest names as suggestions, if there are any
+     * @param text Name as typed
+     * @param kind Kind of name
+     */
+    public void printSuggestions(String text, NameResolver.Kind kind) {
+        Set<String> suggestions = new LinkedHashSet<>();
+        for (Match match : search(text, kind, SUGGESTIONS)) {
+            suggestions.add(match.context().isEmpty() ? match.name() : match.name() + " (" + match.context() + ")");
+        }
+        if (!suggestions.isEmpty()) {
+            System.out.println("  Did you mean: " + String.join(", ", suggestions) + "?");
+        }
+    }
+
+    private static Match toMatch(Entry entry, double score) {
+        return new Match(entry.kind(), entry.name(), entry.key(), entry.context(), entry.population(), score);
+    }
+
+    /**
+     * Get the number of indexed names
+     * @return Entry count
+     */
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * Get the number of distinct trigrams in the index
+     * @return Trigram count
+     */
+    public int trigramCount() {
+        return postings.size();
+    }
+}
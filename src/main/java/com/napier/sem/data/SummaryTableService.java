@@ -0,0 +1,319 @@
+package com.napier.sem.data;
+
+import com.napier.sem.DatabaseConfig;
+import com.napier.sem.IConnectionProvider;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary tables owned by the application: per-country urban totals and per-region and
+ * per-continent totals, kept in MySQL next to the world tables. Language speakers are
+ * not summarised here; the language commands read the in-memory language matrix.
+ * The tables are created on startup and rebuilt in one transaction, so readers see either
+ * the old or the new totals, never a mix. A rebuild runs on a fixed schedule and whenever
+ * the {@link DataVersionService} reports a change; between the change and the end of the
+ * rebuild the summaries are stale and {@link #current()} returns null, so commands read
+ * the base tables until the totals have caught up.
+ */
+public class SummaryTableService implements IDataVersionListener {
+
+    /**
+     * Country rows with the population living in their cities
+     */
+    public static final String COUNTRY_TABLE = "summary_country";
+
+    /**
+     * Region totals
+     */
+    public static final String REGION_TABLE = "summary_region";
+
+    /**
+     * Continent totals
+     */
+    public static final String CONTINENT_TABLE = "summary_continent";
+
+    private static final List<String> CREATE_SQL = List.of(
+            "CREATE TABLE IF NOT EXISTS " + COUNTRY_TABLE + " (Code CHAR(3) NOT NULL PRIMARY KEY, "
+                    + "Name VARCHAR(52) NOT NULL, Continent VARCHAR(20) NOT NULL, Region VARCHAR(26) NOT NULL, "
+                    + "Population BIGINT NOT NULL, UrbanPopulation BIGINT NOT NULL, CityCount INT NOT NULL, "
+                    + "KEY (Region), KEY (Continent))",
+            "CREATE TABLE IF NOT EXISTS " + REGION_TABLE + " (Region VARCHAR(26) NOT NULL PRIMARY KEY, "
+                    + "Continent VARCHAR(20) NOT NULL, Population BIGINT NOT NULL, UrbanPopulation BIGINT NOT NULL, "
+                    + "CountryCount INT NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS " + CONTINENT_TABLE + " (Continent VARCHAR(20) NOT NULL PRIMARY KEY, "
+                    + "Population BIGINT NOT NULL, UrbanPopulation BIGINT NOT NULL, CountryCount INT NOT NULL)");
+
+    // Region and continent totals are rolled up from the country summary filled just before them
+    private static final Map<String, String> REFRESH_SQL = new LinkedHashMap<>();
+
+    static {
+        REFRESH_SQL.put(COUNTRY_TABLE, "INSERT INTO " + COUNTRY_TABLE
+                + " SELECT co.Code, co.Name, co.Continent, co.Region, co.Population, "
+                + "COALESCE(SUM(ci.Population), 0), COUNT(ci.ID) "
+                + "FROM country co LEFT JOIN city ci ON ci.CountryCode = co.Code "
+                + "GROUP BY co.Code, co.Name, co.Continent, co.Region, co.Population");
+        REFRESH_SQL.put(REGION_TABLE, "INSERT INTO " + REGION_TABLE
+                + " SELECT Region, MIN(Continent), SUM(Population), SUM(UrbanPopulation), COUNT(*) "
+                + "FROM " + COUNTRY_TABLE + " GROUP BY Region");
+        REFRESH_SQL.put(CONTINENT_TABLE, "INSERT INTO " + CONTINENT_TABLE
+                + " SELECT Continent, SUM(Population), SUM(UrbanPopulation), COUNT(*) "
+                + "FROM " + COUNTRY_TABLE + " GROUP BY Continent");
+    }
+
+    /**
+     * Cost of rebuilding one table in the last refresh
+     * @param table Summary table
+     * @param rows Rows written
+     * @param millis Time taken
+     */
+    public record TableRefresh(String table, int rows, long millis) {
+    }
+
+    private static final long DEFAULT_REFRESH_INTERVAL_MILLIS = 600000;
+
+    private static SummaryTableService defaultService;
+
+    private final IConnectionProvider connectionProvider;
+    private final long refreshIntervalMillis;
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> refreshTask;
+    private boolean tablesCreated;
+    private volatile long latestVersion;
+    private volatile long refreshedVersion = -1;
+    private long lastRefreshMillis;
+    private long lastRefreshDurationMillis;
+    private List<TableRefresh> lastTableRefreshes = List.of();
+    private long refreshes;
+    private long failedRefreshes;
+    private String lastError;
+
+    /**
+     * Constructor for SummaryTableService
+     * @param connectionProvider Source of connections for refreshing
+     * @param refreshIntervalMillis Interval between scheduled refreshes
+     */
+    public SummaryTableService(IConnectionProvider connectionProvider, long refreshIntervalMillis) {
+        this.connectionProvider = connectionProvider;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    /**
+     * Get the service shared by the application, refreshing every SUMMARY_REFRESH_MS (default 10 minutes)
+     * @return Shared service instance
+     */
+    public static synchronized SummaryTableService getDefault() {
+        if (defaultService == null) {
+            defaultService = new SummaryTableService(DatabaseConfig::getConnection, refreshIntervalFromEnvironment());
+        }
+        return defaultService;
+    }
+
+    private static long refreshIntervalFromEnvironment() {
+        String configured = System.getenv("SUMMARY_REFRESH_MS");
+        if (configured != null) {
+            try {
+                long interval = Long.parseLong(configured.trim());
+                if (interval > 0) {
+                    return interval;
+                }
+            } catch (NumberFormatException e) {
+                // Fall through to the default
+            }
+            System.err.println("  Ignoring invalid SUMMARY_REFRESH_MS: " + configured);
+        }
+        return DEFAULT_REFRESH_INTERVAL_MILLIS;
+    }
+
+    /**
+     * Replace the shared service
+     * @param service New service, or null to clear
+     */
+    public static synchronized void install(SummaryTableService service) {
+        defaultService = service;
+    }
+
+    /**
+     * Get the shared service if its summaries are up to date with the data version
+     * @return Service to read summaries from, or null if commands should read the base tables
+     */
+    public static synchronized SummaryTableService current() {
+        return defaultService != null && defaultService.isFresh() ? defaultService : null;
+    }
+
+    /**
+     * Start refreshing in the background
+     */
+    public synchronized void start() {
+        if (refreshTask != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "summary-table-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refreshTask = scheduler.scheduleWithFixedDelay(this::scheduledRefresh, refreshIntervalMillis,
+                refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop refreshing
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            refreshTask = null;
+        }
+    }
+
+    /**
+     * Mark the summaries stale and rebuild them, in the background if the scheduler is running
+     * @param version New data version
+     * @param changedTables Tables whose contents changed since the previous version
+     */
+    @Override
+    public void onDataVersionChanged(long version, Set<String> changedTables) {
+        latestVersion = Math.max(latestVersion, version);
+        ScheduledExecutorService executor;
+        synchronized (this) {
+            executor = scheduler;
+        }
+        if (executor != null) {
+            executor.execute(this::scheduledRefresh);
+        } else {
+            scheduledRefresh();
+        }
+    }
+
+    private void scheduledRefresh() {
+        try {
+            refreshNow(latestVersion);
+        } catch (SQLException e) {
+            // Counted and kept as the last error by refreshNow
+        }
+    }
+
+    /**
+     * Create the summary tables if needed and rebuild them from the world tables now
+     * @param version Data version the rebuild reads
+     * @return Cost of each table rebuilt
+     * @throws SQLException if the rebuild fails; the previous summaries are kept
+     */
+    public synchronized List<TableRefresh> refreshNow(long version) throws SQLException {
+        latestVersion = Math.max(latestVersion, version);
+        long started = System.nanoTime();
+        List<TableRefresh> tables = new ArrayList<>();
+        try (Connection connection = connectionProvider.getConnection();
+             Statement stmt = connection.createStatement()) {
+            if (!tablesCreated) {
+                for (String sql : CREATE_SQL) {
+                    stmt.execute(sql);
+                }
+                tablesCreated = true;
+            }
+
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                for (Map.Entry<String, String> entry : REFRESH_SQL.entrySet()) {
+                    long tableStarted = System.nanoTime();
+                    stmt.executeUpdate("DELETE FROM " + entry.getKey());
+                    int rows = stmt.executeUpdate(entry.getValue());
+                    tables.add(new TableRefresh(entry.getKey(), rows,
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - tableStarted)));
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            failedRefreshes++;
+            lastError = e.getMessage();
+            throw e;
+        }
+
+        refreshes++;
+        refreshedVersion = version;
+        lastRefreshMillis = System.currentTimeMillis();
+        lastRefreshDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        lastTableRefreshes = List.copyOf(tables);
+        lastError = null;
+        return lastTableRefreshes;
+    }
+
+    /**
+     * Check whether the summaries have been built for the latest known data version
+     * @return True if the summaries can be read in place of the base tables
+     */
+    public boolean isFresh() {
+        return refreshedVersion >= 0 && refreshedVersion >= latestVersion;
+    }
+
+    /**
+     * Get the time since the summaries were last rebuilt
+     * @return Age in milliseconds, or -1 if they have never been built
+     */
+    public synchronized long getAgeMillis() {
+        return lastRefreshMillis == 0 ? -1 : System.currentTimeMillis() - lastRefreshMillis;
+    }
+
+    public long getLatestVersion() {
+        return latestVersion;
+    }
+
+    /**
+     * Get the data version the summaries were built at
+     * @return Data version, or -1 if they have never been built
+     */
+    public long getRefreshedVersion() {
+        return refreshedVersion;
+    }
+
+    public long getRefreshIntervalMillis() {
+        return refreshIntervalMillis;
+    }
+
+    public synchronized long getLastRefreshMillis() {
+        return lastRefreshMillis;
+    }
+
+    public synchronized long getLastRefreshDurationMillis() {
+        return lastRefreshDurationMillis;
+    }
+
+    public synchronized List<TableRefresh> getLastTableRefreshes() {
+        return lastTableRefreshes;
+    }
+
+    public synchronized long getRefreshes() {
+        return refreshes;
+    }
+
+    public synchronized long getFailedRefreshes() {
+        return failedRefreshes;
+    }
+
+    public synchronized String getLastError() {
+        return lastError;
+    }
+
+    public synchronized boolean isRunning() {
+        return refreshTask != null;
+    }
+}
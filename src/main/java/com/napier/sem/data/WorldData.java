@@ -0,0 +1,85 @@
+package com.napier.sem.data;
+
+import com.napier.sem.DatabaseConfig;
+import com.napier.sem.IConnectionProvider;
+import com.napier.sem.shard.ScatterGather;
+import com.napier.sem.shard.ShardMap;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Holder for the current {@link WorldSnapshot}.
+ * Commands check {@link #current()} and fall back to plain SQL when no snapshot
+ * has been loaded, so everything keeps working if the initial load fails.
+ */
+public class WorldData {
+
+    private static volatile WorldSnapshot current;
+    private static IDataVersionListener reloader;
+
+    /**
+     * Get the current snapshot
+     * @return Current snapshot, or null if none has been loaded
+     */
+    public static WorldSnapshot current() {
+        return current;
+    }
+
+    /**
+     * Replace the current snapshot
+     * @param snapshot New snapshot, or null to clear
+     */
+    public static void install(WorldSnapshot snapshot) {
+        current = snapshot;
+    }
+
+    /**
+     * Discard the current snapshot
+     */
+    public static void clear() {
+        current = null;
+    }
+
+    /**
+     * Load a fresh snapshot and make it current. When the data is sharded every shard is
+     * read at once and the snapshot holds the whole world.
+     * @param connectionProvider Source of a connection for loading an unsharded database
+     * @param dataVersion Data version the snapshot is read at
+     * @return The loaded snapshot
+     * @throws SQLException if loading fails; the previous snapshot stays current
+     */
+    public static WorldSnapshot refresh(IConnectionProvider connectionProvider, long dataVersion) throws SQLException {
+        ShardMap shards = DatabaseConfig.getShardMap();
+        if (shards != null) {
+            WorldSnapshot snapshot = WorldSnapshot.merge(dataVersion,
+                    ScatterGather.gather(shards, connection -> WorldSnapshot.load(connection, dataVersion)));
+            install(snapshot);
+            return snapshot;
+        }
+        try (Connection connection = connectionProvider.getConnection()) {
+            WorldSnapshot snapshot = WorldSnapshot.load(connection, dataVersion);
+            install(snapshot);
+            return snapshot;
+        }
+    }
+
+    /**
+     * Reload the snapshot whenever the data version changes
+     * @param service Data version service to subscribe to
+     * @param connectionProvider Source of connections for reloading
+     */
+    public static synchronized void enableAutoRefresh(DataVersionService service, IConnectionProvider connectionProvider) {
+        if (reloader != null) {
+            return;
+        }
+        reloader = (version, changedTables) -> {
+            try {
+                refresh(connectionProvider, version);
+            } catch (SQLException e) {
+                System.err.println("  Failed to reload world data: " + e.getMessage());
+            }
+        };
+        service.subscribe(reloader);
+    }
+}
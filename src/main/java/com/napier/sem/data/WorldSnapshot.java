@@ -0,0 +1,236 @@
+package com.napier.sem.data;
+
+import com.napier.sem.shard.ScatterGather;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Immutable in-memory copy of the city, country and countrylanguage tables.
+ * The world database is small (a few thousand rows), so holding it in memory lets
+ * lookups and indexes answer without a database round trip. Indexes built from a
+ * snapshot are stored alongside it through {@link #derived(Class, Function)}, so
+ * replacing the snapshot after a data change discards them all at once.
+ */
+public class WorldSnapshot {
+
+    /**
+     * A row of the city table
+     */
+    public record City(int id, String name, String countryCode, String district, long population) {
+    }
+
+    /**
+     * A row of the country table. Nullable columns are boxed.
+     */
+    public record Country(String code, String name, String continent, String region, double surfaceArea,
+                          Integer indepYear, long population, Double lifeExpectancy, Double gnp,
+                          Double gnpOld, Integer capital) {
+    }
+
+    /**
+     * A row of the countrylanguage table
+     */
+    public record CountryLanguage(String countryCode, String language, boolean official, double percentage) {
+    }
+
+    private final long dataVersion;
+    private final long loadedAtMillis;
+    private final List<City> cities;
+    private final List<Country> countries;
+    private final List<CountryLanguage> languages;
+    private final Map<String, Country> countriesByCode = new HashMap<>();
+    private final Map<Integer, City> citiesById = new HashMap<>();
+    private final Map<Class<?>, Object> derivedIndexes = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for WorldSnapshot
+     * @param dataVersion Data version the rows were read at
+     * @param cities City rows
+     * @param countries Country rows
+     * @param languages Country language rows
+     */
+    public WorldSnapshot(long dataVersion, List<City> cities, List<Country> countries, List<CountryLanguage> languages) {
+        this.dataVersion = dataVersion;
+        this.loadedAtMillis = System.currentTimeMillis();
+        this.cities = Collections.unmodifiableList(new ArrayList<>(cities));
+        this.countries = Collections.unmodifiableList(new ArrayList<>(countries));
+        this.languages = Collections.unmodifiableList(new ArrayList<>(languages));
+
+        for (Country country : this.countries) {
+            countriesByCode.put(country.code(), country);
+        }
+        for (City city : this.cities) {
+            citiesById.put(city.id(), city);
+        }
+    }
+
+    /**
+     * Read all three tables into a new snapshot
+     * @param connection Database connection
+     * @param dataVersion Data version the rows are read at
+     * @return Loaded snapshot
+     * @throws SQLException if any table cannot be read
+     */
+    public static WorldSnapshot load(Connection connection, long dataVersion) throws SQLException {
+        List<Country> countries = loadCountries(connection);
+
+        List<City> cities = new ArrayList<>();
+        String citySql = "SELECT ID, Name, CountryCode, District, Population FROM city";
+        try (PreparedStatement stmt = connection.prepareStatement(citySql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                cities.add(new City(
+                        rs.getInt("ID"),
+                        rs.getString("Name"),
+                        rs.getString("CountryCode"),
+                        rs.getString("District"),
+                        rs.getLong("Population")));
+            }
+        }
+
+        List<CountryLanguage> languages = new ArrayList<>();
+        String languageSql = "SELECT CountryCode, Language, IsOfficial, Percentage FROM countrylanguage";
+        try (PreparedStatement stmt = connection.prepareStatement(languageSql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                languages.add(new CountryLanguage(
+                        rs.getString("CountryCode"),
+                        rs.getString("Language"),
+                        "T".equals(rs.getString("IsOfficial")),
+                        rs.getDouble("Percentage")));
+            }
+        }
+
+        return new WorldSnapshot(dataVersion, cities, countries, languages);
+    }
+
+    /**
+     * Combine snapshots of disjoint parts of the world, e.g. one per shard
+     * @param dataVersion Data version of the combined snapshot
+     * @param parts Snapshots to combine
+     * @return Snapshot holding every row of every part
+     */
+    public static WorldSnapshot merge(long dataVersion, List<WorldSnapshot> parts) {
+        List<City> cities = new ArrayList<>();
+        List<Country> countries = new ArrayList<>();
+        List<CountryLanguage> languages = new ArrayList<>();
+        for (WorldSnapshot part : parts) {
+            cities.addAll(part.cities);
+            countries.addAll(part.countries);
+            languages.addAll(part.languages);
+        }
+        return new WorldSnapshot(dataVersion, cities, countries, languages);
+    }
+
+    /**
+     * Read the country table of every shard, or of the one database when the data is not sharded
+     * @param connection Connection used when the data is not sharded
+     * @return Country rows
+     * @throws SQLException if any country table cannot be read
+     */
+    public static List<Country> loadAllCountries(Connection connection) throws SQLException {
+        List<Country> countries = new ArrayList<>();
+        for (List<Country> part : ScatterGather.acrossShards(connection, WorldSnapshot::loadCountries)) {
+            countries.addAll(part);
+        }
+        return countries;
+    }
+
+    /**
+     * Read the country table
+     * @param connection Database connection
+     * @return Country rows
+     * @throws SQLException if the table cannot be read
+     */
+    public static List<Country> loadCountries(Connection connection) throws SQLException {
+        List<Country> countries = new ArrayList<>();
+        String countrySql = "SELECT Code, Name, Continent, Region, SurfaceArea, IndepYear, Population, "
+                + "LifeExpectancy, GNP, GNPOld, Capital FROM country";
+        try (PreparedStatement stmt = connection.prepareStatement(countrySql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                countries.add(new Country(
+                        rs.getString("Code"),
+                        rs.getString("Name"),
+                        rs.getString("Continent"),
+                        rs.getString("Region"),
+                        rs.getDouble("SurfaceArea"),
+                        nullableInt(rs, "IndepYear"),
+                        rs.getLong("Population"),
+                        nullableDouble(rs, "LifeExpectancy"),
+                        nullableDouble(rs, "GNP"),
+                        nullableDouble(rs, "GNPOld"),
+                        nullableInt(rs, "Capital")));
+            }
+        }
+        return countries;
+    }
+
+    private static Integer nullableInt(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Double nullableDouble(ResultSet rs, String column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    /**
+     * Get an index derived from this snapshot, building it on first use.
+     * @param type Index class, used as the key
+     * @param factory Builds the index from this snapshot
+     * @return The index for this snapshot
+     */
+    public <T> T derived(Class<T> type, Function<WorldSnapshot, T> factory) {
+        return type.cast(derivedIndexes.computeIfAbsent(type, key -> factory.apply(this)));
+    }
+
+    public long getDataVersion() {
+        return dataVersion;
+    }
+
+    public long getLoadedAtMillis() {
+        return loadedAtMillis;
+    }
+
+    public List<City> getCities() {
+        return cities;
+    }
+
+    public List<Country> getCountries() {
+        return countries;
+    }
+
+    public List<CountryLanguage> getLanguages() {
+        return languages;
+    }
+
+    /**
+     * Get a country by its code
+     * @param code Country code
+     * @return Country or null if not found
+     */
+    public Country getCountry(String code) {
+        return countriesByCode.get(code);
+    }
+
+    /**
+     * Get a city by its ID
+     * @param id City ID
+     * @return City or null if not found
+     */
+    public City getCity(int id) {
+        return citiesById.get(id);
+    }
+}
@@ -0,0 +1,313 @@
+package com.napier.sem.pool;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resizes the Hikari pool to the workload, within fixed bounds.
+ * Every interval the controller looks at threads waiting for a connection, the mean
+ * borrow wait, how many connections were in use, and how slow commands ran compared with
+ * their own usual time. Latency is compared per command because a long all-* export is
+ * not a slow dashboard lookup: each command keeps a moving baseline and the window's
+ * median ratio to it is the latency signal. The rules, first match wins:
+ * <ul>
+ *   <li>latency ratio above {@link #BACKOFF_RATIO}: MySQL is the bottleneck, so more
+ *       connections would only queue there; shrink the pool by a quarter</li>
+ *   <li>threads waiting or mean wait above {@link #WAIT_THRESHOLD_MILLIS}: grow by
+ *       {@link #GROW_STEP}</li>
+ *   <li>peak use under half the pool for {@link #IDLE_INTERVALS} intervals in a row:
+ *       shrink by one</li>
+ * </ul>
+ * Growing additively and backing off multiplicatively keeps a latency spike from being
+ * answered with still more concurrent queries.
+ */
+public class PoolSizeController {
+
+    /**
+     * Median latency ratio above which the pool backs off
+     */
+    public static final double BACKOFF_RATIO = 1.5;
+
+    /**
+     * Mean borrow wait above which the pool grows
+     */
+    public static final double WAIT_THRESHOLD_MILLIS = 10;
+
+    /**
+     * Connections added per growing interval
+     */
+    public static final int GROW_STEP = 2;
+
+    /**
+     * Quiet intervals before the pool shrinks
+     */
+    public static final int IDLE_INTERVALS = 6;
+
+    private static final double BASELINE_WEIGHT = 0.1;
+    private static final int HISTORY = 20;
+    private static final int MAX_RATIOS = 4096;
+
+    /**
+     * Pool measurements over one interval
+     * @param waiting Threads waiting for a connection at the end of the interval
+     * @param meanWaitMillis Mean time to borrow a connection
+     * @param peakActive Most connections in use at once
+     * @param latencyRatio Median of command time over its baseline, or 0 with no commands
+     */
+    public record Sample(int waiting, double meanWaitMillis, int peakActive, double latencyRatio) {
+    }
+
+    /**
+     * One resize
+     * @param atMillis When it was made
+     * @param from Previous maximum pool size
+     * @param to New maximum pool size
+     * @param reason Why
+     */
+    public record Adjustment(long atMillis, int from, int to, String reason) {
+    }
+
+    private final HikariConfigMXBean config;
+    private final HikariPoolMXBean pool;
+    private final int lowerBound;
+    private final int upperBound;
+    private final int minimumIdle;
+    private final long intervalMillis;
+
+    private final Map<String, Double> baselines = new ConcurrentHashMap<>();
+    private final Deque<Adjustment> history = new ArrayDeque<>();
+    private double[] ratios = new double[64];
+    private int ratioCount;
+    private long waitNanos;
+    private long waits;
+    private int peakActive;
+    private int quietIntervals;
+    private Sample lastSample;
+    private String lastDecision = "none yet";
+    private long adjustments;
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> task;
+
+    /**
+     * Constructor for PoolSizeController
+     * @param config Hikari configuration bean, used to resize
+     * @param pool Hikari pool bean, used to read connection counts
+     * @param lowerBound Smallest maximum pool size
+     * @param upperBound Largest maximum pool size
+     * @param minimumIdle Idle connections to keep, capped at the current maximum
+     * @param intervalMillis Time between adjustments
+     */
+    public PoolSizeController(HikariConfigMXBean config, HikariPoolMXBean pool, int lowerBound, int upperBound,
+                              int minimumIdle, long intervalMillis) {
+        if (lowerBound < 1 || upperBound < lowerBound) {
+            throw new IllegalArgumentException("Pool bounds must satisfy 1 <= lower <= upper");
+        }
+        this.config = config;
+        this.pool = pool;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.minimumIdle = minimumIdle;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Start adjusting in the background
+     */
+    public synchronized void start() {
+        if (task != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pool-size-controller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        task = scheduler.scheduleWithFixedDelay(this::tick, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop adjusting; the pool keeps its current size
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            task = null;
+        }
+    }
+
+    private void tick() {
+        try {
+            adjust();
+        } catch (RuntimeException e) {
+            // A closed or suspended pool; keep the schedule so a later interval can resize
+            lastDecision = "failed: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Record the time taken to borrow a connection, and the connections in use after it
+     * @param nanos Borrow time
+     */
+    public synchronized void recordWait(long nanos) {
+        waitNanos += nanos;
+        waits++;
+        peakActive = Math.max(peakActive, pool.getActiveConnections());
+    }
+
+    /**
+     * Record how long a command ran once it had a connection
+     * @param command Execution command
+     * @param nanos Run time
+     */
+    public void recordLatency(String command, long nanos) {
+        double[] result = new double[1];
+        baselines.compute(command, (key, baseline) -> {
+            if (baseline == null) {
+                result[0] = 1;
+                return (double) nanos;
+            }
+            result[0] = baseline == 0 ? 1 : nanos / baseline;
+            return baseline + BASELINE_WEIGHT * (nanos - baseline);
+        });
+        synchronized (this) {
+            if (ratioCount == ratios.length && ratioCount < MAX_RATIOS) {
+                ratios = Arrays.copyOf(ratios, ratios.length * 2);
+            }
+            if (ratioCount < ratios.length) {
+                ratios[ratioCount++] = result[0];
+            }
+        }
+    }
+
+    /**
+     * Take the interval's sample, resize the pool if a rule applies and start a new interval
+     * @return The adjustment made, or null if the size was kept
+     */
+    public synchronized Adjustment adjust() {
+        double[] window = Arrays.copyOf(ratios, ratioCount);
+        Arrays.sort(window);
+        double latency = window.length == 0 ? 0 : window[window.length / 2];
+        Sample sample = new Sample(pool.getThreadsAwaitingConnection(),
+                waits == 0 ? 0 : waitNanos / 1e6 / waits,
+                Math.max(peakActive, pool.getActiveConnections()), latency);
+        lastSample = sample;
+        ratioCount = 0;
+        waitNanos = 0;
+        waits = 0;
+        peakActive = 0;
+
+        int current = config.getMaximumPoolSize();
+        int target = current;
+        String reason;
+        if (sample.latencyRatio() > BACKOFF_RATIO) {
+            target = Math.max(lowerBound, current - Math.max(1, current / 4));
+            reason = String.format("latency %.2fx baseline, backing off", sample.latencyRatio());
+            quietIntervals = 0;
+        } else if (sample.waiting() > 0 || sample.meanWaitMillis() > WAIT_THRESHOLD_MILLIS) {
+            target = Math.min(upperBound, current + GROW_STEP);
+            reason = String.format("%d waiting, mean wait %.1f ms", sample.waiting(), sample.meanWaitMillis());
+            quietIntervals = 0;
+        } else if (sample.peakActive() * 2 < current) {
+            quietIntervals++;
+            reason = String.format("peak %d of %d in use for %d intervals", sample.peakActive(), current, quietIntervals);
+            if (quietIntervals >= IDLE_INTERVALS) {
+                target = Math.max(lowerBound, current - 1);
+                quietIntervals = 0;
+            }
+        } else {
+            quietIntervals = 0;
+            reason = "steady";
+        }
+        target = Math.max(lowerBound, Math.min(upperBound, target));
+        lastDecision = reason;
+        if (target == current) {
+            return null;
+        }
+
+        resize(current, target);
+        Adjustment adjustment = new Adjustment(System.currentTimeMillis(), current, target, reason);
+        history.addFirst(adjustment);
+        if (history.size() > HISTORY) {
+            history.removeLast();
+        }
+        adjustments++;
+        return adjustment;
+    }
+
+    private void resize(int current, int target) {
+        int idle = Math.min(minimumIdle, target);
+        // Hikari rejects a minimum idle above the maximum, so order the two writes by direction
+        if (target > current) {
+            config.setMaximumPoolSize(target);
+            config.setMinimumIdle(idle);
+        } else {
+            config.setMinimumIdle(idle);
+            config.setMaximumPoolSize(target);
+        }
+    }
+
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    public int getUpperBound() {
+        return upperBound;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public int getMaximumPoolSize() {
+        return config.getMaximumPoolSize();
+    }
+
+    public int getMinimumIdle() {
+        return config.getMinimumIdle();
+    }
+
+    public HikariPoolMXBean getPool() {
+        return pool;
+    }
+
+    /**
+     * Get the sample taken at the last adjustment
+     * @return Sample, or null before the first adjustment
+     */
+    public synchronized Sample getLastSample() {
+        return lastSample;
+    }
+
+    public synchronized String getLastDecision() {
+        return lastDecision;
+    }
+
+    public synchronized long getAdjustments() {
+        return adjustments;
+    }
+
+    /**
+     * Get the most recent resizes
+     * @return Up to 20 adjustments, newest first
+     */
+    public synchronized List<Adjustment> getHistory() {
+        return List.copyOf(history);
+    }
+
+    public synchronized boolean isRunning() {
+        return task != null;
+    }
+}
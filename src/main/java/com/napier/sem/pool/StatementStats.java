@@ -0,0 +1,193 @@
+package com.napier.sem.pool;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Which SQL the application prepares, and what preparing it costs.
+ * Every statement prepared through a {@link StatementWarmingDataSource} connection is
+ * counted here, so new connections can be warmed with the statements actually in use.
+ * Each prepare is timed and classed as cold (first time on that connection, so the
+ * server parses it) or cached (the driver hands back the handle it kept), per command,
+ * which gives the parse time saved by the statement cache.
+ */
+public class StatementStats {
+
+    /**
+     * Most distinct statements learned; statements beyond this are still timed but not warmed
+     */
+    public static final int MAX_LEARNED = 512;
+
+    /**
+     * Prepare timings for one command
+     * @param command Execution command, or "(other)" for work outside a command
+     * @param coldPrepares Prepares the server had to parse
+     * @param coldNanos Total time of the cold prepares
+     * @param cachedPrepares Prepares served from the connection's statement cache
+     * @param cachedNanos Total time of the cached prepares
+     */
+    public record CommandTiming(String command, long coldPrepares, long coldNanos, long cachedPrepares, long cachedNanos) {
+
+        /**
+         * Get the mean time of a cold prepare
+         * @return Microseconds, 0 if there were none
+         */
+        public double meanColdMicros() {
+            return coldPrepares == 0 ? 0 : coldNanos / 1000.0 / coldPrepares;
+        }
+
+        /**
+         * Get the mean time of a cached prepare
+         * @return Microseconds, 0 if there were none
+         */
+        public double meanCachedMicros() {
+            return cachedPrepares == 0 ? 0 : cachedNanos / 1000.0 / cachedPrepares;
+        }
+    }
+
+    private static final String OTHER = "(other)";
+    private static final ThreadLocal<String> CURRENT_COMMAND = new ThreadLocal<>();
+
+    private static final Map<String, LongAdder> learned = new ConcurrentHashMap<>();
+    private static final Map<String, long[]> timings = new ConcurrentHashMap<>();
+    private static final AtomicLong warmedConnections = new AtomicLong();
+    private static final AtomicLong warmedStatements = new AtomicLong();
+    private static final AtomicLong warmUpNanos = new AtomicLong();
+
+    /**
+     * Attribute prepares on this thread to a command until {@link #clearCurrentCommand()}
+     * @param command Execution command
+     */
+    public static void setCurrentCommand(String command) {
+        CURRENT_COMMAND.set(command);
+    }
+
+    /**
+     * Stop attributing prepares on this thread to a command
+     */
+    public static void clearCurrentCommand() {
+        CURRENT_COMMAND.remove();
+    }
+
+    /**
+     * Record one prepare
+     * @param sql Statement text
+     * @param cold Whether the statement was new to the connection
+     * @param nanos Time taken
+     */
+    public static void recordPrepare(String sql, boolean cold, long nanos) {
+        LongAdder uses = learned.get(sql);
+        if (uses == null && learned.size() < MAX_LEARNED) {
+            uses = learned.computeIfAbsent(sql, key -> new LongAdder());
+        }
+        if (uses != null) {
+            uses.increment();
+        }
+
+        String command = CURRENT_COMMAND.get() != null ? CURRENT_COMMAND.get() : OTHER;
+        long[] timing = timings.computeIfAbsent(command, key -> new long[4]);
+        synchronized (timing) {
+            int offset = cold ? 0 : 2;
+            timing[offset]++;
+            timing[offset + 1] += nanos;
+        }
+    }
+
+    /**
+     * Record the warm-up of a new connection
+     * @param statements Statements prepared
+     * @param nanos Time taken
+     */
+    public static void recordWarmUp(int statements, long nanos) {
+        warmedConnections.incrementAndGet();
+        warmedStatements.addAndGet(statements);
+        warmUpNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Stop warming a statement, e.g. because the server no longer accepts it
+     * @param sql Statement text
+     */
+    public static void forget(String sql) {
+        learned.remove(sql);
+    }
+
+    /**
+     * Get the most used statements
+     * @param limit Most statements to return
+     * @return Statement texts, most used first
+     */
+    public static List<String> topStatements(int limit) {
+        return learned.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> entry) -> entry.getValue().sum()).reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Get the prepare timings of every command seen
+     * @return Timings ordered by command
+     */
+    public static List<CommandTiming> getCommandTimings() {
+        Map<String, CommandTiming> sorted = new TreeMap<>();
+        timings.forEach((command, timing) -> {
+            synchronized (timing) {
+                sorted.put(command, new CommandTiming(command, timing[0], timing[1], timing[2], timing[3]));
+            }
+        });
+        return List.copyOf(sorted.values());
+    }
+
+    /**
+     * Get the prepare timings of every command combined
+     * @return Totals, under the command name "total"
+     */
+    public static CommandTiming getTotal() {
+        long[] total = new long[4];
+        for (CommandTiming timing : getCommandTimings()) {
+            total[0] += timing.coldPrepares();
+            total[1] += timing.coldNanos();
+            total[2] += timing.cachedPrepares();
+            total[3] += timing.cachedNanos();
+        }
+        return new CommandTiming("total", total[0], total[1], total[2], total[3]);
+    }
+
+    public static int getLearnedCount() {
+        return learned.size();
+    }
+
+    public static long getWarmedConnections() {
+        return warmedConnections.get();
+    }
+
+    public static long getWarmedStatements() {
+        return warmedStatements.get();
+    }
+
+    /**
+     * Get the mean time spent warming a new connection
+     * @return Milliseconds, 0 before the first warm-up
+     */
+    public static double getMeanWarmUpMillis() {
+        long connections = warmedConnections.get();
+        return connections == 0 ? 0 : warmUpNanos.get() / 1e6 / connections;
+    }
+
+    /**
+     * Forget every statement and timing
+     */
+    public static void reset() {
+        learned.clear();
+        timings.clear();
+        warmedConnections.set(0);
+        warmedStatements.set(0);
+        warmUpNanos.set(0);
+    }
+}
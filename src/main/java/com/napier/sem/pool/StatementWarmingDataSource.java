@@ -0,0 +1,201 @@
+package com.napier.sem.pool;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Data source placed under the Hikari pool that prepares the application's most used
+ * statements on every physical connection it opens. With server-side prepares and the
+ * driver's statement cache enabled in the JDBC URL, a prepared statement closed by a
+ * command stays parsed on the server and is handed back on the next prepare of the same
+ * SQL, so once a connection has been warmed, commands skip the parse round trip from
+ * their first call on it. Hikari only asks this data source for a connection when it
+ * creates one, so the warm-up runs once per physical connection, not per borrow.
+ * <p>
+ * The statements learned from earlier prepares come first. Any room left is filled from
+ * a seed list, such as the report engine's generated statements, so connections opened
+ * before the application has prepared anything are warm too.
+ * <p>
+ * Each connection tracks the statements it has prepared the way the driver's cache keeps
+ * them, least recently used first out past {@link #CACHED_STATEMENTS} and nothing longer
+ * than {@link #CACHED_SQL_LIMIT}, so a prepare is only counted as cached when the driver
+ * would still hold its handle.
+ */
+public class StatementWarmingDataSource implements DataSource {
+
+    /**
+     * Statements prepared on each new connection
+     */
+    public static final int WARM_UP_STATEMENTS = 64;
+
+    /**
+     * Statements the driver keeps per connection (prepStmtCacheSize)
+     */
+    public static final int CACHED_STATEMENTS = 256;
+
+    /**
+     * Longest SQL the driver caches (prepStmtCacheSqlLimit)
+     */
+    public static final int CACHED_SQL_LIMIT = 4096;
+
+    private final DataSource delegate;
+    private final int warmUpStatements;
+    private final Supplier<? extends Collection<String>> seedStatements;
+
+    /**
+     * Constructor for StatementWarmingDataSource
+     * @param delegate Data source opening physical connections
+     * @param warmUpStatements Most statements prepared on each new connection
+     */
+    public StatementWarmingDataSource(DataSource delegate, int warmUpStatements) {
+        this(delegate, warmUpStatements, List::of);
+    }
+
+    /**
+     * Constructor for StatementWarmingDataSource
+     * @param delegate Data source opening physical connections
+     * @param warmUpStatements Most statements prepared on each new connection
+     * @param seedStatements Statements to warm after the learned ones, read on each new connection
+     */
+    public StatementWarmingDataSource(DataSource delegate, int warmUpStatements,
+                                      Supplier<? extends Collection<String>> seedStatements) {
+        this.delegate = delegate;
+        this.warmUpStatements = warmUpStatements;
+        this.seedStatements = seedStatements;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return warm(delegate.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return warm(delegate.getConnection(username, password));
+    }
+
+    /**
+     * Prepare the learned statements on a new connection and wrap it so later prepares are timed
+     */
+    private Connection warm(Connection connection) {
+        Set<String> prepared = cachedStatements();
+        long started = System.nanoTime();
+        Set<String> statements = new LinkedHashSet<>(StatementStats.topStatements(warmUpStatements));
+        for (String sql : seedStatements.get()) {
+            if (statements.size() >= warmUpStatements) {
+                break;
+            }
+            statements.add(sql);
+        }
+        for (String sql : statements) {
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                if (sql.length() <= CACHED_SQL_LIMIT) {
+                    prepared.add(sql);
+                }
+            } catch (SQLException e) {
+                // The schema changed under it or the SQL was never valid; stop warming it
+                StatementStats.forget(sql);
+            }
+        }
+        StatementStats.recordWarmUp(prepared.size(), System.nanoTime() - started);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                new TimingHandler(connection, prepared));
+    }
+
+    /**
+     * Set of statements a connection's driver cache holds, dropping the least recently used
+     */
+    static Set<String> cachedStatements() {
+        return Collections.synchronizedSet(Collections.newSetFromMap(
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                        return size() > CACHED_STATEMENTS;
+                    }
+                }));
+    }
+
+    /**
+     * Times prepareStatement calls on one connection; everything else passes straight through
+     */
+    private static class TimingHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final Set<String> prepared;
+
+        TimingHandler(Connection target, Set<String> prepared) {
+            this.target = target;
+            this.prepared = prepared;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            boolean prepare = method.getName().equals("prepareStatement") && args != null && args[0] instanceof String;
+            long started = System.nanoTime();
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (prepare) {
+                String sql = (String) args[0];
+                boolean cold = sql.length() > CACHED_SQL_LIMIT || prepared.add(sql);
+                StatementStats.recordPrepare(sql, cold, System.nanoTime() - started);
+            }
+            return result;
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) throws SQLException {
+        return type.isInstance(this) ? type.cast(this) : delegate.unwrap(type);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> type) throws SQLException {
+        return type.isInstance(this) || delegate.isWrapperFor(type);
+    }
+}
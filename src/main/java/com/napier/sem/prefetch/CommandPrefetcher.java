@@ -0,0 +1,366 @@
+package com.napier.sem.prefetch;
+
+import com.napier.sem.CommandRegistry;
+import com.napier.sem.ICommand;
+import com.napier.sem.data.IDataVersionListener;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Predictive prefetching from each session's command history. Analysts follow set paths,
+ * e.g. population-continent, then top-countries-continent for the biggest continent, then
+ * top-cities-country for its top country, so every session keeps a {@link SequenceModel}
+ * and after each command the likely next one is returned for the executor to run in the
+ * background. Results are held in a bounded cache, least recently used first out, for at
+ * most the time to live and only until the data version changes; a command found there is
+ * answered without touching the database and its entry is used up. A prefetch still running
+ * when the version changes would store a result from before the change, so each result
+ * carries the version it was fetched at and is dropped if that is no longer current.
+ * <p>
+ * Every prediction is scored against the command the session actually runs next, and
+ * prefetched results that expire, are evicted or fail are counted as wasted work with the
+ * time they took, so the confidence threshold can be tuned or prefetching turned off.
+ * While turned off the models still learn and predictions are still scored, so the
+ * accuracy can be judged before turning it on.
+ */
+public class CommandPrefetcher implements IDataVersionListener {
+
+    /**
+     * Most sessions whose history is kept
+     */
+    public static final int MAX_SESSIONS = 1024;
+
+    /**
+     * A command to run ahead of being asked for
+     * @param command Command
+     * @param args Command arguments, including the command name at index 0
+     * @param confidence Model confidence in the prediction
+     */
+    public record Prefetch(ICommand command, String[] args, double confidence) {
+    }
+
+    /**
+     * Counters since start or the last reset
+     * @param predictions Predictions at or above the confidence threshold
+     * @param correct Predictions the session went on to run
+     * @param issued Prefetches started
+     * @param skipped Predictions not prefetched: not prefetchable, already cached, lane busy or turned off
+     * @param hits Commands answered from the cache
+     * @param wasted Prefetched results never used, or that failed
+     * @param savedMillis Run time of the results used
+     * @param wastedMillis Run time of the results wasted
+     * @param cached Results held now
+     * @param sessions Sessions with a history
+     */
+    public record Stats(long predictions, long correct, long issued, long skipped, long hits, long wasted,
+                        long savedMillis, long wastedMillis, int cached, int sessions) {
+
+        /**
+         * Get the share of predictions that were right
+         * @return Accuracy from 0 to 1
+         */
+        public double accuracy() {
+            return predictions == 0 ? 0 : (double) correct / predictions;
+        }
+
+        /**
+         * Get the share of prefetches whose result was used
+         * @return Hit rate from 0 to 1
+         */
+        public double hitRate() {
+            return issued == 0 ? 0 : (double) hits / issued;
+        }
+    }
+
+    /**
+     * A prefetched result
+     */
+    private record Entry(String output, long runMillis, long storedAtMillis) {
+    }
+
+    /**
+     * History of one client
+     */
+    private static class Session {
+        final SequenceModel model = new SequenceModel();
+        SequenceModel.Step last;
+        SequenceModel.Prediction pending;
+    }
+
+    private final Function<String, ICommand> commands;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private volatile double minConfidence;
+    private volatile boolean enabled;
+    private long dataVersion;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Session> sessions = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Session> eldest) {
+            return size() > MAX_SESSIONS;
+        }
+    };
+
+    private long predictions;
+    private long correct;
+    private long issued;
+    private long skipped;
+    private long hits;
+    private long wasted;
+    private long savedMillis;
+    private long wastedMillis;
+
+    /**
+     * Constructor for CommandPrefetcher
+     * @param commands Looks up a command by its execution command
+     * @param maxEntries Most results cached
+     * @param ttlMillis How long a result may be served after it was fetched
+     * @param minConfidence Least confidence a prediction needs to be acted on
+     * @param enabled Whether to prefetch at all
+     */
+    public CommandPrefetcher(Function<String, ICommand> commands, int maxEntries, long ttlMillis,
+                             double minConfidence, boolean enabled) {
+        this.commands = commands;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMillis = ttlMillis;
+        this.minConfidence = minConfidence;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Create a prefetcher from PREFETCH (on or off, default on), PREFETCH_CACHE_SIZE
+     * (default 32), PREFETCH_TTL_MS (default 60000) and PREFETCH_MIN_CONFIDENCE (default 0.5)
+     * @return Prefetcher looking commands up in the {@link CommandRegistry}
+     */
+    public static CommandPrefetcher fromEnvironment() {
+        String enabled = System.getenv("PREFETCH");
+        int size = 32;
+        long ttl = 60000;
+        double confidence = 0.5;
+        try {
+            String value = System.getenv("PREFETCH_CACHE_SIZE");
+            size = value == null ? size : Integer.parseInt(value.trim());
+            value = System.getenv("PREFETCH_TTL_MS");
+            ttl = value == null ? ttl : Long.parseLong(value.trim());
+            value = System.getenv("PREFETCH_MIN_CONFIDENCE");
+            confidence = value == null ? confidence : Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("  Ignoring invalid PREFETCH_CACHE_SIZE, PREFETCH_TTL_MS or PREFETCH_MIN_CONFIDENCE");
+        }
+        return new CommandPrefetcher(CommandRegistry::getCommand, size, ttl, confidence,
+                enabled == null || !"off".equalsIgnoreCase(enabled.trim()));
+    }
+
+    /**
+     * Record a command a client ran, score the previous prediction and predict the next command
+     * @param client Client identity the history is kept for
+     * @param command Command run
+     * @param args Command arguments, including the command name at index 0
+     * @param output What the command printed
+     * @return Command to prefetch, or null if there is none worth running
+     */
+    public synchronized Prefetch observe(String client, ICommand command, String[] args, String output) {
+        Session session = sessions.computeIfAbsent(client, key -> new Session());
+        SequenceModel.Step step = new SequenceModel.Step(command.getExcecutionCommand().toLowerCase(),
+                Arrays.copyOfRange(args, 1, args.length), output);
+
+        SequenceModel.Prediction pending = session.pending;
+        if (pending != null && pending.command().equals(step.command())
+                && String.join(" ", pending.args()).equalsIgnoreCase(String.join(" ", step.args()))) {
+            correct++;
+        }
+        if (session.last != null) {
+            session.model.learn(session.last, step);
+        }
+        session.last = step;
+
+        SequenceModel.Prediction prediction = session.model.predict(step, 2);
+        session.pending = prediction != null && prediction.confidence() >= minConfidence ? prediction : null;
+        if (session.pending == null) {
+            return null;
+        }
+        predictions++;
+
+        ICommand next = commands.apply(prediction.command());
+        if (!enabled || next == null || !next.isPrefetchable()) {
+            skipped++;
+            return null;
+        }
+        String[] nextArgs = new String[prediction.args().length + 1];
+        nextArgs[0] = prediction.command();
+        System.arraycopy(prediction.args(), 0, nextArgs, 1, prediction.args().length);
+        return new Prefetch(next, nextArgs, prediction.confidence());
+    }
+
+    /**
+     * Take a prefetched result, using it up
+     * @param key Cache key of the invocation
+     * @return Output, or null if none is cached or it has expired
+     */
+    public String take(String key) {
+        return take(key, System.currentTimeMillis());
+    }
+
+    synchronized String take(String key, long now) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return null;
+        }
+        if (now - entry.storedAtMillis() > ttlMillis) {
+            waste(entry.runMillis());
+            return null;
+        }
+        hits++;
+        savedMillis += entry.runMillis();
+        return entry.output();
+    }
+
+    /**
+     * Check whether a result is already cached
+     * @param key Cache key of the invocation
+     * @return True if cached
+     */
+    public synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Record that a prefetch was started
+     */
+    public synchronized void recordIssued() {
+        issued++;
+    }
+
+    /**
+     * Record that a prediction was not prefetched
+     */
+    public synchronized void recordSkipped() {
+        skipped++;
+    }
+
+    /**
+     * Get the data version results fetched now would belong to
+     * @return Version last announced, 0 before the first change
+     */
+    public synchronized long getDataVersion() {
+        return dataVersion;
+    }
+
+    /**
+     * Cache a prefetched result, evicting the least recently used one if the cache is full
+     * @param key Cache key of the invocation
+     * @param output What the command printed
+     * @param runMillis How long it took
+     * @param fetchedVersion {@link #getDataVersion()} when the prefetch started; a result from an older version is wasted
+     */
+    public void store(String key, String output, long runMillis, long fetchedVersion) {
+        store(key, output, runMillis, fetchedVersion, System.currentTimeMillis());
+    }
+
+    synchronized void store(String key, String output, long runMillis, long fetchedVersion, long now) {
+        if (fetchedVersion != dataVersion) {
+            waste(runMillis);
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(output, runMillis, now));
+        if (previous != null) {
+            waste(previous.runMillis());
+        }
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries) {
+            waste(eldest.next().runMillis());
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Record a prefetch that failed
+     * @param runMillis How long it ran before failing
+     */
+    public synchronized void recordFailed(long runMillis) {
+        waste(runMillis);
+    }
+
+    private void waste(long runMillis) {
+        wasted++;
+        wastedMillis += runMillis;
+    }
+
+    /**
+     * Drop every cached result, counting them as wasted
+     */
+    public synchronized void clear() {
+        for (Entry entry : entries.values()) {
+            waste(entry.runMillis());
+        }
+        entries.clear();
+    }
+
+    /**
+     * Drop results fetched from the previous data version
+     * @param version New data version
+     * @param changedTables Tables whose contents changed since the previous version
+     */
+    @Override
+    public synchronized void onDataVersionChanged(long version, Set<String> changedTables) {
+        dataVersion = version;
+        clear();
+    }
+
+    /**
+     * Forget every session's history and zero the counters; cached results are kept
+     */
+    public synchronized void reset() {
+        sessions.clear();
+        predictions = 0;
+        correct = 0;
+        issued = 0;
+        skipped = 0;
+        hits = 0;
+        wasted = 0;
+        savedMillis = 0;
+        wastedMillis = 0;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(predictions, correct, issued, skipped, hits, wasted, savedMillis, wastedMillis,
+                entries.size(), sessions.size());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turn prefetching on or off; turning it off drops the cached results
+     * @param enabled Whether to prefetch
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    public double getMinConfidence() {
+        return minConfidence;
+    }
+
+    public void setMinConfidence(double minConfidence) {
+        this.minConfidence = minConfidence;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+}
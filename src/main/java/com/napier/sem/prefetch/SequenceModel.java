@@ -0,0 +1,219 @@
+package com.napier.sem.prefetch;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * First-order model of which command a session runs after which, and with what arguments.
+ * Each transition from one command to the next is counted, and three rules compete to
+ * explain the next command's arguments:
+ * <ul>
+ *   <li>{@link Rule#CARRIED}: the arguments of the previous command, as in population-region
+ *       Caribbean followed by top-countries-region Caribbean</li>
+ *   <li>{@link Rule#FROM_OUTPUT}: the first argument is read from the previous output at the
+ *       line and column it was found at last time, the rest are as last time; this is how
+ *       "the biggest continent" or "the top country" of a report is followed</li>
+ *   <li>{@link Rule#FIXED}: the arguments used last time</li>
+ * </ul>
+ * Every time a transition recurs, each rule is scored on whether it would have predicted
+ * the arguments actually typed, and the best-scoring rule makes the next prediction.
+ */
+public class SequenceModel {
+
+    /**
+     * How the next command's arguments are derived
+     */
+    public enum Rule {
+        CARRIED, FROM_OUTPUT, FIXED
+    }
+
+    /**
+     * One executed command
+     * @param command Execution command
+     * @param args Arguments after the command name
+     * @param output What the command printed
+     */
+    public record Step(String command, String[] args, String output) {
+    }
+
+    /**
+     * A likely next command
+     * @param command Execution command
+     * @param args Arguments after the command name
+     * @param confidence Share of past transitions that went to this command, times the share
+     *                   of them whose arguments the rule predicted
+     * @param rule Rule that produced the arguments
+     */
+    public record Prediction(String command, String[] args, double confidence, Rule rule) {
+    }
+
+    /**
+     * Counts for one transition
+     */
+    private static class Transition {
+        int count;
+        final int[] scores = new int[Rule.values().length];
+        String[] lastArgs;
+        int line = -1;
+        int column = -1;
+    }
+
+    private final Map<String, Map<String, Transition>> transitions = new HashMap<>();
+    private final Map<String, Integer> totals = new HashMap<>();
+
+    /**
+     * Learn that one command followed another
+     * @param previous Command run first
+     * @param next Command run after it
+     */
+    public synchronized void learn(Step previous, Step next) {
+        Transition transition = transitions.computeIfAbsent(previous.command(), key -> new HashMap<>())
+                .computeIfAbsent(next.command(), key -> new Transition());
+        if (transition.count > 0) {
+            for (Rule rule : Rule.values()) {
+                if (matches(apply(rule, transition, previous), next.args())) {
+                    transition.scores[rule.ordinal()]++;
+                }
+            }
+        }
+        transition.count++;
+        totals.merge(previous.command(), 1, Integer::sum);
+
+        transition.lastArgs = next.args().clone();
+        transition.line = -1;
+        transition.column = -1;
+        if (next.args().length > 0 && previous.output() != null) {
+            locate(previous.output(), next.args()[0], transition);
+        }
+    }
+
+    /**
+     * Predict the command most likely to follow
+     * @param previous Command just run
+     * @param minSupport Times the transition must have been seen
+     * @return Prediction, or null if nothing has followed the command often enough
+     */
+    public synchronized Prediction predict(Step previous, int minSupport) {
+        Map<String, Transition> next = transitions.get(previous.command());
+        if (next == null) {
+            return null;
+        }
+        String bestCommand = null;
+        Transition best = null;
+        for (Map.Entry<String, Transition> entry : next.entrySet()) {
+            if (best == null || entry.getValue().count > best.count) {
+                bestCommand = entry.getKey();
+                best = entry.getValue();
+            }
+        }
+        if (best.count < Math.max(2, minSupport)) {
+            return null;
+        }
+
+        // Rules in declaration order win ties
+        Rule rule = Rule.CARRIED;
+        for (Rule candidate : Rule.values()) {
+            if (best.scores[candidate.ordinal()] > best.scores[rule.ordinal()]) {
+                rule = candidate;
+            }
+        }
+        String[] args = apply(rule, best, previous);
+        if (args == null || best.scores[rule.ordinal()] == 0) {
+            return null;
+        }
+        double confidence = (double) best.count / totals.get(previous.command())
+                * best.scores[rule.ordinal()] / (best.count - 1);
+        return new Prediction(bestCommand, args, confidence, rule);
+    }
+
+    /**
+     * Get the number of distinct transitions learned
+     * @return Transition count
+     */
+    public synchronized int size() {
+        return transitions.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private static String[] apply(Rule rule, Transition transition, Step previous) {
+        return switch (rule) {
+            case CARRIED -> previous.args().clone();
+            case FIXED -> transition.lastArgs == null ? null : transition.lastArgs.clone();
+            case FROM_OUTPUT -> fromOutput(transition, previous);
+        };
+    }
+
+    private static String[] fromOutput(Transition transition, Step previous) {
+        if (transition.line < 0 || previous.output() == null) {
+            return null;
+        }
+        String value = extract(previous.output(), transition.line, transition.column);
+        if (value == null) {
+            return null;
+        }
+        String[] args = transition.lastArgs.clone();
+        args[0] = value;
+        return args;
+    }
+
+    private static boolean matches(String[] predicted, String[] actual) {
+        if (predicted == null || predicted.length != actual.length) {
+            return false;
+        }
+        for (int i = 0; i < actual.length; i++) {
+            if (!predicted[i].trim().equalsIgnoreCase(actual[i].trim())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find where a value first appears in an output as a whole word
+     */
+    private static void locate(String output, String value, Transition transition) {
+        String wanted = value.trim().toLowerCase(Locale.ROOT);
+        if (wanted.isEmpty()) {
+            return;
+        }
+        String[] lines = output.split("\n");
+        for (int line = 0; line < lines.length; line++) {
+            String text = lines[line].toLowerCase(Locale.ROOT);
+            int column = text.indexOf(wanted);
+            while (column >= 0) {
+                int end = column + wanted.length();
+                if ((column == 0 || !Character.isLetterOrDigit(text.charAt(column - 1)))
+                        && (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)))) {
+                    transition.line = line;
+                    transition.column = column;
+                    return;
+                }
+                column = text.indexOf(wanted, column + 1);
+            }
+        }
+    }
+
+    /**
+     * Read the value starting at a column of a table row: up to the next gap of two spaces,
+     * dropping numbers that follow when the value fills its column
+     */
+    static String extract(String output, int line, int column) {
+        String[] lines = output.split("\n");
+        if (line >= lines.length || column >= lines[line].length()) {
+            return null;
+        }
+        String text = lines[line].substring(column);
+        int gap = text.indexOf("  ");
+        if (gap >= 0) {
+            text = text.substring(0, gap);
+        }
+        String[] words = text.trim().split(" ");
+        int end = words.length;
+        while (end > 1 && words[end - 1].matches("[-\\d,.%]+")) {
+            end--;
+        }
+        String value = String.join(" ", Arrays.copyOf(words, end)).trim();
+        return value.isEmpty() ? null : value;
+    }
+}
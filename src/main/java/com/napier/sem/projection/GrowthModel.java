@@ -0,0 +1,78 @@
+package com.napier.sem.projection;
+
+import com.napier.sem.data.NameResolver;
+import com.napier.sem.data.WorldSnapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Annual growth rates used by a projection.
+ * A country grows at its own rate if one is set, otherwise at its region's rate, otherwise
+ * at the default rate. Monte Carlo runs draw each year's rate from a normal distribution
+ * around that mean with the given volatility; a volatility of zero gives a single
+ * deterministic projection.
+ */
+public class GrowthModel {
+
+    private final double defaultRate;
+    private final double volatility;
+    private final Map<String, Double> countryRates = new HashMap<>();
+    private final Map<String, Double> regionRates = new HashMap<>();
+
+    /**
+     * Constructor for GrowthModel
+     * @param defaultRate Mean annual growth in percent for countries without their own rate
+     * @param volatility Standard deviation of the annual rate in percentage points
+     */
+    public GrowthModel(double defaultRate, double volatility) {
+        if (volatility < 0) {
+            throw new IllegalArgumentException("Volatility cannot be negative");
+        }
+        this.defaultRate = defaultRate;
+        this.volatility = volatility;
+    }
+
+    /**
+     * Set the rate for one country
+     * @param code Country code
+     * @param rate Mean annual growth in percent
+     * @return This model
+     */
+    public GrowthModel withCountryRate(String code, double rate) {
+        countryRates.put(code, rate);
+        return this;
+    }
+
+    /**
+     * Set the rate for every country in a region without its own rate
+     * @param region Region name, matched ignoring case and accents
+     * @param rate Mean annual growth in percent
+     * @return This model
+     */
+    public GrowthModel withRegionRate(String region, double rate) {
+        regionRates.put(NameResolver.normalize(region), rate);
+        return this;
+    }
+
+    /**
+     * Get the mean annual growth for a country
+     * @param country Country row
+     * @return Rate in percent
+     */
+    public double rateFor(WorldSnapshot.Country country) {
+        Double rate = countryRates.get(country.code());
+        if (rate == null) {
+            rate = regionRates.get(NameResolver.normalize(country.region()));
+        }
+        return rate == null ? defaultRate : rate;
+    }
+
+    public double getDefaultRate() {
+        return defaultRate;
+    }
+
+    public double getVolatility() {
+        return volatility;
+    }
+}
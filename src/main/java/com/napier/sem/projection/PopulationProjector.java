@@ -0,0 +1,213 @@
+package com.napier.sem.projection;
+
+import com.napier.sem.data.WorldSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Projects country and city populations forward and aggregates them up the
+ * world / continent / region hierarchy.
+ * Countries are simulated independently, so the work is split over countries with
+ * fork/join: each leaf task runs every Monte Carlo run for a slice of countries and
+ * returns per-run totals for every area, and partial totals are added as tasks join.
+ * Each country draws from its own random stream seeded from the run seed and its code,
+ * so results are identical whatever the parallelism. Cities grow with their country.
+ */
+public class PopulationProjector {
+
+    /**
+     * Range a projected value falls in across the runs
+     * @param low 2.5th percentile
+     * @param median 50th percentile
+     * @param high 97.5th percentile
+     */
+    public record Interval(double low, double median, double high) {
+    }
+
+    /**
+     * Projection for one area
+     * @param name World, continent or region name
+     * @param level 0 for the world, 1 for a continent, 2 for a region
+     * @param basePopulation Population today
+     * @param baseUrban Population living in cities today
+     * @param population Projected population
+     * @param urban Projected population living in cities
+     */
+    public record Area(String name, int level, long basePopulation, long baseUrban, Interval population,
+                       Interval urban) {
+    }
+
+    /**
+     * Countries per leaf task; small enough to spread a few hundred countries over many cores
+     */
+    static final int LEAF_SIZE = 8;
+
+    private final WorldSnapshot.Country[] countries;
+    private final long[] urban;
+    // Areas in display order: the world, then each continent followed by its regions
+    private final List<String> areaNames = new ArrayList<>();
+    private final List<Integer> areaLevels = new ArrayList<>();
+    private final int[] continentArea;
+    private final int[] regionArea;
+
+    /**
+     * Constructor for PopulationProjector
+     * @param countries Country rows
+     * @param urbanByCountry Population living in cities, by country code
+     */
+    public PopulationProjector(List<WorldSnapshot.Country> countries, Map<String, Long> urbanByCountry) {
+        this.countries = countries.toArray(new WorldSnapshot.Country[0]);
+        this.urban = new long[this.countries.length];
+
+        Map<String, TreeMap<String, Integer>> tree = new TreeMap<>();
+        for (WorldSnapshot.Country country : this.countries) {
+            tree.computeIfAbsent(country.continent(), key -> new TreeMap<>()).put(country.region(), 0);
+        }
+        Map<String, Integer> continentIds = new TreeMap<>();
+        Map<String, Integer> regionIds = new TreeMap<>();
+        addArea("World", 0);
+        for (Map.Entry<String, TreeMap<String, Integer>> continent : tree.entrySet()) {
+            continentIds.put(continent.getKey(), addArea(continent.getKey(), 1));
+            for (String region : continent.getValue().keySet()) {
+                regionIds.put(continent.getKey() + "/" + region, addArea(region, 2));
+            }
+        }
+
+        continentArea = new int[this.countries.length];
+        regionArea = new int[this.countries.length];
+        for (int i = 0; i < this.countries.length; i++) {
+            WorldSnapshot.Country country = this.countries[i];
+            urban[i] = urbanByCountry.getOrDefault(country.code(), 0L);
+            continentArea[i] = continentIds.get(country.continent());
+            regionArea[i] = regionIds.get(country.continent() + "/" + country.region());
+        }
+    }
+
+    private int addArea(String name, int level) {
+        areaNames.add(name);
+        areaLevels.add(level);
+        return areaNames.size() - 1;
+    }
+
+    /**
+     * Run the projection
+     * @param model Growth rates
+     * @param years Years to project forward
+     * @param runs Monte Carlo runs; forced to 1 when the model has no volatility
+     * @param seed Seed for the random rates
+     * @param pool Pool the country tasks run in
+     * @return One projection per area, the world first, each continent followed by its regions
+     */
+    public List<Area> project(GrowthModel model, int years, int runs, long seed, ForkJoinPool pool) {
+        int effectiveRuns = model.getVolatility() == 0 ? 1 : runs;
+        double[][] totals = pool.invoke(new Slice(model, years, effectiveRuns, seed, 0, countries.length));
+
+        long[] basePopulation = new long[areaNames.size()];
+        long[] baseUrban = new long[areaNames.size()];
+        for (int i = 0; i < countries.length; i++) {
+            for (int area : new int[]{0, continentArea[i], regionArea[i]}) {
+                basePopulation[area] += countries[i].population();
+                baseUrban[area] += urban[i];
+            }
+        }
+
+        List<Area> areas = new ArrayList<>();
+        for (int area = 0; area < areaNames.size(); area++) {
+            areas.add(new Area(areaNames.get(area), areaLevels.get(area), basePopulation[area], baseUrban[area],
+                    interval(totals[area * 2]), interval(totals[area * 2 + 1])));
+        }
+        return areas;
+    }
+
+    /**
+     * Get the number of areas projected
+     * @return World, continents and regions
+     */
+    public int getAreaCount() {
+        return areaNames.size();
+    }
+
+    private static Interval interval(double[] runs) {
+        double[] sorted = runs.clone();
+        Arrays.sort(sorted);
+        return new Interval(quantile(sorted, 0.025), quantile(sorted, 0.5), quantile(sorted, 0.975));
+    }
+
+    private static double quantile(double[] sorted, double q) {
+        int index = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * Simulates a range of countries and returns per-run totals:
+     * row area * 2 holds population, row area * 2 + 1 holds urban population
+     */
+    private class Slice extends RecursiveTask<double[][]> {
+
+        private final GrowthModel model;
+        private final int years;
+        private final int runs;
+        private final long seed;
+        private final int from;
+        private final int to;
+
+        Slice(GrowthModel model, int years, int runs, long seed, int from, int to) {
+            this.model = model;
+            this.years = years;
+            this.runs = runs;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[][] compute() {
+            if (to - from <= LEAF_SIZE) {
+                return simulate();
+            }
+            int middle = (from + to) >>> 1;
+            Slice left = new Slice(model, years, runs, seed, from, middle);
+            left.fork();
+            double[][] right = new Slice(model, years, runs, seed, middle, to).compute();
+            double[][] totals = left.join();
+            for (int row = 0; row < totals.length; row++) {
+                for (int run = 0; run < runs; run++) {
+                    totals[row][run] += right[row][run];
+                }
+            }
+            return totals;
+        }
+
+        private double[][] simulate() {
+            double[][] totals = new double[areaNames.size() * 2][runs];
+            double volatility = model.getVolatility();
+            for (int i = from; i < to; i++) {
+                WorldSnapshot.Country country = countries[i];
+                double mean = model.rateFor(country);
+                SplittableRandom random = new SplittableRandom(seed * 31 + country.code().hashCode());
+                int[] areas = {0, continentArea[i], regionArea[i]};
+                for (int run = 0; run < runs; run++) {
+                    double factor = 1;
+                    for (int year = 0; year < years; year++) {
+                        double rate = volatility == 0 ? mean : mean + volatility * random.nextGaussian();
+                        factor *= 1 + rate / 100;
+                    }
+                    double population = country.population() * factor;
+                    double urbanPopulation = urban[i] * factor;
+                    for (int area : areas) {
+                        totals[area * 2][run] += population;
+                        totals[area * 2 + 1][run] += urbanPopulation;
+                    }
+                }
+            }
+            return totals;
+        }
+    }
+}
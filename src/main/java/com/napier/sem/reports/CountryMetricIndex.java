@@ -0,0 +1,225 @@
+package com.napier.sem.reports;
+
+import com.napier.sem.data.NameResolver;
+import com.napier.sem.data.WorldData;
+import com.napier.sem.data.WorldSnapshot;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Pre-sorted country rankings for every {@link ReportSpec.Metric}, in the world and in
+ * every continent and region. Each ranking is a pair of primitive arrays (country
+ * positions and values, highest first) built once, so top-N, bottom-N, rank and
+ * percentile lookups are array reads with no sorting at query time. Countries with equal
+ * values share a rank (1, 2, 2, 4), precomputed alongside the order, and each ranking keeps
+ * a position per country code, so a rank lookup is a read, not a scan. Countries whose
+ * value is null or undefined (no GNP, zero surface area) are left out of that ranking.
+ * An index belongs to one {@link WorldSnapshot} and is rebuilt with it.
+ */
+public class CountryMetricIndex {
+
+    /**
+     * A ranked country
+     * @param rank Rank within the scope, starting at 1 for the highest value and shared by equal values
+     * @param country Country row
+     * @param value Metric value
+     */
+    public record Ranked(int rank, WorldSnapshot.Country country, double value) {
+    }
+
+    /**
+     * Countries of one scope ordered by one metric, highest first
+     * @param order Positions in the country list
+     * @param values Metric values, parallel to order
+     * @param ranks Shared ranks, parallel to order
+     * @param positions Index into order of each ranked country, by code
+     */
+    private record Ranking(int[] order, double[] values, int[] ranks, Map<String, Integer> positions) {
+    }
+
+    private final List<WorldSnapshot.Country> countries;
+    private final Map<String, Ranking> rankings = new HashMap<>();
+    private final Map<String, String> continents = new HashMap<>();
+    private final Map<String, String> regions = new HashMap<>();
+
+    /**
+     * Constructor for CountryMetricIndex
+     * @param countries Country rows to rank
+     */
+    public CountryMetricIndex(List<WorldSnapshot.Country> countries) {
+        this.countries = List.copyOf(countries);
+
+        Map<String, List<Integer>> members = new HashMap<>();
+        for (int i = 0; i < this.countries.size(); i++) {
+            WorldSnapshot.Country country = this.countries.get(i);
+            continents.putIfAbsent(NameResolver.normalize(country.continent()), country.continent());
+            regions.putIfAbsent(NameResolver.normalize(country.region()), country.region());
+            members.computeIfAbsent(scopeKey(ReportSpec.Scope.WORLD, null), key -> new ArrayList<>()).add(i);
+            members.computeIfAbsent(scopeKey(ReportSpec.Scope.CONTINENT, country.continent()), key -> new ArrayList<>()).add(i);
+            members.computeIfAbsent(scopeKey(ReportSpec.Scope.REGION, country.region()), key -> new ArrayList<>()).add(i);
+        }
+
+        for (ReportSpec.Metric metric : ReportSpec.Metric.values()) {
+            double[] values = new double[this.countries.size()];
+            boolean[] present = new boolean[this.countries.size()];
+            for (int i = 0; i < values.length; i++) {
+                Double value = metric.valueOf(this.countries.get(i));
+                present[i] = value != null && !value.isNaN();
+                values[i] = present[i] ? value : 0;
+            }
+            for (Map.Entry<String, List<Integer>> scope : members.entrySet()) {
+                Integer[] sorted = scope.getValue().stream().filter(i -> present[i]).toArray(Integer[]::new);
+                Arrays.sort(sorted, (a, b) -> values[a] != values[b] ? Double.compare(values[b], values[a])
+                        : this.countries.get(a).code().compareTo(this.countries.get(b).code()));
+                int[] order = new int[sorted.length];
+                double[] rankedValues = new double[sorted.length];
+                int[] ranks = new int[sorted.length];
+                Map<String, Integer> positions = new HashMap<>();
+                for (int r = 0; r < sorted.length; r++) {
+                    order[r] = sorted[r];
+                    rankedValues[r] = values[sorted[r]];
+                    ranks[r] = r > 0 && rankedValues[r] == rankedValues[r - 1] ? ranks[r - 1] : r + 1;
+                    positions.put(this.countries.get(sorted[r]).code(), r);
+                }
+                rankings.put(metric.name() + "|" + scope.getKey(), new Ranking(order, rankedValues, ranks, positions));
+            }
+        }
+    }
+
+    /**
+     * Get the index for the current world snapshot
+     * @return Index, or null if no snapshot has been loaded
+     */
+    public static CountryMetricIndex current() {
+        WorldSnapshot snapshot = WorldData.current();
+        return snapshot == null ? null
+                : snapshot.derived(CountryMetricIndex.class, loaded -> new CountryMetricIndex(loaded.getCountries()));
+    }
+
+    /**
+     * Get the index for the current snapshot, or build one from every shard's country table if there is none
+     * @param connection Database connection used when no snapshot has been loaded
+     * @return Index
+     * @throws SQLException if the country table cannot be read
+     */
+    public static CountryMetricIndex current(Connection connection) throws SQLException {
+        CountryMetricIndex index = current();
+        return index != null ? index : new CountryMetricIndex(WorldSnapshot.loadAllCountries(connection));
+    }
+
+    private static String scopeKey(ReportSpec.Scope scope, String name) {
+        return scope == ReportSpec.Scope.WORLD ? "WORLD" : scope.name() + "|" + name;
+    }
+
+    /**
+     * Find a continent or region by name, ignoring case and accents
+     * @param scope CONTINENT or REGION
+     * @param name Name as typed
+     * @return Name as stored, or empty if no country is in it
+     */
+    public Optional<String> findScope(ReportSpec.Scope scope, String name) {
+        Map<String, String> names = switch (scope) {
+            case CONTINENT -> continents;
+            case REGION -> regions;
+            default -> Map.of();
+        };
+        return Optional.ofNullable(names.get(NameResolver.normalize(name)));
+    }
+
+    /**
+     * Get the number of countries ranked by a metric within a scope
+     * @param metric Metric
+     * @param scope WORLD, CONTINENT or REGION
+     * @param name Continent or region name as stored; ignored for the world
+     * @return Country count, 0 if the scope does not exist
+     */
+    public int size(ReportSpec.Metric metric, ReportSpec.Scope scope, String name) {
+        Ranking ranking = ranking(metric, scope, name);
+        return ranking == null ? 0 : ranking.order().length;
+    }
+
+    /**
+     * Get the countries with the highest values
+     * @param metric Metric
+     * @param scope WORLD, CONTINENT or REGION
+     * @param name Continent or region name as stored; ignored for the world
+     * @param n Number of countries
+     * @return Up to n countries, highest first
+     */
+    public List<Ranked> top(ReportSpec.Metric metric, ReportSpec.Scope scope, String name, int n) {
+        Ranking ranking = ranking(metric, scope, name);
+        List<Ranked> ranked = new ArrayList<>();
+        if (ranking != null) {
+            for (int r = 0; r < Math.min(n, ranking.order().length); r++) {
+                ranked.add(new Ranked(ranking.ranks()[r], countries.get(ranking.order()[r]), ranking.values()[r]));
+            }
+        }
+        return ranked;
+    }
+
+    /**
+     * Get the countries with the lowest values
+     * @param metric Metric
+     * @param scope WORLD, CONTINENT or REGION
+     * @param name Continent or region name as stored; ignored for the world
+     * @param n Number of countries
+     * @return Up to n countries, lowest first
+     */
+    public List<Ranked> bottom(ReportSpec.Metric metric, ReportSpec.Scope scope, String name, int n) {
+        Ranking ranking = ranking(metric, scope, name);
+        List<Ranked> ranked = new ArrayList<>();
+        if (ranking != null) {
+            int size = ranking.order().length;
+            for (int r = size - 1; r >= Math.max(0, size - n); r--) {
+                ranked.add(new Ranked(ranking.ranks()[r], countries.get(ranking.order()[r]), ranking.values()[r]));
+            }
+        }
+        return ranked;
+    }
+
+    /**
+     * Get the value at a percentile, using the nearest-rank method
+     * @param metric Metric
+     * @param scope WORLD, CONTINENT or REGION
+     * @param name Continent or region name as stored; ignored for the world
+     * @param percentile Percentile from 0 (lowest value) to 100 (highest)
+     * @return Value, or empty if no country in the scope has one
+     */
+    public Optional<Double> percentile(ReportSpec.Metric metric, ReportSpec.Scope scope, String name, double percentile) {
+        Ranking ranking = ranking(metric, scope, name);
+        if (ranking == null || ranking.values().length == 0) {
+            return Optional.empty();
+        }
+        int size = ranking.values().length;
+        int ascending = Math.max(0, (int) Math.ceil(percentile / 100 * size) - 1);
+        return Optional.of(ranking.values()[size - 1 - Math.min(ascending, size - 1)]);
+    }
+
+    /**
+     * Find a country's position within a scope
+     * @param metric Metric
+     * @param scope WORLD, CONTINENT or REGION
+     * @param name Continent or region name as stored; ignored for the world
+     * @param code Country code
+     * @return The country's ranking, or empty if it is not ranked in the scope
+     */
+    public Optional<Ranked> rankOf(ReportSpec.Metric metric, ReportSpec.Scope scope, String name, String code) {
+        Ranking ranking = ranking(metric, scope, name);
+        Integer r = ranking == null ? null : ranking.positions().get(code);
+        if (r == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Ranked(ranking.ranks()[r], countries.get(ranking.order()[r]), ranking.values()[r]));
+    }
+
+    private Ranking ranking(ReportSpec.Metric metric, ReportSpec.Scope scope, String name) {
+        return rankings.get(metric.name() + "|" + scopeKey(scope, name));
+    }
+}
@@ -0,0 +1,62 @@
+package com.napier.sem.reports;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Base class for commands that rank an entity within every group of a scope at once,
+ * such as the top cities of every country. The spec's scope is what rows are grouped by;
+ * the only parameter is the optional N per group.
+ */
+public abstract class GroupedReportCommandBase extends CommandBase {
+
+    /**
+     * Grouped report the command runs
+     */
+    protected final ReportSpec spec;
+
+    /**
+     * Constructor for GroupedReportCommandBase
+     * @param executionCommand The command string to execute this command
+     * @param description Description of what the command does
+     * @param spec Grouped report the command runs
+     * @param defaultLimit Rows per group used when N is not given
+     */
+    protected GroupedReportCommandBase(String executionCommand, String description, ReportSpec spec, int defaultLimit) {
+        super(executionCommand, description, Parameter.count("N", defaultLimit));
+        this.spec = spec;
+        ReportEngine.groupedStatement(spec);
+    }
+
+    /**
+     * Bind N, then run the grouped report
+     * @param connection Database connection
+     * @param args Command arguments
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public void execute(Connection connection, String[] args) throws SQLException {
+        BoundArguments bound = bind(args);
+        if (bound == null) {
+            return;
+        }
+        ReportEngine.runGrouped(connection, spec, bound.count("N"));
+    }
+
+    public ReportSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Sharded data is supported: the report engine sends the query to every shard and merges the groups
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
+}
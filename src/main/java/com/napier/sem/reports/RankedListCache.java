@@ -0,0 +1,152 @@
+package com.napier.sem.reports;
+
+import com.napier.sem.data.WorldData;
+import com.napier.sem.data.WorldSnapshot;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of ranked report rows keyed by (entity, scope, metric, scope key).
+ * A top-N, list or page request for a scope is the same ordered result cut at different
+ * points, so each scope's rows are stored once and requests are answered by slicing.
+ * An entry may be a prefix (from a top-N query) or the complete list; a prefix answers
+ * any request it covers. Memory is bounded by a total row budget, evicting the least
+ * recently used scopes first. A cache belongs to one {@link WorldSnapshot}, so a data
+ * change discards it with the snapshot.
+ */
+public class RankedListCache {
+
+    /**
+     * Identifies one ranked list
+     * @param entity What is listed
+     * @param scope Kind of scope
+     * @param metric What the rows are ranked by
+     * @param scopeKey Resolved scope name or country code, or null for the world
+     */
+    public record Key(ReportSpec.Entity entity, ReportSpec.Scope scope, ReportSpec.Metric metric, String scopeKey) {
+    }
+
+    /**
+     * Rows held for a key
+     * @param rows Ranked rows
+     * @param complete Whether the rows are the whole list rather than a prefix
+     */
+    private record Entry(List<Object[]> rows, boolean complete) {
+    }
+
+    /**
+     * Default row budget, roughly every report shape for the world database several times over
+     */
+    public static final int DEFAULT_MAX_ROWS = 100_000;
+
+    private final int maxRows;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private int rowCount;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructor for RankedListCache
+     * @param maxRows Most rows held across all scopes
+     */
+    public RankedListCache(int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Get the cache for the current world snapshot
+     * @return Cache, or null if no snapshot has been loaded
+     */
+    public static RankedListCache current() {
+        WorldSnapshot snapshot = WorldData.current();
+        return snapshot == null ? null
+                : snapshot.derived(RankedListCache.class, loaded -> new RankedListCache(DEFAULT_MAX_ROWS));
+    }
+
+    /**
+     * Answer a request by slicing a cached list
+     * @param key Ranked list
+     * @param offset Rows to skip
+     * @param count Rows wanted, or -1 for every row after the offset
+     * @return The slice, or null if the cached rows do not cover the request
+     */
+    public synchronized List<Object[]> slice(Key key, int offset, int count) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            int size = entry.rows().size();
+            boolean covered = entry.complete() || (count >= 0 && offset + count <= size);
+            if (covered) {
+                hits++;
+                int from = Math.min(offset, size);
+                int to = count < 0 ? size : Math.min(offset + count, size);
+                return entry.rows().subList(from, to);
+            }
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Store ranked rows, keeping whichever of the old and new entries covers more
+     * @param key Ranked list
+     * @param rows Rows in rank order, starting at rank 1
+     * @param complete Whether the rows are the whole list
+     */
+    public synchronized void put(Key key, List<Object[]> rows, boolean complete) {
+        if (rows.size() > maxRows) {
+            return;
+        }
+        Entry existing = entries.get(key);
+        if (existing != null) {
+            if (existing.complete() || (!complete && existing.rows().size() >= rows.size())) {
+                return;
+            }
+            rowCount -= existing.rows().size();
+        }
+        entries.put(key, new Entry(List.copyOf(rows), complete));
+        rowCount += rows.size();
+
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (rowCount > maxRows && eldest.hasNext()) {
+            Map.Entry<Key, Entry> victim = eldest.next();
+            if (victim.getKey().equals(key)) {
+                continue;
+            }
+            rowCount -= victim.getValue().rows().size();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Get the number of scopes held
+     * @return Entry count
+     */
+    public synchronized int getScopeCount() {
+        return entries.size();
+    }
+
+    /**
+     * Get the number of rows held across all scopes
+     * @return Row count
+     */
+    public synchronized int getRowCount() {
+        return rowCount;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+}
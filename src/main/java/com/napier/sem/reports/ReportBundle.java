@@ -0,0 +1,376 @@
+package com.napier.sem.reports;
+
+import com.napier.sem.DatabaseConfig;
+import com.napier.sem.ICommand;
+import com.napier.sem.IConnectionProvider;
+import com.napier.sem.data.NameResolver;
+import com.napier.sem.data.WorldSnapshot;
+import com.napier.sem.shard.ShardMap;
+import com.napier.sem.utils.OutputCapture;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs every use-case report into a directory: one file per report and parameter, and an
+ * index.md listing each file with its run time. Scoped reports are run once for every
+ * continent, region or country in the world snapshot. District and city reports run for
+ * every district and city only in a full bundle, since they alone would be thousands of
+ * files. Runs share the snapshot and the indexes and ranked lists derived from it, so
+ * most reports are sliced from data already in memory rather than queried again. The
+ * calling thread and each helper it starts hold one connection at a time for the ones
+ * that do query. A report that
+ * fails to run or to be written is marked failed in the index and the rest carry on.
+ */
+public class ReportBundle {
+
+    /**
+     * What a report's parameter ranges over
+     */
+    public enum Domain {
+        NONE, CONTINENT, REGION, COUNTRY, DISTRICT, CITY
+    }
+
+    /**
+     * One use case
+     * @param useCase Use case number, as in the use-cases directory
+     * @param command Command that produces the report
+     * @param domain What the command's name parameter ranges over
+     * @param topN Whether the command takes N after the name
+     */
+    public record UseCase(int useCase, String command, Domain domain, boolean topN) {
+    }
+
+    /**
+     * One report written
+     * @param useCase Use case number
+     * @param command Command run
+     * @param parameter Name passed to the command, or null
+     * @param file File name within the bundle directory
+     * @param millis Time taken to run the command
+     * @param error Failure message, or null if the report was written
+     */
+    public record Run(int useCase, String command, String parameter, String file, long millis, String error) {
+    }
+
+    /**
+     * Outcome of a bundle
+     * @param runs Reports written, in use-case order
+     * @param skipped Use cases not run, with the reason
+     * @param wallMillis Time from start to the last report
+     * @param parallelism Reports run at once
+     */
+    public record Result(List<Run> runs, List<String> skipped, long wallMillis, int parallelism) {
+
+        public long failures() {
+            return runs.stream().filter(run -> run.error() != null).count();
+        }
+
+        /**
+         * Get the sum of every report's run time
+         * @return Milliseconds; divided by the wall time it is the speed-up from running in parallel
+         */
+        public long totalRunMillis() {
+            return runs.stream().mapToLong(Run::millis).sum();
+        }
+    }
+
+    /**
+     * The 32 use cases, in order
+     */
+    public static final List<UseCase> USE_CASES = List.of(
+            new UseCase(1, "all-countries", Domain.NONE, false),
+            new UseCase(2, "all-countries-continent", Domain.CONTINENT, false),
+            new UseCase(3, "all-countries-region", Domain.REGION, false),
+            new UseCase(4, "top-countries", Domain.NONE, true),
+            new UseCase(5, "top-countries-continent", Domain.CONTINENT, true),
+            new UseCase(6, "top-countries-region", Domain.REGION, true),
+            new UseCase(7, "all-cities", Domain.NONE, false),
+            new UseCase(8, "all-cities-continent", Domain.CONTINENT, false),
+            new UseCase(9, "all-cities-region", Domain.REGION, false),
+            new UseCase(10, "cities-country", Domain.COUNTRY, false),
+            new UseCase(11, "all-cities-district", Domain.DISTRICT, false),
+            new UseCase(12, "top-cities", Domain.NONE, true),
+            new UseCase(13, "top-cities-continent", Domain.CONTINENT, true),
+            new UseCase(14, "top-cities-region", Domain.REGION, true),
+            new UseCase(15, "top-cities-country", Domain.COUNTRY, true),
+            new UseCase(16, "top-cities-district", Domain.DISTRICT, true),
+            new UseCase(17, "all-capitals", Domain.NONE, false),
+            new UseCase(18, "capital-cities-continent", Domain.CONTINENT, false),
+            new UseCase(19, "capital-cities-region", Domain.REGION, false),
+            new UseCase(20, "top-capitals", Domain.NONE, true),
+            new UseCase(21, "top-capital-cities-continent", Domain.CONTINENT, true),
+            new UseCase(22, "top-capital-cities-region", Domain.REGION, true),
+            new UseCase(23, "population-continent", Domain.NONE, false),
+            new UseCase(24, "population-region", Domain.REGION, false),
+            new UseCase(25, "population-details-country", Domain.COUNTRY, false),
+            new UseCase(26, "population-world", Domain.NONE, false),
+            new UseCase(27, "continent-pop", Domain.CONTINENT, false),
+            new UseCase(28, "region-pop", Domain.REGION, false),
+            new UseCase(29, "country-pop", Domain.COUNTRY, false),
+            new UseCase(30, "district-pop", Domain.DISTRICT, false),
+            new UseCase(31, "city-pop", Domain.CITY, false),
+            new UseCase(32, "language-dist", Domain.NONE, false));
+
+    /**
+     * A command invocation waiting to run
+     */
+    private record Task(UseCase useCase, ICommand command, String[] args, String parameter, String file) {
+    }
+
+    private final IConnectionProvider connectionProvider;
+    private final WorldSnapshot snapshot;
+    private final Function<String, ICommand> commands;
+
+    /**
+     * Constructor for ReportBundle
+     * @param connectionProvider Source of a connection per report
+     * @param snapshot World data the parameter sets are taken from
+     * @param commands Looks up a registered command by name, returning null if there is none
+     */
+    public ReportBundle(IConnectionProvider connectionProvider, WorldSnapshot snapshot, Function<String, ICommand> commands) {
+        this.connectionProvider = connectionProvider;
+        this.snapshot = snapshot;
+        this.commands = commands;
+    }
+
+    /**
+     * Run every use case and write the bundle on threads of its own
+     * @param directory Directory to write to, created if needed
+     * @param limit N for top-N reports
+     * @param full Whether to run district and city reports for every district and city
+     * @param parallelism Reports to run at once
+     * @return Reports written and skipped, with timings
+     * @throws IOException if the directory or index cannot be written
+     */
+    public Result write(Path directory, int limit, boolean full, int parallelism) throws IOException {
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService helpers = Executors.newFixedThreadPool(Math.max(1, parallelism - 1), runnable -> {
+            Thread thread = new Thread(runnable, "report-bundle-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            return write(directory, limit, full, parallelism, null, helpers::submit);
+        } finally {
+            helpers.shutdownNow();
+        }
+    }
+
+    /**
+     * Run every use case and write the bundle. The calling thread runs reports itself,
+     * beside up to parallelism - 1 helpers started through the launcher, so the bundle
+     * makes progress even when no helper can start; helpers that cannot be queued or
+     * have not started by the time the reports run out are dropped.
+     * @param directory Directory to write to, created if needed
+     * @param limit N for top-N reports
+     * @param full Whether to run district and city reports for every district and city
+     * @param parallelism Reports to run at once, counting the calling thread
+     * @param connection Connection the calling thread runs its reports on, or null to borrow one per report
+     * @param launcher Starts a helper, e.g. in a scheduler lane; may throw RejectedExecutionException
+     * @return Reports written and skipped, with timings
+     * @throws IOException if the directory or index cannot be written
+     */
+    public Result write(Path directory, int limit, boolean full, int parallelism, Connection connection,
+                        Function<Callable<Void>, Future<?>> launcher) throws IOException {
+        Files.createDirectories(directory);
+        List<String> skipped = new ArrayList<>();
+        List<Task> tasks = plan(limit, full, skipped);
+
+        long started = System.nanoTime();
+        Run[] runs = new Run[tasks.size()];
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch finished = new CountDownLatch(tasks.size());
+        List<Future<?>> helpers = new ArrayList<>();
+        try {
+            for (int i = 1; i < parallelism && i < tasks.size(); i++) {
+                helpers.add(launcher.apply(() -> drain(directory, tasks, runs, next, finished, null)));
+            }
+        } catch (RejectedExecutionException e) {
+            // Run with the helpers already queued
+        }
+        try {
+            drain(directory, tasks, runs, next, finished, connection);
+            finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing the bundle", e);
+        } catch (RuntimeException e) {
+            throw new IOException("Could not write a report: " + e.getMessage(), e);
+        } finally {
+            // Stop handing out reports, and drop helpers that have not started
+            next.set(tasks.size());
+            helpers.forEach(helper -> helper.cancel(false));
+        }
+        for (Run run : runs) {
+            if (run == null) {
+                throw new IOException("Could not write a report: a helper failed");
+            }
+        }
+
+        Result result = new Result(List.of(runs), skipped, (System.nanoTime() - started) / 1_000_000,
+                Math.max(1, parallelism));
+        writeIndex(directory, result);
+        return result;
+    }
+
+    /**
+     * Run reports in plan order until none are left
+     */
+    private Void drain(Path directory, List<Task> tasks, Run[] runs, AtomicInteger next, CountDownLatch finished,
+                       Connection connection) {
+        for (int i = next.getAndIncrement(); i < tasks.size(); i = next.getAndIncrement()) {
+            try {
+                runs[i] = run(directory, tasks.get(i), connection);
+            } finally {
+                finished.countDown();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Expand the use cases into invocations. List reports are queued ahead of top-N reports
+     * of the same scope, so the top-N reports can be sliced from the cached full lists.
+     */
+    private List<Task> plan(int limit, boolean full, List<String> skipped) {
+        List<Task> tasks = new ArrayList<>();
+        Set<String> files = new HashSet<>();
+        List<UseCase> ordered = new ArrayList<>(USE_CASES);
+        ordered.sort(Comparator.comparing(UseCase::topN));
+        for (UseCase useCase : ordered) {
+            ICommand command = commands.apply(useCase.command());
+            if (command == null) {
+                skipped.add(useCase.useCase() + " " + useCase.command() + ": command not registered");
+                continue;
+            }
+            if (!full && (useCase.domain() == Domain.DISTRICT || useCase.domain() == Domain.CITY)) {
+                skipped.add(useCase.useCase() + " " + useCase.command() + ": run with full for every "
+                        + useCase.domain().name().toLowerCase(Locale.ROOT));
+                continue;
+            }
+
+            for (String parameter : parameters(useCase.domain())) {
+                List<String> args = new ArrayList<>();
+                args.add(useCase.command());
+                if (parameter != null) {
+                    args.add(parameter);
+                }
+                if (useCase.topN()) {
+                    args.add(String.valueOf(limit));
+                }
+                String file = fileName(useCase, parameter, files);
+                tasks.add(new Task(useCase, command, args.toArray(new String[0]), parameter, file));
+            }
+        }
+        return tasks;
+    }
+
+    private List<String> parameters(Domain domain) {
+        Set<String> names = new TreeSet<>();
+        switch (domain) {
+            case NONE -> {
+                return Collections.singletonList(null);
+            }
+            case CONTINENT -> snapshot.getCountries().forEach(country -> names.add(country.continent()));
+            case REGION -> snapshot.getCountries().forEach(country -> names.add(country.region()));
+            case COUNTRY -> snapshot.getCountries().forEach(country -> names.add(country.name()));
+            case DISTRICT -> snapshot.getCities().forEach(city -> names.add(city.district()));
+            case CITY -> snapshot.getCities().forEach(city -> names.add(city.name()));
+        }
+        names.removeIf(String::isBlank);
+        return new ArrayList<>(names);
+    }
+
+    private static String fileName(UseCase useCase, String parameter, Set<String> taken) {
+        String base = String.format("uc%02d-%s", useCase.useCase(), useCase.command());
+        if (parameter != null) {
+            String slug = NameResolver.normalize(parameter).replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+            base += "-" + (slug.isEmpty() ? "x" : slug);
+        }
+        // Names that differ only in punctuation or accents would share a slug
+        String file = base + ".txt";
+        for (int n = 2; !taken.add(file); n++) {
+            file = base + "-" + n + ".txt";
+        }
+        return file;
+    }
+
+    /**
+     * Run one report and write its file
+     * @param borrowed Connection to run on, left open, or null to borrow one from the pool
+     */
+    private Run run(Path directory, Task task, Connection borrowed) {
+        long started = System.nanoTime();
+        String output;
+        String error = null;
+        if (DatabaseConfig.getShardMap() != null && !task.command().isShardAware()) {
+            // Only part of the world would be reported
+            error = ShardMap.unsupportedMessage(task.useCase().command());
+            output = error + System.lineSeparator();
+        } else {
+            try {
+                if (borrowed != null) {
+                    output = OutputCapture.capture(() -> task.command().execute(borrowed, task.args()));
+                } else {
+                    try (Connection connection = connectionProvider.getConnection()) {
+                        output = OutputCapture.capture(() -> task.command().execute(connection, task.args()));
+                    }
+                }
+            } catch (Exception e) {
+                error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+                output = "Failed: " + error + System.lineSeparator();
+            }
+        }
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        try {
+            Files.writeString(directory.resolve(task.file()), output, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            // One unwritable report fails on its own, like one that failed to run
+            error = "Could not write " + task.file() + ": " + e.getMessage();
+        }
+        return new Run(task.useCase().useCase(), task.useCase().command(), task.parameter(), task.file(), millis, error);
+    }
+
+    private static void writeIndex(Path directory, Result result) throws IOException {
+        List<Run> runs = new ArrayList<>(result.runs());
+        runs.sort(Comparator.comparingInt(Run::useCase)
+                .thenComparing(run -> run.parameter() == null ? "" : run.parameter()));
+
+        StringBuilder index = new StringBuilder("# Report Bundle\n\n");
+        index.append(String.format("- Reports: %d (%d failed)%n", runs.size(), result.failures()));
+        index.append(String.format("- Parallelism: %d%n", result.parallelism()));
+        index.append(String.format("- Wall time: %d ms%n", result.wallMillis()));
+        index.append(String.format("- Sum of report times: %d ms%n", result.totalRunMillis()));
+        for (String skipped : result.skipped()) {
+            index.append("- Skipped use case ").append(skipped).append('\n');
+        }
+        index.append("\n| Use case | Command | Parameter | File | ms | Status |\n");
+        index.append("|---:|---|---|---|---:|---|\n");
+        for (Run run : runs) {
+            index.append(String.format("| %d | %s | %s | [%s](%s) | %d | %s |%n", run.useCase(), run.command(),
+                    run.parameter() == null ? "" : run.parameter().replace("|", "\\|"), run.file(), run.file(),
+                    run.millis(), run.error() == null ? "ok" : "failed: " + run.error().replace("|", "\\|")));
+        }
+        Files.writeString(directory.resolve("index.md"), index.toString(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,90 @@
+package com.napier.sem.reports;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.args.BoundArguments;
+import com.napier.sem.args.Parameter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base class for commands that are a fixed {@link ReportSpec}.
+ * Parameters are derived from the spec: a name for any scope other than the world,
+ * and N for a top-N report. Subclasses only choose the command name and spec.
+ */
+public abstract class ReportCommandBase extends CommandBase {
+
+    /**
+     * Report the command runs
+     */
+    protected final ReportSpec spec;
+
+    /**
+     * Constructor for ReportCommandBase
+     * @param executionCommand The command string to execute this command
+     * @param description Description of what the command does
+     * @param spec Report the command runs
+     */
+    protected ReportCommandBase(String executionCommand, String description, ReportSpec spec) {
+        super(executionCommand, description, parameters(spec, null));
+        this.spec = spec;
+        ReportEngine.prepareTemplate(spec);
+    }
+
+    /**
+     * Constructor for a top-N report whose N is optional
+     * @param executionCommand The command string to execute this command
+     * @param description Description of what the command does
+     * @param spec Report the command runs
+     * @param defaultLimit N used when none is given
+     */
+    protected ReportCommandBase(String executionCommand, String description, ReportSpec spec, int defaultLimit) {
+        super(executionCommand, description, parameters(spec, defaultLimit));
+        this.spec = spec;
+        ReportEngine.prepareTemplate(spec);
+    }
+
+    static Parameter[] parameters(ReportSpec spec, Integer defaultLimit) {
+        List<Parameter> parameters = new ArrayList<>();
+        if (spec.scope() != ReportSpec.Scope.WORLD) {
+            parameters.add(Parameter.text(spec.scope().label()));
+        }
+        if (spec.topN()) {
+            parameters.add(defaultLimit == null ? Parameter.count("N") : Parameter.count("N", defaultLimit));
+        }
+        return parameters.toArray(new Parameter[0]);
+    }
+
+    /**
+     * Bind the scope name and N, then run the report
+     * @param connection Database connection
+     * @param args Command arguments
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public void execute(Connection connection, String[] args) throws SQLException {
+        BoundArguments bound = bind(args);
+        if (bound == null) {
+            return;
+        }
+
+        String scopeName = spec.scope() == ReportSpec.Scope.WORLD ? null : bound.text(spec.scope().label());
+        int limit = spec.topN() ? bound.count("N") : 0;
+        ReportEngine.run(connection, spec, scopeName, limit);
+    }
+
+    public ReportSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Sharded data is supported: the report engine sends the query to the shards holding the scope
+     * @return True
+     */
+    @Override
+    public boolean isShardAware() {
+        return true;
+    }
+}
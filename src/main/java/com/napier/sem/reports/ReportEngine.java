@@ -0,0 +1,556 @@
+package com.napier.sem.reports;
+
+import com.napier.sem.DatabaseConfig;
+import com.napier.sem.data.NameResolver;
+import com.napier.sem.data.NameSearchIndex;
+import com.napier.sem.data.WorldSnapshot;
+import com.napier.sem.shard.ScatterGather;
+import com.napier.sem.shard.ShardMap;
+import com.napier.sem.utils.TableFormatter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs list and top-N reports described by a {@link ReportSpec}.
+ * The statement text for each shape is generated once and cached, so every command
+ * listing the same shape sends the server byte-identical SQL and shares its
+ * statement and plan cache entries. Scope names are resolved in memory first, so
+ * unknown names are answered without a query and countries filter on their code.
+ * When world data is loaded, ranked rows are kept in a {@link RankedListCache} and
+ * later top-N, list and page requests for the same scope are answered by slicing.
+ * When the data is sharded by continent, a report on one continent (or a region or
+ * country within it) is sent to that continent's shard, and a world report is sent to
+ * every shard at once with the per-shard rankings merged.
+ */
+public class ReportEngine {
+
+    /**
+     * Cache key for a statement: the shape, the column the scope is filtered or
+     * partitioned on, and whether it ranks within every group at once
+     */
+    private record Template(ReportSpec spec, String filterColumn, boolean grouped, boolean paged, boolean sharded) {
+    }
+
+    /**
+     * A resolved scope
+     * @param filterColumn Column to filter on, or null for the world
+     * @param key Value to filter on, or null for the world
+     * @param display Scope name for titles and messages
+     */
+    private record Target(String filterColumn, String key, String display) {
+    }
+
+    /**
+     * A row of a grouped report with its group and rank within the group
+     */
+    private record GroupedRow(String group, long rank, Object[] row) {
+    }
+
+    /**
+     * A row of a sharded report with the value it is ranked by and its unique key
+     */
+    private record SortedRow(Object[] row, Double value, Object key) {
+    }
+
+    // The same order as the statements: value descending, then the unique key
+    private static final Comparator<SortedRow> BY_VALUE_DESCENDING =
+            Comparator.comparing(SortedRow::value, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(SortedRow::key, ReportEngine::compareKeys);
+
+    private static final Map<Template, String> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Get the statement for a report shape, building it on first use
+     * @param spec Report shape
+     * @param filterColumn Column the scope is filtered on, or null for the world
+     * @return SQL with a placeholder for the scope name and one for N when limited
+     */
+    static String statement(ReportSpec spec, String filterColumn) {
+        return templates.computeIfAbsent(new Template(spec, filterColumn, false, false, false), template -> {
+            StringBuilder sql = new StringBuilder(spec.entity().select());
+            if (filterColumn != null) {
+                sql.append(" WHERE ").append(filterColumn).append(" = ?");
+            }
+            sql.append(" ORDER BY ").append(spec.metric().column(spec.entity())).append(" DESC, ")
+                    .append(spec.entity().key());
+            if (spec.topN()) {
+                sql.append(" LIMIT ?");
+            }
+            return sql.toString();
+        });
+    }
+
+    /**
+     * Get the statement for a report shape that also returns the metric as SortValue and
+     * the tiebreak key as SortKey, so rows from different shards can be merged, building it on first use
+     * @param spec Report shape
+     * @param filterColumn Column the scope is filtered on, or null for the world
+     * @return SQL with a placeholder for the scope name and one for N when limited
+     */
+    static String shardStatement(ReportSpec spec, String filterColumn) {
+        String plain = statement(spec, filterColumn);
+        String column = spec.metric().column(spec.entity());
+        return templates.computeIfAbsent(new Template(spec, filterColumn, false, false, true),
+                template -> "SELECT " + spec.entity().columns() + ", " + column + " AS SortValue, "
+                        + spec.entity().key() + " AS SortKey"
+                        + plain.substring(("SELECT " + spec.entity().columns()).length()));
+    }
+
+    /**
+     * Get the statement for one page of a list report, building it on first use
+     * @param spec List report shape
+     * @param filterColumn Column the scope is filtered on, or null for the world
+     * @return SQL with a placeholder for the scope name, then the page size and offset
+     */
+    static String pagedStatement(ReportSpec spec, String filterColumn) {
+        String list = statement(spec, filterColumn);
+        return templates.computeIfAbsent(new Template(spec, filterColumn, false, true, false),
+                template -> list + " LIMIT ? OFFSET ?");
+    }
+
+    /**
+     * Get the statement ranking an entity within every group of a scope, building it on first use.
+     * ROW_NUMBER() numbers the rows of each partition in one scan, so the top N of every
+     * group come back from a single query instead of one query per group.
+     * @param spec Grouped shape; its scope is what the rows are grouped by
+     * @return SQL with a placeholder for N, ordered by group then rank
+     */
+    static String groupedStatement(ReportSpec spec) {
+        ReportSpec.Entity entity = spec.entity();
+        // Partition countries on the indexed code; show and sort groups by name
+        String partition = entity.filterColumn(spec.scope(), true);
+        String groupName = entity.filterColumn(spec.scope(), false);
+        return templates.computeIfAbsent(new Template(spec, partition, true, false, false), template ->
+                "SELECT * FROM (SELECT " + entity.columns() + ", " + groupName + " AS GroupName, "
+                        + "ROW_NUMBER() OVER (PARTITION BY " + partition
+                        + " ORDER BY " + spec.metric().column(entity) + " DESC, " + entity.key() + ") AS GroupRank "
+                        + "FROM " + entity.from() + ") ranked "
+                        + "WHERE GroupRank <= ? "
+                        + "ORDER BY CAST(GroupName AS CHAR), GroupRank");
+    }
+
+    /**
+     * Run a top-N report for every group of a scope at once and print it grouped by key
+     * @param connection Database connection
+     * @param spec Grouped shape; its scope is what the rows are grouped by
+     * @param limit Rows per group
+     * @throws SQLException if the query fails
+     */
+    public static void runGrouped(Connection connection, ReportSpec spec, int limit) throws SQLException {
+        if (spec.scope() == ReportSpec.Scope.WORLD) {
+            throw new IllegalArgumentException("A grouped report needs a scope to group by");
+        }
+
+        List<GroupedRow> rows;
+        try {
+            ShardMap shards = DatabaseConfig.getShardMap();
+            if (shards == null) {
+                rows = fetchGrouped(connection, spec, limit);
+            } else {
+                // A continent, region or country lives on one shard, so each group comes whole from one of them
+                Comparator<GroupedRow> order = Comparator.comparing((GroupedRow row) -> NameResolver.normalize(row.group()))
+                        .thenComparingLong(GroupedRow::rank);
+                rows = ScatterGather.mergeSorted(ScatterGather.gather(shards, shard -> fetchGrouped(shard, spec, limit)),
+                        order, -1);
+            }
+        } catch (SQLException e) {
+            System.out.println("  Database query failed: " + e.getMessage());
+            throw e;
+        }
+
+        String headerFormat = spec.entity().headerFormat();
+        String group = null;
+        int groups = 0;
+
+        System.out.println("\n Top " + limit + " " + spec.entity().title() + " in every "
+                + spec.scope().label() + " by " + spec.metric().title());
+        System.out.println(TableFormatter.generateSeparator(headerFormat));
+        spec.entity().printHeader(headerFormat);
+
+        // Rows arrive ordered by group, so each group is printed as soon as it starts
+        for (GroupedRow row : rows) {
+            if (groups == 0 || !row.group().equals(group)) {
+                group = row.group();
+                groups++;
+                System.out.println(TableFormatter.generateDashedSeparator(headerFormat));
+                System.out.println(" " + group);
+            }
+            spec.entity().printRow(row.row());
+        }
+
+        if (groups == 0) {
+            System.out.println("  No results found.");
+        }
+
+        System.out.println(TableFormatter.generateSeparator(headerFormat));
+        System.out.println("  " + groups + " " + spec.scope().label() + " groups\n");
+    }
+
+    private static List<GroupedRow> fetchGrouped(Connection connection, ReportSpec spec, int limit) throws SQLException {
+        List<GroupedRow> rows = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement(groupedStatement(spec))) {
+            stmt.setInt(1, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new GroupedRow(rs.getString("GroupName"), rs.getLong("GroupRank"), spec.entity().readRow(rs)));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Generate the statement a report of this shape runs once its scope is resolved, so it
+     * is known, and warmed on new connections, before the first command runs it
+     * @param spec Report shape
+     */
+    static void prepareTemplate(ReportSpec spec) {
+        statement(spec, spec.entity().filterColumn(spec.scope(), true));
+    }
+
+    /**
+     * Get every statement generated so far, for warming new connections
+     * @return Statement text, in no particular order
+     */
+    public static List<String> getStatements() {
+        return new ArrayList<>(templates.values());
+    }
+
+    /**
+     * Get the number of distinct statements generated so far
+     * @return Template count
+     */
+    public static int getTemplateCount() {
+        return templates.size();
+    }
+
+    /**
+     * Run a report and print it as a table
+     * @param connection Database connection
+     * @param spec Report shape
+     * @param scopeName Continent, region, country or district name as typed; ignored for the world
+     * @param limit Number of rows for a top-N report; ignored otherwise
+     * @throws SQLException if the query fails
+     */
+    public static void run(Connection connection, ReportSpec spec, String scopeName, int limit) throws SQLException {
+        Target target = resolveTarget(spec, scopeName);
+        if (target == null) {
+            return;
+        }
+
+        List<Object[]> rows = fetch(connection, spec, target, 0, spec.topN() ? limit : -1);
+        print(spec, title(spec, target.display(), limit), rows, emptyMessage(spec, target.display()));
+    }
+
+    /**
+     * Run a country-scoped report for every country whose name contains the text, as one
+     * table merged by the metric, so "united" lists the cities of every "United ..." country.
+     * A name or code that matches one country exactly runs for that country alone, and text
+     * matching none, or any name before world data is loaded, is resolved as {@link #run} would.
+     * Each country's rows are fetched as its own report, so they are sliced from the cached
+     * list or routed to the country's shard like any other country report.
+     * @param connection Database connection
+     * @param spec Report shape with a country scope
+     * @param text Country name, code or part of a name as typed
+     * @param limit Number of rows for a top-N report; ignored otherwise
+     * @throws SQLException if a query fails
+     */
+    public static void runMatchingCountries(Connection connection, ReportSpec spec, String text, int limit)
+            throws SQLException {
+        if (spec.scope() != ReportSpec.Scope.COUNTRY) {
+            throw new IllegalArgumentException("Only country reports can match several countries");
+        }
+        NameResolver resolver = NameResolver.current();
+        List<String> codes = resolver == null ? List.of() : resolver.findCountryCodesContaining(text);
+        if (codes.size() <= 1) {
+            run(connection, spec, codes.isEmpty() ? text : codes.get(0), limit);
+            return;
+        }
+
+        String filterColumn = spec.entity().filterColumn(spec.scope(), true);
+        int count = spec.topN() ? limit : -1;
+        List<List<Object[]>> perCountry = new ArrayList<>();
+        for (String code : codes) {
+            WorldSnapshot.Country country = resolver.getSnapshot().getCountry(code);
+            perCountry.add(fetch(connection, spec, new Target(filterColumn, code, country == null ? code : country.name()),
+                    0, count));
+        }
+        // Cities are only ranked by population, which is the last column of their rows
+        Comparator<Object[]> order = Comparator.comparing((Object[] row) -> (Long) row[row.length - 1]).reversed();
+        List<Object[]> rows = ScatterGather.mergeSorted(perCountry, order, count);
+
+        String display = "countries matching '" + text + "' (" + codes.size() + " countries)";
+        print(spec, title(spec, display, limit), rows, emptyMessage(spec, text));
+    }
+
+    /**
+     * Run one page of a list report and print it as a table
+     * @param connection Database connection
+     * @param spec List report shape
+     * @param scopeName Continent, region, country or district name as typed; ignored for the world
+     * @param page Page number, starting at 1
+     * @param pageSize Rows per page
+     * @throws SQLException if the query fails
+     */
+    public static void runPage(Connection connection, ReportSpec spec, String scopeName, int page, int pageSize)
+            throws SQLException {
+        if (spec.topN()) {
+            throw new IllegalArgumentException("Only list reports can be paged");
+        }
+        Target target = resolveTarget(spec, scopeName);
+        if (target == null) {
+            return;
+        }
+
+        int offset = (page - 1) * pageSize;
+        List<Object[]> rows = fetch(connection, spec, target, offset, pageSize);
+        String title = title(spec, target.display(), 0) + " - Page " + page
+                + (rows.isEmpty() ? "" : " (rows " + (offset + 1) + " to " + (offset + rows.size()) + ")");
+        print(spec, title, rows, emptyMessage(spec, target.display()));
+    }
+
+    /**
+     * Resolve the scope name to the value and column to filter on
+     * @return Target, or null if the name is unknown and has been reported
+     */
+    private static Target resolveTarget(ReportSpec spec, String scopeName) {
+        ReportSpec.Scope scope = spec.scope();
+        String filterColumn = spec.entity().filterColumn(scope, false);
+        String key = scopeName;
+        String display = scopeName;
+
+        NameResolver resolver = NameResolver.current();
+        if (resolver != null && scope != ReportSpec.Scope.WORLD) {
+            Optional<String> resolved = resolve(resolver, scope, scopeName);
+            if (resolved.isEmpty()) {
+                NameSearchIndex index = NameSearchIndex.current();
+                resolved = index.autoResolve(scopeName, scope.kind()).map(NameSearchIndex.Match::key);
+                if (resolved.isEmpty()) {
+                    System.out.println(emptyMessage(spec, scopeName));
+                    index.printSuggestions(scopeName, scope.kind());
+                    return null;
+                }
+            }
+            key = resolved.get();
+            display = key;
+            if (scope == ReportSpec.Scope.COUNTRY) {
+                // Filter on the indexed city.CountryCode instead of joining on the country name
+                filterColumn = spec.entity().filterColumn(scope, true);
+                WorldSnapshot.Country country = resolver.getSnapshot().getCountry(key);
+                display = country == null ? key : country.name();
+            }
+        }
+        return new Target(filterColumn, scope == ReportSpec.Scope.WORLD ? null : key, display);
+    }
+
+    /**
+     * Get ranked rows, slicing the cached list for the scope when it covers the request.
+     * A top-N miss runs the limited query and caches the prefix; a list or page miss
+     * caches the whole list. Without a cache, pages are fetched with LIMIT and OFFSET.
+     * @param offset Rows to skip
+     * @param count Rows wanted, or -1 for all
+     */
+    private static List<Object[]> fetch(Connection connection, ReportSpec spec, Target target, int offset, int count)
+            throws SQLException {
+        RankedListCache cache = RankedListCache.current();
+        RankedListCache.Key cacheKey = new RankedListCache.Key(spec.entity(), spec.scope(), spec.metric(), target.key());
+        if (cache != null) {
+            List<Object[]> slice = cache.slice(cacheKey, offset, count);
+            if (slice != null) {
+                return slice;
+            }
+        }
+
+        ShardMap shards = DatabaseConfig.getShardMap();
+        if (shards != null) {
+            return fetchSharded(shards, spec, target, offset, count, cache, cacheKey);
+        }
+
+        boolean prefix = count >= 0 && offset == 0;
+        boolean paged = count >= 0 && offset > 0 && cache == null;
+        String sql;
+        if (paged) {
+            sql = pagedStatement(spec, target.filterColumn());
+        } else {
+            ReportSpec shape = prefix == spec.topN() ? spec
+                    : new ReportSpec(spec.entity(), spec.scope(), spec.metric(), prefix);
+            sql = statement(shape, target.filterColumn());
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            int parameter = 1;
+            if (target.filterColumn() != null) {
+                stmt.setString(parameter++, target.key());
+            }
+            if (prefix || paged) {
+                stmt.setInt(parameter++, count);
+            }
+            if (paged) {
+                stmt.setInt(parameter, offset);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(spec.entity().readRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println("  Database query failed: " + e.getMessage());
+            throw e;
+        }
+
+        if (cache != null) {
+            cache.put(cacheKey, rows, !prefix || rows.size() < count);
+            if (!prefix) {
+                return cache.slice(cacheKey, offset, count);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Get ranked rows from the shard holding the scope, or from every shard for the world
+     * or a scope whose continent is not known. Each shard returns at most the rows up to
+     * the end of the page, so a page is cut from the merged prefix.
+     */
+    private static List<Object[]> fetchSharded(ShardMap shards, ReportSpec spec, Target target, int offset, int count,
+                                               RankedListCache cache, RankedListCache.Key cacheKey) throws SQLException {
+        int wanted = count < 0 ? -1 : offset + count;
+        ReportSpec shape = (wanted >= 0) == spec.topN() ? spec
+                : new ReportSpec(spec.entity(), spec.scope(), spec.metric(), wanted >= 0);
+        String sql = shardStatement(shape, target.filterColumn());
+
+        List<SortedRow> merged;
+        try {
+            String continent = continentOf(spec.scope(), target);
+            if (continent != null) {
+                merged = ScatterGather.route(shards, continent, shard -> querySorted(shard, spec, sql, target, wanted));
+            } else {
+                List<List<SortedRow>> perShard =
+                        ScatterGather.gather(shards, shard -> querySorted(shard, spec, sql, target, wanted));
+                merged = ScatterGather.mergeSorted(perShard, BY_VALUE_DESCENDING, wanted);
+            }
+        } catch (SQLException e) {
+            System.out.println("  Database query failed: " + e.getMessage());
+            throw e;
+        }
+
+        List<Object[]> rows = new ArrayList<>(merged.size());
+        for (SortedRow row : merged) {
+            rows.add(row.row());
+        }
+        if (cache != null) {
+            cache.put(cacheKey, rows, wanted < 0 || rows.size() < wanted);
+        }
+        return rows.subList(Math.min(offset, rows.size()), rows.size());
+    }
+
+    private static List<SortedRow> querySorted(Connection connection, ReportSpec spec, String sql, Target target, int limit)
+            throws SQLException {
+        List<SortedRow> rows = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            int parameter = 1;
+            if (target.filterColumn() != null) {
+                stmt.setString(parameter++, target.key());
+            }
+            if (limit >= 0) {
+                stmt.setInt(parameter, limit);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Object[] row = spec.entity().readRow(rs);
+                    double value = rs.getDouble("SortValue");
+                    Double sortValue = rs.wasNull() ? null : value;
+                    rows.add(new SortedRow(row, sortValue, rs.getObject("SortKey")));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Order tiebreak keys as the database does: city IDs as numbers, country codes as text
+     */
+    private static int compareKeys(Object a, Object b) {
+        if (a instanceof Number x && b instanceof Number y) {
+            return Long.compare(x.longValue(), y.longValue());
+        }
+        return String.valueOf(a).compareTo(String.valueOf(b));
+    }
+
+    /**
+     * Find the continent a resolved scope lies in
+     * @return Continent, or null for the world or when it cannot be told without a snapshot
+     */
+    private static String continentOf(ReportSpec.Scope scope, Target target) {
+        NameResolver resolver = NameResolver.current();
+        return switch (scope) {
+            case CONTINENT -> target.key();
+            case COUNTRY -> {
+                WorldSnapshot.Country country = resolver == null ? null : resolver.getSnapshot().getCountry(target.key());
+                yield country == null ? null : country.continent();
+            }
+            case REGION -> resolver == null ? null : resolver.getSnapshot().getCountries().stream()
+                    .filter(country -> country.region().equals(target.key()))
+                    .map(WorldSnapshot.Country::continent)
+                    .findFirst().orElse(null);
+            case DISTRICT, WORLD -> null;
+        };
+    }
+
+    private static void print(ReportSpec spec, String title, List<Object[]> rows, String emptyMessage) {
+        String headerFormat = spec.entity().headerFormat();
+        System.out.println("\n " + title);
+        System.out.println(TableFormatter.generateSeparator(headerFormat));
+        spec.entity().printHeader(headerFormat);
+        System.out.println(TableFormatter.generateDashedSeparator(headerFormat));
+
+        for (Object[] row : rows) {
+            spec.entity().printRow(row);
+        }
+
+        if (rows.isEmpty()) {
+            System.out.println(emptyMessage);
+        }
+
+        System.out.println(TableFormatter.generateSeparator(headerFormat) + "\n");
+    }
+
+    private static Optional<String> resolve(NameResolver resolver, ReportSpec.Scope scope, String name) {
+        return switch (scope) {
+            case CONTINENT -> resolver.resolveContinent(name);
+            case REGION -> resolver.resolveRegion(name);
+            case COUNTRY -> resolver.resolveCountryCode(name);
+            case DISTRICT -> resolver.resolveDistrict(name);
+            case WORLD -> Optional.of(name);
+        };
+    }
+
+    private static String title(ReportSpec spec, String scopeName, int limit) {
+        String where = spec.scope() == ReportSpec.Scope.WORLD ? "the World" : scopeName;
+        if (spec.topN()) {
+            return "Top " + limit + " " + spec.entity().title() + " in " + where + " by " + spec.metric().title();
+        }
+        return "All " + spec.entity().title() + " in " + where + " (Sorted by " + spec.metric().title() + ")";
+    }
+
+    private static String emptyMessage(ReportSpec spec, String scopeName) {
+        String where = spec.scope() == ReportSpec.Scope.WORLD
+                ? "the database"
+                : spec.scope().label() + ": " + scopeName;
+        if (spec.topN()) {
+            return "  No results found for " + where;
+        }
+        return "  No " + spec.entity().title().toLowerCase() + " found in " + where;
+    }
+}
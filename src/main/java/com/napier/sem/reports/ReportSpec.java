@@ -0,0 +1,352 @@
+package com.napier.sem.reports;
+
+import com.napier.sem.data.NameResolver;
+import com.napier.sem.data.WorldSnapshot;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Describes a report as (entity, scope, metric, top-N).
+ * Every list and top-N report over cities, capital cities and countries is one of these
+ * shapes, so {@link ReportEngine} can build and cache a single statement per shape
+ * instead of each command carrying its own copy of the query.
+ * @param entity What is listed
+ * @param scope Where it is listed: the world or one named continent, region, country or district
+ * @param metric What the rows are ranked by
+ * @param topN Whether the report is limited to the first N rows
+ */
+public record ReportSpec(Entity entity, Scope scope, Metric metric, boolean topN) {
+
+    /**
+     * Things a report can list
+     */
+    public enum Entity {
+        CITY("cities", "Cities", "%-35s %-30s %-20s %15s%n",
+                "city.Name AS CityName, country.Name AS Country, city.District, city.Population",
+                "city JOIN country ON city.CountryCode = country.Code", "city.ID",
+                EnumSet.allOf(Scope.class)) {
+            @Override
+            void printHeader(String format) {
+                System.out.printf(format, "City", "Country", "District", "Population");
+            }
+
+            @Override
+            Object[] readRow(ResultSet rs) throws SQLException {
+                return new Object[]{rs.getString("CityName"), rs.getString("Country"), rs.getString("District"),
+                        rs.getLong("Population")};
+            }
+
+            @Override
+            void printRow(Object[] row) {
+                System.out.printf("%-35s %-30s %-20s %,15d%n", row);
+            }
+        },
+        CAPITAL("capitals", "Capital Cities", "%-35s %-30s %15s%n",
+                "city.Name AS CapitalCity, country.Name AS Country, city.Population",
+                "country JOIN city ON country.Capital = city.ID", "city.ID",
+                EnumSet.of(Scope.WORLD, Scope.CONTINENT, Scope.REGION)) {
+            @Override
+            void printHeader(String format) {
+                System.out.printf(format, "Capital City", "Country", "Population");
+            }
+
+            @Override
+            Object[] readRow(ResultSet rs) throws SQLException {
+                return new Object[]{rs.getString("CapitalCity"), rs.getString("Country"), rs.getLong("Population")};
+            }
+
+            @Override
+            void printRow(Object[] row) {
+                System.out.printf("%-35s %-30s %,15d%n", row);
+            }
+        },
+        COUNTRY("countries", "Countries", "%-5s %-45s %-20s %-30s %15s%n",
+                "Code, Name, Continent, Region, Population, Capital",
+                "country", "Code",
+                EnumSet.of(Scope.WORLD, Scope.CONTINENT, Scope.REGION)) {
+            @Override
+            void printHeader(String format) {
+                System.out.printf(format, "Code", "Country", "Continent", "Region", "Population");
+            }
+
+            @Override
+            Object[] readRow(ResultSet rs) throws SQLException {
+                return new Object[]{rs.getString("Code"), rs.getString("Name"), rs.getString("Continent"),
+                        rs.getString("Region"), rs.getLong("Population")};
+            }
+
+            @Override
+            void printRow(Object[] row) {
+                System.out.printf("%-5s %-45s %-20s %-30s %,15d%n", row);
+            }
+        };
+
+        private final String keyword;
+        private final String title;
+        private final String headerFormat;
+        private final String columns;
+        private final String from;
+        private final String key;
+        private final Set<Scope> scopes;
+
+        Entity(String keyword, String title, String headerFormat, String columns, String from, String key,
+               Set<Scope> scopes) {
+            this.keyword = keyword;
+            this.title = title;
+            this.headerFormat = headerFormat;
+            this.columns = columns;
+            this.from = from;
+            this.key = key;
+            this.scopes = scopes;
+        }
+
+        abstract void printHeader(String format);
+
+        /**
+         * Copy the current row into an array, reading each column once
+         * @param rs Result set positioned on a row
+         * @return Column values in display order
+         * @throws SQLException if a column cannot be read
+         */
+        abstract Object[] readRow(ResultSet rs) throws SQLException;
+
+        abstract void printRow(Object[] row);
+
+        /**
+         * Get the word used for this entity on the command line
+         * @return e.g. "cities"
+         */
+        public String keyword() {
+            return keyword;
+        }
+
+        String title() {
+            return title;
+        }
+
+        String headerFormat() {
+            return headerFormat;
+        }
+
+        String columns() {
+            return columns;
+        }
+
+        String from() {
+            return from;
+        }
+
+        /**
+         * Get the unique column that breaks ties in the ranking, so rows with equal
+         * values come back in the same order on every run, page and shard
+         * @return Column name
+         */
+        String key() {
+            return key;
+        }
+
+        String select() {
+            return "SELECT " + columns + " FROM " + from;
+        }
+
+        /**
+         * Get the column filtered on for a scope
+         * @param scope Report scope
+         * @param byCode Whether a country scope has been resolved to its code
+         * @return Column name, or null for the world
+         */
+        String filterColumn(Scope scope, boolean byCode) {
+            // The country table is queried alone, so its columns need no qualifier
+            String table = this == COUNTRY ? "" : "country.";
+            return switch (scope) {
+                case WORLD -> null;
+                case CONTINENT -> table + "Continent";
+                case REGION -> table + "Region";
+                case COUNTRY -> byCode ? "city.CountryCode" : "country.Name";
+                case DISTRICT -> "city.District";
+            };
+        }
+
+        /**
+         * Find the entity for a command-line word
+         * @param keyword e.g. "cities"
+         * @return Entity, or null if the word is not one
+         */
+        public static Entity fromKeyword(String keyword) {
+            for (Entity entity : values()) {
+                if (entity.keyword.equalsIgnoreCase(keyword)) {
+                    return entity;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Geographic scopes a report can be limited to
+     */
+    public enum Scope {
+        WORLD(null),
+        CONTINENT(NameResolver.Kind.CONTINENT),
+        REGION(NameResolver.Kind.REGION),
+        COUNTRY(NameResolver.Kind.COUNTRY),
+        DISTRICT(NameResolver.Kind.DISTRICT);
+
+        private final NameResolver.Kind kind;
+
+        Scope(NameResolver.Kind kind) {
+            this.kind = kind;
+        }
+
+        /**
+         * Get the kind of name that identifies the scope
+         * @return Name kind, or null for the world
+         */
+        public NameResolver.Kind kind() {
+            return kind;
+        }
+
+        /**
+         * Get the lower-case name used on the command line and in messages
+         * @return e.g. "continent"
+         */
+        public String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Values a report can rank by. Cities and capitals rank by population only; countries
+     * rank by any numeric column of the country table or a metric derived from them.
+     */
+    public enum Metric {
+        POPULATION("population", "Population", "Population", "%,.0f",
+                country -> (double) country.population()),
+        SURFACE_AREA("surface-area", "Surface Area", "SurfaceArea", "%,.2f",
+                WorldSnapshot.Country::surfaceArea),
+        GNP("gnp", "GNP", "GNP", "%,.2f", WorldSnapshot.Country::gnp),
+        GNP_OLD("gnp-old", "Previous GNP", "GNPOld", "%,.2f", WorldSnapshot.Country::gnpOld),
+        LIFE_EXPECTANCY("life-expectancy", "Life Expectancy", "LifeExpectancy", "%.1f",
+                WorldSnapshot.Country::lifeExpectancy),
+        INDEP_YEAR("indep-year", "Independence Year", "IndepYear", "%.0f",
+                country -> country.indepYear() == null ? null : country.indepYear().doubleValue()),
+        DENSITY("density", "Population Density", "Population / NULLIF(SurfaceArea, 0)", "%,.2f",
+                country -> country.surfaceArea() > 0 ? country.population() / country.surfaceArea() : null),
+        // GNP is stored in millions of US dollars
+        GNP_PER_CAPITA("gnp-per-capita", "GNP per Capita", "GNP * 1000000 / NULLIF(Population, 0)", "%,.2f",
+                country -> country.gnp() != null && country.population() > 0
+                        ? country.gnp() * 1_000_000 / country.population() : null),
+        GNP_GROWTH("gnp-growth", "GNP Growth", "(GNP - GNPOld) * 100 / NULLIF(GNPOld, 0)", "%+.2f%%",
+                country -> country.gnp() != null && country.gnpOld() != null && country.gnpOld() > 0
+                        ? (country.gnp() - country.gnpOld()) * 100 / country.gnpOld() : null);
+
+        private final String keyword;
+        private final String title;
+        private final String countryColumn;
+        private final String valueFormat;
+        private final Function<WorldSnapshot.Country, Double> value;
+
+        Metric(String keyword, String title, String countryColumn, String valueFormat,
+               Function<WorldSnapshot.Country, Double> value) {
+            this.keyword = keyword;
+            this.title = title;
+            this.countryColumn = countryColumn;
+            this.valueFormat = valueFormat;
+            this.value = value;
+        }
+
+        /**
+         * Get the column holding the metric for an entity
+         * @param entity Report entity
+         * @return Column name or expression
+         */
+        String column(Entity entity) {
+            return entity == Entity.COUNTRY ? countryColumn : "city.Population";
+        }
+
+        /**
+         * Check whether an entity can be ranked by this metric
+         * @param entity Report entity
+         * @return True for population, or for any metric on countries
+         */
+        public boolean supports(Entity entity) {
+            return this == POPULATION || entity == Entity.COUNTRY;
+        }
+
+        /**
+         * Get the word used for this metric on the command line
+         * @return e.g. "gnp-per-capita"
+         */
+        public String keyword() {
+            return keyword;
+        }
+
+        /**
+         * Get the name used in report titles
+         * @return e.g. "GNP per Capita"
+         */
+        public String title() {
+            return title;
+        }
+
+        /**
+         * Compute the metric for a country
+         * @param country Country row
+         * @return Value, or null if a column it needs is null or the value is undefined
+         */
+        public Double valueOf(WorldSnapshot.Country country) {
+            return value.apply(country);
+        }
+
+        /**
+         * Format a value of this metric for display
+         * @param value Metric value
+         * @return Formatted value
+         */
+        public String format(double value) {
+            return String.format(valueFormat, value);
+        }
+
+        /**
+         * Find the metric for a command-line word
+         * @param keyword e.g. "density"
+         * @return Metric, or null if the word is not one
+         */
+        public static Metric fromKeyword(String keyword) {
+            for (Metric metric : values()) {
+                if (metric.keyword.equalsIgnoreCase(keyword)) {
+                    return metric;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Constructor for ReportSpec
+     * @throws IllegalArgumentException if the entity cannot be listed by the scope or ranked by the metric
+     */
+    public ReportSpec {
+        if (!entity.scopes.contains(scope)) {
+            throw new IllegalArgumentException(entity.keyword + " cannot be listed by " + scope.label());
+        }
+        if (!metric.supports(entity)) {
+            throw new IllegalArgumentException(entity.keyword + " cannot be ranked by " + metric.keyword());
+        }
+    }
+
+    /**
+     * Check whether an entity can be listed by a scope
+     * @param entity Report entity
+     * @param scope Report scope
+     * @return True if the shape exists
+     */
+    public static boolean supports(Entity entity, Scope scope) {
+        return entity.scopes.contains(scope);
+    }
+}
@@ -0,0 +1,175 @@
+package com.napier.sem.resilience;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Circuit breaker guarding calls to the database.
+ * CLOSED lets every call through and counts consecutive failures. Once the failure
+ * threshold is reached the breaker trips to OPEN and rejects calls until a probe is
+ * allowed through in HALF_OPEN; a successful probe closes the breaker again and a
+ * failed one re-opens it.
+ */
+public class CircuitBreaker {
+
+    /**
+     * Breaker states
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * Listener notified on every state transition
+     */
+    @FunctionalInterface
+    public interface TransitionListener {
+        void onTransition(State from, State to);
+    }
+
+    private final int failureThreshold;
+    private final List<TransitionListener> listeners = new CopyOnWriteArrayList<>();
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long totalSuccesses;
+    private long totalFailures;
+    private long rejectedCalls;
+    private long transitions;
+    private long lastTransitionMillis = System.currentTimeMillis();
+
+    /**
+     * Constructor for CircuitBreaker
+     * @param failureThreshold Number of consecutive failures that trips the breaker
+     */
+    public CircuitBreaker(int failureThreshold) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Failure threshold must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+    }
+
+    /**
+     * Register a listener for state transitions
+     * @param listener Listener to add
+     */
+    public void addListener(TransitionListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Check whether a normal call may go through. Rejected calls are counted.
+     * @return true if the breaker is closed
+     */
+    public synchronized boolean allowRequest() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        rejectedCalls++;
+        return false;
+    }
+
+    /**
+     * Move an open breaker to HALF_OPEN so that a single probe can test the database.
+     * @return true if the caller owns the probe and must report its outcome
+     */
+    public boolean tryAcquireProbe() {
+        synchronized (this) {
+            if (state != State.OPEN) {
+                return false;
+            }
+            changeTo(State.HALF_OPEN);
+        }
+        notifyListeners(State.OPEN, State.HALF_OPEN);
+        return true;
+    }
+
+    /**
+     * Record a successful call, closing the breaker if it was not closed
+     */
+    public void recordSuccess() {
+        State previous;
+        synchronized (this) {
+            totalSuccesses++;
+            consecutiveFailures = 0;
+            previous = state;
+            if (previous == State.CLOSED) {
+                return;
+            }
+            changeTo(State.CLOSED);
+        }
+        notifyListeners(previous, State.CLOSED);
+    }
+
+    /**
+     * Record a failed call (error or timeout), tripping the breaker when the threshold is reached
+     */
+    public void recordFailure() {
+        State previous;
+        synchronized (this) {
+            totalFailures++;
+            consecutiveFailures++;
+            previous = state;
+            boolean open = previous == State.HALF_OPEN
+                    || (previous == State.CLOSED && consecutiveFailures >= failureThreshold);
+            if (!open) {
+                return;
+            }
+            changeTo(State.OPEN);
+        }
+        notifyListeners(previous, State.OPEN);
+    }
+
+    /**
+     * Change state; the caller holds the lock and has decided the change under it,
+     * so no other thread can act on the state in between
+     */
+    private void changeTo(State next) {
+        state = next;
+        transitions++;
+        lastTransitionMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Tell the listeners about a transition, outside the lock so they may query the breaker
+     */
+    private void notifyListeners(State previous, State next) {
+        for (TransitionListener listener : listeners) {
+            listener.onTransition(previous, next);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public synchronized long getTotalSuccesses() {
+        return totalSuccesses;
+    }
+
+    public synchronized long getTotalFailures() {
+        return totalFailures;
+    }
+
+    public synchronized long getRejectedCalls() {
+        return rejectedCalls;
+    }
+
+    public synchronized long getTransitions() {
+        return transitions;
+    }
+
+    public synchronized long getLastTransitionMillis() {
+        return lastTransitionMillis;
+    }
+}
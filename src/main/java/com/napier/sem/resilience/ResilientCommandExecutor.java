@@ -0,0 +1,523 @@
+package com.napier.sem.resilience;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.DatabaseConfig;
+import com.napier.sem.ICommand;
+import com.napier.sem.IConnectionProvider;
+import com.napier.sem.ReadOnlySnapshot;
+import com.napier.sem.pool.PoolSizeController;
+import com.napier.sem.pool.StatementStats;
+import com.napier.sem.prefetch.CommandPrefetcher;
+import com.napier.sem.scheduling.CommandScheduler;
+import com.napier.sem.scheduling.CostClass;
+import com.napier.sem.scheduling.RateLimiter;
+import com.napier.sem.shard.ShardMap;
+import com.napier.sem.utils.OutputCapture;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs commands behind a circuit breaker with a stale-while-revalidate fallback.
+ * Each execution borrows its own pooled connection on a worker thread of the
+ * {@link CommandScheduler} lane for its cost class, and the caller waits at most the call timeout, so a slow database no longer blocks the REPL for
+ * the whole Hikari connection timeout. The last good output of every command and
+ * argument combination is remembered; while the breaker is open that output is
+ * served marked as stale, and once a background probe sees the database recover
+ * the stale entries are refreshed without the user having to ask again.
+ * Before a command is queued its client must hold a {@link RateLimiter} token for the
+ * command's cost class, so one client flooding a class is refused with a retry hint
+ * while other clients keep their share.
+ * After each command the {@link CommandPrefetcher} may predict the client's next one; it
+ * is run in its lane only while the lane is idle, and a command whose result was
+ * prefetched is answered from that result. Commands that do not need the database run
+ * at once on the caller's thread, outside the breaker, the rate limits and the lanes.
+ */
+public class ResilientCommandExecutor {
+
+    private static final int MAX_CACHED_RESULTS = 256;
+
+    /**
+     * Client identity of commands typed at the local prompt
+     */
+    public static final String LOCAL_CLIENT = "local";
+
+    private static ResilientCommandExecutor defaultExecutor;
+
+    private final IConnectionProvider connectionProvider;
+    private final CircuitBreaker breaker;
+    private final long callTimeoutMillis;
+    private final long probeIntervalMillis;
+    private final CommandScheduler scheduler;
+    private final RateLimiter rateLimiter;
+    private final CommandPrefetcher prefetcher;
+    private final ScheduledExecutorService background;
+
+    private final Map<String, CachedResult> lastGoodResults =
+            Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                    return size() > MAX_CACHED_RESULTS;
+                }
+            });
+    private final Map<String, Invocation> pendingRefresh = new ConcurrentHashMap<>();
+
+    private final AtomicLong staleServed = new AtomicLong();
+    private final AtomicLong fallbackMisses = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong backgroundRefreshes = new AtomicLong();
+
+    private ScheduledFuture<?> probeTask;
+
+    /**
+     * How a command was answered, as read back from what the executor printed for it
+     */
+    public enum Outcome {
+        /** The command ran, or its prefetched result was served */
+        OK,
+        /** Refused before running: rate limited, queue full, cancelled in the queue or not shard-aware */
+        REJECTED,
+        /** Timed out or failed on the database */
+        FAILED,
+        /** The database was unavailable and a cached result, or nothing, was shown instead */
+        STALE;
+
+        /**
+         * Classify the output of one execution
+         * @param output Everything the executor printed for the command
+         * @return Outcome
+         */
+        public static Outcome of(String output) {
+            if (output.startsWith("Rate limited:") || output.startsWith("Too busy:")
+                    || output.startsWith("Command waited over") || output.startsWith("Not available while")) {
+                return REJECTED;
+            }
+            if (output.startsWith("Command timed out") || output.startsWith("Error executing command:")) {
+                return FAILED;
+            }
+            if (output.startsWith("[STALE]") || output.startsWith("Database unavailable")) {
+                return STALE;
+            }
+            return OK;
+        }
+    }
+
+    /**
+     * A cached command output and when it was produced
+     */
+    public record CachedResult(String output, long capturedAtMillis) {
+    }
+
+    /**
+     * A command invocation remembered for background refresh
+     */
+    private record Invocation(ICommand command, String[] args) {
+    }
+
+    /**
+     * Constructor for ResilientCommandExecutor
+     * @param connectionProvider Source of connections for command execution
+     * @param failureThreshold Consecutive failures that open the circuit
+     * @param callTimeoutMillis How long a caller waits for a command before treating it as failed
+     * @param probeIntervalMillis How often an open circuit probes the database
+     */
+    public ResilientCommandExecutor(IConnectionProvider connectionProvider, int failureThreshold,
+                                    long callTimeoutMillis, long probeIntervalMillis) {
+        this(connectionProvider, failureThreshold, callTimeoutMillis, probeIntervalMillis,
+                CommandPrefetcher.fromEnvironment());
+    }
+
+    /**
+     * Constructor for tests
+     * @param connectionProvider Source of connections for command execution
+     * @param failureThreshold Consecutive failures that open the circuit
+     * @param callTimeoutMillis How long a caller waits for a command before treating it as failed
+     * @param probeIntervalMillis How often an open circuit probes the database
+     * @param prefetcher Prefetcher to predict and cache next commands with
+     */
+    ResilientCommandExecutor(IConnectionProvider connectionProvider, int failureThreshold,
+                             long callTimeoutMillis, long probeIntervalMillis, CommandPrefetcher prefetcher) {
+        this.connectionProvider = connectionProvider;
+        this.breaker = new CircuitBreaker(failureThreshold);
+        this.callTimeoutMillis = callTimeoutMillis;
+        this.probeIntervalMillis = probeIntervalMillis;
+        this.scheduler = CommandScheduler.fromEnvironment();
+        this.rateLimiter = RateLimiter.fromEnvironment();
+        this.prefetcher = prefetcher;
+        this.background = Executors.newSingleThreadScheduledExecutor(daemonThreads("circuit-probe"));
+        this.breaker.addListener(this::onTransition);
+    }
+
+    /**
+     * Get the executor used by the command interface, configured from environment variables
+     * (CIRCUIT_FAILURE_THRESHOLD, COMMAND_TIMEOUT_MS, CIRCUIT_PROBE_INTERVAL_MS).
+     * @return Shared executor instance
+     */
+    public static synchronized ResilientCommandExecutor getDefault() {
+        if (defaultExecutor == null) {
+            defaultExecutor = new ResilientCommandExecutor(
+                    DatabaseConfig::getConnection,
+                    (int) envLong("CIRCUIT_FAILURE_THRESHOLD", 3),
+                    envLong("COMMAND_TIMEOUT_MS", 10000),
+                    envLong("CIRCUIT_PROBE_INTERVAL_MS", 5000));
+            // The pool is created on first use, sized so these lanes never wait on it
+            DatabaseConfig.setCommandConnections(defaultExecutor.getScheduler().getTotalQuota());
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Execute a command and print its output, or a stale copy of its last good output
+     * if the circuit is open.
+     * @param command Command to run
+     * @param args Command arguments, including the command name at index 0
+     * @throws Exception if the command fails and no fallback applies
+     */
+    public void execute(ICommand command, String[] args) throws Exception {
+        execute(LOCAL_CLIENT, command, args);
+    }
+
+    /**
+     * Execute a command on behalf of a client, subject to the client's rate limit
+     * @param client Client identity the rate limit is kept for
+     * @param command Command to run
+     * @param args Command arguments, including the command name at index 0
+     * @throws Exception if the command fails and no fallback applies
+     */
+    public void execute(String client, ICommand command, String[] args) throws Exception {
+        if (!command.requiresDatabase()) {
+            // Status and settings commands must answer even while the database is down
+            command.execute(null, args);
+            return;
+        }
+        if (DatabaseConfig.getShardMap() != null && !command.isShardAware()) {
+            System.out.println(ShardMap.unsupportedMessage(command.getExcecutionCommand()));
+            return;
+        }
+        String key = cacheKey(command, args);
+
+        if (!breaker.allowRequest()) {
+            serveStale(key, command, args);
+            return;
+        }
+
+        CostClass costClass = command.getCostClass();
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(client, costClass);
+        if (!decision.allowed()) {
+            RateLimiter.Limit limit = rateLimiter.getLimit(costClass);
+            System.out.printf("Rate limited: %s may run %.1f %s commands per second, retry in %d ms%n",
+                    client, limit.perSecond(), costClass.keyword(), decision.retryAfterMillis());
+            return;
+        }
+
+        String prefetched = prefetcher.take(key);
+        if (prefetched != null) {
+            System.out.print(prefetched);
+            prefetch(prefetcher.observe(client, command, args, prefetched));
+            return;
+        }
+
+        Future<String> future;
+        try {
+            future = scheduler.submit(costClass, () -> runAndRemember(command, args, key));
+        } catch (RejectedExecutionException e) {
+            System.out.println("Too busy: the " + costClass.keyword() + " queue is full, retry in "
+                    + scheduler.retryHintMillis(costClass) + " ms");
+            return;
+        }
+        long timeoutMillis = command.getTimeoutMillis() > 0 ? command.getTimeoutMillis() : callTimeoutMillis;
+        try {
+            String output = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            breaker.recordSuccess();
+            System.out.print(output);
+            prefetch(prefetcher.observe(client, command, args, output));
+        } catch (TimeoutException e) {
+            // Still queued behind commands of its own class: not the database's fault
+            if (scheduler.cancelIfQueued(costClass, future)) {
+                System.out.println("Command waited over " + timeoutMillis + " ms in the " + costClass.keyword()
+                        + " queue and was cancelled");
+                return;
+            }
+            // Abandon the call so its late outcome cannot reach the breaker or hold the lane
+            future.cancel(true);
+            timeouts.incrementAndGet();
+            breaker.recordFailure();
+            System.out.println("Command timed out after " + timeoutMillis + " ms");
+            if (breaker.getState() != CircuitBreaker.State.CLOSED) {
+                serveStale(key, command, args);
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                breaker.recordFailure();
+            }
+            if (cause instanceof SQLException && breaker.getState() != CircuitBreaker.State.CLOSED) {
+                System.out.println("Error executing command: " + cause.getMessage());
+                serveStale(key, command, args);
+                return;
+            }
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Run the command on the current thread with its own connection and remember its output.
+     * The outcome is left to the caller to report to the breaker, since a caller that has
+     * already given up on the call has counted it as a failure.
+     */
+    private String runAndRemember(ICommand command, String[] args, String key) throws Exception {
+        String output = run(command, args);
+        lastGoodResults.put(key, new CachedResult(output, System.currentTimeMillis()));
+        return output;
+    }
+
+    /**
+     * Run the command on the current thread with its own connection and capture its output
+     */
+    private String run(ICommand command, String[] args) throws Exception {
+        StatementStats.setCurrentCommand(command.getExcecutionCommand());
+        try (Connection connection = connectionProvider.getConnection()) {
+            long started = System.nanoTime();
+            String output = OutputCapture.capture(() -> ReadOnlySnapshot.execute(command, connection, args));
+            PoolSizeController controller = DatabaseConfig.getPoolController();
+            if (controller != null) {
+                controller.recordLatency(command.getExcecutionCommand(), System.nanoTime() - started);
+            }
+            return output;
+        } finally {
+            StatementStats.clearCurrentCommand();
+        }
+    }
+
+    /**
+     * Run a predicted command in the background if its lane is idle and the database healthy.
+     * Prefetches do not count towards the breaker or the client's rate limit.
+     */
+    private void prefetch(CommandPrefetcher.Prefetch prediction) {
+        if (prediction == null) {
+            return;
+        }
+        String key = cacheKey(prediction.command(), prediction.args());
+        CostClass costClass = prediction.command().getCostClass();
+        CommandScheduler.LaneStats lane = scheduler.getStats(costClass);
+        boolean refused = DatabaseConfig.getShardMap() != null && !prediction.command().isShardAware();
+        if (refused || prefetcher.contains(key) || breaker.getState() != CircuitBreaker.State.CLOSED
+                || lane.queued() > 0 || lane.running() >= lane.quota()) {
+            prefetcher.recordSkipped();
+            return;
+        }
+        try {
+            scheduler.submit(costClass, () -> {
+                long version = prefetcher.getDataVersion();
+                long started = System.nanoTime();
+                try {
+                    prefetcher.store(key, run(prediction.command(), prediction.args()),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), version);
+                } catch (Exception e) {
+                    prefetcher.recordFailed(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+                }
+                return null;
+            });
+            prefetcher.recordIssued();
+        } catch (RejectedExecutionException e) {
+            prefetcher.recordSkipped();
+        }
+    }
+
+    private void serveStale(String key, ICommand command, String[] args) {
+        pendingRefresh.put(key, new Invocation(command, args));
+        CachedResult cached = lastGoodResults.get(key);
+
+        if (cached == null) {
+            fallbackMisses.incrementAndGet();
+            System.out.println("Database unavailable (circuit " + breaker.getState()
+                    + ") and no cached result for this command. It will be refreshed when the database recovers.");
+            return;
+        }
+
+        staleServed.incrementAndGet();
+        String capturedAt = new SimpleDateFormat("HH:mm:ss").format(new Date(cached.capturedAtMillis()));
+        System.out.println("[STALE] Database unavailable (circuit " + breaker.getState()
+                + ") - showing result cached at " + capturedAt);
+        System.out.print(cached.output());
+    }
+
+    private void onTransition(CircuitBreaker.State from, CircuitBreaker.State to) {
+        System.out.println("[circuit] " + from + " -> " + to);
+
+        synchronized (this) {
+            if (to == CircuitBreaker.State.OPEN && probeTask == null) {
+                probeTask = background.scheduleWithFixedDelay(this::probe,
+                        probeIntervalMillis, probeIntervalMillis, TimeUnit.MILLISECONDS);
+            } else if (to == CircuitBreaker.State.CLOSED && probeTask != null) {
+                probeTask.cancel(false);
+                probeTask = null;
+            }
+        }
+
+        if (to == CircuitBreaker.State.CLOSED) {
+            background.execute(this::refreshPending);
+        }
+    }
+
+    /**
+     * Test the database from the background thread while the circuit is open
+     */
+    private void probe() {
+        if (!breaker.tryAcquireProbe()) {
+            return;
+        }
+        try (Connection connection = connectionProvider.getConnection()) {
+            int timeoutSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(callTimeoutMillis));
+            if (connection.isValid(timeoutSeconds)) {
+                breaker.recordSuccess();
+            } else {
+                breaker.recordFailure();
+            }
+        } catch (SQLException e) {
+            breaker.recordFailure();
+        }
+    }
+
+    /**
+     * Re-run every invocation that was served stale (or not at all) while the circuit was open
+     */
+    private void refreshPending() {
+        List<String> keys = new ArrayList<>(pendingRefresh.keySet());
+        for (String key : keys) {
+            if (breaker.getState() != CircuitBreaker.State.CLOSED) {
+                return;
+            }
+            Invocation invocation = pendingRefresh.remove(key);
+            if (invocation == null) {
+                continue;
+            }
+            try {
+                runAndRemember(invocation.command(), invocation.args(), key);
+                breaker.recordSuccess();
+                backgroundRefreshes.incrementAndGet();
+            } catch (SQLException e) {
+                breaker.recordFailure();
+                pendingRefresh.put(key, invocation);
+            } catch (Exception e) {
+                pendingRefresh.put(key, invocation);
+            }
+        }
+    }
+
+    /**
+     * Build the cache key for a command invocation
+     * @param command Command being run
+     * @param args Command arguments, including the command name at index 0
+     * @return Normalised key
+     */
+    static String cacheKey(ICommand command, String[] args) {
+        if (command instanceof CommandBase base) {
+            String key = base.getCacheKey(args);
+            if (key != null) {
+                return key;
+            }
+        }
+        StringBuilder key = new StringBuilder(command.getExcecutionCommand().toLowerCase());
+        for (int i = 1; i < args.length; i++) {
+            key.append(' ').append(args[i].trim().toLowerCase());
+        }
+        return key.toString();
+    }
+
+    /**
+     * Stop worker and background threads
+     */
+    public void shutdown() {
+        scheduler.shutdown();
+        background.shutdownNow();
+    }
+
+    public CommandScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    public CommandPrefetcher getPrefetcher() {
+        return prefetcher;
+    }
+
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    public long getCallTimeoutMillis() {
+        return callTimeoutMillis;
+    }
+
+    public long getStaleServed() {
+        return staleServed.get();
+    }
+
+    public long getFallbackMisses() {
+        return fallbackMisses.get();
+    }
+
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    public long getBackgroundRefreshes() {
+        return backgroundRefreshes.get();
+    }
+
+    public int getCachedResultCount() {
+        return lastGoodResults.size();
+    }
+
+    public int getPendingRefreshCount() {
+        return pendingRefresh.size();
+    }
+
+    private static long envLong(String name, long defaultValue) {
+        String value = System.getenv(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("  Ignoring invalid " + name + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
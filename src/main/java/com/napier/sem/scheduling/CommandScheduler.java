@@ -0,0 +1,224 @@
+package com.napier.sem.scheduling;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs commands in separate lanes per {@link CostClass}. Each lane has its own bounded
+ * FIFO queue and its own worker threads, one per connection the class may hold, so a
+ * burst of all-* exports can fill the listing lane but never the connections reserved for
+ * point lookups; an interactive lookup waits only behind other lookups. A full queue
+ * rejects new work at once, with a hint of when to retry, rather than letting waits grow
+ * without limit. Queue depth, wait time, completions and rejections are kept per lane, and
+ * a lane's quota can be changed while it runs.
+ */
+public class CommandScheduler {
+
+    /**
+     * Counters for one lane
+     * @param costClass Lane
+     * @param quota Commands that may run at once
+     * @param running Commands running now
+     * @param queued Commands waiting now
+     * @param queueCapacity Most commands that may wait
+     * @param completed Commands finished
+     * @param rejected Commands turned away because the queue was full
+     * @param meanWaitMillis Mean time from submission to start
+     * @param maxWaitMillis Longest time from submission to start
+     */
+    public record LaneStats(CostClass costClass, int quota, int running, int queued, int queueCapacity,
+                            long completed, long rejected, double meanWaitMillis, double maxWaitMillis) {
+    }
+
+    /**
+     * Workers, queue and counters of one class
+     */
+    private static class Lane {
+        final ThreadPoolExecutor executor;
+        final int queueCapacity;
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicLong started = new AtomicLong();
+        final AtomicLong waitNanos = new AtomicLong();
+        final AtomicLong maxWaitNanos = new AtomicLong();
+        final AtomicLong finished = new AtomicLong();
+        final AtomicLong runNanos = new AtomicLong();
+
+        Lane(CostClass costClass, int quota, int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            AtomicInteger counter = new AtomicInteger();
+            executor = new ThreadPoolExecutor(quota, quota, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "command-" + costClass.keyword() + "-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+        }
+    }
+
+    private final Map<CostClass, Lane> lanes = new EnumMap<>(CostClass.class);
+
+    /**
+     * Constructor for CommandScheduler
+     * @param quotas Connections each class may hold; classes left out use their default
+     * @param queueCapacities Commands each class may queue; classes left out use their default
+     */
+    public CommandScheduler(Map<CostClass, Integer> quotas, Map<CostClass, Integer> queueCapacities) {
+        for (CostClass costClass : CostClass.values()) {
+            int quota = Math.max(1, quotas.getOrDefault(costClass, costClass.defaultQuota()));
+            int capacity = Math.max(1, queueCapacities.getOrDefault(costClass, costClass.defaultQueueCapacity()));
+            lanes.put(costClass, new Lane(costClass, quota, capacity));
+        }
+    }
+
+    /**
+     * Create a scheduler from QUOTA_POINT, QUEUE_POINT, QUOTA_LISTING and so on,
+     * where the suffix is the class keyword upper-cased with dashes removed
+     * @return Scheduler
+     */
+    public static CommandScheduler fromEnvironment() {
+        Map<CostClass, Integer> quotas = new EnumMap<>(CostClass.class);
+        Map<CostClass, Integer> capacities = new EnumMap<>(CostClass.class);
+        for (CostClass costClass : CostClass.values()) {
+            String suffix = costClass.keyword().toUpperCase().replace("-", "");
+            putEnv(quotas, costClass, "QUOTA_" + suffix);
+            putEnv(capacities, costClass, "QUEUE_" + suffix);
+        }
+        return new CommandScheduler(quotas, capacities);
+    }
+
+    private static void putEnv(Map<CostClass, Integer> target, CostClass costClass, String name) {
+        String value = System.getenv(name);
+        if (value != null) {
+            try {
+                target.put(costClass, Integer.parseInt(value.trim()));
+            } catch (NumberFormatException e) {
+                System.err.println("  Ignoring invalid " + name + ": " + value);
+            }
+        }
+    }
+
+    /**
+     * Queue work in its class's lane
+     * @param costClass Lane to run in
+     * @param work Work to run
+     * @return Future for the result
+     * @throws RejectedExecutionException if the lane's queue is full
+     */
+    public <T> Future<T> submit(CostClass costClass, Callable<T> work) {
+        Lane lane = lanes.get(costClass);
+        long submitted = System.nanoTime();
+        FutureTask<T> task = new FutureTask<>(() -> {
+            long waited = System.nanoTime() - submitted;
+            lane.started.incrementAndGet();
+            lane.waitNanos.addAndGet(waited);
+            lane.maxWaitNanos.accumulateAndGet(waited, Math::max);
+            long started = System.nanoTime();
+            try {
+                return work.call();
+            } finally {
+                lane.runNanos.addAndGet(System.nanoTime() - started);
+                lane.finished.incrementAndGet();
+            }
+        });
+        try {
+            lane.executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            lane.rejected.incrementAndGet();
+            throw e;
+        }
+        return task;
+    }
+
+    /**
+     * Take work out of its queue if it has not started yet
+     * @param costClass Lane it was submitted to
+     * @param future Future returned by {@link #submit}
+     * @return True if the work was still queued and will not run
+     */
+    public boolean cancelIfQueued(CostClass costClass, Future<?> future) {
+        if (future instanceof FutureTask<?> task && lanes.get(costClass).executor.remove(task)) {
+            task.cancel(false);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Estimate how long until a lane has room, from its queue depth and mean run time
+     * @param costClass Lane
+     * @return Suggested wait before retrying, at least 100 ms
+     */
+    public long retryHintMillis(CostClass costClass) {
+        Lane lane = lanes.get(costClass);
+        long finished = lane.finished.get();
+        double meanRunMillis = finished == 0 ? 0 : lane.runNanos.get() / 1e6 / finished;
+        int quota = lane.executor.getMaximumPoolSize();
+        double drain = (lane.executor.getQueue().size() + 1) * meanRunMillis / quota;
+        return Math.max(100, (long) Math.ceil(drain));
+    }
+
+    /**
+     * Change how many commands of a class may run at once
+     * @param costClass Lane
+     * @param quota New quota, at least 1
+     */
+    public void setQuota(CostClass costClass, int quota) {
+        ThreadPoolExecutor executor = lanes.get(costClass).executor;
+        int size = Math.max(1, quota);
+        synchronized (executor) {
+            // The core size may never exceed the maximum, so order the two writes by direction
+            if (size > executor.getMaximumPoolSize()) {
+                executor.setMaximumPoolSize(size);
+                executor.setCorePoolSize(size);
+            } else {
+                executor.setCorePoolSize(size);
+                executor.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    /**
+     * Get the connections every lane together may hold at once
+     * @return Sum of the lanes' quotas
+     */
+    public int getTotalQuota() {
+        int total = 0;
+        for (Lane lane : lanes.values()) {
+            total += lane.executor.getMaximumPoolSize();
+        }
+        return total;
+    }
+
+    /**
+     * Get the counters of one lane
+     * @param costClass Lane
+     * @return Current counters
+     */
+    public LaneStats getStats(CostClass costClass) {
+        Lane lane = lanes.get(costClass);
+        long started = lane.started.get();
+        return new LaneStats(costClass, lane.executor.getMaximumPoolSize(), lane.executor.getActiveCount(),
+                lane.executor.getQueue().size(), lane.queueCapacity, lane.executor.getCompletedTaskCount(),
+                lane.rejected.get(), started == 0 ? 0 : lane.waitNanos.get() / 1e6 / started,
+                lane.maxWaitNanos.get() / 1e6);
+    }
+
+    /**
+     * Stop every lane, abandoning queued work
+     */
+    public void shutdown() {
+        for (Lane lane : lanes.values()) {
+            lane.executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.napier.sem.scheduling;
+
+import java.util.Locale;
+
+/**
+ * How expensive a command is to run, which decides the queue it waits in and how many
+ * connections it may hold at once. Commands are classed by name; a command whose name
+ * does not say what it costs overrides {@code ICommand.getCostClass()}.
+ */
+public enum CostClass {
+
+    /**
+     * One row or a handful by key, e.g. city-pop
+     */
+    POINT_LOOKUP("point", 4, 64),
+
+    /**
+     * A ranked prefix, e.g. top-cities
+     */
+    TOP_N("top-n", 2, 32),
+
+    /**
+     * Totals over many rows returning few, e.g. region-pop
+     */
+    AGGREGATE("aggregate", 2, 32),
+
+    /**
+     * Every row of a scope, e.g. all-cities
+     */
+    FULL_LISTING("listing", 2, 8);
+
+    private final String keyword;
+    private final int defaultQuota;
+    private final int defaultQueueCapacity;
+
+    CostClass(String keyword, int defaultQuota, int defaultQueueCapacity) {
+        this.keyword = keyword;
+        this.defaultQuota = defaultQuota;
+        this.defaultQueueCapacity = defaultQueueCapacity;
+    }
+
+    /**
+     * Get the short name used in reports and environment variables
+     * @return Keyword, e.g. "listing"
+     */
+    public String keyword() {
+        return keyword;
+    }
+
+    /**
+     * Get the number of commands of this class that may run at once unless configured
+     * @return Connection quota
+     */
+    public int defaultQuota() {
+        return defaultQuota;
+    }
+
+    /**
+     * Get the number of commands of this class that may wait unless configured
+     * @return Queue capacity
+     */
+    public int defaultQueueCapacity() {
+        return defaultQueueCapacity;
+    }
+
+    /**
+     * Class a command by its execution command
+     * @param command Execution command
+     * @return Cost class; anything not recognised is treated as a point lookup
+     */
+    public static CostClass classify(String command) {
+        String name = command.toLowerCase(Locale.ROOT);
+        if (name.startsWith("all-") || name.startsWith("capital-cities-") || name.endsWith("-batch")
+                || name.equals("cities-country") || name.equals("report") || name.equals("snapshot-overhead")) {
+            return FULL_LISTING;
+        }
+        if (name.startsWith("top-") || name.startsWith("rank-") || name.startsWith("similar-")
+                || name.startsWith("search-") || name.equals("report-page") || name.equals("country-percentiles")) {
+            return TOP_N;
+        }
+        if (name.startsWith("population-") || name.endsWith("-pop") || name.startsWith("language-")
+                || name.startsWith("project-")) {
+            return AGGREGATE;
+        }
+        return POINT_LOOKUP;
+    }
+}
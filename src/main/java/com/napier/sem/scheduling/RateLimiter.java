@@ -0,0 +1,208 @@
+package com.napier.sem.scheduling;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token-bucket rate limits per client and {@link CostClass}. Every client has one bucket
+ * per class holding up to the class's burst of tokens, refilled at the class's rate; a
+ * command takes one token or is refused with the time until the next token, so one
+ * script looping over all-* exports is slowed down before its commands ever reach the
+ * scheduler's queues. Buckets read their limit when they refill, so a limit changed with
+ * {@link #setLimit} applies to every client at once. Idle clients are forgotten oldest
+ * first once {@link #MAX_CLIENTS} buckets are held.
+ */
+public class RateLimiter {
+
+    /**
+     * Most client and class buckets kept
+     */
+    public static final int MAX_CLIENTS = 1024;
+
+    /**
+     * Rate limit of one class
+     * @param perSecond Tokens added per second; 0 or less turns limiting off for the class
+     * @param burst Most tokens a bucket holds, i.e. commands that may run back to back
+     */
+    public record Limit(double perSecond, int burst) {
+
+        public boolean isUnlimited() {
+            return perSecond <= 0;
+        }
+    }
+
+    /**
+     * Outcome of asking for a token
+     * @param allowed True if the command may run
+     * @param retryAfterMillis Time until a token is available, 0 if allowed
+     */
+    public record Decision(boolean allowed, long retryAfterMillis) {
+    }
+
+    /**
+     * Counters for one client and class
+     * @param client Client identity
+     * @param costClass Class
+     * @param allowed Commands let through
+     * @param limited Commands refused
+     * @param tokens Tokens left now
+     */
+    public record ClientStats(String client, CostClass costClass, long allowed, long limited, double tokens) {
+    }
+
+    private static final Map<CostClass, Limit> DEFAULT_LIMITS = Map.of(
+            CostClass.POINT_LOOKUP, new Limit(20, 40),
+            CostClass.TOP_N, new Limit(5, 10),
+            CostClass.AGGREGATE, new Limit(5, 10),
+            CostClass.FULL_LISTING, new Limit(1, 3));
+
+    /**
+     * Tokens of one client in one class
+     */
+    private static class Bucket {
+        double tokens;
+        long refilledNanos;
+        long allowed;
+        long limited;
+
+        Bucket(int burst, long now) {
+            tokens = burst;
+            refilledNanos = now;
+        }
+    }
+
+    private final Map<CostClass, Limit> limits = new EnumMap<>(CostClass.class);
+    private final Map<String, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > MAX_CLIENTS;
+        }
+    };
+
+    /**
+     * Constructor for RateLimiter
+     * @param limits Limit per class; classes left out use their default
+     */
+    public RateLimiter(Map<CostClass, Limit> limits) {
+        for (CostClass costClass : CostClass.values()) {
+            this.limits.put(costClass, limits.getOrDefault(costClass, DEFAULT_LIMITS.get(costClass)));
+        }
+    }
+
+    /**
+     * Create a limiter from RATE_POINT, BURST_POINT, RATE_LISTING and so on, where the
+     * suffix is the class keyword upper-cased with dashes removed. A rate or burst that is
+     * not a positive number keeps the class's default, so a typo cannot switch limiting off.
+     * @return Limiter
+     */
+    public static RateLimiter fromEnvironment() {
+        Map<CostClass, Limit> limits = new EnumMap<>(CostClass.class);
+        for (CostClass costClass : CostClass.values()) {
+            String suffix = costClass.keyword().toUpperCase().replace("-", "");
+            limits.put(costClass, limitOf(suffix, System.getenv("RATE_" + suffix), System.getenv("BURST_" + suffix),
+                    DEFAULT_LIMITS.get(costClass)));
+        }
+        return new RateLimiter(limits);
+    }
+
+    /**
+     * Read one class's limit from its settings
+     * @param suffix Class suffix of the variable names
+     * @param rate RATE_ value, or null if unset
+     * @param burst BURST_ value, or null if unset
+     * @param fallback Default limit of the class
+     * @return Limit, with the default in place of any invalid value
+     */
+    static Limit limitOf(String suffix, String rate, String burst, Limit fallback) {
+        double perSecond = fallback.perSecond();
+        if (rate != null) {
+            try {
+                perSecond = Double.parseDouble(rate.trim());
+            } catch (NumberFormatException e) {
+                perSecond = Double.NaN;
+            }
+            if (!(perSecond > 0) || Double.isInfinite(perSecond)) {
+                System.err.println("  Ignoring invalid RATE_" + suffix + ": " + rate);
+                perSecond = fallback.perSecond();
+            }
+        }
+        int tokens = fallback.burst();
+        if (burst != null) {
+            try {
+                tokens = Integer.parseInt(burst.trim());
+            } catch (NumberFormatException e) {
+                tokens = 0;
+            }
+            if (tokens <= 0) {
+                System.err.println("  Ignoring invalid BURST_" + suffix + ": " + burst);
+                tokens = fallback.burst();
+            }
+        }
+        return new Limit(perSecond, tokens);
+    }
+
+    /**
+     * Take a token for a command, if the client has one
+     * @param client Client identity
+     * @param costClass Class of the command
+     * @return Whether the command may run, and if not when to retry
+     */
+    public Decision tryAcquire(String client, CostClass costClass) {
+        return tryAcquire(client, costClass, System.nanoTime());
+    }
+
+    synchronized Decision tryAcquire(String client, CostClass costClass, long now) {
+        Limit limit = limits.get(costClass);
+        Bucket bucket = buckets.computeIfAbsent(client + "|" + costClass.name(),
+                key -> new Bucket(Math.max(1, limit.burst()), now));
+        if (limit.isUnlimited()) {
+            bucket.allowed++;
+            return new Decision(true, 0);
+        }
+
+        int burst = Math.max(1, limit.burst());
+        double elapsedSeconds = (now - bucket.refilledNanos) / 1e9;
+        bucket.tokens = Math.min(burst, bucket.tokens + elapsedSeconds * limit.perSecond());
+        bucket.refilledNanos = now;
+        if (bucket.tokens >= 1) {
+            bucket.tokens -= 1;
+            bucket.allowed++;
+            return new Decision(true, 0);
+        }
+        bucket.limited++;
+        long retryAfter = (long) Math.ceil((1 - bucket.tokens) / limit.perSecond() * 1000);
+        return new Decision(false, Math.max(1, retryAfter));
+    }
+
+    /**
+     * Change a class's limit for every client, effective from the next command
+     * @param costClass Class
+     * @param limit New limit
+     */
+    public synchronized void setLimit(CostClass costClass, Limit limit) {
+        limits.put(costClass, limit);
+    }
+
+    public synchronized Limit getLimit(CostClass costClass) {
+        return limits.get(costClass);
+    }
+
+    /**
+     * Get the counters of every client seen recently
+     * @return One entry per client and class, most recently active last
+     */
+    public synchronized List<ClientStats> getClientStats() {
+        List<ClientStats> stats = new ArrayList<>();
+        for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+            int separator = entry.getKey().lastIndexOf('|');
+            Bucket bucket = entry.getValue();
+            stats.add(new ClientStats(entry.getKey().substring(0, separator),
+                    CostClass.valueOf(entry.getKey().substring(separator + 1)),
+                    bucket.allowed, bucket.limited, bucket.tokens));
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,20 @@
+package com.napier.sem.shard;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Work run against one shard with a connection borrowed for it
+ * @param <T> Result of the work
+ */
+@FunctionalInterface
+public interface IShardQuery<T> {
+
+    /**
+     * Run the work
+     * @param connection Connection to the shard; closed by the caller
+     * @return Result
+     * @throws SQLException if a query fails
+     */
+    T run(Connection connection) throws SQLException;
+}
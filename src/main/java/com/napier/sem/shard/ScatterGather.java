@@ -0,0 +1,196 @@
+package com.napier.sem.shard;
+
+import com.napier.sem.DatabaseConfig;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a query on shards in parallel and merges the answers. Every shard holds whole
+ * continents, so a world-wide list is the union of one sorted list per shard: the
+ * per-shard lists are merged with a heap holding one cursor per shard, and a top-N
+ * merge stops after N rows, so no shard returns more than N rows and the merge never
+ * sorts the whole union. A failure on any shard fails the whole query rather than
+ * answering with part of the world.
+ */
+public class ScatterGather {
+
+    /**
+     * Counters for one shard
+     * @param shard Shard name
+     * @param queries Queries run
+     * @param failures Queries failed
+     * @param meanMillis Mean time per query, including borrowing the connection
+     */
+    public record ShardStats(String shard, long queries, long failures, double meanMillis) {
+    }
+
+    private static final Map<String, AtomicLong[]> counters = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService workers = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "shard-query-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ScatterGather() {
+    }
+
+    /**
+     * Run a query on every shard at once
+     * @param shards Shard map
+     * @param query Query to run on each shard
+     * @return One result per shard, in {@link ShardMap#shards()} order
+     * @throws SQLException if the query fails on any shard
+     */
+    public static <T> List<T> gather(ShardMap shards, IShardQuery<T> query) throws SQLException {
+        List<String> names = shards.shards();
+        if (names.size() == 1) {
+            return Collections.singletonList(runOn(shards, names.get(0), query));
+        }
+
+        List<Future<T>> futures = new ArrayList<>();
+        for (String shard : names) {
+            futures.add(workers.submit(() -> runOn(shards, shard, query)));
+        }
+        List<T> results = new ArrayList<>();
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException("Shard query failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for shards", e);
+        }
+        return results;
+    }
+
+    /**
+     * Run a query on the one database, or on every shard when the data is sharded
+     * @param connection Connection used when the data is not sharded
+     * @param query Query to run
+     * @return One result per database queried
+     * @throws SQLException if the query fails on any of them
+     */
+    public static <T> List<T> acrossShards(Connection connection, IShardQuery<T> query) throws SQLException {
+        ShardMap shards = DatabaseConfig.getShardMap();
+        return shards == null ? Collections.singletonList(query.run(connection)) : gather(shards, query);
+    }
+
+    /**
+     * Run a lookup where its data lives: on the one database, on the shard holding the
+     * continent, or on every shard when the continent is not known
+     * @param connection Connection used when the data is not sharded
+     * @param continent Continent the lookup is limited to, or null if not known
+     * @param query Lookup returning null when it finds nothing
+     * @return The answer, or the first shard's answer that is not null
+     * @throws SQLException if the lookup fails on any shard queried
+     */
+    public static <T> T onShardOf(Connection connection, String continent, IShardQuery<T> query) throws SQLException {
+        ShardMap shards = DatabaseConfig.getShardMap();
+        if (shards == null) {
+            return query.run(connection);
+        }
+        if (continent != null) {
+            return route(shards, continent, query);
+        }
+        for (T answer : gather(shards, query)) {
+            if (answer != null) {
+                return answer;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Run a query on the one shard holding a continent
+     * @param shards Shard map
+     * @param continent Continent the query is limited to
+     * @param query Query to run
+     * @return Result
+     * @throws SQLException if the query fails
+     */
+    public static <T> T route(ShardMap shards, String continent, IShardQuery<T> query) throws SQLException {
+        return runOn(shards, shards.shardFor(continent), query);
+    }
+
+    private static <T> T runOn(ShardMap shards, String shard, IShardQuery<T> query) throws SQLException {
+        AtomicLong[] counter = counters.computeIfAbsent(shard,
+                key -> new AtomicLong[]{new AtomicLong(), new AtomicLong(), new AtomicLong()});
+        long started = System.nanoTime();
+        try (Connection connection = shards.getConnection(shard)) {
+            return query.run(connection);
+        } catch (SQLException e) {
+            counter[1].incrementAndGet();
+            throw new SQLException("Shard " + shard + ": " + e.getMessage(), e.getSQLState(), e);
+        } finally {
+            counter[0].incrementAndGet();
+            counter[2].addAndGet(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Merge lists that are each sorted into one sorted list
+     * @param sorted Lists, each already in order
+     * @param order Order of every list and of the result
+     * @param limit Rows wanted, or -1 for all
+     * @return Merged rows, at most limit
+     */
+    public static <T> List<T> mergeSorted(List<List<T>> sorted, Comparator<? super T> order, int limit) {
+        // Heap entries are {list, position}; the head of each list competes for the next row
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, sorted.size()),
+                (a, b) -> order.compare(sorted.get(a[0]).get(a[1]), sorted.get(b[0]).get(b[1])));
+        for (int i = 0; i < sorted.size(); i++) {
+            if (!sorted.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+
+        List<T> merged = new ArrayList<>();
+        while (!heads.isEmpty() && (limit < 0 || merged.size() < limit)) {
+            int[] head = heads.poll();
+            List<T> list = sorted.get(head[0]);
+            merged.add(list.get(head[1]));
+            if (head[1] + 1 < list.size()) {
+                heads.add(new int[]{head[0], head[1] + 1});
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Get the counters of every shard queried so far
+     * @return One entry per shard
+     */
+    public static List<ShardStats> getStats() {
+        List<ShardStats> stats = new ArrayList<>();
+        counters.forEach((shard, counter) -> {
+            long queries = counter[0].get();
+            stats.add(new ShardStats(shard, queries, counter[1].get(),
+                    queries == 0 ? 0 : counter[2].get() / 1e6 / queries));
+        });
+        stats.sort(Comparator.comparing(ShardStats::shard));
+        return stats;
+    }
+}
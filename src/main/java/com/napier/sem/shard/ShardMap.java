@@ -0,0 +1,125 @@
+package com.napier.sem.shard;
+
+import com.napier.sem.IConnectionProvider;
+import com.napier.sem.data.NameResolver;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Which MySQL instance holds which continents. The world tables are partitioned by
+ * continent, so every country, its cities and its languages live on exactly one shard.
+ * Continents that are not mapped stay on the {@link #DEFAULT_SHARD}, the pool configured
+ * by MYSQL_HOST, so an empty map is an unsharded database.
+ */
+public class ShardMap {
+
+    /**
+     * Shard holding every continent not mapped elsewhere
+     */
+    public static final String DEFAULT_SHARD = "default";
+
+    private final Map<String, String> shardByContinent = new HashMap<>();
+    private final Map<String, String> continentNames = new LinkedHashMap<>();
+    private final Map<String, IConnectionProvider> providers = new LinkedHashMap<>();
+
+    /**
+     * Constructor for ShardMap
+     * @param shardByContinent Shard name per continent
+     * @param providers Connections per shard name; must include {@link #DEFAULT_SHARD}
+     * @throws IllegalArgumentException if a continent maps to a shard without connections
+     */
+    public ShardMap(Map<String, String> shardByContinent, Map<String, IConnectionProvider> providers) {
+        if (!providers.containsKey(DEFAULT_SHARD)) {
+            throw new IllegalArgumentException("A shard map needs a " + DEFAULT_SHARD + " shard");
+        }
+        this.providers.put(DEFAULT_SHARD, providers.get(DEFAULT_SHARD));
+        this.providers.putAll(providers);
+        for (Map.Entry<String, String> entry : shardByContinent.entrySet()) {
+            if (!providers.containsKey(entry.getValue())) {
+                throw new IllegalArgumentException("No connections for shard " + entry.getValue());
+            }
+            this.shardByContinent.put(NameResolver.normalize(entry.getKey()), entry.getValue());
+            continentNames.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Parse a SHARD_MAP value such as "Asia=db-asia:3306,Oceania=db-asia:3306,Europe=db-europe:3306"
+     * @param spec Comma-separated continent=host:port pairs
+     * @return Address per continent, in the order given
+     * @throws IllegalArgumentException if a pair is malformed
+     */
+    public static Map<String, String> parse(String spec) {
+        Map<String, String> addresses = new LinkedHashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return addresses;
+        }
+        for (String pair : spec.split(",")) {
+            int separator = pair.indexOf('=');
+            String continent = separator < 0 ? "" : pair.substring(0, separator).trim();
+            String address = separator < 0 ? "" : pair.substring(separator + 1).trim();
+            if (continent.isEmpty() || address.isEmpty()) {
+                throw new IllegalArgumentException("Invalid shard mapping: " + pair.trim()
+                        + " (expected continent=host:port)");
+            }
+            addresses.put(continent, address);
+        }
+        return addresses;
+    }
+
+    /**
+     * Get the shard holding a continent
+     * @param continent Continent name, in any case
+     * @return Shard name, the default shard if the continent is not mapped
+     */
+    public String shardFor(String continent) {
+        return shardByContinent.getOrDefault(NameResolver.normalize(continent), DEFAULT_SHARD);
+    }
+
+    /**
+     * Borrow a connection to a shard
+     * @param shard Shard name
+     * @return Connection; the caller closes it
+     * @throws SQLException if no connection can be obtained
+     */
+    public Connection getConnection(String shard) throws SQLException {
+        IConnectionProvider provider = providers.get(shard);
+        if (provider == null) {
+            throw new SQLException("Unknown shard: " + shard);
+        }
+        return provider.getConnection();
+    }
+
+    /**
+     * Get every shard, the default first
+     * @return Shard names
+     */
+    public List<String> shards() {
+        return new ArrayList<>(providers.keySet());
+    }
+
+    /**
+     * Get the message shown instead of running a command that is not shard aware
+     * @param command Execution command
+     * @return Message
+     */
+    public static String unsupportedMessage(String command) {
+        return "Not available while the data is sharded: " + command
+                + " would only read the default database. Run it against an unsharded database.";
+    }
+
+    /**
+     * Get the continents mapped away from the default shard
+     * @return Shard name per continent, in the order configured
+     */
+    public Map<String, String> getContinentShards() {
+        return Collections.unmodifiableMap(continentNames);
+    }
+}
@@ -0,0 +1,110 @@
+package com.napier.sem.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+
+/**
+ * Utility class for capturing what a command prints to standard output.
+ * Commands write their reports directly to System.out, so the output of a single
+ * execution is captured by routing System.out per thread: while a thread is
+ * capturing, everything it prints goes to its own buffer, and every other thread
+ * keeps printing to the original stream. This lets several commands run
+ * concurrently on worker threads without their reports interleaving.
+ */
+public class OutputCapture {
+
+    /**
+     * Work whose printed output should be captured
+     */
+    @FunctionalInterface
+    public interface CapturedTask {
+        void run() throws Exception;
+    }
+
+    private static final ThreadLocal<ByteArrayOutputStream> BUFFER = new ThreadLocal<>();
+    private static PrintStream router;
+
+    /**
+     * Runs the task and returns everything it printed to System.out on the calling thread.
+     * Output printed before a failure is discarded along with the exception.
+     *
+     * @param task Work to run
+     * @return Captured output
+     * @throws Exception whatever the task throws
+     */
+    public static String capture(CapturedTask task) throws Exception {
+        ensureInstalled();
+
+        ByteArrayOutputStream previous = BUFFER.get();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        BUFFER.set(buffer);
+        try {
+            task.run();
+            System.out.flush();
+            return buffer.toString(Charset.defaultCharset());
+        } finally {
+            if (previous == null) {
+                BUFFER.remove();
+            } else {
+                BUFFER.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Installs the routing stream as System.out unless it is already installed.
+     * If something else replaced System.out since the last install (tests do this),
+     * the new stream becomes the fallback for threads that are not capturing.
+     */
+    private static synchronized void ensureInstalled() {
+        if (router != null && System.out == router) {
+            return;
+        }
+
+        PrintStream fallback = System.out;
+        router = new PrintStream(new RoutingOutputStream(fallback), true, Charset.defaultCharset());
+        System.setOut(router);
+    }
+
+    /**
+     * Output stream that writes to the current thread's capture buffer when one is set
+     */
+    private static class RoutingOutputStream extends OutputStream {
+
+        private final PrintStream fallback;
+
+        RoutingOutputStream(PrintStream fallback) {
+            this.fallback = fallback;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ByteArrayOutputStream buffer = BUFFER.get();
+            if (buffer != null) {
+                buffer.write(b);
+            } else {
+                fallback.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ByteArrayOutputStream buffer = BUFFER.get();
+            if (buffer != null) {
+                buffer.write(b, off, len);
+            } else {
+                fallback.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() {
+            if (BUFFER.get() == null) {
+                fallback.flush();
+            }
+        }
+    }
+}
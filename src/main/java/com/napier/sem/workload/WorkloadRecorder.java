@@ -0,0 +1,158 @@
+package com.napier.sem.workload;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only log of the commands a running application was given, for replaying later.
+ * The file is plain text, one command per line and tab-separated:
+ * <pre>
+ * #workload 1 &lt;start, epoch ms&gt;
+ * &lt;ms since previous line&gt;  &lt;elapsed ms&gt;  &lt;ok|err&gt;  &lt;client&gt;  &lt;command&gt;  &lt;argument&gt;...
+ * </pre>
+ * Times are stored as gaps between commands rather than timestamps, so lines stay short.
+ * Every run of the application appends a new header; on reading, each run follows straight
+ * on from the previous one, so the hours between runs are not replayed. Each line is
+ * flushed as it is written, so a crash loses at most the command that was running.
+ */
+public class WorkloadRecorder implements Closeable {
+
+    /**
+     * Start of the header line of every capture
+     */
+    public static final String HEADER = "#workload 1";
+
+    /**
+     * One captured command
+     * @param offsetMillis Time since the start of the workload
+     * @param elapsedMillis How long the command took when captured
+     * @param ok Whether it ran normally, rather than being refused, failing or served stale
+     * @param client Client that issued it
+     * @param args Command arguments, including the command name at index 0
+     */
+    public record Entry(long offsetMillis, long elapsedMillis, boolean ok, String client, String[] args) {
+    }
+
+    private final BufferedWriter writer;
+    private long lastMillis;
+    private long recorded;
+
+    /**
+     * Open a capture file for appending and write a header
+     * @param file File to append to, created if missing
+     * @throws IOException if the file cannot be opened
+     */
+    public WorkloadRecorder(Path file) throws IOException {
+        this(file, System.currentTimeMillis());
+    }
+
+    WorkloadRecorder(Path file, long startMillis) throws IOException {
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        lastMillis = startMillis;
+        writer.write(HEADER + " " + startMillis);
+        writer.newLine();
+        writer.flush();
+    }
+
+    /**
+     * Open the capture file named by WORKLOAD_CAPTURE
+     * @return Recorder, or null if capture is off or the file cannot be opened
+     */
+    public static WorkloadRecorder fromEnvironment() {
+        String file = System.getenv("WORKLOAD_CAPTURE");
+        if (file == null || file.isBlank()) {
+            return null;
+        }
+        try {
+            WorkloadRecorder recorder = new WorkloadRecorder(Path.of(file.trim()));
+            System.out.println("  Capturing workload to " + file.trim());
+            return recorder;
+        } catch (IOException e) {
+            System.out.println("  Workload not captured: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Append one command
+     * @param client Client that issued it
+     * @param args Command arguments, including the command name at index 0
+     * @param startedMillis When it started, epoch ms
+     * @param elapsedMillis How long it took
+     * @param ok Whether it ran normally, rather than being refused, failing or served stale
+     */
+    public synchronized void record(String client, String[] args, long startedMillis, long elapsedMillis, boolean ok) {
+        StringBuilder line = new StringBuilder();
+        line.append(Math.max(0, startedMillis - lastMillis)).append('\t').append(elapsedMillis).append('\t')
+                .append(ok ? "ok" : "err").append('\t').append(clean(client));
+        for (String arg : args) {
+            line.append('\t').append(clean(arg));
+        }
+        lastMillis = Math.max(lastMillis, startedMillis);
+        try {
+            writer.write(line.toString());
+            writer.newLine();
+            writer.flush();
+            recorded++;
+        } catch (IOException e) {
+            // Capture must never break the command it describes
+            System.err.println("  Workload capture failed: " + e.getMessage());
+        }
+    }
+
+    private static String clean(String value) {
+        return value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    /**
+     * Read every command in a capture file, runs one after another
+     * @param file Capture file
+     * @return Commands in the order they were issued
+     * @throws IOException if the file cannot be read or a line is malformed
+     */
+    public static List<Entry> read(Path file) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long offset = 0;
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                if (fields.length < 5) {
+                    throw new IOException("Line " + lineNumber + ": expected at least 5 fields");
+                }
+                try {
+                    offset += Long.parseLong(fields[0]);
+                    entries.add(new Entry(offset, Long.parseLong(fields[1]), "ok".equals(fields[2]), fields[3],
+                            Arrays.copyOfRange(fields, 4, fields.length)));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Line " + lineNumber + ": " + e.getMessage());
+                }
+            }
+        }
+        return entries;
+    }
+
+    public synchronized long getRecorded() {
+        return recorded;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
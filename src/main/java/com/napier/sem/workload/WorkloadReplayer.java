@@ -0,0 +1,209 @@
+package com.napier.sem.workload;
+
+import com.napier.sem.ICommand;
+import com.napier.sem.resilience.ResilientCommandExecutor;
+import com.napier.sem.utils.OutputCapture;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Re-issues a captured workload against this build, to compare releases against real
+ * traffic offline. Commands are dispatched at their captured offsets divided by the speed,
+ * so 1 is the original pace, 10 is ten times faster and 0 sends them as fast as the
+ * workers take them. A fixed number of workers run them, each through the same path as
+ * the prompt, so rate limits, lanes and caches apply as they did in production.
+ * <p>
+ * Latency is measured from when a command was due, not from when a worker picked it up:
+ * a command that waited for a worker took that long as far as its client is concerned,
+ * and leaving the wait out would hide exactly the queueing a slower release causes.
+ * Commands this build does not know are skipped; commands the executor refuses before
+ * running them are counted as rejected.
+ */
+public class WorkloadReplayer {
+
+    /**
+     * Runs one command as the application would
+     */
+    @FunctionalInterface
+    public interface Target {
+
+        /**
+         * Run a command on behalf of a client, printing its output
+         * @param client Client identity
+         * @param command Command
+         * @param args Command arguments, including the command name at index 0
+         * @throws Exception if the command fails
+         */
+        void execute(String client, ICommand command, String[] args) throws Exception;
+    }
+
+    /**
+     * Latency distribution of one command, or of the whole workload
+     * @param command Execution command, or "(all)"
+     * @param count Commands run
+     * @param failed Commands that threw or timed out
+     * @param rejected Commands refused by a rate limit, a full queue or a queue timeout
+     * @param meanMillis Mean latency
+     * @param p50Millis Median latency
+     * @param p90Millis 90th percentile latency
+     * @param p99Millis 99th percentile latency
+     * @param maxMillis Longest latency
+     * @param capturedP50Millis Median time the command took when captured
+     */
+    public record Latency(String command, int count, int failed, int rejected, double meanMillis, long p50Millis,
+                          long p90Millis, long p99Millis, long maxMillis, long capturedP50Millis) {
+    }
+
+    /**
+     * Outcome of a replay
+     * @param commands Latency per command, by name
+     * @param overall Latency over every command
+     * @param skipped Commands not known to this build
+     * @param wallMillis Time the replay took
+     * @param capturedMillis Time the workload took when captured
+     * @param speed Speed it was replayed at, 0 for as fast as possible
+     * @param concurrency Workers used
+     */
+    public record Result(List<Latency> commands, Latency overall, int skipped, long wallMillis,
+                         long capturedMillis, double speed, int concurrency) {
+    }
+
+    /**
+     * Outcome of one replayed command
+     */
+    private record Sample(String command, long latencyMillis, long capturedMillis, boolean failed, boolean rejected) {
+    }
+
+    private final Function<String, ICommand> commands;
+    private final Target target;
+
+    /**
+     * Constructor for WorkloadReplayer
+     * @param commands Looks up a command by its execution command
+     * @param target Runs a command as the application would
+     */
+    public WorkloadReplayer(Function<String, ICommand> commands, Target target) {
+        this.commands = commands;
+        this.target = target;
+    }
+
+    /**
+     * Replay a workload and wait for every command to finish
+     * @param entries Captured commands, in the order they were issued
+     * @param speed Multiple of the original pace, or 0 or less for as fast as possible
+     * @param concurrency Commands that may run at once
+     * @return Latency distributions
+     * @throws InterruptedException if interrupted while dispatching or waiting
+     */
+    public Result replay(List<WorkloadRecorder.Entry> entries, double speed, int concurrency) throws InterruptedException {
+        int workers = Math.max(1, concurrency);
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "workload-replay-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<Sample> samples = new ArrayList<>();
+        int skipped = 0;
+        long started = System.nanoTime();
+        try {
+            for (WorkloadRecorder.Entry entry : entries) {
+                ICommand command = commands.apply(entry.args()[0].toLowerCase());
+                if (command == null) {
+                    skipped++;
+                    continue;
+                }
+                long due = started + (speed > 0 ? TimeUnit.MILLISECONDS.toNanos((long) (entry.offsetMillis() / speed)) : 0);
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                long dueAt = speed > 0 ? due : System.nanoTime();
+                pool.execute(() -> {
+                    Sample sample = run(entry, command, dueAt);
+                    synchronized (samples) {
+                        samples.add(sample);
+                    }
+                });
+            }
+            // A replay ends when its last command does, however long that takes
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        Map<String, List<Sample>> byCommand = new TreeMap<>();
+        for (Sample sample : samples) {
+            byCommand.computeIfAbsent(sample.command(), key -> new ArrayList<>()).add(sample);
+        }
+        List<Latency> latencies = new ArrayList<>();
+        for (Map.Entry<String, List<Sample>> group : byCommand.entrySet()) {
+            latencies.add(summarise(group.getKey(), group.getValue()));
+        }
+        long capturedMillis = entries.isEmpty() ? 0 : entries.get(entries.size() - 1).offsetMillis();
+        return new Result(latencies, summarise("(all)", samples), skipped, wallMillis, capturedMillis, speed, workers);
+    }
+
+    private Sample run(WorkloadRecorder.Entry entry, ICommand command, long dueAt) {
+        String name = command.getExcecutionCommand();
+        boolean failed = false;
+        String output = "";
+        try {
+            output = OutputCapture.capture(() -> target.execute(entry.client(), command, entry.args()));
+        } catch (Exception e) {
+            failed = true;
+        }
+        long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - dueAt);
+        ResilientCommandExecutor.Outcome outcome = ResilientCommandExecutor.Outcome.of(output);
+        boolean rejected = outcome == ResilientCommandExecutor.Outcome.REJECTED;
+        failed |= outcome == ResilientCommandExecutor.Outcome.FAILED;
+        return new Sample(name, latency, entry.elapsedMillis(), failed, rejected);
+    }
+
+    private static Latency summarise(String command, List<Sample> samples) {
+        long[] latencies = new long[samples.size()];
+        long[] captured = new long[samples.size()];
+        int failed = 0;
+        int rejected = 0;
+        double total = 0;
+        for (int i = 0; i < latencies.length; i++) {
+            Sample sample = samples.get(i);
+            latencies[i] = sample.latencyMillis();
+            captured[i] = sample.capturedMillis();
+            total += sample.latencyMillis();
+            failed += sample.failed() ? 1 : 0;
+            rejected += sample.rejected() ? 1 : 0;
+        }
+        Arrays.sort(latencies);
+        Arrays.sort(captured);
+        return new Latency(command, latencies.length, failed, rejected,
+                latencies.length == 0 ? 0 : total / latencies.length, percentile(latencies, 50),
+                percentile(latencies, 90), percentile(latencies, 99),
+                latencies.length == 0 ? 0 : latencies[latencies.length - 1], percentile(captured, 50));
+    }
+
+    /**
+     * Get the value at a percentile of sorted values, using the nearest-rank method
+     * @param sorted Values in ascending order
+     * @param percentile Percentile from 0 to 100
+     * @return Value, or 0 if there are none
+     */
+    static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.max(0, (int) Math.ceil(percentile / 100 * sorted.length) - 1)];
+    }
+}
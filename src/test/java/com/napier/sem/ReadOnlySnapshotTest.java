@@ -0,0 +1,96 @@
+package com.napier.sem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReadOnlySnapshot
+ */
+class ReadOnlySnapshotTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    @Mock
+    private Statement mockStatement;
+
+    @Mock
+    private ICommand mockCommand;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(mockConnection.createStatement()).thenReturn(mockStatement);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseConfig.setSnapshotReadsEnabled(true);
+    }
+
+    @Test
+    @DisplayName("Should start a read-only consistent snapshot and commit it once")
+    void testBeginAndClose() throws SQLException {
+        long scopes = ReadOnlySnapshot.getScopes();
+
+        ReadOnlySnapshot snapshot = ReadOnlySnapshot.begin(mockConnection);
+        snapshot.close();
+        snapshot.close();
+
+        verify(mockStatement).execute(ReadOnlySnapshot.BEGIN_SQL);
+        verify(mockStatement, times(1)).execute("COMMIT");
+        assertEquals(scopes + 1, ReadOnlySnapshot.getScopes());
+        assertTrue(ReadOnlySnapshot.getAverageOverheadMicros() >= 0);
+    }
+
+    @Test
+    @DisplayName("Should run an opted-in command between begin and commit")
+    void testExecuteOptedIn() throws SQLException {
+        when(mockCommand.usesConsistentSnapshot()).thenReturn(true);
+        String[] args = {"language-dist"};
+
+        ReadOnlySnapshot.execute(mockCommand, mockConnection, args);
+
+        InOrder order = inOrder(mockStatement, mockCommand);
+        order.verify(mockStatement).execute(ReadOnlySnapshot.BEGIN_SQL);
+        order.verify(mockCommand).execute(mockConnection, args);
+        order.verify(mockStatement).execute("COMMIT");
+    }
+
+    @Test
+    @DisplayName("Should commit the snapshot even when the command fails")
+    void testExecuteFailure() throws SQLException {
+        when(mockCommand.usesConsistentSnapshot()).thenReturn(true);
+        doThrow(new SQLException("boom")).when(mockCommand).execute(any(), any());
+
+        assertThrows(SQLException.class, () -> ReadOnlySnapshot.execute(mockCommand, mockConnection, new String[]{"x"}));
+
+        verify(mockStatement).execute("COMMIT");
+    }
+
+    @Test
+    @DisplayName("Should run in autocommit when the command does not opt in or snapshots are disabled")
+    void testExecuteAutocommit() throws SQLException {
+        ReadOnlySnapshot.execute(mockCommand, mockConnection, new String[]{"x"});
+
+        when(mockCommand.usesConsistentSnapshot()).thenReturn(true);
+        DatabaseConfig.setSnapshotReadsEnabled(false);
+        ReadOnlySnapshot.execute(mockCommand, mockConnection, new String[]{"x"});
+
+        verify(mockCommand, times(2)).execute(eq(mockConnection), any());
+        verify(mockStatement, never()).execute(anyString());
+    }
+}
@@ -0,0 +1,63 @@
+package com.napier.sem.args;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ArgumentTokenizer
+ */
+class ArgumentTokenizerTest {
+
+    @Test
+    @DisplayName("Should split on any whitespace")
+    void testSplitsOnWhitespace() {
+        assertArrayEquals(new String[]{"top-cities-continent", "Asia", "5"},
+                ArgumentTokenizer.tokenize("top-cities-continent   Asia\t5"));
+    }
+
+    @Test
+    @DisplayName("Should keep quoted words together")
+    void testQuotedArguments() {
+        assertArrayEquals(new String[]{"country-pop", "United Kingdom"},
+                ArgumentTokenizer.tokenize("country-pop \"United Kingdom\""));
+        assertArrayEquals(new String[]{"region-pop", "Eastern Asia"},
+                ArgumentTokenizer.tokenize("region-pop 'Eastern Asia'"));
+    }
+
+    @Test
+    @DisplayName("Should keep apostrophes inside words")
+    void testApostropheInsideWord() {
+        assertArrayEquals(new String[]{"country-pop", "Côte", "d'Ivoire"},
+                ArgumentTokenizer.tokenize("country-pop Côte d'Ivoire"));
+    }
+
+    @Test
+    @DisplayName("Should honour escapes and keep empty quoted arguments")
+    void testEscapesAndEmptyQuotes() {
+        assertArrayEquals(new String[]{"search-names", "say \"hi\""},
+                ArgumentTokenizer.tokenize("search-names \"say \\\"hi\\\"\""));
+        assertArrayEquals(new String[]{"region-pop", ""},
+                ArgumentTokenizer.tokenize("region-pop \"\""));
+    }
+
+    @Test
+    @DisplayName("Should keep backslashes in paths, escaping only quotes and backslashes inside quotes")
+    void testBackslashesInPaths() {
+        assertArrayEquals(new String[]{"city-pop-batch", "@C:\\data\\cities.txt"},
+                ArgumentTokenizer.tokenize("city-pop-batch @C:\\data\\cities.txt"));
+        assertArrayEquals(new String[]{"city-pop-batch", "@C:\\my data\\cities.txt"},
+                ArgumentTokenizer.tokenize("city-pop-batch \"@C:\\my data\\cities.txt\""));
+        assertArrayEquals(new String[]{"search-names", "a\\b"},
+                ArgumentTokenizer.tokenize("search-names 'a\\\\b'"));
+    }
+
+    @Test
+    @DisplayName("Should run an unterminated quote to the end of the line")
+    void testUnterminatedQuote() {
+        assertArrayEquals(new String[]{"country-pop", "United Kingdom"},
+                ArgumentTokenizer.tokenize("country-pop \"United Kingdom"));
+        assertEquals(0, ArgumentTokenizer.tokenize("   ").length);
+    }
+}
@@ -0,0 +1,113 @@
+package com.napier.sem.args;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BoundArguments
+ */
+class BoundArgumentsTest {
+
+    private static final List<Parameter> TOP_N = List.of(Parameter.text("continent"), Parameter.count("N"));
+    private static final List<Parameter> OPTIONAL_N = List.of(Parameter.text("district"), Parameter.count("N", 5));
+
+    @Test
+    @DisplayName("Should join multi-word text before a trailing count")
+    void testMultiWordText() {
+        BoundArguments bound = BoundArguments.bind("top-cities-continent", TOP_N,
+                new String[]{"top-cities-continent", "North", "America", "10"});
+
+        assertEquals("North America", bound.text("continent"));
+        assertEquals(10, bound.count("N"));
+    }
+
+    @Test
+    @DisplayName("Should intern bound text")
+    void testTextIsInterned() {
+        BoundArguments bound = BoundArguments.bind("top-cities-continent", TOP_N,
+                new String[]{"top-cities-continent", " South ", "America", "3"});
+
+        assertSame("South America", bound.text("continent"));
+    }
+
+    @Test
+    @DisplayName("Should report missing, empty and invalid arguments")
+    void testValidationErrors() {
+        ArgumentException missing = assertThrows(ArgumentException.class, () ->
+                BoundArguments.bind("top-cities-continent", TOP_N, new String[]{"top-cities-continent", "Asia"}));
+        assertTrue(missing.getMessage().contains("Please provide a continent name and N"));
+
+        ArgumentException empty = assertThrows(ArgumentException.class, () ->
+                BoundArguments.bind("top-cities-continent", TOP_N, new String[]{"top-cities-continent", " ", "5"}));
+        assertTrue(empty.getMessage().contains("Continent name cannot be empty"));
+
+        ArgumentException invalid = assertThrows(ArgumentException.class, () ->
+                BoundArguments.bind("top-cities-continent", TOP_N, new String[]{"top-cities-continent", "Asia", "abc"}));
+        assertTrue(invalid.getMessage().contains("must be a valid integer"));
+
+        ArgumentException negative = assertThrows(ArgumentException.class, () ->
+                BoundArguments.bind("top-cities-continent", TOP_N, new String[]{"top-cities-continent", "Asia", "-5"}));
+        assertTrue(negative.getMessage().contains("must be greater than zero"));
+    }
+
+    @Test
+    @DisplayName("Should only take an optional count when the last word is a number")
+    void testOptionalCount() {
+        BoundArguments withCount = BoundArguments.bind("top-cities-district", OPTIONAL_N,
+                new String[]{"top-cities-district", "New", "York", "3"});
+        assertEquals("New York", withCount.text("district"));
+        assertEquals(3, withCount.count("N"));
+
+        BoundArguments withoutCount = BoundArguments.bind("top-cities-district", OPTIONAL_N,
+                new String[]{"top-cities-district", "New", "York"});
+        assertEquals("New York", withoutCount.text("district"));
+        assertEquals(5, withoutCount.count("N"));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the default with a warning for an invalid optional count")
+    void testInvalidOptionalCount() {
+        BoundArguments bound = BoundArguments.bind("top-cities", List.of(Parameter.count("N", 5)),
+                new String[]{"top-cities", "0"});
+
+        assertEquals(5, bound.count("N"));
+        assertEquals(1, bound.getWarnings().size());
+        assertTrue(bound.getWarnings().get(0).contains("Using default value of 5"));
+    }
+
+    @Test
+    @DisplayName("Should give equivalent invocations the same cache key")
+    void testCacheKeyIsNormalised() {
+        List<Parameter> optional = List.of(Parameter.count("N", 5));
+        assertEquals(BoundArguments.bind("top-cities", optional, new String[]{"top-cities"}).cacheKey(),
+                BoundArguments.bind("top-cities", optional, new String[]{"top-cities", "5"}).cacheKey());
+
+        assertEquals(BoundArguments.bind("top-cities-continent", TOP_N,
+                        new String[]{"top-cities-continent", "North America", "5"}).cacheKey(),
+                BoundArguments.bind("top-cities-continent", TOP_N,
+                        new String[]{"top-cities-continent", "north", "AMERICA", "5"}).cacheKey());
+    }
+
+    @Test
+    @DisplayName("Should only be complete when every argument was bound as typed")
+    void testIsComplete() {
+        List<Parameter> optional = List.of(Parameter.count("N", 5));
+
+        assertTrue(BoundArguments.bind("top-cities", optional, new String[]{"top-cities", "5"}).isComplete());
+        assertFalse(BoundArguments.bind("top-cities", optional, new String[]{"top-cities", "5", "extra"}).isComplete());
+        assertFalse(BoundArguments.bind("top-cities", optional, new String[]{"top-cities", "0"}).isComplete());
+        assertTrue(BoundArguments.bind("top-cities-continent", TOP_N,
+                new String[]{"top-cities-continent", "North", "America", "5"}).isComplete());
+    }
+
+    @Test
+    @DisplayName("Should build usage from the declared parameters")
+    void testUsage() {
+        assertEquals("top-cities-continent <continent> <N>", Parameter.usage("top-cities-continent", TOP_N));
+        assertEquals("top-cities-district <district> [N]", Parameter.usage("top-cities-district", OPTIONAL_N));
+    }
+}
@@ -0,0 +1,54 @@
+package com.napier.sem.batch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BatchKeys
+ */
+class BatchKeysTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should split inline keys on commas and keep multi-word names")
+    void testInlineKeys() throws IOException {
+        List<String> keys = BatchKeys.parse(new String[]{"city-pop-batch", "London,", "New", "York", ",,", "Rio", "de", "Janeiro"});
+
+        assertEquals(List.of("London", "New York", "Rio de Janeiro"), keys);
+    }
+
+    @Test
+    @DisplayName("Should read keys from a file, skipping blanks and comments")
+    void testFileKeys() throws IOException {
+        Path file = tempDir.resolve("keys.txt");
+        Files.write(file, List.of("# cities", "London", "", "  New   York  ", "London"));
+
+        List<String> keys = BatchKeys.parse(new String[]{"city-pop-batch", "@" + file});
+
+        assertEquals(List.of("London", "New York", "London"), keys);
+    }
+
+    @Test
+    @DisplayName("Should report a missing key file")
+    void testMissingFile() {
+        assertThrows(NoSuchFileException.class,
+                () -> BatchKeys.parse(new String[]{"city-pop-batch", "@" + tempDir.resolve("missing.txt")}));
+    }
+
+    @Test
+    @DisplayName("Should return no keys when none are given")
+    void testNoKeys() throws IOException {
+        assertTrue(BatchKeys.parse(new String[]{"city-pop-batch"}).isEmpty());
+    }
+}
@@ -0,0 +1,110 @@
+package com.napier.sem.commands.city;
+
+import com.napier.sem.batch.BatchLookupCommandBase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CityPopulationBatchCommand
+ */
+class CityPopulationBatchCommandTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    @Mock
+    private PreparedStatement mockStatement;
+
+    @Mock
+    private ResultSet mockResultSet;
+
+    private CityPopulationBatchCommand command;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+        command = new CityPopulationBatchCommand();
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command")
+    void testExecutionCommand() {
+        assertEquals("city-pop-batch", command.getExcecutionCommand());
+    }
+
+    @Test
+    @DisplayName("Should print results in input order with NOT FOUND markers")
+    void testInputOrderAndNotFound() throws SQLException {
+        when(mockResultSet.next()).thenReturn(true, true, true, false);
+        when(mockResultSet.getString("CityName")).thenReturn("Paris", "London", "London");
+        when(mockResultSet.getString("CountryName")).thenReturn("France", "Canada", "United Kingdom");
+        when(mockResultSet.getLong("Population")).thenReturn(2125246L, 339917L, 7285000L);
+
+        command.execute(mockConnection, new String[]{"city-pop-batch", "london,", "Atlantis,", "Paris,", "LONDON"});
+
+        verify(mockConnection, times(1)).prepareStatement(contains("WHERE ci.Name IN (?, ?, ?)"));
+        String output = outputStream.toString();
+        int london = output.indexOf("london ");
+        int atlantis = output.indexOf("Atlantis");
+        int paris = output.indexOf("Paris ");
+        assertTrue(london < atlantis && atlantis < paris);
+        assertTrue(output.contains("NOT FOUND"));
+        // The most populous London wins, as with city-pop
+        assertTrue(output.contains("United Kingdom"));
+        assertFalse(output.contains("Canada"));
+        assertTrue(output.contains("4 keys (3 distinct): 3 found, 1 not found"));
+    }
+
+    @Test
+    @DisplayName("Should resolve 10k keys in chunked queries and report throughput")
+    void testTenThousandKeys() throws SQLException {
+        when(mockResultSet.next()).thenReturn(false);
+        StringBuilder keys = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            keys.append("City ").append(i).append(',');
+        }
+
+        command.execute(mockConnection, new String[]{"city-pop-batch", keys.toString()});
+
+        verify(mockConnection, times(10_000 / BatchLookupCommandBase.CHUNK_SIZE)).prepareStatement(anyString());
+        String output = outputStream.toString();
+        assertTrue(output.contains("10000 keys (10000 distinct): 0 found, 10000 not found"));
+        assertTrue(output.contains("keys/s"));
+    }
+
+    @Test
+    @DisplayName("Should print usage when no keys are given")
+    void testNoKeys() throws SQLException {
+        command.execute(mockConnection, new String[]{"city-pop-batch"});
+
+        verify(mockConnection, never()).prepareStatement(anyString());
+        assertTrue(outputStream.toString().contains("Usage: city-pop-batch"));
+    }
+}
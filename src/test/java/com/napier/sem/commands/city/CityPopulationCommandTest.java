@@ -1,8 +1,12 @@
 package com.napier.sem.commands.city;
 
+import com.napier.sem.data.SummaryTableService;
+import com.napier.sem.data.WorldData;
+import com.napier.sem.data.WorldSnapshot;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -10,9 +14,14 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -31,12 +40,84 @@ class CityPopulationCommandTest {
     @Mock
     private ResultSet mockResultSet;
 
+    @Mock
+    private Connection summaryConnection;
+
+    @Mock
+    private Statement summaryStatement;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         command = new CityPopulationCommand();
     }
 
+    @AfterEach
+    void tearDown() {
+        WorldData.clear();
+        SummaryTableService.install(null);
+    }
+
+    private void installSnapshot() {
+        WorldData.install(new WorldSnapshot(1,
+                List.of(new WorldSnapshot.City(206, "São Paulo", "BRA", "São Paulo", 9968485)),
+                List.of(), List.of()));
+    }
+
+    @Test
+    @DisplayName("Should query by city ID when an unaccented name resolves")
+    void testExecuteWithResolvedCity() throws SQLException {
+        installSnapshot();
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(false);
+
+        command.execute(mockConnection, new String[]{"city-pop", "Sao Paulo"});
+
+        verify(mockConnection).prepareStatement(contains("ci.ID = ?"));
+        verify(mockStatement).setInt(1, 206);
+    }
+
+    @Test
+    @DisplayName("Should auto-resolve a misspelt city name")
+    void testExecuteWithMisspeltCity() throws SQLException {
+        installSnapshot();
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(false);
+
+        command.execute(mockConnection, new String[]{"city-pop", "Sao Paolo"});
+
+        verify(mockStatement).setInt(1, 206);
+    }
+
+    @Test
+    @DisplayName("Should answer unknown cities without querying the database")
+    void testExecuteWithUnknownCity() throws SQLException {
+        installSnapshot();
+
+        command.execute(mockConnection, new String[]{"city-pop", "Gotham"});
+
+        verify(mockConnection, never()).prepareStatement(anyString());
+    }
+
+    @Test
+    @DisplayName("Should read the urban total from the country summary when it is fresh")
+    void testExecuteWithFreshSummary() throws SQLException {
+        when(summaryConnection.createStatement()).thenReturn(summaryStatement);
+        SummaryTableService summaries = new SummaryTableService(() -> summaryConnection, 1000);
+        summaries.refreshNow(1);
+        SummaryTableService.install(summaries);
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(false);
+
+        command.execute(mockConnection, new String[]{"city-pop", "Tokyo"});
+
+        verify(mockConnection).prepareStatement(contains("FROM summary_country"));
+        verify(mockConnection, never()).prepareStatement(contains("SUM(c2.Population)"));
+    }
+
     @Test
     @DisplayName("Should have proper execution command")
     void testExecutionCommand() {
@@ -1,5 +1,7 @@
 package com.napier.sem.commands.continent;
 
+import com.napier.sem.data.SummaryTableService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -9,9 +11,11 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.Mockito.*;
 
 /**
@@ -41,6 +45,11 @@ class PopulationByContinentCommandTest {
         when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
     }
 
+    @AfterEach
+    void tearDown() {
+        SummaryTableService.install(null);
+    }
+
     @Test
     void testConstructor() {
         assertEquals("population-continent", command.getExcecutionCommand());
@@ -302,7 +311,7 @@ class PopulationByContinentCommandTest {
 
         // Then: Verify SQL uses SUM aggregation
         verify(mockConnection).prepareStatement(contains("SUM(co.Population)"));
-        verify(mockConnection).prepareStatement(contains("SUM(ci.Population)"));
+        verify(mockConnection).prepareStatement(contains("SUM(ci.UrbanPopulation)"));
     }
 
     @Test
@@ -340,4 +349,28 @@ class PopulationByContinentCommandTest {
         verify(mockResultSet).getLong("TotalPopulation");
         verify(mockResultSet).getLong("UrbanPopulation");
     }
+
+    @Test
+    void testSumsCitiesPerCountryBeforeJoining() throws SQLException {
+        when(mockResultSet.next()).thenReturn(false);
+
+        command.execute(mockConnection, new String[]{"population-continent"});
+
+        // Joining raw city rows would count each country's population once per city
+        verify(mockConnection).prepareStatement(contains("FROM city GROUP BY CountryCode"));
+    }
+
+    @Test
+    void testReadsContinentSummaryWhenFresh() throws SQLException {
+        Connection summaryConnection = mock(Connection.class);
+        when(summaryConnection.createStatement()).thenReturn(mock(Statement.class));
+        SummaryTableService summaries = new SummaryTableService(() -> summaryConnection, 1000);
+        summaries.refreshNow(1);
+        SummaryTableService.install(summaries);
+        when(mockResultSet.next()).thenReturn(false);
+
+        command.execute(mockConnection, new String[]{"population-continent"});
+
+        verify(mockConnection).prepareStatement(contains("FROM summary_continent"));
+    }
 }
@@ -0,0 +1,96 @@
+package com.napier.sem.commands.country;
+
+import com.napier.sem.data.WorldData;
+import com.napier.sem.data.WorldSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CountryPopulationBatchCommand
+ */
+class CountryPopulationBatchCommandTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    private CountryPopulationBatchCommand command;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        command = new CountryPopulationBatchCommand();
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+        WorldData.clear();
+    }
+
+    @Test
+    @DisplayName("Should answer from the in-memory index without querying")
+    void testInMemoryLookup() throws SQLException {
+        WorldData.install(new WorldSnapshot(1,
+                List.of(new WorldSnapshot.City(456, "London", "GBR", "England", 7285000),
+                        new WorldSnapshot.City(457, "Birmingham", "GBR", "England", 1013000)),
+                List.of(new WorldSnapshot.Country("GBR", "United Kingdom", "Europe", "British Islands",
+                        242900, 1066, 59623400, 77.7, 1378330.0, 1296830.0, 456)),
+                List.of()));
+
+        command.execute(mockConnection, new String[]{"country-pop-batch", "gbr,", "Atlantis,", "united", "kingdom"});
+
+        verify(mockConnection, never()).prepareStatement(anyString());
+        String output = outputStream.toString();
+        assertTrue(output.contains("8,298,000"));
+        assertTrue(output.contains("51,325,400"));
+        assertTrue(output.indexOf("gbr") < output.indexOf("Atlantis"));
+        assertTrue(output.contains("3 keys (3 distinct): 2 found, 1 not found in"));
+        assertTrue(output.contains("via in-memory index"));
+    }
+
+    @Test
+    @DisplayName("Should match country codes as well as names when querying")
+    void testQueryMatchesCodes() throws SQLException {
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(mockConnection.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true, true, false);
+        when(rs.getString("Code")).thenReturn("GBR", "FRA");
+        when(rs.getString("Country")).thenReturn("United Kingdom", "France");
+        when(rs.getLong("TotalPopulation")).thenReturn(59623400L, 59225700L);
+        when(rs.getLong("UrbanPopulation")).thenReturn(8298000L, 9000000L);
+
+        command.execute(mockConnection, new String[]{"country-pop-batch", "gbr,", "France"});
+
+        verify(mockConnection).prepareStatement(contains("WHERE c.Name IN (?, ?) OR c.Code IN (?, ?)"));
+        verify(stmt).setString(1, "gbr");
+        verify(stmt).setString(3, "gbr");
+        verify(stmt).setString(4, "France");
+        String output = outputStream.toString();
+        assertTrue(output.contains("59,623,400"));
+        assertTrue(output.contains("2 keys (2 distinct): 2 found, 0 not found in"));
+    }
+}
@@ -1,8 +1,11 @@
 package com.napier.sem.commands.country;
 
+import com.napier.sem.data.WorldData;
+import com.napier.sem.data.WorldSnapshot;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -10,9 +13,13 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -37,6 +44,54 @@ class CountryPopulationCommandTest {
         command = new CountryPopulationCommand();
     }
 
+    @AfterEach
+    void tearDown() {
+        WorldData.clear();
+    }
+
+    private void installSnapshot() {
+        WorldData.install(new WorldSnapshot(1, List.of(),
+                List.of(new WorldSnapshot.Country("GBR", "United Kingdom", "Europe", "British Islands",
+                        242900, 1066, 59623400, 77.7, 1378330.0, 1296830.0, 456)),
+                List.of()));
+    }
+
+    @Test
+    @DisplayName("Should query by country code when the name resolves")
+    void testExecuteWithResolvedCountry() throws SQLException {
+        installSnapshot();
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(false);
+
+        command.execute(mockConnection, new String[]{"country-pop", "united kingdom"});
+
+        verify(mockConnection).prepareStatement(contains("c.Code = ?"));
+        verify(mockStatement).setString(1, "GBR");
+    }
+
+    @Test
+    @DisplayName("Should bind an unquoted multi-word country name")
+    void testExecuteWithMultiWordCountry() throws SQLException {
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(false);
+
+        command.execute(mockConnection, new String[]{"country-pop", "United", "Kingdom"});
+
+        verify(mockStatement).setString(1, "United Kingdom");
+    }
+
+    @Test
+    @DisplayName("Should answer unknown countries without querying the database")
+    void testExecuteWithUnknownCountry() throws SQLException {
+        installSnapshot();
+
+        command.execute(mockConnection, new String[]{"country-pop", "Atlantis"});
+
+        verify(mockConnection, never()).prepareStatement(anyString());
+    }
+
     @Test
     @DisplayName("Should have proper execution command")
     void testExecutionCommand() {
@@ -0,0 +1,95 @@
+package com.napier.sem.commands.country;
+
+import com.napier.sem.data.WorldData;
+import com.napier.sem.data.WorldSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RankCountriesCommand
+ */
+class RankCountriesCommandTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    private RankCountriesCommand command;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        WorldData.install(new WorldSnapshot(1, List.of(),
+                List.of(new WorldSnapshot.Country("GBR", "United Kingdom", "Europe", "British Islands",
+                                242900, 1066, 59623400, 77.7, 1378330.0, 1296830.0, 456),
+                        new WorldSnapshot.Country("FRA", "France", "Europe", "Western Europe",
+                                551500, 843, 59225700, 78.8, 1424285.0, 1392448.0, 2974)),
+                List.of()));
+        command = new RankCountriesCommand();
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+        WorldData.clear();
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command")
+    void testExecutionCommand() {
+        assertEquals("rank-countries", command.getExcecutionCommand());
+    }
+
+    @Test
+    @DisplayName("Should rank a continent by a derived metric without querying")
+    void testRankByDensity() throws SQLException {
+        command.execute(mockConnection, new String[]{"rank-countries", "density", "top", "continent", "europe", "1"});
+
+        verify(mockConnection, never()).prepareStatement(anyString());
+        String output = outputStream.toString();
+        assertTrue(output.contains("Top 1 Countries in Europe by Population Density"));
+        assertTrue(output.contains("United Kingdom"));
+        assertFalse(output.contains("France"));
+        assertTrue(output.contains("1 of 2 ranked countries"));
+    }
+
+    @Test
+    @DisplayName("Should list the lowest values for bottom")
+    void testBottom() throws SQLException {
+        command.execute(mockConnection, new String[]{"rank-countries", "gnp-growth", "bottom", "world", "1"});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("Bottom 1 Countries in the World by GNP Growth"));
+        assertTrue(output.contains("France"));
+        assertTrue(output.contains("+2.29%"));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown metrics and scopes")
+    void testUnknownMetric() throws SQLException {
+        command.execute(mockConnection, new String[]{"rank-countries", "happiness", "top", "world"});
+        command.execute(mockConnection, new String[]{"rank-countries", "gnp", "top", "district", "Kabol"});
+
+        String output = outputStream.toString();
+        assertEquals(2, output.split("Unknown ranking", -1).length - 1);
+        assertTrue(output.contains("Metrics: population"));
+    }
+}
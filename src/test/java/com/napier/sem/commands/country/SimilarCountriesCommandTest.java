@@ -0,0 +1,97 @@
+package com.napier.sem.commands.country;
+
+import com.napier.sem.data.WorldData;
+import com.napier.sem.data.WorldSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SimilarCountriesCommand
+ */
+class SimilarCountriesCommandTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    private SimilarCountriesCommand command;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        WorldData.install(new WorldSnapshot(1, List.of(),
+                List.of(new WorldSnapshot.Country("DEU", "Germany", "Europe", "Western Europe",
+                                357022, 1955, 82164700, 77.4, 2133367.0, 2102826.0, 3068),
+                        new WorldSnapshot.Country("FRA", "France", "Europe", "Western Europe",
+                                551500, 843, 59225700, 78.8, 1424285.0, 1392448.0, 2974),
+                        new WorldSnapshot.Country("GBR", "United Kingdom", "Europe", "British Islands",
+                                242900, 1066, 59623400, 77.7, 1378330.0, 1296830.0, 456),
+                        new WorldSnapshot.Country("JPN", "Japan", "Asia", "Eastern Asia",
+                                377829, -660, 126714000, 80.7, 3787042.0, 4192638.0, 1532)),
+                List.of()));
+        command = new SimilarCountriesCommand();
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+        WorldData.clear();
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command")
+    void testExecutionCommand() {
+        assertEquals("similar-countries", command.getExcecutionCommand());
+    }
+
+    @Test
+    @DisplayName("Should list the nearest countries without querying")
+    void testSimilarCountries() throws SQLException {
+        command.execute(mockConnection, new String[]{"similar-countries", "germany", "2"});
+
+        verify(mockConnection, never()).prepareStatement(anyString());
+        String output = outputStream.toString();
+        assertTrue(output.contains("2 Countries Most Like germany"));
+        assertTrue(output.contains("2 neighbours among 4 comparable countries"));
+        assertFalse(output.contains("Germany "));
+    }
+
+    @Test
+    @DisplayName("Should restrict candidates to a multi-word region")
+    void testRestrictToRegion() throws SQLException {
+        command.execute(mockConnection, new String[]{"similar-countries", "united", "kingdom", "3", "in", "region",
+                "western", "europe"});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("3 Countries Most Like united kingdom in western europe"));
+        assertTrue(output.contains("France"));
+        assertTrue(output.contains("Germany"));
+        assertFalse(output.contains("Japan"));
+    }
+
+    @Test
+    @DisplayName("Should report unknown countries")
+    void testUnknownCountry() throws SQLException {
+        command.execute(mockConnection, new String[]{"similar-countries", "Atlantis"});
+
+        assertTrue(outputStream.toString().contains("No country found with the name: Atlantis"));
+    }
+}
@@ -0,0 +1,142 @@
+package com.napier.sem.commands.global;
+
+import com.napier.sem.data.WorldData;
+import com.napier.sem.data.WorldSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RankCommand
+ */
+class RankCommandTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    @Mock
+    private PreparedStatement mockStatement;
+
+    @Mock
+    private ResultSet mockResultSet;
+
+    private RankCommand command;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+        command = new RankCommand();
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+        WorldData.clear();
+    }
+
+    private static void installSnapshot() {
+        WorldData.install(new WorldSnapshot(1,
+                List.of(new WorldSnapshot.City(1, "Tokyo", "JPN", "Tokyo-to", 7980230),
+                        new WorldSnapshot.City(3, "Osaka", "JPN", "Osaka", 2595674),
+                        new WorldSnapshot.City(4, "Seoul", "KOR", "Seoul", 9981619)),
+                List.of(new WorldSnapshot.Country("JPN", "Japan", "Asia", "Eastern Asia",
+                                377829, -660, 126714000, 80.7, 3787042.0, 4192638.0, 1532),
+                        new WorldSnapshot.Country("KOR", "South Korea", "Asia", "Eastern Asia",
+                                99434, 1948, 46844000, 74.4, 320749.0, 442544.0, 2331)),
+                List.of()));
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command")
+    void testExecutionCommand() {
+        assertEquals("rank", command.getExcecutionCommand());
+    }
+
+    @Test
+    @DisplayName("Should rank a city from the precomputed index without querying")
+    void testCityFromSnapshot() throws SQLException {
+        installSnapshot();
+
+        command.execute(mockConnection, new String[]{"rank", "city", "osaka"});
+
+        verify(mockConnection, never()).prepareStatement(anyString());
+        String output = outputStream.toString();
+        assertTrue(output.contains("Population Rank of Osaka (2595674)"));
+        assertTrue(output.contains("Japan"));
+        assertTrue(output.contains("5 scopes"));
+    }
+
+    @Test
+    @DisplayName("Should rank a country from the metric index")
+    void testCountryFromSnapshot() throws SQLException {
+        installSnapshot();
+
+        command.execute(mockConnection, new String[]{"rank", "country", "south", "korea"});
+
+        verify(mockConnection, never()).prepareStatement(anyString());
+        String output = outputStream.toString();
+        assertTrue(output.contains("Population Rank of South Korea (46844000)"));
+        assertTrue(output.contains("Eastern Asia"));
+        assertTrue(output.contains("3 scopes"));
+    }
+
+    @Test
+    @DisplayName("Should rank a city in one query when no snapshot is loaded")
+    void testCityFromDatabase() throws SQLException {
+        when(mockResultSet.next()).thenReturn(true);
+        when(mockResultSet.getString("CityName")).thenReturn("Osaka");
+        when(mockResultSet.getLong("Population")).thenReturn(2595674L);
+        when(mockResultSet.getString("Country")).thenReturn("Japan");
+        when(mockResultSet.getInt("CountryRank")).thenReturn(2);
+        when(mockResultSet.getInt("CountrySize")).thenReturn(248);
+
+        command.execute(mockConnection, new String[]{"rank", "city", "Osaka"});
+
+        verify(mockConnection, times(1)).prepareStatement(contains("COUNT(*)"));
+        verify(mockStatement).setString(1, "Osaka");
+        String output = outputStream.toString();
+        assertTrue(output.contains("Population Rank of Osaka (2595674)"));
+        assertTrue(output.contains("Japan"));
+    }
+
+    @Test
+    @DisplayName("Should report unknown names")
+    void testUnknownCity() throws SQLException {
+        when(mockResultSet.next()).thenReturn(false);
+
+        command.execute(mockConnection, new String[]{"rank", "city", "Atlantis"});
+
+        assertTrue(outputStream.toString().contains("No city found with the name: Atlantis"));
+    }
+
+    @Test
+    @DisplayName("Should reject entities other than city and country")
+    void testInvalidEntity() throws SQLException {
+        command.execute(mockConnection, new String[]{"rank", "language", "English"});
+
+        verify(mockConnection, never()).prepareStatement(anyString());
+        assertTrue(outputStream.toString().contains("Can only rank a city or a country"));
+    }
+}
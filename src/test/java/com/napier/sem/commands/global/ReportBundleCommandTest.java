@@ -0,0 +1,91 @@
+package com.napier.sem.commands.global;
+
+import com.napier.sem.data.WorldData;
+import com.napier.sem.data.WorldSnapshot;
+import com.napier.sem.scheduling.CommandScheduler;
+import com.napier.sem.scheduling.CostClass;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ReportBundleCommand
+ */
+class ReportBundleCommandTest {
+
+    @TempDir
+    Path directory;
+
+    private ReportBundleCommand command;
+    private CommandScheduler scheduler;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new CommandScheduler(Map.of(CostClass.FULL_LISTING, 2), Map.of());
+        command = new ReportBundleCommand(() -> null, scheduler);
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+        WorldData.clear();
+        scheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command, lane and timeout")
+    void testExecutionCommand() {
+        assertEquals("report-bundle", command.getExcecutionCommand());
+        assertEquals(CostClass.FULL_LISTING, command.getCostClass());
+        assertTrue(command.getTimeoutMillis() > 60_000);
+    }
+
+    @Test
+    @DisplayName("Should print usage without a directory and reject unknown options")
+    void testUsage() throws SQLException {
+        command.execute(null, new String[]{"report-bundle"});
+        command.execute(null, new String[]{"report-bundle", directory.toString(), "fast"});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("Usage: report-bundle <directory> [N] [full]"));
+        assertTrue(output.contains("Expected N or 'full' but got 'fast'"));
+    }
+
+    @Test
+    @DisplayName("Should write an index for the loaded snapshot")
+    void testExecuteWritesIndex() throws Exception {
+        WorldData.install(new WorldSnapshot(1, List.of(), List.of(), List.of()));
+
+        command.execute(null, new String[]{"report-bundle", directory.toString(), "3"});
+
+        assertTrue(Files.exists(directory.resolve("index.md")));
+        assertTrue(outputStream.toString().contains("Report Bundle"));
+    }
+
+    @Test
+    @DisplayName("Should run no more reports at once than the listing quota")
+    void testParallelismCappedByListingQuota() {
+        assertTrue(command.parallelism() <= 2);
+
+        scheduler.setQuota(CostClass.FULL_LISTING, 1);
+
+        assertEquals(1, command.parallelism());
+    }
+}
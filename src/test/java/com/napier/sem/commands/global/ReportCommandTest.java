@@ -0,0 +1,96 @@
+package com.napier.sem.commands.global;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReportCommand
+ */
+class ReportCommandTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    @Mock
+    private PreparedStatement mockStatement;
+
+    @Mock
+    private ResultSet mockResultSet;
+
+    private ReportCommand command;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+        command = new ReportCommand();
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command")
+    void testExecutionCommand() {
+        assertEquals("report", command.getExcecutionCommand());
+    }
+
+    @Test
+    @DisplayName("Should run a scoped top-N report from its shape")
+    void testScopedTopN() throws SQLException {
+        when(mockResultSet.next()).thenReturn(false);
+
+        command.execute(mockConnection, new String[]{"report", "cities", "region", "Western", "Europe", "7"});
+
+        verify(mockConnection).prepareStatement(contains("WHERE country.Region = ?"));
+        verify(mockStatement).setString(1, "Western Europe");
+        verify(mockStatement).setInt(2, 7);
+    }
+
+    @Test
+    @DisplayName("Should run a world listing without parameters")
+    void testWorldListing() throws SQLException {
+        when(mockResultSet.next()).thenReturn(false);
+
+        command.execute(mockConnection, new String[]{"report", "countries", "world"});
+
+        verify(mockConnection).prepareStatement(contains("ORDER BY Population DESC"));
+        verify(mockStatement, never()).setString(anyInt(), anyString());
+        assertTrue(outputStream.toString().contains("All Countries in the World"));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown or unsupported shapes")
+    void testInvalidShapes() throws SQLException {
+        command.execute(mockConnection, new String[]{"report", "rivers", "world"});
+        command.execute(mockConnection, new String[]{"report", "countries", "district", "Kabol"});
+
+        verify(mockConnection, never()).prepareStatement(anyString());
+        String output = outputStream.toString();
+        assertTrue(output.contains("Unknown report"));
+        assertTrue(output.contains("cannot be listed by district"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.napier.sem.commands.global;
+
+import com.napier.sem.data.WorldData;
+import com.napier.sem.data.WorldSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SearchNamesCommand
+ */
+class SearchNamesCommandTest {
+
+    private SearchNamesCommand command;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() {
+        command = new SearchNamesCommand();
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+        WorldData.clear();
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command")
+    void testExecutionCommand() {
+        assertEquals("search-names", command.getExcecutionCommand());
+    }
+
+    @Test
+    @DisplayName("Should not need the database, so it answers while the circuit is open")
+    void testRequiresNoDatabase() {
+        assertFalse(command.requiresDatabase());
+    }
+
+    @Test
+    @DisplayName("Should print usage without arguments")
+    void testMissingArguments() {
+        command.execute(null, new String[]{"search-names"});
+
+        assertTrue(outputStream.toString().contains("Usage"));
+    }
+
+    @Test
+    @DisplayName("Should report when world data is not loaded")
+    void testWithoutSnapshot() {
+        command.execute(null, new String[]{"search-names", "lon"});
+
+        assertTrue(outputStream.toString().contains("unavailable"));
+    }
+
+    @Test
+    @DisplayName("Should list completions and fuzzy matches for a kind")
+    void testSearchCities() {
+        WorldData.install(new WorldSnapshot(1,
+                List.of(new WorldSnapshot.City(456, "London", "GBR", "England", 7285000)),
+                List.of(), List.of()));
+
+        command.execute(null, new String[]{"search-names", "city", "Lond"});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("Completions"));
+        assertTrue(output.contains("London"));
+    }
+}
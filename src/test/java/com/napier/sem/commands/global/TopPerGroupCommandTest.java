@@ -0,0 +1,93 @@
+package com.napier.sem.commands.global;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TopPerGroupCommand
+ */
+class TopPerGroupCommandTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    @Mock
+    private PreparedStatement mockStatement;
+
+    @Mock
+    private ResultSet mockResultSet;
+
+    private TopPerGroupCommand command;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+        command = new TopPerGroupCommand();
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command")
+    void testExecutionCommand() {
+        assertEquals("top-per-group", command.getExcecutionCommand());
+    }
+
+    @Test
+    @DisplayName("Should rank every group in a single query with the default N")
+    void testDefaultLimit() throws SQLException {
+        when(mockResultSet.next()).thenReturn(false);
+
+        command.execute(mockConnection, new String[]{"top-per-group", "cities", "country"});
+
+        verify(mockConnection, times(1)).prepareStatement(contains("PARTITION BY city.CountryCode"));
+        verify(mockStatement).setInt(1, 5);
+    }
+
+    @Test
+    @DisplayName("Should bind an explicit N")
+    void testExplicitLimit() throws SQLException {
+        when(mockResultSet.next()).thenReturn(false);
+
+        command.execute(mockConnection, new String[]{"top-per-group", "capitals", "region", "3"});
+
+        verify(mockStatement).setInt(1, 3);
+    }
+
+    @Test
+    @DisplayName("Should reject groupings that do not exist")
+    void testUnsupportedGrouping() throws SQLException {
+        command.execute(mockConnection, new String[]{"top-per-group", "countries", "district"});
+        command.execute(mockConnection, new String[]{"top-per-group", "cities", "world"});
+
+        verify(mockConnection, never()).prepareStatement(anyString());
+        String output = outputStream.toString();
+        assertTrue(output.contains("countries cannot be grouped by district"));
+        assertTrue(output.contains("Unknown grouping"));
+    }
+}
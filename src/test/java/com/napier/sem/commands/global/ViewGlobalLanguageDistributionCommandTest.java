@@ -43,6 +43,12 @@ class ViewGlobalLanguageDistributionCommandTest {
         assertEquals("language-dist", command.getExcecutionCommand());
     }
 
+    @Test
+    @DisplayName("Should not open a snapshot for its single query")
+    void testNoConsistentSnapshot() {
+        assertFalse(command.usesConsistentSnapshot());
+    }
+
     @Test
     @DisplayName("Should have proper command description")
     void testCommandDescription() {
@@ -0,0 +1,90 @@
+package com.napier.sem.commands.language;
+
+import com.napier.sem.data.WorldData;
+import com.napier.sem.data.WorldSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TopLanguagesByRegionCommand and the shared "official" handling
+ */
+class TopLanguagesByRegionCommandTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    private TopLanguagesByRegionCommand command;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        WorldData.install(new WorldSnapshot(1, List.of(),
+                List.of(new WorldSnapshot.Country("ESP", "Spain", "Europe", "Southern Europe",
+                        505992, 1492, 2000, 78.8, 553233.0, 532031.0, 653)),
+                List.of(
+                        new WorldSnapshot.CountryLanguage("ESP", "Spanish", true, 75),
+                        new WorldSnapshot.CountryLanguage("ESP", "Catalan", false, 25))));
+        command = new TopLanguagesByRegionCommand();
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+        WorldData.clear();
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command")
+    void testExecutionCommand() {
+        assertEquals("top-languages-region", command.getExcecutionCommand());
+    }
+
+    @Test
+    @DisplayName("Should rank languages in a multi-word region without querying")
+    void testTopLanguages() throws SQLException {
+        command.execute(mockConnection, new String[]{"top-languages-region", "southern", "europe", "5"});
+
+        verify(mockConnection, never()).prepareStatement(anyString());
+        String output = outputStream.toString();
+        assertTrue(output.contains("Top 5 Languages in Southern Europe"));
+        assertTrue(output.indexOf("Spanish") < output.indexOf("Catalan"));
+    }
+
+    @Test
+    @DisplayName("Should only count official languages after 'official'")
+    void testOfficialOnly() throws SQLException {
+        command.execute(mockConnection, new String[]{"top-languages-region", "official", "Southern Europe"});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("Top 10 Official Languages in Southern Europe"));
+        assertTrue(output.contains("Spanish"));
+        assertFalse(output.contains("Catalan"));
+    }
+
+    @Test
+    @DisplayName("Should report unknown regions")
+    void testUnknownRegion() throws SQLException {
+        command.execute(mockConnection, new String[]{"top-languages-region", "Atlantis"});
+
+        assertTrue(outputStream.toString().contains("No region found: Atlantis"));
+    }
+}
@@ -1,5 +1,7 @@
 package com.napier.sem.commands.region;
 
+import com.napier.sem.data.SummaryTableService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -8,9 +10,12 @@ import org.mockito.MockitoAnnotations;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.Statement;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 // Corrected import: since the class is in the same package, no import needed
@@ -27,12 +32,23 @@ class PopulationByRegionCommandTest {
     @Mock
     private ResultSet rs;
 
+    @Mock
+    private Connection summaryConnection;
+
+    @Mock
+    private Statement summaryStatement;
+
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
         command = new PopulationByRegionCommand();
     }
 
+    @AfterEach
+    void tearDown() {
+        SummaryTableService.install(null);
+    }
+
     @Test
     void testMissingArgs() {
         assertDoesNotThrow(() -> command.execute(conn, new String[]{}));
@@ -51,4 +67,31 @@ class PopulationByRegionCommandTest {
 
         assertDoesNotThrow(() -> command.execute(conn, new String[]{"Western Europe"}));
     }
+
+    @Test
+    void testReadsRegionSummaryWhenFresh() throws Exception {
+        when(summaryConnection.createStatement()).thenReturn(summaryStatement);
+        SummaryTableService summaries = new SummaryTableService(() -> summaryConnection, 1000);
+        summaries.refreshNow(1);
+        SummaryTableService.install(summaries);
+        when(conn.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(false);
+
+        command.execute(conn, new String[]{"population-region", "Western Europe"});
+
+        verify(conn).prepareStatement(contains("FROM summary_region"));
+    }
+
+    @Test
+    void testFallbackSumsCitiesPerCountry() throws Exception {
+        when(conn.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(false);
+
+        command.execute(conn, new String[]{"population-region", "Western Europe"});
+
+        // Joining raw city rows would count each country's population once per city
+        verify(conn).prepareStatement(contains("GROUP BY CountryCode"));
+    }
 }
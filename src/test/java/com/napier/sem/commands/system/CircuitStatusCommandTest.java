@@ -0,0 +1,57 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.resilience.ResilientCommandExecutor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CircuitStatusCommand
+ */
+class CircuitStatusCommandTest {
+
+    private ResilientCommandExecutor executor;
+    private CircuitStatusCommand command;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ResilientCommandExecutor(() -> null, 3, 1000, 1000);
+        command = new CircuitStatusCommand(executor);
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command")
+    void testExecutionCommand() {
+        assertEquals("circuit-status", command.getExcecutionCommand());
+    }
+
+    @Test
+    @DisplayName("Should report state and fallback counters")
+    void testExecutePrintsStatus() {
+        executor.getBreaker().recordFailure();
+
+        command.execute(null, new String[]{"circuit-status"});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("CLOSED"));
+        assertTrue(output.contains("1/3"));
+        assertTrue(output.contains("Stale results served"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.data.DataVersionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DataVersionCommand
+ */
+class DataVersionCommandTest {
+
+    private DataVersionCommand command;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() {
+        command = new DataVersionCommand(new DataVersionService(() -> null, 1000));
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command")
+    void testExecutionCommand() {
+        assertEquals("data-version", command.getExcecutionCommand());
+    }
+
+    @Test
+    @DisplayName("Should report an unchecked service")
+    void testExecuteBeforeFirstCheck() {
+        assertDoesNotThrow(() -> command.execute(null, new String[]{"data-version"}));
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("never"));
+        assertTrue(output.contains("stopped"));
+    }
+}
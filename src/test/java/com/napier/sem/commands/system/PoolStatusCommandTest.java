@@ -0,0 +1,67 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.pool.PoolSizeController;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for PoolStatusCommand
+ */
+class PoolStatusCommandTest {
+
+    @Mock
+    private HikariConfigMXBean mockConfig;
+
+    @Mock
+    private HikariPoolMXBean mockPool;
+
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command")
+    void testExecutionCommand() {
+        assertEquals("pool-status", new PoolStatusCommand().getExcecutionCommand());
+    }
+
+    @Test
+    @DisplayName("Should report the pool size and the last resize")
+    void testExecute() {
+        when(mockConfig.getMaximumPoolSize()).thenReturn(10);
+        when(mockPool.getThreadsAwaitingConnection()).thenReturn(4);
+        PoolSizeController controller = new PoolSizeController(mockConfig, mockPool, 2, 30, 2, 5000);
+        controller.adjust();
+
+        new PoolStatusCommand(controller).execute(null, new String[]{"pool-status"});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("(bounds 2-30)"));
+        assertTrue(output.contains("10 -> 12"));
+        assertTrue(output.contains("4 waiting"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.prefetch.CommandPrefetcher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PrefetchCommand
+ */
+class PrefetchCommandTest {
+
+    private CommandPrefetcher prefetcher;
+    private PrefetchCommand command;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() {
+        prefetcher = new CommandPrefetcher(name -> null, 8, 1000, 0.5, true);
+        command = new PrefetchCommand(prefetcher);
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command and not be prefetched itself")
+    void testExecutionCommand() {
+        assertEquals("prefetch", command.getExcecutionCommand());
+        assertFalse(command.isPrefetchable());
+    }
+
+    @Test
+    @DisplayName("Should display settings and counters")
+    void testExecuteShowsStats() {
+        prefetcher.store("top-countries 5", "output", 40, prefetcher.getDataVersion());
+        prefetcher.take("top-countries 5");
+
+        command.execute(null, new String[]{"prefetch"});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("Prefetching"));
+        assertTrue(output.contains("Accuracy"));
+        assertTrue(output.contains("Time saved ms"));
+        assertEquals(1, prefetcher.getStats().hits());
+    }
+
+    @Test
+    @DisplayName("Should turn prefetching off and change the confidence threshold")
+    void testExecuteUpdates() {
+        command.execute(null, new String[]{"prefetch", "off"});
+        command.execute(null, new String[]{"prefetch", "confidence", "0.8"});
+
+        assertFalse(prefetcher.isEnabled());
+        assertEquals(0.8, prefetcher.getMinConfidence());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid changes")
+    void testExecuteRejects() {
+        command.execute(null, new String[]{"prefetch", "confidence", "2"});
+        command.execute(null, new String[]{"prefetch", "sometimes"});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("Confidence must be between 0 and 1"));
+        assertTrue(output.contains("Usage: prefetch"));
+        assertEquals(0.5, prefetcher.getMinConfidence());
+    }
+}
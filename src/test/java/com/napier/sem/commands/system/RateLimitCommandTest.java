@@ -0,0 +1,99 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.resilience.ResilientCommandExecutor;
+import com.napier.sem.scheduling.CostClass;
+import com.napier.sem.scheduling.RateLimiter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RateLimitCommand
+ */
+class RateLimitCommandTest {
+
+    private ResilientCommandExecutor executor;
+    private RateLimitCommand command;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ResilientCommandExecutor(() -> null, 3, 1000, 1000);
+        command = new RateLimitCommand(executor);
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command")
+    void testExecutionCommand() {
+        assertEquals("rate-limit", command.getExcecutionCommand());
+    }
+
+    @Test
+    @DisplayName("Should list the limits of every class")
+    void testExecuteShowsLimits() {
+        command.execute(null, new String[]{"rate-limit"});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("point"));
+        assertTrue(output.contains("listing"));
+    }
+
+    @Test
+    @DisplayName("Should change a rate limit and a quota at runtime")
+    void testExecuteUpdates() {
+        command.execute(null, new String[]{"rate-limit", "set", "listing", "0.5", "2"});
+        command.execute(null, new String[]{"rate-limit", "quota", "listing", "5"});
+
+        assertEquals(0.5, executor.getRateLimiter().getLimit(CostClass.FULL_LISTING).perSecond());
+        assertEquals(2, executor.getRateLimiter().getLimit(CostClass.FULL_LISTING).burst());
+        assertEquals(5, executor.getScheduler().getStats(CostClass.FULL_LISTING).quota());
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown class and a malformed change")
+    void testExecuteRejectsInvalid() {
+        command.execute(null, new String[]{"rate-limit", "set", "bulk", "1", "1"});
+        command.execute(null, new String[]{"rate-limit", "quota", "point"});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("Unknown cost class: bulk"));
+        assertTrue(output.contains("Usage: rate-limit"));
+    }
+
+    @Test
+    @DisplayName("Should reject rates that are not positive and finite, and accept off")
+    void testExecuteValidatesRate() {
+        RateLimiter.Limit before = executor.getRateLimiter().getLimit(CostClass.TOP_N);
+        for (String rate : new String[]{"NaN", "Infinity", "-1", "0"}) {
+            command.execute(null, new String[]{"rate-limit", "set", "top-n", rate, "2"});
+        }
+
+        assertEquals(before, executor.getRateLimiter().getLimit(CostClass.TOP_N));
+        assertTrue(outputStream.toString().contains("Rate must be a positive number of commands per second, or 'off'"));
+
+        command.execute(null, new String[]{"rate-limit", "set", "top-n", "off", "2"});
+        assertTrue(executor.getRateLimiter().getLimit(CostClass.TOP_N).isUnlimited());
+    }
+
+    @Test
+    @DisplayName("Should not need the database, so changes apply while the circuit is open")
+    void testRequiresNoDatabase() {
+        assertFalse(command.requiresDatabase());
+    }
+}
@@ -0,0 +1,59 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.scheduling.CommandScheduler;
+import com.napier.sem.scheduling.CostClass;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SchedulerStatusCommand
+ */
+class SchedulerStatusCommandTest {
+
+    private CommandScheduler scheduler;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new CommandScheduler(Map.of(), Map.of());
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+        scheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command")
+    void testExecutionCommand() {
+        assertEquals("scheduler-status", new SchedulerStatusCommand().getExcecutionCommand());
+    }
+
+    @Test
+    @DisplayName("Should list every cost class with its quota and queue")
+    void testExecute() throws Exception {
+        scheduler.submit(CostClass.POINT_LOOKUP, () -> "done").get(1, TimeUnit.SECONDS);
+
+        new SchedulerStatusCommand(scheduler).execute(null, new String[]{"scheduler-status"});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("point"));
+        assertTrue(output.contains("listing"));
+        assertTrue(output.contains("0/8"));
+        assertTrue(output.contains("0/64"));
+    }
+}
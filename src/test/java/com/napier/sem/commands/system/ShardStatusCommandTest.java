@@ -0,0 +1,66 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.DatabaseConfig;
+import com.napier.sem.shard.ShardMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ShardStatusCommand
+ */
+class ShardStatusCommandTest {
+
+    private ShardStatusCommand command;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() {
+        command = new ShardStatusCommand();
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+        DatabaseConfig.setShardMap(null);
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command")
+    void testExecutionCommand() {
+        assertEquals("shard-status", command.getExcecutionCommand());
+    }
+
+    @Test
+    @DisplayName("Should say when the data is not sharded")
+    void testExecuteUnsharded() {
+        command.execute(null, new String[]{"shard-status"});
+
+        assertTrue(outputStream.toString().contains("not sharded"));
+    }
+
+    @Test
+    @DisplayName("Should list the continent of every shard")
+    void testExecuteSharded() {
+        DatabaseConfig.setShardMap(new ShardMap(Map.of("Asia", "db-asia:3306"),
+                Map.of(ShardMap.DEFAULT_SHARD, () -> null, "db-asia:3306", () -> null)));
+
+        command.execute(null, new String[]{"shard-status"});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("Asia"));
+        assertTrue(output.contains("db-asia:3306"));
+        assertTrue(output.contains("(any other)"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.CommandRegistry;
+import com.napier.sem.ICommand;
+import com.napier.sem.ReadOnlySnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SnapshotOverheadCommand
+ */
+class SnapshotOverheadCommandTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    @Mock
+    private Statement mockStatement;
+
+    @Mock
+    private ICommand mockCommand;
+
+    private SnapshotOverheadCommand command;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(mockConnection.createStatement()).thenReturn(mockStatement);
+        when(mockCommand.getExcecutionCommand()).thenReturn("overhead-probe");
+        CommandRegistry.registerCommand(mockCommand);
+        command = new SnapshotOverheadCommand();
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command")
+    void testExecutionCommand() {
+        assertEquals("snapshot-overhead", command.getExcecutionCommand());
+    }
+
+    @Test
+    @DisplayName("Should run the command in both modes and report the difference")
+    void testMeasure() throws SQLException {
+        command.execute(mockConnection, new String[]{"snapshot-overhead", "3", "overhead-probe", "arg"});
+
+        // One warm-up and three timed runs per mode
+        verify(mockCommand, times(8)).execute(eq(mockConnection), eq(new String[]{"overhead-probe", "arg"}));
+        verify(mockStatement, times(4)).execute(ReadOnlySnapshot.BEGIN_SQL);
+        String output = outputStream.toString();
+        assertTrue(output.contains("Snapshot Overhead for overhead-probe arg (3 runs each)"));
+        assertTrue(output.contains("autocommit"));
+        assertTrue(output.contains("Snapshot overhead:"));
+    }
+
+    @Test
+    @DisplayName("Should refuse unknown commands and itself")
+    void testInvalidTarget() throws SQLException {
+        command.execute(mockConnection, new String[]{"snapshot-overhead", "no-such-command"});
+        CommandRegistry.registerCommand(command);
+        command.execute(mockConnection, new String[]{"snapshot-overhead", "snapshot-overhead"});
+
+        verify(mockCommand, never()).execute(any(), any());
+        String output = outputStream.toString();
+        assertTrue(output.contains("Cannot measure command: no-such-command"));
+        assertTrue(output.contains("Cannot measure command: snapshot-overhead"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.pool.StatementStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StatementCacheCommand
+ */
+class StatementCacheCommandTest {
+
+    private StatementCacheCommand command;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() {
+        StatementStats.reset();
+        command = new StatementCacheCommand();
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+        StatementStats.clearCurrentCommand();
+        StatementStats.reset();
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command")
+    void testExecutionCommand() {
+        assertEquals("statement-cache", command.getExcecutionCommand());
+    }
+
+    @Test
+    @DisplayName("Should show cold and cached prepare times per command")
+    void testExecute() {
+        StatementStats.setCurrentCommand("city-pop");
+        StatementStats.recordPrepare("SELECT 1", true, 400_000);
+        StatementStats.recordPrepare("SELECT 1", false, 10_000);
+
+        command.execute(null, new String[]{"statement-cache"});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("city-pop"));
+        assertTrue(output.contains("400.0"));
+        assertTrue(output.contains("390.0"));
+    }
+
+    @Test
+    @DisplayName("Should reset the statistics")
+    void testReset() {
+        StatementStats.recordPrepare("SELECT 1", true, 1000);
+
+        command.execute(null, new String[]{"statement-cache", "reset"});
+
+        assertEquals(0, StatementStats.getLearnedCount());
+        assertTrue(StatementStats.getCommandTimings().isEmpty());
+    }
+}
@@ -0,0 +1,76 @@
+package com.napier.sem.commands.system;
+
+import com.napier.sem.data.SummaryTableService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SummaryStatusCommand
+ */
+class SummaryStatusCommandTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    @Mock
+    private Statement mockStatement;
+
+    private SummaryStatusCommand command;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(mockConnection.createStatement()).thenReturn(mockStatement);
+        command = new SummaryStatusCommand(new SummaryTableService(() -> mockConnection, 1000));
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command")
+    void testExecutionCommand() {
+        assertEquals("summary-status", command.getExcecutionCommand());
+    }
+
+    @Test
+    @DisplayName("Should report summaries that have never been built as stale")
+    void testExecuteBeforeFirstRefresh() {
+        assertDoesNotThrow(() -> command.execute(null, new String[]{"summary-status"}));
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("stale"));
+        assertTrue(output.contains("never"));
+    }
+
+    @Test
+    @DisplayName("Should rebuild on request and show the cost per table")
+    void testExecuteWithRefresh() throws SQLException {
+        command.execute(null, new String[]{"summary-status", "refresh"});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("fresh"));
+        assertTrue(output.contains("summary_country"));
+        assertTrue(output.contains("summary_continent"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.napier.sem.commands.world;
+
+import com.napier.sem.data.WorldData;
+import com.napier.sem.data.WorldSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PopulationHierarchyCommand
+ */
+class PopulationHierarchyCommandTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    @Mock
+    private PreparedStatement mockPreparedStatement;
+
+    @Mock
+    private ResultSet mockResultSet;
+
+    private PopulationHierarchyCommand command;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        command = new PopulationHierarchyCommand();
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockPreparedStatement);
+        when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+        WorldData.clear();
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command")
+    void testExecutionCommand() {
+        assertEquals("population-hierarchy", command.getExcecutionCommand());
+    }
+
+    @Test
+    @DisplayName("Should roll up every level in a single query")
+    void testRollupSql() {
+        String sql = PopulationHierarchyCommand.rollupSql(PopulationHierarchyCommand.Level.COUNTRY);
+
+        assertTrue(sql.contains("GROUP BY co.Continent, co.Region, co.Code WITH ROLLUP"));
+        assertTrue(sql.contains("GROUPING(co.Continent) + GROUPING(co.Region) + GROUPING(co.Code) AS RolledUp"));
+        assertTrue(PopulationHierarchyCommand.rollupSql(PopulationHierarchyCommand.Level.CONTINENT)
+                .contains("GROUP BY co.Continent WITH ROLLUP"));
+    }
+
+    @Test
+    @DisplayName("Should print each rolled-up row at its level")
+    void testExecuteFromDatabase() throws SQLException {
+        when(mockResultSet.next()).thenReturn(true, true, true, false);
+        when(mockResultSet.getInt("RolledUp")).thenReturn(2, 1, 0);
+        when(mockResultSet.getString("Continent")).thenReturn("Europe");
+        when(mockResultSet.getString("Region")).thenReturn("British Islands");
+        when(mockResultSet.getLong("TotalPopulation")).thenReturn(6_078_749_450L, 730_074_600L, 63_398_500L);
+        when(mockResultSet.getLong("UrbanPopulation")).thenReturn(1_429_559_884L, 241_942_813L, 22_436_914L);
+
+        command.execute(mockConnection, new String[]{"population-hierarchy", "region"});
+
+        verify(mockConnection, times(1)).prepareStatement(anyString());
+        String output = outputStream.toString();
+        assertTrue(output.contains("World"));
+        assertTrue(output.contains("\n  Europe"));
+        assertTrue(output.contains("\n    British Islands"));
+        assertTrue(output.contains("6,078,749,450"));
+        assertTrue(output.contains("3 groups from 1 query"));
+    }
+
+    @Test
+    @DisplayName("Should build the tree from in-memory data without querying")
+    void testExecuteFromSnapshot() throws SQLException {
+        WorldData.install(new WorldSnapshot(1,
+                List.of(new WorldSnapshot.City(456, "London", "GBR", "England", 7285000)),
+                List.of(new WorldSnapshot.Country("GBR", "United Kingdom", "Europe", "British Islands",
+                                242900, 1066, 59623400, 77.7, 1378330.0, 1296830.0, 456),
+                        new WorldSnapshot.Country("IRL", "Ireland", "Europe", "British Islands",
+                                70273, 1921, 3775100, 76.8, 75921.0, 73132.0, 1447)),
+                List.of()));
+
+        command.execute(mockConnection, new String[]{"population-hierarchy"});
+
+        verify(mockConnection, never()).prepareStatement(anyString());
+        String output = outputStream.toString();
+        assertTrue(output.contains("63,398,500"));
+        assertTrue(output.contains("52,338,400"));
+        assertTrue(output.indexOf("United Kingdom") < output.indexOf("Ireland"));
+        assertTrue(output.contains("5 groups"));
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown level")
+    void testInvalidLevel() throws SQLException {
+        command.execute(mockConnection, new String[]{"population-hierarchy", "planet"});
+
+        verify(mockConnection, never()).prepareStatement(anyString());
+        assertTrue(outputStream.toString().contains("Usage"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.napier.sem.commands.world;
+
+import com.napier.sem.data.WorldData;
+import com.napier.sem.data.WorldSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProjectPopulationCommand
+ */
+class ProjectPopulationCommandTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    private ProjectPopulationCommand command;
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        WorldData.install(new WorldSnapshot(1,
+                List.of(new WorldSnapshot.City(456, "London", "GBR", "England", 500_000)),
+                List.of(new WorldSnapshot.Country("GBR", "United Kingdom", "Europe", "British Islands",
+                        242900, 1066, 1_000_000, 77.7, 1378330.0, 1296830.0, 456)),
+                List.of()));
+        command = new ProjectPopulationCommand();
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+        WorldData.clear();
+    }
+
+    @Test
+    @DisplayName("Should have proper execution command")
+    void testExecutionCommand() {
+        assertEquals("project-population", command.getExcecutionCommand());
+    }
+
+    @Test
+    @DisplayName("Should read the base data in one consistent snapshot only when it queries")
+    void testUsesConsistentSnapshot() {
+        assertFalse(command.usesConsistentSnapshot());
+
+        WorldData.clear();
+
+        assertTrue(command.usesConsistentSnapshot());
+    }
+
+    @Test
+    @DisplayName("Should project with a country rate override from the snapshot")
+    void testDeterministicProjection() throws SQLException {
+        command.execute(mockConnection, new String[]{"project-population", "10", "sd=0", "country:united kingdom=10",
+                "threads=2"});
+
+        verify(mockConnection, never()).prepareStatement(anyString());
+        String output = outputStream.toString();
+        // 1,000,000 at 10% a year for 10 years
+        assertTrue(output.contains("2,593,742"));
+        assertTrue(output.contains("1,296,871"));
+        assertTrue(output.contains("1 runs x 1 countries x 10 years on 2 threads"));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid options")
+    void testInvalidOptions() throws SQLException {
+        command.execute(mockConnection, new String[]{"project-population", "ten"});
+        command.execute(mockConnection, new String[]{"project-population", "10", "speed=2"});
+        command.execute(mockConnection, new String[]{"project-population", "10", "country:Atlantis=1"});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("Years, runs and rates must be numbers"));
+        assertTrue(output.contains("Unknown option 'speed'"));
+        assertTrue(output.contains("No country found with the name: Atlantis"));
+    }
+}
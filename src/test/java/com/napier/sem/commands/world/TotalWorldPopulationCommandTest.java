@@ -1,14 +1,20 @@
 package com.napier.sem.commands.world;
 
+import com.napier.sem.DatabaseConfig;
+import com.napier.sem.shard.ShardMap;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -41,6 +47,11 @@ class TotalWorldPopulationCommandTest {
         when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
     }
 
+    @AfterEach
+    void tearDown() {
+        DatabaseConfig.setShardMap(null);
+    }
+
     @Test
     void testConstructor() {
         assertEquals("population-world", command.getExcecutionCommand());
@@ -237,4 +248,34 @@ class TotalWorldPopulationCommandTest {
         String[] args = {"population-world"};
         assertThrows(SQLException.class, () -> command.execute(mockConnection, args));
     }
+
+    @Test
+    void testExecuteShardedAddsShardTotals() throws SQLException {
+        // Given: two shards, each summing its own countries
+        Connection asiaConnection = mock(Connection.class);
+        PreparedStatement asiaStatement = mock(PreparedStatement.class);
+        ResultSet asiaResultSet = mock(ResultSet.class);
+        when(asiaConnection.prepareStatement(anyString())).thenReturn(asiaStatement);
+        when(asiaStatement.executeQuery()).thenReturn(asiaResultSet);
+        when(asiaResultSet.next()).thenReturn(true);
+        when(asiaResultSet.getLong("TotalPopulation")).thenReturn(3_700_000_000L);
+        when(mockResultSet.next()).thenReturn(true);
+        when(mockResultSet.getLong("TotalPopulation")).thenReturn(2_400_000_000L);
+        DatabaseConfig.setShardMap(new ShardMap(Map.of("Asia", "asia"),
+                Map.of(ShardMap.DEFAULT_SHARD, () -> mockConnection, "asia", () -> asiaConnection)));
+
+        // When: Execute command
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+        try {
+            command.execute(mockConnection, new String[]{"population-world"});
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        // Then: the world total is the sum of the shard totals
+        assertTrue(outputStream.toString().contains("6,100,000,000"));
+        verify(asiaConnection).prepareStatement(anyString());
+    }
 }
@@ -0,0 +1,71 @@
+package com.napier.sem.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CityRankIndex
+ */
+class CityRankIndexTest {
+
+    private CityRankIndex index;
+
+    @BeforeEach
+    void setUp() {
+        WorldSnapshot snapshot = new WorldSnapshot(1,
+                List.of(new WorldSnapshot.City(1, "Tokyo", "JPN", "Tokyo-to", 7980230),
+                        new WorldSnapshot.City(2, "Hachioji", "JPN", "Tokyo-to", 513451),
+                        new WorldSnapshot.City(3, "Osaka", "JPN", "Osaka", 2595674),
+                        new WorldSnapshot.City(4, "Seoul", "KOR", "Seoul", 9981619),
+                        new WorldSnapshot.City(5, "Sakai", "JPN", "Osaka", 513451),
+                        new WorldSnapshot.City(6, "Paris", "FRA", "Île-de-France", 2125246)),
+                List.of(new WorldSnapshot.Country("JPN", "Japan", "Asia", "Eastern Asia",
+                                377829, -660, 126714000, 80.7, 3787042.0, 4192638.0, 1532),
+                        new WorldSnapshot.Country("KOR", "South Korea", "Asia", "Eastern Asia",
+                                99434, 1948, 46844000, 74.4, 320749.0, 442544.0, 2331),
+                        new WorldSnapshot.Country("FRA", "France", "Europe", "Western Europe",
+                                551500, 843, 59225700, 78.8, 1424285.0, 1392448.0, 2974)),
+                List.of());
+        index = new CityRankIndex(snapshot);
+    }
+
+    @Test
+    @DisplayName("Should rank a city in every enclosing scope")
+    void testPositions() {
+        List<CityRankIndex.Position> positions = index.positions(3);
+
+        assertEquals(5, positions.size());
+        assertEquals(new CityRankIndex.Position("District", "Osaka", 1, 2), positions.get(0));
+        assertEquals(new CityRankIndex.Position("Country", "Japan", 2, 4), positions.get(1));
+        assertEquals(new CityRankIndex.Position("Region", "Eastern Asia", 3, 5), positions.get(2));
+        assertEquals(new CityRankIndex.Position("Continent", "Asia", 3, 5), positions.get(3));
+        assertEquals(new CityRankIndex.Position("World", "World", 3, 6), positions.get(4));
+    }
+
+    @Test
+    @DisplayName("Should give cities of equal population the same rank")
+    void testTies() {
+        assertEquals(3, index.positions(2).get(1).rank());
+        assertEquals(3, index.positions(5).get(1).rank());
+        assertEquals(5, index.positions(2).get(4).rank());
+        assertEquals(5, index.positions(5).get(4).rank());
+    }
+
+    @Test
+    @DisplayName("Should compute percentiles from rank and scope size")
+    void testPercentile() {
+        assertEquals(100.0, index.positions(4).get(4).percentile(), 1e-9);
+        assertEquals(50.0, index.positions(5).get(0).percentile(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should return no positions for an unknown city")
+    void testUnknownCity() {
+        assertTrue(index.positions(99).isEmpty());
+    }
+}
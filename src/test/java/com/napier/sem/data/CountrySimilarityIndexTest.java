@@ -0,0 +1,85 @@
+package com.napier.sem.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CountrySimilarityIndex
+ */
+class CountrySimilarityIndexTest {
+
+    private static WorldSnapshot.Country country(String code, String continent, long population, double area,
+                                                 Double gnp, Double lifeExpectancy) {
+        return new WorldSnapshot.Country(code, "Country " + code, continent, continent + " Region", area, null,
+                population, lifeExpectancy, gnp, null, null);
+    }
+
+    @Test
+    @DisplayName("Should find the same neighbours as a brute-force scan")
+    void testMatchesBruteForce() {
+        Random random = new Random(42);
+        List<WorldSnapshot.Country> rows = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            rows.add(country("C" + i, i % 2 == 0 ? "Europe" : "Asia", (long) Math.pow(10, 3 + random.nextDouble() * 6),
+                    Math.pow(10, 1 + random.nextDouble() * 6), Math.pow(10, random.nextDouble() * 6),
+                    45 + random.nextDouble() * 40));
+        }
+        CountrySimilarityIndex index = new CountrySimilarityIndex(rows);
+
+        for (String code : List.of("C0", "C17", "C150", "C299")) {
+            List<CountrySimilarityIndex.Neighbour> nearest = index.nearest(code, 7, country -> true);
+            // Brute force: distances of every other country, sorted
+            List<Double> expected = new ArrayList<>();
+            for (WorldSnapshot.Country other : rows) {
+                if (!other.code().equals(code)) {
+                    List<CountrySimilarityIndex.Neighbour> single = index.nearest(code, rows.size(),
+                            candidate -> candidate.code().equals(other.code()));
+                    expected.add(single.get(0).distance());
+                }
+            }
+            expected.sort(Comparator.naturalOrder());
+            assertEquals(7, nearest.size());
+            for (int i = 0; i < nearest.size(); i++) {
+                assertEquals(expected.get(i), nearest.get(i).distance(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should restrict neighbours to a filter and exclude the country itself")
+    void testFilterAndSelf() {
+        CountrySimilarityIndex index = new CountrySimilarityIndex(List.of(
+                country("DEU", "Europe", 82164700, 357022, 2133367.0, 77.4),
+                country("FRA", "Europe", 59225700, 551500, 1424285.0, 78.8),
+                country("JPN", "Asia", 126714000, 377829, 3787042.0, 80.7),
+                country("LUX", "Europe", 435700, 2586, 16321.0, 77.1)));
+
+        List<CountrySimilarityIndex.Neighbour> any = index.nearest("DEU", 3, country -> true);
+        assertEquals(List.of("FRA", "JPN", "LUX"), any.stream().map(n -> n.country().code()).toList());
+
+        List<CountrySimilarityIndex.Neighbour> europe = index.nearest("DEU", 5,
+                country -> country.continent().equals("Europe"));
+        assertEquals(List.of("FRA", "LUX"), europe.stream().map(n -> n.country().code()).toList());
+    }
+
+    @Test
+    @DisplayName("Should leave out countries missing GNP or life expectancy")
+    void testIncompleteCountries() {
+        CountrySimilarityIndex index = new CountrySimilarityIndex(List.of(
+                country("DEU", "Europe", 82164700, 357022, 2133367.0, 77.4),
+                country("ATA", "Antarctica", 0, 13120000, 0.0, null)));
+
+        assertEquals(1, index.size());
+        assertFalse(index.contains("ATA"));
+        assertEquals(Optional.of("ATA"), index.findCountry("country ata"));
+        assertTrue(index.nearest("ATA", 3, country -> true).isEmpty());
+    }
+}
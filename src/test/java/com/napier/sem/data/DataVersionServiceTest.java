@@ -0,0 +1,165 @@
+package com.napier.sem.data;
+
+import com.napier.sem.DatabaseConfig;
+import com.napier.sem.shard.ShardMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for DataVersionService
+ */
+class DataVersionServiceTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    @Mock
+    private PreparedStatement mockStatement;
+
+    @Mock
+    private ResultSet mockResultSet;
+
+    private DataVersionService service;
+    private List<Set<String>> notifications;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+
+        service = new DataVersionService(() -> mockConnection, 1000);
+        notifications = new ArrayList<>();
+        service.subscribe((version, tables) -> notifications.add(tables));
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseConfig.setShardMap(null);
+    }
+
+    private void stubChecksums(long city, long country, long language) throws SQLException {
+        when(mockResultSet.next()).thenReturn(true, true, true, false);
+        when(mockResultSet.getString("Table")).thenReturn("world.city", "world.country", "world.countrylanguage");
+        when(mockResultSet.getLong("Checksum")).thenReturn(city, country, language);
+    }
+
+    @Test
+    @DisplayName("Should start at version zero before the first check")
+    void testInitialVersion() {
+        assertEquals(0, service.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should establish version 1 on the first check and report every table")
+    void testFirstCheck() throws SQLException {
+        stubChecksums(1, 2, 3);
+
+        assertEquals(1, service.checkNow());
+        assertEquals(List.of(Set.of("city", "country", "countrylanguage")), notifications);
+        assertEquals(3, service.getChecksums().size());
+    }
+
+    @Test
+    @DisplayName("Should keep the version when nothing changed")
+    void testUnchangedData() throws SQLException {
+        stubChecksums(1, 2, 3);
+        service.checkNow();
+        stubChecksums(1, 2, 3);
+
+        assertEquals(1, service.checkNow());
+        assertEquals(1, notifications.size());
+    }
+
+    @Test
+    @DisplayName("Should bump the version and report changed tables")
+    void testChangedData() throws SQLException {
+        stubChecksums(1, 2, 3);
+        service.checkNow();
+        stubChecksums(10, 2, 3);
+
+        assertEquals(2, service.checkNow());
+        assertEquals(Set.of("city"), notifications.get(1));
+    }
+
+    @Test
+    @DisplayName("Should fail when the checksum query returns nothing")
+    void testEmptyChecksums() throws SQLException {
+        when(mockResultSet.next()).thenReturn(false);
+
+        assertThrows(SQLException.class, () -> service.checkNow());
+        assertEquals(0, service.getVersion());
+    }
+
+    @Test
+    @DisplayName("Should log and count a failing listener and still tell the others")
+    void testFailingListener() throws SQLException {
+        List<Set<String>> later = new ArrayList<>();
+        service.subscribe((version, tables) -> {
+            throw new IllegalStateException("refresh broke");
+        });
+        service.subscribe((version, tables) -> later.add(tables));
+        stubChecksums(1, 2, 3);
+
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(errors));
+        try {
+            assertEquals(1, service.checkNow());
+        } finally {
+            System.setErr(originalErr);
+        }
+
+        assertEquals(1, notifications.size());
+        assertEquals(1, later.size());
+        assertEquals(1, service.getFailedNotifications());
+        assertTrue(errors.toString().contains("refresh broke"));
+    }
+
+    @Test
+    @DisplayName("Should combine the checksums of every shard")
+    void testShardedChecksums() throws SQLException {
+        Connection asiaConnection = mock(Connection.class);
+        PreparedStatement asiaStatement = mock(PreparedStatement.class);
+        ResultSet asiaResultSet = mock(ResultSet.class);
+        when(asiaConnection.prepareStatement(anyString())).thenReturn(asiaStatement);
+        when(asiaStatement.executeQuery()).thenReturn(asiaResultSet);
+        when(asiaResultSet.next()).thenReturn(true, true, true, false, true, true, true, false);
+        when(asiaResultSet.getString("Table")).thenReturn("asia.city", "asia.country", "asia.countrylanguage",
+                "asia.city", "asia.country", "asia.countrylanguage");
+        // Only the Asian city table changes between the checks
+        when(asiaResultSet.getLong("Checksum")).thenReturn(10L, 20L, 30L, 11L, 20L, 30L);
+        when(mockResultSet.next()).thenReturn(true, true, true, false, true, true, true, false);
+        when(mockResultSet.getString("Table")).thenReturn("world.city", "world.country", "world.countrylanguage",
+                "world.city", "world.country", "world.countrylanguage");
+        when(mockResultSet.getLong("Checksum")).thenReturn(1L, 2L, 3L, 1L, 2L, 3L);
+        DatabaseConfig.setShardMap(new ShardMap(Map.of("Asia", "asia"),
+                Map.of(ShardMap.DEFAULT_SHARD, () -> mockConnection, "asia", () -> asiaConnection)));
+
+        assertEquals(1, service.checkNow());
+        assertEquals(1L * 31 + 10, service.getChecksums().get("city"));
+
+        assertEquals(2, service.checkNow());
+        assertEquals(Set.of("city"), notifications.get(1));
+    }
+}
@@ -0,0 +1,141 @@
+package com.napier.sem.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LanguageMatrix
+ */
+class LanguageMatrixTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    @Mock
+    private PreparedStatement mockStatement;
+
+    @Mock
+    private ResultSet mockResultSet;
+
+    private LanguageMatrix matrix;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        WorldData.install(new WorldSnapshot(1, List.of(),
+                List.of(
+                        new WorldSnapshot.Country("GBR", "United Kingdom", "Europe", "British Islands",
+                                242900, 1066, 1000, 77.7, 1378330.0, 1296830.0, 456),
+                        new WorldSnapshot.Country("ESP", "Spain", "Europe", "Southern Europe",
+                                505992, 1492, 2000, 78.8, 553233.0, 532031.0, 653),
+                        new WorldSnapshot.Country("USA", "United States", "North America", "North America",
+                                9363520, 1776, 4000, 77.1, 8510700.0, 8110900.0, 3813)),
+                List.of(
+                        new WorldSnapshot.CountryLanguage("GBR", "English", true, 100),
+                        new WorldSnapshot.CountryLanguage("ESP", "Spanish", true, 75),
+                        new WorldSnapshot.CountryLanguage("ESP", "Catalan", false, 25),
+                        new WorldSnapshot.CountryLanguage("USA", "English", true, 80),
+                        new WorldSnapshot.CountryLanguage("USA", "Spanish", false, 10))));
+        matrix = LanguageMatrix.current();
+    }
+
+    @AfterEach
+    void tearDown() {
+        WorldData.clear();
+    }
+
+    @Test
+    @DisplayName("Should build one matrix per snapshot")
+    void testMatrixIsCachedPerSnapshot() {
+        assertSame(matrix, LanguageMatrix.current());
+        assertEquals(3, matrix.getLanguageCount());
+        assertEquals(7000, matrix.getWorldPopulation());
+    }
+
+    @Test
+    @DisplayName("Should count speakers of an arbitrary language set")
+    void testSpeakers() {
+        List<LanguageMatrix.Share> shares = matrix.speakers(List.of("spanish", "English", "Klingon"), null, null, false);
+
+        assertEquals(2, shares.size());
+        assertEquals(new LanguageMatrix.Share("English", 4200, 60.0), shares.get(0));
+        assertEquals("Spanish", shares.get(1).language());
+        assertEquals(1900, shares.get(1).speakers());
+    }
+
+    @Test
+    @DisplayName("Should only count official speakers when asked")
+    void testOfficialOnly() {
+        List<LanguageMatrix.Share> shares = matrix.speakers(List.of("Spanish"), null, null, true);
+
+        assertEquals(1500, shares.get(0).speakers());
+    }
+
+    @Test
+    @DisplayName("Should rank the top languages within a continent")
+    void testTopByContinent() {
+        List<LanguageMatrix.Share> top = matrix.top(2, "Europe", null, false);
+
+        assertEquals(2, top.size());
+        assertEquals("Spanish", top.get(0).language());
+        assertEquals(1500, top.get(0).speakers());
+        assertEquals(50.0, top.get(0).percentage(), 0.001);
+        assertEquals("English", top.get(1).language());
+    }
+
+    @Test
+    @DisplayName("Should skip languages with no speakers in the region")
+    void testTopByRegion() {
+        List<LanguageMatrix.Share> top = matrix.top(5, null, "Southern Europe", true);
+
+        assertEquals(1, top.size());
+        assertEquals("Spanish", top.get(0).language());
+    }
+
+    @Test
+    @DisplayName("Should find languages and scopes ignoring case")
+    void testFind() {
+        assertEquals(Optional.of("Catalan"), matrix.findLanguage("CATALAN"));
+        assertEquals(Optional.of("North America"), matrix.findContinent("north america"));
+        assertEquals(Optional.of("British Islands"), matrix.findRegion("british islands"));
+        assertTrue(matrix.findRegion("Atlantis").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should load the matrix in one query when no snapshot is loaded")
+    void testLoadWithoutSnapshot() throws SQLException {
+        WorldData.clear();
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+        when(mockResultSet.next()).thenReturn(true, true, true, false);
+        when(mockResultSet.getString("Code")).thenReturn("ESP", "ESP", "ATA");
+        when(mockResultSet.getString("Continent")).thenReturn("Europe", "Antarctica");
+        when(mockResultSet.getString("Region")).thenReturn("Southern Europe", "Antarctica");
+        when(mockResultSet.getLong("Population")).thenReturn(2000L, 0L);
+        when(mockResultSet.getString("Language")).thenReturn("Spanish", "Catalan", null);
+        when(mockResultSet.getString("IsOfficial")).thenReturn("T", "F");
+        when(mockResultSet.getDouble("Percentage")).thenReturn(75.0, 25.0);
+
+        LanguageMatrix loaded = LanguageMatrix.current(mockConnection);
+
+        verify(mockConnection, times(1)).prepareStatement(contains("LEFT JOIN countrylanguage"));
+        assertEquals(2000, loaded.getWorldPopulation());
+        assertEquals(2, loaded.getLanguageCount());
+        assertEquals(500, loaded.speakers(List.of("Catalan"), null, null, false).get(0).speakers());
+    }
+}
@@ -0,0 +1,110 @@
+package com.napier.sem.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NameResolver
+ */
+class NameResolverTest {
+
+    private NameResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        WorldSnapshot snapshot = new WorldSnapshot(1,
+                List.of(
+                        new WorldSnapshot.City(206, "São Paulo", "BRA", "São Paulo", 9968485),
+                        new WorldSnapshot.City(456, "London", "GBR", "England", 7285000),
+                        new WorldSnapshot.City(3793, "London", "CAN", "Ontario", 339917)),
+                List.of(
+                        new WorldSnapshot.Country("BRA", "Brazil", "South America", "South America",
+                                8547403, 1822, 170115000, 62.9, 776739.0, 804108.0, 211),
+                        new WorldSnapshot.Country("GBR", "United Kingdom", "Europe", "British Islands",
+                                242900, 1066, 59623400, 77.7, 1378330.0, 1296830.0, 456),
+                        new WorldSnapshot.Country("CAN", "Canada", "North America", "North America",
+                                9970610, 1867, 31147000, 79.4, 598862.0, 625626.0, 1822)),
+                List.of());
+        WorldData.install(snapshot);
+        resolver = NameResolver.current();
+    }
+
+    @AfterEach
+    void tearDown() {
+        WorldData.clear();
+    }
+
+    @Test
+    @DisplayName("Should normalise case, accents and whitespace")
+    void testNormalize() {
+        assertEquals("sao paulo", NameResolver.normalize("  São   PAULO "));
+        assertEquals("", NameResolver.normalize(null));
+    }
+
+    @Test
+    @DisplayName("Should resolve country names and codes case-insensitively")
+    void testResolveCountry() {
+        assertEquals(Optional.of("GBR"), resolver.resolveCountryCode("united kingdom"));
+        assertEquals(Optional.of("GBR"), resolver.resolveCountryCode("gbr"));
+        assertTrue(resolver.resolveCountryCode("Atlantis").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should resolve accent-insensitive city names")
+    void testResolveCityWithoutAccents() {
+        assertEquals(Optional.of(206), resolver.resolveCityId("Sao Paulo"));
+    }
+
+    @Test
+    @DisplayName("Should prefer the most populous city when names collide")
+    void testResolveDuplicateCityName() {
+        assertEquals(Optional.of(456), resolver.resolveCityId("london"));
+        assertEquals(List.of(456, 3793), resolver.resolveCityIds("London"));
+    }
+
+    @Test
+    @DisplayName("Should resolve districts, regions and continents to their stored spelling")
+    void testResolveScopes() {
+        assertEquals(Optional.of("São Paulo"), resolver.resolveDistrict("sao paulo"));
+        assertEquals(Optional.of("British Islands"), resolver.resolveRegion("british islands"));
+        assertEquals(Optional.of("North America"), resolver.resolveContinent("NORTH AMERICA"));
+    }
+
+    @Test
+    @DisplayName("Should find countries by partial name")
+    void testFindCountriesContaining() {
+        assertEquals(List.of("GBR"), resolver.findCountryCodesContaining("kingdom"));
+        assertEquals(List.of("BRA", "CAN"), resolver.findCountryCodesContaining("a"));
+        assertTrue(resolver.findCountryCodesContaining("zz").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should answer repeated misses from the negative cache")
+    void testNegativeCache() {
+        resolver.resolveCityId("Gotham");
+        resolver.resolveCityId("gotham");
+
+        assertEquals(1, resolver.getMisses());
+        assertEquals(1, resolver.getNegativeHits());
+        assertEquals(1, resolver.getNegativeCacheSize());
+    }
+
+    @Test
+    @DisplayName("Should be shared per snapshot and rebuilt with a new one")
+    void testResolverFollowsSnapshot() {
+        assertSame(resolver, NameResolver.current());
+
+        WorldData.install(new WorldSnapshot(2, List.of(), List.of(), List.of()));
+        assertNotSame(resolver, NameResolver.current());
+
+        WorldData.clear();
+        assertNull(NameResolver.current());
+    }
+}
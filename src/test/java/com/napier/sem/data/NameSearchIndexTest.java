@@ -0,0 +1,102 @@
+package com.napier.sem.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NameSearchIndex
+ */
+class NameSearchIndexTest {
+
+    private NameSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        WorldSnapshot snapshot = new WorldSnapshot(1,
+                List.of(
+                        new WorldSnapshot.City(206, "São Paulo", "BRA", "São Paulo", 9968485),
+                        new WorldSnapshot.City(207, "Rio de Janeiro", "BRA", "Rio de Janeiro", 5598953),
+                        new WorldSnapshot.City(456, "London", "GBR", "England", 7285000),
+                        new WorldSnapshot.City(3793, "New York", "USA", "New York", 8008278),
+                        new WorldSnapshot.City(3796, "Newark", "USA", "New Jersey", 273546)),
+                List.of(
+                        new WorldSnapshot.Country("BRA", "Brazil", "South America", "South America",
+                                8547403, 1822, 170115000, 62.9, 776739.0, 804108.0, 211),
+                        new WorldSnapshot.Country("GBR", "United Kingdom", "Europe", "British Islands",
+                                242900, 1066, 59623400, 77.7, 1378330.0, 1296830.0, 456),
+                        new WorldSnapshot.Country("USA", "United States", "North America", "North America",
+                                9363520, 1776, 278357000, 77.1, 8510700.0, 8110900.0, 3813)),
+                List.of());
+        index = new NameSearchIndex(snapshot);
+    }
+
+    @Test
+    @DisplayName("Should rank a misspelt city name first")
+    void testFuzzySearch() {
+        List<NameSearchIndex.Match> matches = index.search("Rio de Janiero", NameResolver.Kind.CITY, 3);
+
+        assertFalse(matches.isEmpty());
+        assertEquals("Rio de Janeiro", matches.get(0).name());
+        assertEquals("207", matches.get(0).key());
+    }
+
+    @Test
+    @DisplayName("Should score an exact normalised match as 1")
+    void testExactMatchScore() {
+        List<NameSearchIndex.Match> matches = index.search("sao paulo", NameResolver.Kind.CITY, 1);
+
+        assertEquals(1.0, matches.get(0).score());
+    }
+
+    @Test
+    @DisplayName("Should restrict results to the requested kind")
+    void testKindFilter() {
+        List<NameSearchIndex.Match> matches = index.search("New York", NameResolver.Kind.DISTRICT, 5);
+
+        assertTrue(matches.stream().allMatch(match -> match.kind() == NameResolver.Kind.DISTRICT));
+    }
+
+    @Test
+    @DisplayName("Should complete prefixes, most populous first")
+    void testPrefixCompletion() {
+        List<NameSearchIndex.Match> matches = index.complete("new", NameResolver.Kind.CITY, 5);
+
+        assertEquals(List.of("New York", "Newark"), matches.stream().map(NameSearchIndex.Match::name).toList());
+    }
+
+    @Test
+    @DisplayName("Should complete across kinds when no kind is given")
+    void testPrefixCompletionAllKinds() {
+        List<NameSearchIndex.Match> matches = index.complete("united", null, 5);
+
+        assertEquals(2, matches.size());
+        assertEquals("United States", matches.get(0).name());
+    }
+
+    @Test
+    @DisplayName("Should auto-resolve a confident match")
+    void testAutoResolve() {
+        Optional<NameSearchIndex.Match> match = index.autoResolve("Londn", NameResolver.Kind.CITY);
+
+        assertTrue(match.isPresent());
+        assertEquals("456", match.get().key());
+    }
+
+    @Test
+    @DisplayName("Should not auto-resolve unrelated text")
+    void testNoAutoResolve() {
+        assertTrue(index.autoResolve("Xyzzy", NameResolver.Kind.CITY).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should build padded trigrams")
+    void testTrigrams() {
+        assertEquals(List.of("  a", " ab", "ab "), List.copyOf(NameSearchIndex.trigrams("ab")));
+    }
+}
@@ -0,0 +1,113 @@
+package com.napier.sem.data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SummaryTableService
+ */
+class SummaryTableServiceTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    @Mock
+    private Statement mockStatement;
+
+    private SummaryTableService service;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(mockConnection.createStatement()).thenReturn(mockStatement);
+        when(mockConnection.getAutoCommit()).thenReturn(true);
+        when(mockStatement.executeUpdate(startsWith("INSERT"))).thenReturn(7);
+        service = new SummaryTableService(() -> mockConnection, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SummaryTableService.install(null);
+    }
+
+    @Test
+    @DisplayName("Should be stale until the first refresh")
+    void testInitialState() {
+        assertFalse(service.isFresh());
+        assertEquals(-1, service.getRefreshedVersion());
+        assertEquals(-1, service.getAgeMillis());
+        SummaryTableService.install(service);
+        assertNull(SummaryTableService.current());
+    }
+
+    @Test
+    @DisplayName("Should create the tables once and rebuild them all in one transaction")
+    void testRefresh() throws SQLException {
+        List<SummaryTableService.TableRefresh> tables = service.refreshNow(3);
+        service.refreshNow(3);
+
+        assertEquals(3, tables.size());
+        assertEquals(SummaryTableService.COUNTRY_TABLE, tables.get(0).table());
+        assertEquals(7, tables.get(0).rows());
+        verify(mockStatement, times(3)).execute(startsWith("CREATE TABLE IF NOT EXISTS"));
+        verify(mockStatement, times(6)).executeUpdate(startsWith("DELETE FROM summary_"));
+        verify(mockConnection, times(2)).commit();
+        verify(mockConnection, times(2)).setAutoCommit(true);
+        assertTrue(service.isFresh());
+        assertEquals(3, service.getRefreshedVersion());
+        assertEquals(2, service.getRefreshes());
+    }
+
+    @Test
+    @DisplayName("Should roll back and keep the previous summaries when a rebuild fails")
+    void testRefreshFailure() throws SQLException {
+        service.refreshNow(1);
+        when(mockStatement.executeUpdate(startsWith("INSERT INTO summary_continent")))
+                .thenThrow(new SQLException("lock wait timeout"));
+
+        assertThrows(SQLException.class, () -> service.refreshNow(2));
+
+        verify(mockConnection).rollback();
+        assertEquals(1, service.getRefreshedVersion());
+        assertEquals(1, service.getFailedRefreshes());
+        assertEquals("lock wait timeout", service.getLastError());
+    }
+
+    @Test
+    @DisplayName("Should go stale on a data change until the rebuild catches up")
+    void testDataVersionChange() throws SQLException {
+        service.refreshNow(1);
+        SummaryTableService.install(service);
+        assertSame(service, SummaryTableService.current());
+
+        when(mockConnection.createStatement()).thenThrow(new SQLException("server gone away"));
+        service.onDataVersionChanged(2, Set.of("city"));
+
+        assertFalse(service.isFresh());
+        assertNull(SummaryTableService.current());
+        assertEquals(2, service.getLatestVersion());
+
+        reset(mockConnection);
+        when(mockConnection.createStatement()).thenReturn(mockStatement);
+        service.onDataVersionChanged(3, Set.of("country"));
+
+        assertTrue(service.isFresh());
+        assertEquals(3, service.getRefreshedVersion());
+        verify(mockStatement, times(3)).execute(anyString());
+    }
+}
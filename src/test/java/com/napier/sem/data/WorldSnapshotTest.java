@@ -0,0 +1,88 @@
+package com.napier.sem.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for WorldSnapshot
+ */
+class WorldSnapshotTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private ResultSet stubQuery(String sqlPrefix) throws SQLException {
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(mockConnection.prepareStatement(startsWith(sqlPrefix))).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+        return rs;
+    }
+
+    @Test
+    @DisplayName("Should load all three tables")
+    void testLoad() throws SQLException {
+        ResultSet countries = stubQuery("SELECT Code");
+        when(countries.next()).thenReturn(true, false);
+        when(countries.getString("Code")).thenReturn("GBR");
+        when(countries.getString("Name")).thenReturn("United Kingdom");
+        when(countries.getLong("Population")).thenReturn(59623400L);
+
+        ResultSet cities = stubQuery("SELECT ID");
+        when(cities.next()).thenReturn(true, false);
+        when(cities.getInt("ID")).thenReturn(456);
+        when(cities.getString("Name")).thenReturn("London");
+        when(cities.getString("CountryCode")).thenReturn("GBR");
+
+        ResultSet languages = stubQuery("SELECT CountryCode");
+        when(languages.next()).thenReturn(true, false);
+        when(languages.getString("IsOfficial")).thenReturn("T");
+        when(languages.getDouble("Percentage")).thenReturn(97.3);
+
+        WorldSnapshot snapshot = WorldSnapshot.load(mockConnection, 7);
+
+        assertEquals(7, snapshot.getDataVersion());
+        assertEquals("United Kingdom", snapshot.getCountry("GBR").name());
+        assertEquals("London", snapshot.getCity(456).name());
+        assertTrue(snapshot.getLanguages().get(0).official());
+    }
+
+    @Test
+    @DisplayName("Should propagate query failures")
+    void testLoadFailure() throws SQLException {
+        when(mockConnection.prepareStatement(anyString())).thenThrow(new SQLException("down"));
+
+        assertThrows(SQLException.class, () -> WorldSnapshot.load(mockConnection, 1));
+    }
+
+    @Test
+    @DisplayName("Should build derived indexes once per snapshot")
+    void testDerivedIndexIsCached() {
+        WorldSnapshot snapshot = new WorldSnapshot(1, List.of(), List.of(), List.of());
+
+        NameResolver first = snapshot.derived(NameResolver.class, NameResolver::new);
+        NameResolver second = snapshot.derived(NameResolver.class, NameResolver::new);
+
+        assertSame(first, second);
+    }
+}
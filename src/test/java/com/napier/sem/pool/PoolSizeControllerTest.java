@@ -0,0 +1,122 @@
+package com.napier.sem.pool;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PoolSizeController
+ */
+class PoolSizeControllerTest {
+
+    @Mock
+    private HikariConfigMXBean mockConfig;
+
+    @Mock
+    private HikariPoolMXBean mockPool;
+
+    private PoolSizeController controller;
+    private int maximumPoolSize;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        maximumPoolSize = 10;
+        when(mockConfig.getMaximumPoolSize()).thenAnswer(invocation -> maximumPoolSize);
+        doAnswer(invocation -> maximumPoolSize = invocation.getArgument(0)).when(mockConfig).setMaximumPoolSize(anyInt());
+        controller = new PoolSizeController(mockConfig, mockPool, 2, 12, 2, 1000);
+    }
+
+    @Test
+    @DisplayName("Should grow when threads wait for a connection, up to the upper bound")
+    void testGrowOnWaiting() {
+        when(mockPool.getThreadsAwaitingConnection()).thenReturn(3);
+        when(mockPool.getActiveConnections()).thenReturn(10);
+
+        PoolSizeController.Adjustment adjustment = controller.adjust();
+        controller.adjust();
+
+        assertEquals(10, adjustment.from());
+        assertEquals(12, adjustment.to());
+        assertEquals(12, maximumPoolSize);
+        assertNull(controller.adjust());
+    }
+
+    @Test
+    @DisplayName("Should grow when borrowing a connection is slow")
+    void testGrowOnWaitTime() {
+        when(mockPool.getActiveConnections()).thenReturn(10);
+        controller.recordWait(50_000_000);
+
+        assertEquals(12, controller.adjust().to());
+        assertEquals(50.0, controller.getLastSample().meanWaitMillis(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should back off by a quarter when commands run slower than their baseline")
+    void testBackOffOnLatency() {
+        when(mockPool.getThreadsAwaitingConnection()).thenReturn(5);
+        controller.recordLatency("all-cities", 100_000_000);
+        controller.recordLatency("city-pop", 1_000_000);
+        controller.adjust();
+        maximumPoolSize = 12;
+
+        // Both commands now take three times as long as usual; waiting threads do not override it
+        controller.recordLatency("all-cities", 300_000_000);
+        controller.recordLatency("city-pop", 3_000_000);
+        PoolSizeController.Adjustment adjustment = controller.adjust();
+
+        assertEquals(9, adjustment.to());
+        assertTrue(adjustment.reason().contains("backing off"));
+        InOrder order = inOrder(mockConfig);
+        order.verify(mockConfig).setMinimumIdle(2);
+        order.verify(mockConfig).setMaximumPoolSize(9);
+    }
+
+    @Test
+    @DisplayName("Should not treat a long export as slow next to quick lookups")
+    void testMixedWorkload() {
+        when(mockPool.getActiveConnections()).thenReturn(6);
+        controller.recordLatency("all-cities", 500_000_000);
+        controller.recordLatency("city-pop", 1_000_000);
+        controller.adjust();
+
+        controller.recordLatency("all-cities", 520_000_000);
+        controller.recordLatency("city-pop", 1_100_000);
+        controller.recordLatency("city-pop", 900_000);
+
+        assertNull(controller.adjust());
+        assertEquals("steady", controller.getLastDecision());
+    }
+
+    @Test
+    @DisplayName("Should shrink by one after several quiet intervals, not below the lower bound")
+    void testShrinkWhenIdle() {
+        when(mockPool.getActiveConnections()).thenReturn(1);
+
+        for (int i = 1; i < PoolSizeController.IDLE_INTERVALS; i++) {
+            assertNull(controller.adjust());
+        }
+        assertEquals(9, controller.adjust().to());
+
+        maximumPoolSize = 2;
+        for (int i = 0; i < PoolSizeController.IDLE_INTERVALS; i++) {
+            assertNull(controller.adjust());
+        }
+        assertEquals(1, controller.getAdjustments());
+    }
+
+    @Test
+    @DisplayName("Should reject inverted bounds")
+    void testInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new PoolSizeController(mockConfig, mockPool, 5, 4, 2, 1000));
+    }
+}
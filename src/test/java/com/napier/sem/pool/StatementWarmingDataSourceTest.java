@@ -0,0 +1,150 @@
+package com.napier.sem.pool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StatementWarmingDataSource and StatementStats
+ */
+class StatementWarmingDataSourceTest {
+
+    @Mock
+    private DataSource mockDataSource;
+
+    @Mock
+    private Connection mockConnection;
+
+    @Mock
+    private PreparedStatement mockStatement;
+
+    private StatementWarmingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        StatementStats.reset();
+        when(mockDataSource.getConnection()).thenReturn(mockConnection);
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        dataSource = new StatementWarmingDataSource(mockDataSource, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        StatementStats.clearCurrentCommand();
+        StatementStats.reset();
+    }
+
+    @Test
+    @DisplayName("Should time prepares as cold the first time on a connection and cached after")
+    void testColdThenCached() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        StatementStats.setCurrentCommand("city-pop");
+
+        connection.prepareStatement("SELECT 1");
+        connection.prepareStatement("SELECT 1");
+        connection.prepareStatement("SELECT 1");
+
+        StatementStats.CommandTiming timing = StatementStats.getCommandTimings().get(0);
+        assertEquals("city-pop", timing.command());
+        assertEquals(1, timing.coldPrepares());
+        assertEquals(2, timing.cachedPrepares());
+        assertEquals(List.of("SELECT 1"), StatementStats.topStatements(5));
+    }
+
+    @Test
+    @DisplayName("Should count a prepare as cold once the driver cache would have dropped it")
+    void testCachedStatementsBounded() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        StatementStats.setCurrentCommand("city-pop");
+
+        for (int i = 0; i <= StatementWarmingDataSource.CACHED_STATEMENTS; i++) {
+            connection.prepareStatement("SELECT " + i);
+        }
+        connection.prepareStatement("SELECT " + StatementWarmingDataSource.CACHED_STATEMENTS);
+        connection.prepareStatement("SELECT 0");
+        connection.prepareStatement("SELECT 1".repeat(StatementWarmingDataSource.CACHED_SQL_LIMIT));
+        connection.prepareStatement("SELECT 1".repeat(StatementWarmingDataSource.CACHED_SQL_LIMIT));
+
+        StatementStats.CommandTiming timing = StatementStats.getCommandTimings().get(0);
+        assertEquals(StatementWarmingDataSource.CACHED_STATEMENTS + 4, timing.coldPrepares());
+        assertEquals(1, timing.cachedPrepares());
+    }
+
+    @Test
+    @DisplayName("Should warm new connections with the most used statements")
+    void testWarmUp() throws SQLException {
+        Connection first = dataSource.getConnection();
+        first.prepareStatement("SELECT a");
+        first.prepareStatement("SELECT b");
+        first.prepareStatement("SELECT b");
+        first.prepareStatement("SELECT c");
+        first.prepareStatement("SELECT c");
+        first.prepareStatement("SELECT c");
+
+        Connection second = dataSource.getConnection();
+        second.prepareStatement("SELECT c");
+
+        verify(mockConnection, times(3)).prepareStatement("SELECT b");
+        verify(mockConnection, times(1)).prepareStatement("SELECT a");
+        verify(mockStatement, times(2)).close();
+        assertEquals(2, StatementStats.getWarmedConnections());
+        assertEquals(2, StatementStats.getWarmedStatements());
+        // The warmed statement is already parsed on the second connection
+        assertEquals(3, StatementStats.getTotal().coldPrepares());
+        assertEquals(4, StatementStats.getTotal().cachedPrepares());
+    }
+
+    @Test
+    @DisplayName("Should stop warming statements the server rejects")
+    void testForgetInvalidStatement() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.prepareStatement("SELECT gone FROM dropped");
+        when(mockConnection.prepareStatement("SELECT gone FROM dropped")).thenThrow(new SQLException("no such table"));
+
+        dataSource.getConnection();
+
+        assertEquals(0, StatementStats.getLearnedCount());
+    }
+
+    @Test
+    @DisplayName("Should pass other calls through and unwrap driver errors")
+    void testPassThrough() throws SQLException {
+        when(mockConnection.getAutoCommit()).thenReturn(true);
+        doThrow(new SQLException("closed")).when(mockConnection).commit();
+        Connection connection = dataSource.getConnection();
+
+        assertTrue(connection.getAutoCommit());
+        SQLException e = assertThrows(SQLException.class, connection::commit);
+        assertEquals("closed", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should fill the warm-up with seed statements after the learned ones")
+    void testSeedStatements() throws SQLException {
+        dataSource = new StatementWarmingDataSource(mockDataSource, 2, () -> List.of("SELECT b", "SELECT c", "SELECT d"));
+
+        Connection first = dataSource.getConnection();
+        first.prepareStatement("SELECT b");
+        dataSource.getConnection();
+
+        // Seeds fill the first connection; the second warms the learned statement, then one seed
+        verify(mockConnection, times(3)).prepareStatement("SELECT b");
+        verify(mockConnection, times(2)).prepareStatement("SELECT c");
+        verify(mockConnection, never()).prepareStatement("SELECT d");
+        assertEquals(4, StatementStats.getWarmedStatements());
+    }
+}
@@ -0,0 +1,155 @@
+package com.napier.sem.prefetch;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.ICommand;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CommandPrefetcher
+ */
+class CommandPrefetcherTest {
+
+    private Map<String, ICommand> commands;
+    private CommandPrefetcher prefetcher;
+
+    /**
+     * Command that does nothing
+     */
+    private static class NamedCommand extends CommandBase {
+        private final boolean prefetchable;
+
+        NamedCommand(String name, boolean prefetchable) {
+            super(name, "Does nothing");
+            this.prefetchable = prefetchable;
+        }
+
+        @Override
+        public void execute(Connection connection, String[] args) {
+        }
+
+        @Override
+        public boolean isPrefetchable() {
+            return prefetchable;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        commands = new HashMap<>();
+        commands.put("population-world", new NamedCommand("population-world", true));
+        commands.put("top-countries", new NamedCommand("top-countries", true));
+        commands.put("rate-limit", new NamedCommand("rate-limit", false));
+        prefetcher = new CommandPrefetcher(commands::get, 2, 1000, 0.5, true);
+    }
+
+    private CommandPrefetcher.Prefetch run(String client, String... args) {
+        return prefetcher.observe(client, commands.get(args[0]), args, "");
+    }
+
+    @Test
+    @DisplayName("Should predict the next command once a session has repeated a path")
+    void testPredictsRepeatedPath() {
+        run("a", "population-world");
+        run("a", "top-countries", "5");
+        run("a", "population-world");
+        assertNull(run("a", "top-countries", "5"));
+
+        CommandPrefetcher.Prefetch prefetch = run("a", "population-world");
+
+        assertArrayEquals(new String[]{"top-countries", "5"}, prefetch.args());
+        assertSame(commands.get("top-countries"), prefetch.command());
+        // The return to population-world is predicted as well, and is still to be scored
+        run("a", "top-countries", "5");
+        assertEquals(2, prefetcher.getStats().predictions());
+        assertEquals(1, prefetcher.getStats().correct());
+        assertEquals(0.5, prefetcher.getStats().accuracy());
+    }
+
+    @Test
+    @DisplayName("Should keep a separate history for each session")
+    void testSessionsAreSeparate() {
+        run("a", "population-world");
+        run("a", "top-countries", "5");
+        run("a", "population-world");
+        run("a", "top-countries", "5");
+
+        assertNull(run("b", "population-world"));
+        assertEquals(2, prefetcher.getStats().sessions());
+    }
+
+    @Test
+    @DisplayName("Should score predictions but not prefetch while turned off or for unsafe commands")
+    void testSkips() {
+        prefetcher.setEnabled(false);
+        for (int i = 0; i < 3; i++) {
+            run("a", "population-world");
+            run("a", "top-countries", "5");
+        }
+        assertNull(run("a", "population-world"));
+        assertEquals(3, prefetcher.getStats().predictions());
+        assertEquals(2, prefetcher.getStats().correct());
+        assertEquals(3, prefetcher.getStats().skipped());
+
+        prefetcher.setEnabled(true);
+        for (int i = 0; i < 3; i++) {
+            run("b", "population-world");
+            run("b", "rate-limit", "set", "point", "1", "1");
+        }
+        assertNull(run("b", "population-world"));
+    }
+
+    @Test
+    @DisplayName("Should serve a cached result once and count it as a hit")
+    void testTake() {
+        prefetcher.store("top-countries 5", "output", 40, 0, 0);
+
+        assertTrue(prefetcher.contains("top-countries 5"));
+        assertEquals("output", prefetcher.take("top-countries 5", 500));
+        assertNull(prefetcher.take("top-countries 5", 500));
+        assertEquals(1, prefetcher.getStats().hits());
+        assertEquals(40, prefetcher.getStats().savedMillis());
+    }
+
+    @Test
+    @DisplayName("Should count expired, evicted, failed and invalidated results as waste")
+    void testWaste() {
+        prefetcher.store("one", "1", 10, 0, 0);
+        assertNull(prefetcher.take("one", 5000));
+
+        prefetcher.store("two", "2", 20, 0, 0);
+        prefetcher.store("three", "3", 30, 0, 0);
+        prefetcher.store("four", "4", 40, 0, 0);
+        assertFalse(prefetcher.contains("two"));
+
+        prefetcher.recordFailed(50);
+        prefetcher.onDataVersionChanged(2, Set.of("city"));
+
+        CommandPrefetcher.Stats stats = prefetcher.getStats();
+        assertEquals(5, stats.wasted());
+        assertEquals(150, stats.wastedMillis());
+        assertEquals(0, stats.cached());
+    }
+
+    @Test
+    @DisplayName("Should drop a result fetched before the data version changed")
+    void testRejectsResultFromOldVersion() {
+        long fetchedAt = prefetcher.getDataVersion();
+        prefetcher.onDataVersionChanged(7, Set.of("country"));
+
+        prefetcher.store("top-countries 5", "old", 40, fetchedAt, 0);
+        assertFalse(prefetcher.contains("top-countries 5"));
+        assertEquals(1, prefetcher.getStats().wasted());
+
+        prefetcher.store("top-countries 5", "new", 40, prefetcher.getDataVersion(), 0);
+        assertEquals("new", prefetcher.take("top-countries 5", 0));
+    }
+}
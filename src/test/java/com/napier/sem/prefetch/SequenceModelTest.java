@@ -0,0 +1,88 @@
+package com.napier.sem.prefetch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SequenceModel
+ */
+class SequenceModelTest {
+
+    private static final String CONTINENTS = " Continent      Population\n"
+            + " -------------------------\n"
+            + " Asia           3705025700\n"
+            + " Africa          784475000\n";
+
+    private SequenceModel model;
+
+    @BeforeEach
+    void setUp() {
+        model = new SequenceModel();
+    }
+
+    private static SequenceModel.Step step(String command, String output, String... args) {
+        return new SequenceModel.Step(command, args, output);
+    }
+
+    @Test
+    @DisplayName("Should not predict a transition seen only once")
+    void testNeedsSupport() {
+        model.learn(step("population-continent", CONTINENTS), step("top-countries-continent", "", "Asia", "5"));
+
+        assertNull(model.predict(step("population-continent", CONTINENTS), 2));
+        assertEquals(1, model.size());
+    }
+
+    @Test
+    @DisplayName("Should read the next argument from the previous output at the learned position")
+    void testFromOutput() {
+        model.learn(step("population-continent", CONTINENTS), step("top-countries-continent", "", "Asia", "5"));
+        model.learn(step("population-continent", CONTINENTS), step("top-countries-continent", "", "Asia", "5"));
+
+        String changed = CONTINENTS.replace(" Asia           3705025700\n", " Europe         3805025700\n");
+        SequenceModel.Prediction prediction = model.predict(step("population-continent", changed), 2);
+
+        assertEquals("top-countries-continent", prediction.command());
+        assertArrayEquals(new String[]{"Europe", "5"}, prediction.args());
+        assertEquals(SequenceModel.Rule.FROM_OUTPUT, prediction.rule());
+        assertEquals(1.0, prediction.confidence(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should carry the previous arguments forward when that is what the session does")
+    void testCarried() {
+        model.learn(step("population-region", "", "Caribbean"), step("top-countries-region", "", "Caribbean"));
+        model.learn(step("population-region", "", "Polynesia"), step("top-countries-region", "", "Polynesia"));
+
+        SequenceModel.Prediction prediction = model.predict(step("population-region", "", "Melanesia"), 2);
+
+        assertArrayEquals(new String[]{"Melanesia"}, prediction.args());
+        assertEquals(SequenceModel.Rule.CARRIED, prediction.rule());
+    }
+
+    @Test
+    @DisplayName("Should weigh confidence by how often the command followed")
+    void testConfidence() {
+        for (int i = 0; i < 3; i++) {
+            model.learn(step("population-world", ""), step("top-countries", "", "10"));
+        }
+        model.learn(step("population-world", ""), step("top-cities", "", "10"));
+
+        SequenceModel.Prediction prediction = model.predict(step("population-world", ""), 2);
+
+        assertEquals("top-countries", prediction.command());
+        assertEquals(SequenceModel.Rule.FIXED, prediction.rule());
+        assertEquals(0.75, prediction.confidence(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should read a value up to the column gap, dropping numbers that run into it")
+    void testExtract() {
+        assertEquals("Asia", SequenceModel.extract(CONTINENTS, 2, 1));
+        assertEquals("Northern Africa", SequenceModel.extract(" Northern Africa 173266000", 0, 1));
+        assertNull(SequenceModel.extract(CONTINENTS, 9, 1));
+    }
+}
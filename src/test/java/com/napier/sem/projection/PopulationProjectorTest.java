@@ -0,0 +1,90 @@
+package com.napier.sem.projection;
+
+import com.napier.sem.data.WorldSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PopulationProjector
+ */
+class PopulationProjectorTest {
+
+    private PopulationProjector projector;
+
+    @BeforeEach
+    void setUp() {
+        projector = new PopulationProjector(List.of(
+                new WorldSnapshot.Country("GBR", "United Kingdom", "Europe", "British Islands",
+                        242900, 1066, 1_000_000, 77.7, 1378330.0, 1296830.0, 456),
+                new WorldSnapshot.Country("FRA", "France", "Europe", "Western Europe",
+                        551500, 843, 2_000_000, 78.8, 1424285.0, 1392448.0, 2974),
+                new WorldSnapshot.Country("JPN", "Japan", "Asia", "Eastern Asia",
+                        377829, -660, 4_000_000, 80.7, 3787042.0, 4192638.0, 1532)),
+                Map.of("GBR", 500_000L, "JPN", 1_000_000L));
+    }
+
+    @Test
+    @DisplayName("Should compound fixed rates with country and region overrides")
+    void testDeterministicProjection() {
+        GrowthModel model = new GrowthModel(1.0, 0)
+                .withRegionRate("western europe", 2.0)
+                .withCountryRate("JPN", -1.0);
+
+        List<PopulationProjector.Area> areas = projector.project(model, 10, 500, 1, ForkJoinPool.commonPool());
+
+        double expected = 1_000_000 * Math.pow(1.01, 10) + 2_000_000 * Math.pow(1.02, 10)
+                + 4_000_000 * Math.pow(0.99, 10);
+        PopulationProjector.Area world = areas.get(0);
+        assertEquals("World", world.name());
+        assertEquals(7_000_000, world.basePopulation());
+        assertEquals(expected, world.population().median(), 1e-3);
+        assertEquals(world.population().low(), world.population().high(), 1e-9);
+        assertEquals(500_000 * Math.pow(1.01, 10) + 1_000_000 * Math.pow(0.99, 10), world.urban().median(), 1e-3);
+    }
+
+    @Test
+    @DisplayName("Should list each continent followed by its regions")
+    void testHierarchyOrder() {
+        List<PopulationProjector.Area> areas = projector.project(new GrowthModel(1.0, 0), 1, 1, 1,
+                ForkJoinPool.commonPool());
+
+        assertEquals(List.of("World", "Asia", "Eastern Asia", "Europe", "British Islands", "Western Europe"),
+                areas.stream().map(PopulationProjector.Area::name).toList());
+        assertEquals(List.of(0, 1, 2, 1, 2, 2), areas.stream().map(PopulationProjector.Area::level).toList());
+        assertEquals(6, projector.getAreaCount());
+    }
+
+    @Test
+    @DisplayName("Should give identical Monte Carlo results whatever the parallelism")
+    void testParallelismDoesNotChangeResults() {
+        List<WorldSnapshot.Country> many = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            many.add(new WorldSnapshot.Country("C" + i, "Country " + i, i % 2 == 0 ? "Europe" : "Asia",
+                    "Region " + (i % 5), 1000, null, 10_000 + i, null, null, null, null));
+        }
+        PopulationProjector large = new PopulationProjector(many, Map.of());
+        GrowthModel model = new GrowthModel(1.0, 0.8);
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            List<PopulationProjector.Area> first = large.project(model, 20, 300, 7, single);
+            List<PopulationProjector.Area> second = large.project(model, 20, 300, 7, parallel);
+            assertEquals(first, second);
+
+            PopulationProjector.Interval world = first.get(0).population();
+            assertTrue(world.low() < world.median() && world.median() < world.high());
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.napier.sem.reports;
+
+import com.napier.sem.data.WorldSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CountryMetricIndex
+ */
+class CountryMetricIndexTest {
+
+    private CountryMetricIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CountryMetricIndex(List.of(
+                new WorldSnapshot.Country("GBR", "United Kingdom", "Europe", "British Islands",
+                        242900, 1066, 59623400, 77.7, 1378330.0, 1296830.0, 456),
+                new WorldSnapshot.Country("IRL", "Ireland", "Europe", "British Islands",
+                        70273, 1921, 3775100, 76.8, 75921.0, 73132.0, 1447),
+                new WorldSnapshot.Country("FRA", "France", "Europe", "Western Europe",
+                        551500, 843, 59225700, 78.8, 1424285.0, 1392448.0, 2974),
+                new WorldSnapshot.Country("ATA", "Antarctica", "Antarctica", "Antarctica",
+                        13120000, null, 0, null, 0.0, null, null)));
+    }
+
+    @Test
+    @DisplayName("Should rank by a stored column, leaving out null values")
+    void testTopByLifeExpectancy() {
+        List<CountryMetricIndex.Ranked> top = index.top(ReportSpec.Metric.LIFE_EXPECTANCY, ReportSpec.Scope.WORLD, null, 10);
+
+        assertEquals(3, top.size());
+        assertEquals("FRA", top.get(0).country().code());
+        assertEquals(1, top.get(0).rank());
+        assertEquals("IRL", top.get(2).country().code());
+    }
+
+    @Test
+    @DisplayName("Should rank derived metrics within a region")
+    void testDerivedMetricInRegion() {
+        List<CountryMetricIndex.Ranked> top = index.top(ReportSpec.Metric.GNP_PER_CAPITA, ReportSpec.Scope.REGION,
+                "British Islands", 5);
+
+        assertEquals(2, top.size());
+        assertEquals("GBR", top.get(0).country().code());
+        assertEquals(1378330.0 * 1_000_000 / 59623400, top.get(0).value(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should list the lowest values first for bottom-N")
+    void testBottom() {
+        List<CountryMetricIndex.Ranked> bottom = index.bottom(ReportSpec.Metric.DENSITY, ReportSpec.Scope.CONTINENT,
+                "Europe", 2);
+
+        assertEquals(List.of("IRL", "FRA"), bottom.stream().map(ranked -> ranked.country().code()).toList());
+        assertEquals(3, bottom.get(0).rank());
+    }
+
+    @Test
+    @DisplayName("Should answer percentiles and ranks from the sorted arrays")
+    void testPercentileAndRank() {
+        assertEquals(Optional.of(843.0), index.percentile(ReportSpec.Metric.INDEP_YEAR, ReportSpec.Scope.WORLD, null, 0));
+        assertEquals(Optional.of(1066.0), index.percentile(ReportSpec.Metric.INDEP_YEAR, ReportSpec.Scope.WORLD, null, 50));
+        assertEquals(Optional.of(1921.0), index.percentile(ReportSpec.Metric.INDEP_YEAR, ReportSpec.Scope.WORLD, null, 100));
+        assertEquals(2, index.rankOf(ReportSpec.Metric.POPULATION, ReportSpec.Scope.CONTINENT, "Europe", "FRA")
+                .orElseThrow().rank());
+        assertTrue(index.percentile(ReportSpec.Metric.GNP_GROWTH, ReportSpec.Scope.REGION, "Antarctica", 50).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should give countries with equal values the same rank")
+    void testSharedRanks() {
+        CountryMetricIndex tied = new CountryMetricIndex(List.of(
+                new WorldSnapshot.Country("AAA", "Alpha", "Europe", "North", 1, null, 500, null, null, null, null),
+                new WorldSnapshot.Country("BBB", "Beta", "Europe", "North", 1, null, 300, null, null, null, null),
+                new WorldSnapshot.Country("CCC", "Gamma", "Europe", "North", 1, null, 300, null, null, null, null),
+                new WorldSnapshot.Country("DDD", "Delta", "Europe", "North", 1, null, 100, null, null, null, null)));
+
+        assertEquals(2, tied.rankOf(ReportSpec.Metric.POPULATION, ReportSpec.Scope.WORLD, null, "BBB")
+                .orElseThrow().rank());
+        assertEquals(2, tied.rankOf(ReportSpec.Metric.POPULATION, ReportSpec.Scope.WORLD, null, "CCC")
+                .orElseThrow().rank());
+        assertEquals(4, tied.rankOf(ReportSpec.Metric.POPULATION, ReportSpec.Scope.REGION, "North", "DDD")
+                .orElseThrow().rank());
+        assertTrue(tied.rankOf(ReportSpec.Metric.POPULATION, ReportSpec.Scope.WORLD, null, "ZZZ").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should find continents and regions ignoring case")
+    void testFindScope() {
+        assertEquals(Optional.of("Western Europe"), index.findScope(ReportSpec.Scope.REGION, "western europe"));
+        assertTrue(index.findScope(ReportSpec.Scope.CONTINENT, "Atlantis").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should only rank cities and capitals by population")
+    void testMetricSupport() {
+        assertThrows(IllegalArgumentException.class, () -> new ReportSpec(ReportSpec.Entity.CITY,
+                ReportSpec.Scope.WORLD, ReportSpec.Metric.GNP, true));
+        assertEquals("GNP", ReportSpec.Metric.GNP.column(ReportSpec.Entity.COUNTRY));
+        assertEquals(ReportSpec.Metric.GNP_PER_CAPITA, ReportSpec.Metric.fromKeyword("GNP-per-capita"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.napier.sem.reports;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RankedListCache
+ */
+class RankedListCacheTest {
+
+    private static RankedListCache.Key key(String scopeKey) {
+        return new RankedListCache.Key(ReportSpec.Entity.CITY, ReportSpec.Scope.CONTINENT,
+                ReportSpec.Metric.POPULATION, scopeKey);
+    }
+
+    private static List<Object[]> rows(int count) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"City " + i, "Country", "District", (long) (count - i)});
+        }
+        return rows;
+    }
+
+    @Test
+    @DisplayName("Should answer top-N, list and page requests from a complete list")
+    void testSliceCompleteList() {
+        RankedListCache cache = new RankedListCache(100);
+        cache.put(key("Asia"), rows(20), true);
+
+        assertEquals("City 0", cache.slice(key("Asia"), 0, 10).get(0)[0]);
+        assertEquals(20, cache.slice(key("Asia"), 0, -1).size());
+        List<Object[]> page = cache.slice(key("Asia"), 15, 10);
+        assertEquals(5, page.size());
+        assertEquals("City 15", page.get(0)[0]);
+        assertEquals(3, cache.getHits());
+    }
+
+    @Test
+    @DisplayName("Should only answer requests a prefix covers")
+    void testSlicePrefix() {
+        RankedListCache cache = new RankedListCache(100);
+        cache.put(key("Asia"), rows(10), false);
+
+        assertNotNull(cache.slice(key("Asia"), 0, 5));
+        assertNull(cache.slice(key("Asia"), 0, 11));
+        assertNull(cache.slice(key("Asia"), 0, -1));
+        assertNull(cache.slice(key("Europe"), 0, 5));
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Should not replace a longer entry with a shorter prefix")
+    void testKeepsLongerEntry() {
+        RankedListCache cache = new RankedListCache(100);
+        cache.put(key("Asia"), rows(20), true);
+        cache.put(key("Asia"), rows(5), false);
+
+        assertEquals(20, cache.getRowCount());
+        assertEquals(20, cache.slice(key("Asia"), 0, -1).size());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used scopes beyond the row budget")
+    void testEviction() {
+        RankedListCache cache = new RankedListCache(25);
+        cache.put(key("Asia"), rows(10), true);
+        cache.put(key("Europe"), rows(10), true);
+        cache.slice(key("Asia"), 0, 1);
+        cache.put(key("Africa"), rows(10), true);
+
+        assertEquals(2, cache.getScopeCount());
+        assertEquals(20, cache.getRowCount());
+        assertEquals(1, cache.getEvictions());
+        assertNotNull(cache.slice(key("Asia"), 0, 1));
+        assertNull(cache.slice(key("Europe"), 0, 1));
+    }
+}
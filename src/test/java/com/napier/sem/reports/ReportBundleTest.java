@@ -0,0 +1,162 @@
+package com.napier.sem.reports;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.ICommand;
+import com.napier.sem.data.WorldSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for ReportBundle
+ */
+class ReportBundleTest {
+
+    @TempDir
+    Path directory;
+
+    private WorldSnapshot snapshot;
+    private Map<String, ICommand> commands;
+    private AtomicInteger connections;
+
+    /**
+     * Command that prints the arguments it was given
+     */
+    private static class EchoCommand extends CommandBase {
+        EchoCommand(String name) {
+            super(name, "Echoes its arguments");
+        }
+
+        @Override
+        public void execute(Connection connection, String[] args) throws SQLException {
+            if (args.length > 1 && args[1].equals("Atlantis")) {
+                throw new SQLException("No such place");
+            }
+            System.out.println(String.join(" ", args));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        snapshot = new WorldSnapshot(1,
+                List.of(new WorldSnapshot.City(1, "Tokyo", "JPN", "Tokyo-to", 7980230),
+                        new WorldSnapshot.City(2, "London", "GBR", "England", 7285000)),
+                List.of(new WorldSnapshot.Country("GBR", "United Kingdom", "Europe", "British Islands",
+                                242900, 1066, 59623400, 77.7, 1378330.0, 1296830.0, 2),
+                        new WorldSnapshot.Country("JPN", "Japan", "Asia", "Eastern Asia",
+                                377829, -660, 126714000, 80.7, 3787042.0, 4192638.0, 1)),
+                List.of());
+        commands = new HashMap<>();
+        for (ReportBundle.UseCase useCase : ReportBundle.USE_CASES) {
+            commands.put(useCase.command(), new EchoCommand(useCase.command()));
+        }
+        connections = new AtomicInteger();
+    }
+
+    private ReportBundle bundle() {
+        return new ReportBundle(() -> {
+            connections.incrementAndGet();
+            return mock(Connection.class);
+        }, snapshot, commands::get);
+    }
+
+    @Test
+    @DisplayName("Should cover the 32 use cases")
+    void testUseCases() {
+        assertEquals(32, ReportBundle.USE_CASES.size());
+        assertEquals(32, ReportBundle.USE_CASES.get(31).useCase());
+    }
+
+    @Test
+    @DisplayName("Should write one file per use case and scope, with an index")
+    void testWrite() throws IOException {
+        ReportBundle.Result result = bundle().write(directory, 5, false, 4);
+
+        // 9 world reports, then 2 each for 7 continent, 8 region and 4 country use cases
+        assertEquals(9 + 14 + 16 + 8, result.runs().size());
+        assertEquals(result.runs().size(), connections.get());
+        assertEquals(4, result.parallelism());
+        assertEquals(0, result.failures());
+        assertEquals("top-cities-continent Asia 5",
+                Files.readString(directory.resolve("uc13-top-cities-continent-asia.txt")).trim());
+        assertEquals("cities-country United Kingdom",
+                Files.readString(directory.resolve("uc10-cities-country-united-kingdom.txt")).trim());
+
+        String index = Files.readString(directory.resolve("index.md"));
+        assertTrue(index.contains("| 13 | top-cities-continent | Asia | [uc13-top-cities-continent-asia.txt]"));
+        assertTrue(index.contains("Skipped use case 31 city-pop: run with full for every city"));
+    }
+
+    @Test
+    @DisplayName("Should run district and city reports for every district and city in a full bundle")
+    void testWriteFull() throws IOException {
+        ReportBundle.Result result = bundle().write(directory, 5, true, 2);
+
+        assertTrue(result.skipped().isEmpty());
+        assertTrue(Files.exists(directory.resolve("uc31-city-pop-tokyo.txt")));
+        assertTrue(Files.exists(directory.resolve("uc16-top-cities-district-england.txt")));
+    }
+
+    @Test
+    @DisplayName("Should record failed reports and skip unregistered commands")
+    void testFailuresAndMissingCommands() throws IOException {
+        commands.remove("language-dist");
+        snapshot = new WorldSnapshot(1, List.of(), List.of(new WorldSnapshot.Country("ATL", "Atlantis", "Atlantis",
+                "Atlantis", 1, null, 0, null, null, null, null)), List.of());
+
+        ReportBundle.Result result = bundle().write(directory, 5, false, 2);
+
+        assertTrue(result.failures() > 0);
+        assertTrue(result.skipped().contains("32 language-dist: command not registered"));
+        assertTrue(Files.readString(directory.resolve("uc02-all-countries-continent-atlantis.txt"))
+                .contains("Failed: No such place"));
+        assertTrue(Files.readString(directory.resolve("index.md")).contains("failed: No such place"));
+    }
+
+    @Test
+    @DisplayName("Should record a report that cannot be written and write the rest")
+    void testUnwritableReport() throws IOException {
+        // A directory in the way of a report file makes writing it fail
+        Files.createDirectories(directory.resolve("uc13-top-cities-continent-asia.txt"));
+
+        ReportBundle.Result result = bundle().write(directory, 5, false, 2);
+
+        assertEquals(9 + 14 + 16 + 8, result.runs().size());
+        assertEquals(1, result.failures());
+        assertTrue(Files.exists(directory.resolve("uc13-top-cities-continent-europe.txt")));
+        assertTrue(Files.readString(directory.resolve("index.md"))
+                .contains("failed: Could not write uc13-top-cities-continent-asia.txt"));
+    }
+
+    @Test
+    @DisplayName("Should run every report on the calling thread's connection when no helper can start")
+    void testWriteWithoutHelpers() throws IOException {
+        Connection own = mock(Connection.class);
+        AtomicInteger launched = new AtomicInteger();
+
+        ReportBundle.Result result = bundle().write(directory, 5, false, 3, own, helper -> {
+            launched.incrementAndGet();
+            throw new RejectedExecutionException("queue full");
+        });
+
+        assertEquals(9 + 14 + 16 + 8, result.runs().size());
+        assertEquals(0, result.failures());
+        assertEquals(1, launched.get());
+        assertEquals(0, connections.get());
+    }
+}
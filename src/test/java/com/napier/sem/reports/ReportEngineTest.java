@@ -0,0 +1,351 @@
+package com.napier.sem.reports;
+
+import com.napier.sem.DatabaseConfig;
+import com.napier.sem.data.WorldData;
+import com.napier.sem.data.WorldSnapshot;
+import com.napier.sem.shard.ShardMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReportEngine
+ */
+class ReportEngineTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    @Mock
+    private PreparedStatement mockStatement;
+
+    @Mock
+    private ResultSet mockResultSet;
+
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeQuery()).thenReturn(mockResultSet);
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+        WorldData.clear();
+        DatabaseConfig.setShardMap(null);
+    }
+
+    /**
+     * Connection to a shard whose city query returns cities of the given populations, largest first
+     */
+    private Connection shard(long... populations) throws SQLException {
+        return shard(populations, populations);
+    }
+
+    /**
+     * Connection to a shard whose city query returns cities of the given populations and IDs
+     */
+    private Connection shard(long[] ids, long... populations) throws SQLException {
+        Connection connection = mock(Connection.class);
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(connection.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+        int[] row = {-1};
+        when(rs.next()).thenAnswer(invocation -> ++row[0] < populations.length);
+        when(rs.getString("CityName")).thenAnswer(invocation -> "City" + populations[row[0]]);
+        when(rs.getString("Country")).thenAnswer(invocation -> "Country" + ids[row[0]]);
+        when(rs.getString("District")).thenReturn("District");
+        when(rs.getLong("Population")).thenAnswer(invocation -> populations[row[0]]);
+        when(rs.getDouble("SortValue")).thenAnswer(invocation -> (double) populations[row[0]]);
+        when(rs.getObject("SortKey")).thenAnswer(invocation -> ids[row[0]]);
+        return connection;
+    }
+
+    @Test
+    @DisplayName("Should generate one statement per shape and reuse it")
+    void testStatementIsCachedPerShape() {
+        ReportSpec spec = new ReportSpec(ReportSpec.Entity.CITY, ReportSpec.Scope.CONTINENT,
+                ReportSpec.Metric.POPULATION, true);
+
+        String first = ReportEngine.statement(spec, "country.Continent");
+        String second = ReportEngine.statement(new ReportSpec(ReportSpec.Entity.CITY, ReportSpec.Scope.CONTINENT,
+                ReportSpec.Metric.POPULATION, true), "country.Continent");
+
+        assertSame(first, second);
+        assertEquals("SELECT city.Name AS CityName, country.Name AS Country, city.District, city.Population "
+                + "FROM city JOIN country ON city.CountryCode = country.Code "
+                + "WHERE country.Continent = ? ORDER BY city.Population DESC, city.ID LIMIT ?", first);
+    }
+
+    @Test
+    @DisplayName("Should reject shapes that do not exist")
+    void testUnsupportedShape() {
+        assertThrows(IllegalArgumentException.class, () -> new ReportSpec(ReportSpec.Entity.COUNTRY,
+                ReportSpec.Scope.DISTRICT, ReportSpec.Metric.POPULATION, false));
+        assertFalse(ReportSpec.supports(ReportSpec.Entity.CAPITAL, ReportSpec.Scope.COUNTRY));
+    }
+
+    @Test
+    @DisplayName("Should bind the scope name and limit in order")
+    void testRunBindsParameters() throws SQLException {
+        when(mockResultSet.next()).thenReturn(true, false);
+        when(mockResultSet.getString("CapitalCity")).thenReturn("Tokyo");
+        when(mockResultSet.getString("Country")).thenReturn("Japan");
+        when(mockResultSet.getLong("Population")).thenReturn(7_980_230L);
+
+        ReportEngine.run(mockConnection, new ReportSpec(ReportSpec.Entity.CAPITAL, ReportSpec.Scope.REGION,
+                ReportSpec.Metric.POPULATION, true), "Eastern Asia", 3);
+
+        verify(mockConnection).prepareStatement(contains("WHERE country.Region = ?"));
+        verify(mockStatement).setString(1, "Eastern Asia");
+        verify(mockStatement).setInt(2, 3);
+        String output = outputStream.toString();
+        assertTrue(output.contains("Top 3 Capital Cities in Eastern Asia"));
+        assertTrue(output.contains("7,980,230"));
+    }
+
+    @Test
+    @DisplayName("Should filter a resolved country on its code")
+    void testCountryScopeUsesCode() throws SQLException {
+        WorldData.install(new WorldSnapshot(1, List.of(),
+                List.of(new WorldSnapshot.Country("GBR", "United Kingdom", "Europe", "British Islands",
+                        242900, 1066, 59623400, 77.7, 1378330.0, 1296830.0, 456)),
+                List.of()));
+        when(mockResultSet.next()).thenReturn(false);
+
+        ReportEngine.run(mockConnection, new ReportSpec(ReportSpec.Entity.CITY, ReportSpec.Scope.COUNTRY,
+                ReportSpec.Metric.POPULATION, false), "united kingdom", 0);
+
+        verify(mockConnection).prepareStatement(contains("WHERE city.CountryCode = ?"));
+        verify(mockStatement).setString(1, "GBR");
+        assertTrue(outputStream.toString().contains("All Cities in United Kingdom"));
+    }
+
+    @Test
+    @DisplayName("Should list the cities of every country containing the text, merged by population")
+    void testMatchingCountries() throws SQLException {
+        WorldData.install(new WorldSnapshot(1, List.of(), List.of(
+                new WorldSnapshot.Country("GBR", "United Kingdom", "Europe", "British Islands",
+                        242900, 1066, 59623400, 77.7, 1378330.0, 1296830.0, 456),
+                new WorldSnapshot.Country("USA", "United States", "North America", "North America",
+                        9363520, 1776, 278357000, 77.1, 8510700.0, 8110900.0, 3813),
+                new WorldSnapshot.Country("FRA", "France", "Europe", "Western Europe",
+                        551500, 843, 59225700, 78.8, 1424285.0, 1392448.0, 2974)),
+                List.of()));
+        // Each country's query returns that country's two cities, largest first
+        String[] code = {null};
+        int[] row = {-1};
+        doAnswer(invocation -> {
+            code[0] = invocation.getArgument(1);
+            row[0] = -1;
+            return null;
+        }).when(mockStatement).setString(anyInt(), anyString());
+        Map<String, long[]> populations = Map.of("GBR", new long[]{7285000, 1013000}, "USA", new long[]{8008278, 3694820});
+        when(mockResultSet.next()).thenAnswer(invocation -> ++row[0] < 2);
+        when(mockResultSet.getString("CityName")).thenAnswer(invocation -> code[0] + "-" + row[0]);
+        when(mockResultSet.getString("Country")).thenAnswer(invocation -> code[0]);
+        when(mockResultSet.getString("District")).thenReturn("District");
+        when(mockResultSet.getLong("Population")).thenAnswer(invocation -> populations.get(code[0])[row[0]]);
+
+        ReportEngine.runMatchingCountries(mockConnection, new ReportSpec(ReportSpec.Entity.CITY,
+                ReportSpec.Scope.COUNTRY, ReportSpec.Metric.POPULATION, false), "united", 0);
+
+        verify(mockStatement).setString(1, "GBR");
+        verify(mockStatement).setString(1, "USA");
+        String output = outputStream.toString();
+        assertTrue(output.contains("countries matching 'united' (2 countries)"));
+        int usa = output.indexOf("USA-0");
+        int gbr = output.indexOf("GBR-0");
+        assertTrue(usa >= 0 && gbr > usa && output.indexOf("USA-1") > gbr && output.indexOf("GBR-1") > output.indexOf("USA-1"));
+    }
+
+    @Test
+    @DisplayName("Should run an exact country name for that country alone")
+    void testMatchingCountriesExactName() throws SQLException {
+        WorldData.install(new WorldSnapshot(1, List.of(), List.of(
+                new WorldSnapshot.Country("GBR", "United Kingdom", "Europe", "British Islands",
+                        242900, 1066, 59623400, 77.7, 1378330.0, 1296830.0, 456),
+                new WorldSnapshot.Country("USA", "United States", "North America", "North America",
+                        9363520, 1776, 278357000, 77.1, 8510700.0, 8110900.0, 3813)),
+                List.of()));
+        when(mockResultSet.next()).thenReturn(false);
+
+        ReportEngine.runMatchingCountries(mockConnection, new ReportSpec(ReportSpec.Entity.CITY,
+                ReportSpec.Scope.COUNTRY, ReportSpec.Metric.POPULATION, false), "united states", 0);
+
+        verify(mockStatement).setString(1, "USA");
+        verify(mockStatement, never()).setString(1, "GBR");
+        assertTrue(outputStream.toString().contains("All Cities in United States"));
+    }
+
+    @Test
+    @DisplayName("Should answer unknown scope names without querying")
+    void testUnknownScopeName() throws SQLException {
+        WorldData.install(new WorldSnapshot(1, List.of(),
+                List.of(new WorldSnapshot.Country("GBR", "United Kingdom", "Europe", "British Islands",
+                        242900, 1066, 59623400, 77.7, 1378330.0, 1296830.0, 456)),
+                List.of()));
+
+        ReportEngine.run(mockConnection, new ReportSpec(ReportSpec.Entity.COUNTRY, ReportSpec.Scope.CONTINENT,
+                ReportSpec.Metric.POPULATION, false), "Atlantis", 0);
+
+        verify(mockConnection, never()).prepareStatement(anyString());
+        assertTrue(outputStream.toString().contains("No countries found in continent: Atlantis"));
+    }
+
+    @Test
+    @DisplayName("Should rank every group in one windowed statement")
+    void testGroupedStatement() {
+        String sql = ReportEngine.groupedStatement(new ReportSpec(ReportSpec.Entity.CITY, ReportSpec.Scope.COUNTRY,
+                ReportSpec.Metric.POPULATION, true));
+
+        assertTrue(sql.contains("ROW_NUMBER() OVER (PARTITION BY city.CountryCode ORDER BY city.Population DESC, city.ID)"));
+        assertTrue(sql.contains("country.Name AS GroupName"));
+        assertTrue(sql.contains("WHERE GroupRank <= ?"));
+    }
+
+    @Test
+    @DisplayName("Should print a heading each time the group changes")
+    void testRunGroupedPrintsGroups() throws SQLException {
+        when(mockResultSet.next()).thenReturn(true, true, true, false);
+        when(mockResultSet.getString("GroupName")).thenReturn("Caribbean", "Caribbean", "Eastern Asia");
+        when(mockResultSet.getString("CapitalCity")).thenReturn("La Habana", "Santo Domingo", "Seoul");
+        when(mockResultSet.getString("Country")).thenReturn("Cuba", "Dominican Republic", "South Korea");
+        when(mockResultSet.getLong("Population")).thenReturn(2256000L, 1609966L, 9981619L);
+
+        ReportEngine.runGrouped(mockConnection, new ReportSpec(ReportSpec.Entity.CAPITAL, ReportSpec.Scope.REGION,
+                ReportSpec.Metric.POPULATION, true), 2);
+
+        verify(mockConnection, times(1)).prepareStatement(contains("PARTITION BY country.Region"));
+        verify(mockStatement).setInt(1, 2);
+        String output = outputStream.toString();
+        assertTrue(output.contains("Top 2 Capital Cities in every region"));
+        assertTrue(output.indexOf("Caribbean") < output.indexOf("Santo Domingo"));
+        assertTrue(output.indexOf("Santo Domingo") < output.indexOf("Eastern Asia"));
+        assertTrue(output.contains("2 region groups"));
+    }
+
+    @Test
+    @DisplayName("Should slice later top-N requests from a cached list")
+    void testTopNSlicedFromCachedList() throws SQLException {
+        WorldData.install(new WorldSnapshot(1, List.of(),
+                List.of(new WorldSnapshot.Country("JPN", "Japan", "Asia", "Eastern Asia",
+                        377829, -660, 126714000, 80.7, 3787042.0, 4192638.0, 1532)),
+                List.of()));
+        when(mockResultSet.next()).thenReturn(true, true, false);
+        when(mockResultSet.getString("CityName")).thenReturn("Tokyo", "Jokohama [Yokohama]");
+        when(mockResultSet.getString("Country")).thenReturn("Japan", "Japan");
+        when(mockResultSet.getString("District")).thenReturn("Tokyo-to", "Kanagawa");
+        when(mockResultSet.getLong("Population")).thenReturn(7980230L, 3339594L);
+
+        ReportEngine.run(mockConnection, new ReportSpec(ReportSpec.Entity.CITY, ReportSpec.Scope.CONTINENT,
+                ReportSpec.Metric.POPULATION, false), "asia", 0);
+        outputStream.reset();
+        ReportEngine.run(mockConnection, new ReportSpec(ReportSpec.Entity.CITY, ReportSpec.Scope.CONTINENT,
+                ReportSpec.Metric.POPULATION, true), "Asia", 1);
+
+        verify(mockConnection, times(1)).prepareStatement(anyString());
+        String output = outputStream.toString();
+        assertTrue(output.contains("Top 1 Cities in Asia"));
+        assertTrue(output.contains("Tokyo"));
+        assertFalse(output.contains("Kanagawa"));
+    }
+
+    @Test
+    @DisplayName("Should page with LIMIT and OFFSET when no cache is available")
+    void testPageWithoutCache() throws SQLException {
+        when(mockResultSet.next()).thenReturn(true, false);
+        when(mockResultSet.getString("Code")).thenReturn("FRA");
+        when(mockResultSet.getString("Name")).thenReturn("France");
+        when(mockResultSet.getString("Continent")).thenReturn("Europe");
+        when(mockResultSet.getString("Region")).thenReturn("Western Europe");
+        when(mockResultSet.getLong("Population")).thenReturn(59225700L);
+
+        ReportEngine.runPage(mockConnection, new ReportSpec(ReportSpec.Entity.COUNTRY, ReportSpec.Scope.WORLD,
+                ReportSpec.Metric.POPULATION, false), null, 3, 10);
+
+        verify(mockConnection).prepareStatement(endsWith("ORDER BY Population DESC, Code LIMIT ? OFFSET ?"));
+        verify(mockStatement).setInt(1, 10);
+        verify(mockStatement).setInt(2, 20);
+        assertTrue(outputStream.toString().contains("Page 3 (rows 21 to 21)"));
+    }
+
+    @Test
+    @DisplayName("Should fan a world top-N out to every shard and merge the rankings")
+    void testShardedWorldTopN() throws SQLException {
+        Connection defaultShard = shard(900, 500, 100);
+        Connection asiaShard = shard(800, 700);
+        DatabaseConfig.setShardMap(new ShardMap(Map.of("Asia", "asia"),
+                Map.of(ShardMap.DEFAULT_SHARD, () -> defaultShard, "asia", () -> asiaShard)));
+
+        ReportEngine.run(mockConnection, new ReportSpec(ReportSpec.Entity.CITY, ReportSpec.Scope.WORLD,
+                ReportSpec.Metric.POPULATION, true), null, 3);
+
+        String output = outputStream.toString();
+        assertTrue(output.indexOf("City900") < output.indexOf("City800"));
+        assertTrue(output.indexOf("City800") < output.indexOf("City700"));
+        assertFalse(output.contains("City500"));
+        verify(defaultShard).prepareStatement(contains("AS SortValue"));
+        verify(asiaShard).prepareStatement(contains("AS SortValue"));
+        verify(mockConnection, never()).prepareStatement(anyString());
+    }
+
+    @Test
+    @DisplayName("Should break ties between shards on the city ID, as the statement does")
+    void testShardedTiesBrokenOnKey() throws SQLException {
+        Connection defaultShard = shard(new long[]{30}, 500);
+        Connection asiaShard = shard(new long[]{20}, 500);
+        DatabaseConfig.setShardMap(new ShardMap(Map.of("Asia", "asia"),
+                Map.of(ShardMap.DEFAULT_SHARD, () -> defaultShard, "asia", () -> asiaShard)));
+
+        ReportEngine.run(mockConnection, new ReportSpec(ReportSpec.Entity.CITY, ReportSpec.Scope.WORLD,
+                ReportSpec.Metric.POPULATION, true), null, 1);
+
+        verify(asiaShard).prepareStatement(contains("city.ID AS SortKey"));
+        String output = outputStream.toString();
+        assertTrue(output.contains("Country20"));
+        assertFalse(output.contains("Country30"));
+    }
+
+    @Test
+    @DisplayName("Should send a continent report to that continent's shard only")
+    void testShardedContinentRouted() throws SQLException {
+        Connection defaultShard = shard(900);
+        Connection asiaShard = shard(800, 700);
+        DatabaseConfig.setShardMap(new ShardMap(Map.of("Asia", "asia"),
+                Map.of(ShardMap.DEFAULT_SHARD, () -> defaultShard, "asia", () -> asiaShard)));
+
+        ReportEngine.run(mockConnection, new ReportSpec(ReportSpec.Entity.CITY, ReportSpec.Scope.CONTINENT,
+                ReportSpec.Metric.POPULATION, false), "Asia", 0);
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("City800"));
+        assertTrue(output.contains("City700"));
+        verify(defaultShard, never()).prepareStatement(anyString());
+    }
+}
@@ -0,0 +1,136 @@
+package com.napier.sem.resilience;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CircuitBreaker
+ */
+class CircuitBreakerTest {
+
+    private CircuitBreaker breaker;
+    private List<String> transitions;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new CircuitBreaker(3);
+        transitions = new ArrayList<>();
+        breaker.addListener((from, to) -> transitions.add(from + "->" + to));
+    }
+
+    @Test
+    @DisplayName("Should start closed and allow requests")
+    void testStartsClosed() {
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    @DisplayName("Should open after consecutive failures reach the threshold")
+    void testOpensAfterThreshold() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        assertEquals(1, breaker.getRejectedCalls());
+        assertEquals(List.of("CLOSED->OPEN"), transitions);
+    }
+
+    @Test
+    @DisplayName("Should reset the failure count on success")
+    void testSuccessResetsFailures() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(1, breaker.getConsecutiveFailures());
+    }
+
+    @Test
+    @DisplayName("Should close after a successful probe")
+    void testSuccessfulProbeCloses() {
+        tripBreaker();
+
+        assertTrue(breaker.tryAcquireProbe());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquireProbe(), "Only one probe should be allowed at a time");
+
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+
+    @Test
+    @DisplayName("Should re-open after a failed probe")
+    void testFailedProbeReopens() {
+        tripBreaker();
+
+        assertTrue(breaker.tryAcquireProbe());
+        breaker.recordFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(3, breaker.getTransitions());
+    }
+
+    @Test
+    @DisplayName("Should not allow a probe while closed")
+    void testNoProbeWhileClosed() {
+        assertFalse(breaker.tryAcquireProbe());
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive threshold")
+    void testInvalidThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(0));
+    }
+
+    private void tripBreaker() {
+        for (int i = 0; i < breaker.getFailureThreshold(); i++) {
+            breaker.recordFailure();
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand the probe to exactly one of many concurrent callers")
+    void testConcurrentProbe() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+        int callers = 16;
+        AtomicInteger probes = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        for (int i = 0; i < callers; i++) {
+            pool.submit(() -> {
+                start.await();
+                if (breaker.tryAcquireProbe()) {
+                    probes.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(1, probes.get());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN"), transitions);
+        assertEquals(2, breaker.getTransitions());
+    }
+}
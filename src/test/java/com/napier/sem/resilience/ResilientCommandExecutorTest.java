@@ -0,0 +1,304 @@
+package com.napier.sem.resilience;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.DatabaseConfig;
+import com.napier.sem.ICommand;
+import com.napier.sem.prefetch.CommandPrefetcher;
+import com.napier.sem.scheduling.CostClass;
+import com.napier.sem.scheduling.RateLimiter;
+import com.napier.sem.shard.ShardMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ResilientCommandExecutor
+ */
+class ResilientCommandExecutorTest {
+
+    @Mock
+    private Connection mockConnection;
+
+    private ByteArrayOutputStream outputStream;
+    private PrintStream originalOut;
+    private AtomicBoolean databaseUp;
+    private ResilientCommandExecutor executor;
+
+    /**
+     * Command that prints how many times it ran, or fails while the database is down
+     */
+    private class CountingCommand extends CommandBase {
+        private final AtomicInteger runs = new AtomicInteger();
+
+        CountingCommand() {
+            this("counting");
+        }
+
+        CountingCommand(String name) {
+            super(name, "Counts executions");
+        }
+
+        @Override
+        public void execute(Connection connection, String[] args) throws SQLException {
+            if (!databaseUp.get()) {
+                throw new SQLException("Communications link failure");
+            }
+            System.out.println("run " + runs.incrementAndGet());
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(mockConnection.isValid(anyInt())).thenAnswer(invocation -> databaseUp.get());
+
+        outputStream = new ByteArrayOutputStream();
+        originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+
+        databaseUp = new AtomicBoolean(true);
+        executor = new ResilientCommandExecutor(() -> mockConnection, 2, 2000, 20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        DatabaseConfig.setShardMap(null);
+        System.setOut(originalOut);
+    }
+
+    @Test
+    @DisplayName("Should print command output when the database is healthy")
+    void testExecutePrintsOutput() throws Exception {
+        executor.execute(new CountingCommand(), new String[]{"counting"});
+
+        assertTrue(outputStream.toString().contains("run 1"));
+        assertEquals(1, executor.getCachedResultCount());
+    }
+
+    @Test
+    @DisplayName("Should rethrow database errors while the circuit is closed")
+    void testErrorWhileClosed() {
+        databaseUp.set(false);
+
+        assertThrows(SQLException.class, () -> executor.execute(new CountingCommand(), new String[]{"counting"}));
+        assertEquals(CircuitBreaker.State.CLOSED, executor.getBreaker().getState());
+    }
+
+    @Test
+    @DisplayName("Should serve the last good result marked stale while open")
+    void testServesStaleWhileOpen() throws Exception {
+        CountingCommand command = new CountingCommand();
+        executor.execute(command, new String[]{"counting", "Asia"});
+
+        databaseUp.set(false);
+        assertThrows(SQLException.class, () -> executor.execute(command, new String[]{"counting", "Asia"}));
+        outputStream.reset();
+        executor.execute(command, new String[]{"counting", "Asia"});
+
+        assertEquals(CircuitBreaker.State.OPEN, executor.getBreaker().getState());
+        String output = outputStream.toString();
+        assertTrue(output.contains("[STALE]"));
+        assertTrue(output.contains("run 1"));
+        assertEquals(1, executor.getStaleServed());
+    }
+
+    @Test
+    @DisplayName("Should count a miss when no result is cached for the arguments")
+    void testFallbackMiss() throws Exception {
+        CountingCommand command = new CountingCommand();
+        databaseUp.set(false);
+        assertThrows(SQLException.class, () -> executor.execute(command, new String[]{"counting", "Europe"}));
+        executor.execute(command, new String[]{"counting", "Europe"});
+
+        assertEquals(1, executor.getFallbackMisses());
+        assertEquals(0, executor.getStaleServed());
+    }
+
+    @Test
+    @DisplayName("Should close and refresh stale entries in the background after recovery")
+    void testRecoversAndRefreshes() throws Exception {
+        CountingCommand command = new CountingCommand();
+        executor.execute(command, new String[]{"counting"});
+
+        databaseUp.set(false);
+        assertThrows(SQLException.class, () -> executor.execute(command, new String[]{"counting"}));
+        executor.execute(command, new String[]{"counting"});
+        assertEquals(1, executor.getPendingRefreshCount());
+
+        databaseUp.set(true);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor.getBackgroundRefreshes() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, executor.getBreaker().getState());
+        assertEquals(1, executor.getBackgroundRefreshes());
+        assertEquals(2, command.runs.get());
+    }
+
+    @Test
+    @DisplayName("Should refuse a client over its rate limit without affecting other clients")
+    void testRateLimitsPerClient() throws Exception {
+        CountingCommand command = new CountingCommand();
+        executor.getRateLimiter().setLimit(CostClass.POINT_LOOKUP, new RateLimiter.Limit(0.001, 1));
+
+        executor.execute("script", command, new String[]{"counting"});
+        executor.execute("script", command, new String[]{"counting"});
+        executor.execute("dashboard", command, new String[]{"counting"});
+
+        String output = outputStream.toString();
+        assertTrue(output.contains("Rate limited: script may run"));
+        assertTrue(output.contains("retry in"));
+        assertEquals(2, command.runs.get());
+        assertEquals(CircuitBreaker.State.CLOSED, executor.getBreaker().getState());
+    }
+
+    @Test
+    @DisplayName("Should prefetch the command a session usually runs next and serve it from the cache")
+    void testServesPrefetchedResult() throws Exception {
+        CountingCommand first = new CountingCommand("first");
+        CountingCommand second = new CountingCommand("second");
+        Map<String, ICommand> commands = Map.of("first", first, "second", second);
+        CommandPrefetcher prefetcher = new CommandPrefetcher(commands::get, 8, 60000, 0.5, true);
+        executor.shutdown();
+        executor = new ResilientCommandExecutor(() -> mockConnection, 2, 2000, 20, prefetcher);
+
+        for (int i = 0; i < 2; i++) {
+            executor.execute(first, new String[]{"first"});
+            executor.execute(second, new String[]{"second"});
+        }
+        executor.execute(first, new String[]{"first"});
+        for (int i = 0; i < 100 && prefetcher.getStats().cached() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(3, second.runs.get());
+
+        executor.execute(second, new String[]{"second"});
+
+        assertTrue(outputStream.toString().contains("run 3"));
+        assertEquals(3, second.runs.get());
+        assertEquals(1, prefetcher.getStats().hits());
+        assertEquals(1, prefetcher.getStats().correct());
+    }
+
+    @Test
+    @DisplayName("Should open on repeated timeouts even when the abandoned calls finish later")
+    void testTimeoutsOpenDespiteLateSuccess() throws Exception {
+        CountDownLatch finished = new CountDownLatch(2);
+        CommandBase slow = new CommandBase("slow", "Ignores interrupts like a stuck driver") {
+            @Override
+            public void execute(Connection connection, String[] args) {
+                long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(150);
+                while (System.nanoTime() < until) {
+                    Thread.onSpinWait();
+                }
+                finished.countDown();
+            }
+        };
+        executor.shutdown();
+        executor = new ResilientCommandExecutor(() -> mockConnection, 2, 30, 60000);
+
+        executor.execute(slow, new String[]{"slow"});
+        executor.execute(slow, new String[]{"slow"});
+        assertTrue(finished.await(2, TimeUnit.SECONDS));
+        Thread.sleep(50);
+
+        assertEquals(CircuitBreaker.State.OPEN, executor.getBreaker().getState());
+        assertEquals(2, executor.getTimeouts());
+    }
+
+    @Test
+    @DisplayName("Should run commands that do not need the database while the circuit is open")
+    void testRunsNonDatabaseCommandsWhileOpen() throws Exception {
+        AtomicBoolean sawConnection = new AtomicBoolean();
+        CommandBase status = new CommandBase("status", "Reports application state") {
+            @Override
+            public void execute(Connection connection, String[] args) {
+                sawConnection.set(connection != null);
+                System.out.println("status ok");
+            }
+
+            @Override
+            public boolean requiresDatabase() {
+                return false;
+            }
+        };
+        databaseUp.set(false);
+        CountingCommand command = new CountingCommand();
+        assertThrows(SQLException.class, () -> executor.execute(command, new String[]{"counting"}));
+        executor.execute(command, new String[]{"counting"});
+        assertEquals(CircuitBreaker.State.OPEN, executor.getBreaker().getState());
+        long misses = executor.getFallbackMisses();
+
+        executor.execute(status, new String[]{"status"});
+
+        assertTrue(outputStream.toString().contains("status ok"));
+        assertFalse(sawConnection.get());
+        assertEquals(misses, executor.getFallbackMisses());
+    }
+
+    @Test
+    @DisplayName("Should key commands without declared parameters on their raw arguments")
+    void testCacheKeyOfUndeclaredArguments() {
+        CountingCommand command = new CountingCommand("search-names");
+
+        assertNotEquals(ResilientCommandExecutor.cacheKey(command, new String[]{"search-names", "lon"}),
+                ResilientCommandExecutor.cacheKey(command, new String[]{"search-names", "par"}));
+        assertEquals("search-names lon", ResilientCommandExecutor.cacheKey(command, new String[]{"search-names", "Lon"}));
+    }
+
+    @Test
+    @DisplayName("Should refuse commands that are not shard aware while the data is sharded")
+    void testRefusesShardUnawareCommands() throws Exception {
+        DatabaseConfig.setShardMap(new ShardMap(Map.of("Asia", "asia"),
+                Map.of(ShardMap.DEFAULT_SHARD, () -> mockConnection, "asia", () -> mockConnection)));
+        CountingCommand unaware = new CountingCommand();
+        CountingCommand aware = new CountingCommand("aware") {
+            @Override
+            public boolean isShardAware() {
+                return true;
+            }
+        };
+
+        executor.execute(unaware, new String[]{"counting"});
+        executor.execute(aware, new String[]{"aware"});
+
+        assertEquals(0, unaware.runs.get());
+        assertEquals(1, aware.runs.get());
+        assertTrue(outputStream.toString().contains(ShardMap.unsupportedMessage("counting")));
+    }
+
+    @Test
+    @DisplayName("Should classify refused, failed and stale answers from their output")
+    void testOutcomeOfOutput() {
+        assertEquals(ResilientCommandExecutor.Outcome.REJECTED,
+                ResilientCommandExecutor.Outcome.of("Rate limited: local may run 1.0 listing commands per second"));
+        assertEquals(ResilientCommandExecutor.Outcome.REJECTED,
+                ResilientCommandExecutor.Outcome.of("Too busy: the listing queue is full, retry in 10 ms\n"));
+        assertEquals(ResilientCommandExecutor.Outcome.FAILED,
+                ResilientCommandExecutor.Outcome.of("Command timed out after 50 ms\n[STALE] Database unavailable"));
+        assertEquals(ResilientCommandExecutor.Outcome.STALE,
+                ResilientCommandExecutor.Outcome.of("[STALE] Database unavailable (circuit OPEN)\nrows"));
+        assertEquals(ResilientCommandExecutor.Outcome.STALE,
+                ResilientCommandExecutor.Outcome.of("Database unavailable (circuit OPEN) and no cached result"));
+        assertEquals(ResilientCommandExecutor.Outcome.OK, ResilientCommandExecutor.Outcome.of("\n Cities\n"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.napier.sem.scheduling;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CommandScheduler and CostClass
+ */
+class CommandSchedulerTest {
+
+    private CommandScheduler scheduler;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new CommandScheduler(Map.of(CostClass.FULL_LISTING, 1), Map.of(CostClass.FULL_LISTING, 1));
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        scheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should class commands by name")
+    void testClassify() {
+        assertEquals(CostClass.FULL_LISTING, CostClass.classify("all-cities-region"));
+        assertEquals(CostClass.FULL_LISTING, CostClass.classify("city-pop-batch"));
+        assertEquals(CostClass.TOP_N, CostClass.classify("top-cities"));
+        assertEquals(CostClass.TOP_N, CostClass.classify("rank-countries"));
+        assertEquals(CostClass.AGGREGATE, CostClass.classify("region-pop"));
+        assertEquals(CostClass.AGGREGATE, CostClass.classify("population-world"));
+        assertEquals(CostClass.POINT_LOOKUP, CostClass.classify("rank"));
+        assertEquals(CostClass.POINT_LOOKUP, CostClass.classify("data-version"));
+    }
+
+    @Test
+    @DisplayName("Should run point lookups while the listing lane is full")
+    void testListingCannotStarveLookups() throws Exception {
+        Future<String> export = scheduler.submit(CostClass.FULL_LISTING, () -> {
+            release.await();
+            return "export";
+        });
+        Future<String> queuedExport = scheduler.submit(CostClass.FULL_LISTING, () -> "queued");
+
+        Future<String> lookup = scheduler.submit(CostClass.POINT_LOOKUP, () -> "lookup");
+
+        assertEquals("lookup", lookup.get(1, TimeUnit.SECONDS));
+        assertFalse(export.isDone());
+        assertFalse(queuedExport.isDone());
+        CommandScheduler.LaneStats listing = scheduler.getStats(CostClass.FULL_LISTING);
+        assertEquals(1, listing.quota());
+        assertEquals(1, listing.queued());
+    }
+
+    @Test
+    @DisplayName("Should total the quotas of every lane")
+    void testTotalQuota() {
+        // Point 4, top-N 2, aggregate 2, listing 1
+        assertEquals(9, scheduler.getTotalQuota());
+
+        scheduler.setQuota(CostClass.POINT_LOOKUP, 6);
+
+        assertEquals(11, scheduler.getTotalQuota());
+    }
+
+    @Test
+    @DisplayName("Should reject work when a lane's queue is full")
+    void testRejectWhenFull() {
+        scheduler.submit(CostClass.FULL_LISTING, () -> release.await(5, TimeUnit.SECONDS));
+        scheduler.submit(CostClass.FULL_LISTING, () -> "queued");
+
+        assertThrows(RejectedExecutionException.class, () -> scheduler.submit(CostClass.FULL_LISTING, () -> "third"));
+        assertEquals(1, scheduler.getStats(CostClass.FULL_LISTING).rejected());
+        assertTrue(scheduler.retryHintMillis(CostClass.FULL_LISTING) >= 100);
+    }
+
+    @Test
+    @DisplayName("Should cancel work that has not started and record waits of work that has")
+    void testCancelIfQueuedAndWaitTime() throws Exception {
+        Future<Boolean> running = scheduler.submit(CostClass.FULL_LISTING, () -> release.await(5, TimeUnit.SECONDS));
+        Future<String> queued = scheduler.submit(CostClass.FULL_LISTING, () -> "queued");
+        Thread.sleep(20);
+
+        assertTrue(scheduler.cancelIfQueued(CostClass.FULL_LISTING, queued));
+        assertFalse(scheduler.cancelIfQueued(CostClass.FULL_LISTING, running));
+        assertTrue(queued.isCancelled());
+        assertEquals(0, scheduler.getStats(CostClass.FULL_LISTING).queued());
+
+        release.countDown();
+        assertTrue(running.get(1, TimeUnit.SECONDS));
+        Future<String> next = scheduler.submit(CostClass.FULL_LISTING, () -> "next");
+        assertEquals("next", next.get(1, TimeUnit.SECONDS));
+        assertTrue(scheduler.getStats(CostClass.FULL_LISTING).maxWaitMillis() >= 0);
+    }
+}
@@ -0,0 +1,88 @@
+package com.napier.sem.scheduling;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RateLimiter
+ */
+class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private RateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new RateLimiter(Map.of(CostClass.FULL_LISTING, new RateLimiter.Limit(2, 3)));
+    }
+
+    @Test
+    @DisplayName("Should allow a burst then refuse with the time until the next token")
+    void testBurstThenLimited() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("script", CostClass.FULL_LISTING, 0).allowed());
+        }
+
+        RateLimiter.Decision decision = limiter.tryAcquire("script", CostClass.FULL_LISTING, 0);
+
+        assertFalse(decision.allowed());
+        assertEquals(500, decision.retryAfterMillis());
+        assertTrue(limiter.tryAcquire("script", CostClass.FULL_LISTING, SECOND / 2).allowed());
+    }
+
+    @Test
+    @DisplayName("Should keep separate buckets per client and per class")
+    void testBucketsAreIndependent() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("script", CostClass.FULL_LISTING, 0);
+        }
+
+        assertFalse(limiter.tryAcquire("script", CostClass.FULL_LISTING, 0).allowed());
+        assertTrue(limiter.tryAcquire("dashboard", CostClass.FULL_LISTING, 0).allowed());
+        assertTrue(limiter.tryAcquire("script", CostClass.POINT_LOOKUP, 0).allowed());
+
+        List<RateLimiter.ClientStats> stats = limiter.getClientStats();
+        RateLimiter.ClientStats script = stats.stream()
+                .filter(s -> s.client().equals("script") && s.costClass() == CostClass.FULL_LISTING)
+                .findFirst().orElseThrow();
+        assertEquals(3, script.allowed());
+        assertEquals(1, script.limited());
+    }
+
+    @Test
+    @DisplayName("Should apply a changed limit to existing buckets")
+    void testSetLimitAtRuntime() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("script", CostClass.FULL_LISTING, 0);
+        }
+        assertFalse(limiter.tryAcquire("script", CostClass.FULL_LISTING, SECOND / 10).allowed());
+
+        limiter.setLimit(CostClass.FULL_LISTING, new RateLimiter.Limit(10, 3));
+
+        assertTrue(limiter.tryAcquire("script", CostClass.FULL_LISTING, SECOND / 5).allowed());
+
+        limiter.setLimit(CostClass.FULL_LISTING, new RateLimiter.Limit(0, 1));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("script", CostClass.FULL_LISTING, SECOND / 5).allowed());
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the default for a rate or burst that is not a positive number")
+    void testInvalidSettingsKeepDefault() {
+        RateLimiter.Limit fallback = new RateLimiter.Limit(5, 10);
+
+        assertEquals(fallback, RateLimiter.limitOf("TOPN", "NaN", "0", fallback));
+        assertEquals(fallback, RateLimiter.limitOf("TOPN", "-1", "-3", fallback));
+        assertEquals(fallback, RateLimiter.limitOf("TOPN", "0", "many", fallback));
+        assertEquals(new RateLimiter.Limit(2.5, 4), RateLimiter.limitOf("TOPN", " 2.5 ", "4", fallback));
+        assertEquals(new RateLimiter.Limit(2.5, 10), RateLimiter.limitOf("TOPN", "2.5", null, fallback));
+    }
+}
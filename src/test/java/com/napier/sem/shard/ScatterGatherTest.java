@@ -0,0 +1,100 @@
+package com.napier.sem.shard;
+
+import com.napier.sem.DatabaseConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for ScatterGather
+ */
+class ScatterGatherTest {
+
+    private final Connection defaultConnection = mock(Connection.class);
+    private final Connection asiaConnection = mock(Connection.class);
+    private final ShardMap shards = new ShardMap(Map.of("Asia", "asia"),
+            Map.of(ShardMap.DEFAULT_SHARD, () -> defaultConnection, "asia", () -> asiaConnection));
+
+    @AfterEach
+    void tearDown() {
+        DatabaseConfig.setShardMap(null);
+    }
+
+    @Test
+    @DisplayName("Should merge sorted lists and stop at the limit")
+    void testMergeSorted() {
+        List<List<Integer>> lists = List.of(List.of(9, 5, 1), List.of(8, 7), List.of());
+
+        assertEquals(List.of(9, 8, 7, 5, 1), ScatterGather.mergeSorted(lists, Comparator.reverseOrder(), -1));
+        assertEquals(List.of(9, 8, 7), ScatterGather.mergeSorted(lists, Comparator.reverseOrder(), 3));
+    }
+
+    @Test
+    @DisplayName("Should run on every shard and return results in shard order")
+    void testGather() throws SQLException {
+        List<String> results = ScatterGather.gather(shards,
+                connection -> connection == asiaConnection ? "asia rows" : "default rows");
+
+        assertEquals(List.of("default rows", "asia rows"), results);
+    }
+
+    @Test
+    @DisplayName("Should route a continent to its shard only")
+    void testRoute() throws SQLException {
+        assertSame(asiaConnection, ScatterGather.route(shards, "Asia", connection -> connection));
+        assertSame(defaultConnection, ScatterGather.route(shards, "Europe", connection -> connection));
+    }
+
+    @Test
+    @DisplayName("Should fail the whole query when one shard fails, naming the shard")
+    void testGatherFailure() {
+        SQLException e = assertThrows(SQLException.class, () -> ScatterGather.gather(shards, connection -> {
+            if (connection == asiaConnection) {
+                throw new SQLException("Communications link failure");
+            }
+            return 1;
+        }));
+
+        assertEquals("Shard asia: Communications link failure", e.getMessage());
+        assertTrue(ScatterGather.getStats().stream()
+                .anyMatch(stats -> stats.shard().equals("asia") && stats.failures() > 0));
+    }
+
+    @Test
+    @DisplayName("Should use the given connection when the data is not sharded")
+    void testAcrossShardsUnsharded() throws SQLException {
+        Connection connection = mock(Connection.class);
+
+        assertEquals(List.of(connection), ScatterGather.acrossShards(connection, shard -> shard));
+        assertSame(connection, ScatterGather.onShardOf(connection, "Asia", shard -> shard));
+    }
+
+    @Test
+    @DisplayName("Should run on every shard when the data is sharded")
+    void testAcrossShards() throws SQLException {
+        DatabaseConfig.setShardMap(shards);
+
+        assertEquals(List.of(defaultConnection, asiaConnection),
+                ScatterGather.acrossShards(mock(Connection.class), shard -> shard));
+    }
+
+    @Test
+    @DisplayName("Should route a lookup by continent, or take the first shard that finds it")
+    void testOnShardOf() throws SQLException {
+        DatabaseConfig.setShardMap(shards);
+
+        assertSame(asiaConnection, ScatterGather.onShardOf(null, "Asia", shard -> shard));
+        assertEquals("found", ScatterGather.onShardOf(null, null,
+                shard -> shard == asiaConnection ? "found" : null));
+        assertNull(ScatterGather.onShardOf(null, null, shard -> null));
+    }
+}
@@ -0,0 +1,58 @@
+package com.napier.sem.shard;
+
+import com.napier.sem.IConnectionProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ShardMap
+ */
+class ShardMapTest {
+
+    private static final IConnectionProvider NO_CONNECTION = () -> null;
+
+    @Test
+    @DisplayName("Should parse continent to address pairs in order")
+    void testParse() {
+        Map<String, String> addresses = ShardMap.parse(" Asia=db-asia:3306, Europe = db-europe:3306 ,North America=db:3306");
+
+        assertEquals(List.of("Asia", "Europe", "North America"), List.copyOf(addresses.keySet()));
+        assertEquals("db-europe:3306", addresses.get("Europe"));
+        assertTrue(ShardMap.parse("").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed pairs")
+    void testParseInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> ShardMap.parse("Asia"));
+        assertThrows(IllegalArgumentException.class, () -> ShardMap.parse("Asia=,Europe=db"));
+    }
+
+    @Test
+    @DisplayName("Should route mapped continents to their shard and the rest to the default")
+    void testShardFor() {
+        ShardMap shards = new ShardMap(Map.of("Asia", "asia", "Oceania", "asia"),
+                Map.of(ShardMap.DEFAULT_SHARD, NO_CONNECTION, "asia", NO_CONNECTION));
+
+        assertEquals("asia", shards.shardFor("asia"));
+        assertEquals("asia", shards.shardFor("Oceania"));
+        assertEquals(ShardMap.DEFAULT_SHARD, shards.shardFor("Europe"));
+        assertEquals(List.of(ShardMap.DEFAULT_SHARD, "asia"), shards.shards());
+    }
+
+    @Test
+    @DisplayName("Should require connections for the default shard and every mapped shard")
+    void testMissingProviders() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardMap(Map.of(), Map.of("asia", NO_CONNECTION)));
+        assertThrows(IllegalArgumentException.class, () -> new ShardMap(Map.of("Asia", "asia"),
+                Map.of(ShardMap.DEFAULT_SHARD, NO_CONNECTION)));
+        ShardMap shards = new ShardMap(Map.of(), Map.of(ShardMap.DEFAULT_SHARD, NO_CONNECTION));
+        assertThrows(SQLException.class, () -> shards.getConnection("europe"));
+    }
+}
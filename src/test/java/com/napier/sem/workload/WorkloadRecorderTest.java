@@ -0,0 +1,70 @@
+package com.napier.sem.workload;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for WorkloadRecorder
+ */
+class WorkloadRecorderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should write one compact line per command after a header")
+    void testRecord() throws IOException {
+        Path file = directory.resolve("workload.log");
+        try (WorkloadRecorder recorder = new WorkloadRecorder(file, 1000)) {
+            recorder.record("local", new String[]{"top-countries-continent", "North America", "5"}, 1250, 12, true);
+            recorder.record("local", new String[]{"city-pop", "Tok\tyo"}, 1300, 3, false);
+            assertEquals(2, recorder.getRecorded());
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(List.of("#workload 1 1000",
+                "250\t12\tok\tlocal\ttop-countries-continent\tNorth America\t5",
+                "50\t3\terr\tlocal\tcity-pop\tTok yo"), lines);
+    }
+
+    @Test
+    @DisplayName("Should read every run back, each following on from the previous one")
+    void testReadAppendedRuns() throws IOException {
+        Path file = directory.resolve("workload.log");
+        try (WorkloadRecorder recorder = new WorkloadRecorder(file, 1000)) {
+            recorder.record("local", new String[]{"population-world"}, 1100, 5, true);
+            recorder.record("local", new String[]{"top-cities", "10"}, 1400, 7, true);
+        }
+        try (WorkloadRecorder recorder = new WorkloadRecorder(file, 9_000_000)) {
+            recorder.record("dashboard", new String[]{"population-world"}, 9_000_200, 4, true);
+        }
+
+        List<WorkloadRecorder.Entry> entries = WorkloadRecorder.read(file);
+
+        assertEquals(3, entries.size());
+        assertEquals(100, entries.get(0).offsetMillis());
+        assertEquals(400, entries.get(1).offsetMillis());
+        assertArrayEquals(new String[]{"top-cities", "10"}, entries.get(1).args());
+        assertEquals(600, entries.get(2).offsetMillis());
+        assertEquals("dashboard", entries.get(2).client());
+        assertTrue(entries.get(2).ok());
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed line")
+    void testReadMalformed() throws IOException {
+        Path file = directory.resolve("workload.log");
+        Files.writeString(file, "#workload 1 0\nabc\t1\tok\tlocal\tcity-pop\n");
+
+        IOException e = assertThrows(IOException.class, () -> WorkloadRecorder.read(file));
+        assertTrue(e.getMessage().startsWith("Line 2"));
+    }
+}
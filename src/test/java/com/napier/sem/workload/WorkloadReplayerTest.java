@@ -0,0 +1,147 @@
+package com.napier.sem.workload;
+
+import com.napier.sem.CommandBase;
+import com.napier.sem.ICommand;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for WorkloadReplayer
+ */
+class WorkloadReplayerTest {
+
+    private Map<String, ICommand> commands;
+    private List<String> clients;
+    private AtomicInteger running;
+    private AtomicInteger peak;
+
+    /**
+     * Command that sleeps briefly, recording how many run at once
+     */
+    private class SleepingCommand extends CommandBase {
+        SleepingCommand(String name) {
+            super(name, "Sleeps");
+        }
+
+        @Override
+        public void execute(Connection connection, String[] args) throws SQLException {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        commands = Map.of("population-world", new SleepingCommand("population-world"),
+                "top-cities", new SleepingCommand("top-cities"));
+        clients = Collections.synchronizedList(new ArrayList<>());
+        running = new AtomicInteger();
+        peak = new AtomicInteger();
+    }
+
+    private WorkloadReplayer replayer() {
+        return new WorkloadReplayer(commands::get, (client, command, args) -> {
+            clients.add(client);
+            if (args.length > 1 && args[1].equals("limited")) {
+                System.out.println("Rate limited: " + client + " may run 1.0 top-n commands per second, retry in 5 ms");
+                return;
+            }
+            if (args.length > 1 && args[1].equals("broken")) {
+                throw new SQLException("Communications link failure");
+            }
+            command.execute(null, args);
+        });
+    }
+
+    private static WorkloadRecorder.Entry entry(long offset, String client, String... args) {
+        return new WorkloadRecorder.Entry(offset, 15, true, client, args);
+    }
+
+    @Test
+    @DisplayName("Should replay every known command and report latency per command")
+    void testReplay() throws InterruptedException {
+        List<WorkloadRecorder.Entry> entries = List.of(entry(0, "local", "population-world"),
+                entry(10, "dashboard", "top-cities", "10"), entry(20, "local", "top-cities", "5"),
+                entry(30, "local", "dropped-command"));
+
+        WorkloadReplayer.Result result = replayer().replay(entries, 1, 2);
+
+        assertEquals(1, result.skipped());
+        assertEquals(3, result.overall().count());
+        assertEquals(2, result.commands().size());
+        WorkloadReplayer.Latency topCities = result.commands().get(1);
+        assertEquals("top-cities", topCities.command());
+        assertEquals(2, topCities.count());
+        assertTrue(topCities.p50Millis() >= 20);
+        assertTrue(topCities.p99Millis() >= topCities.p50Millis());
+        assertEquals(15, topCities.capturedP50Millis());
+        assertTrue(clients.contains("dashboard"));
+        assertEquals(30, result.capturedMillis());
+    }
+
+    @Test
+    @DisplayName("Should keep to the original pace, or a multiple of it")
+    void testPacing() throws InterruptedException {
+        List<WorkloadRecorder.Entry> entries = List.of(entry(0, "local", "population-world"),
+                entry(400, "local", "population-world"));
+
+        assertTrue(replayer().replay(entries, 1, 1).wallMillis() >= 400);
+        assertTrue(replayer().replay(entries, 10, 1).wallMillis() < 400);
+    }
+
+    @Test
+    @DisplayName("Should run no more commands at once than the concurrency, counting the wait as latency")
+    void testConcurrency() throws InterruptedException {
+        List<WorkloadRecorder.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            entries.add(entry(0, "local", "population-world"));
+        }
+
+        WorkloadReplayer.Result result = replayer().replay(entries, 0, 2);
+
+        assertEquals(2, peak.get());
+        assertEquals(8, result.overall().count());
+        assertTrue(result.overall().maxMillis() >= 80);
+    }
+
+    @Test
+    @DisplayName("Should count failed and rejected commands")
+    void testFailuresAndRejections() throws InterruptedException {
+        List<WorkloadRecorder.Entry> entries = List.of(entry(0, "local", "top-cities", "broken"),
+                entry(0, "script", "top-cities", "limited"), entry(0, "local", "top-cities", "3"));
+
+        WorkloadReplayer.Result result = replayer().replay(entries, 0, 1);
+
+        assertEquals(1, result.overall().failed());
+        assertEquals(1, result.overall().rejected());
+        assertEquals(3, result.overall().count());
+    }
+
+    @Test
+    @DisplayName("Should take percentiles by nearest rank")
+    void testPercentile() {
+        long[] sorted = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+        assertEquals(5, WorkloadReplayer.percentile(sorted, 50));
+        assertEquals(9, WorkloadReplayer.percentile(sorted, 90));
+        assertEquals(10, WorkloadReplayer.percentile(sorted, 99));
+        assertEquals(0, WorkloadReplayer.percentile(new long[0], 50));
+    }
+}